@@ -0,0 +1,269 @@
+package com.certificationapp.certification_system.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, newline-delimited log split into numbered segment files.
+ * <p>
+ * Appends are handed to a single writer thread, which drains whatever is queued,
+ * writes it and fsyncs once per batch (group commit), so the cost of a sync is
+ * shared by every record that arrived while the previous one was in progress.
+ * Readers only see data up to the last fsynced position, which survives a crash;
+ * a torn record left at the end of the last segment is cut off when reopening.
+ */
+@Slf4j
+public class AuditLog implements Closeable {
+
+    private static final Pattern NOMBRE_SEGMENTO = Pattern.compile("segment-(\\d{10})\\.log");
+    private static final int TAMANO_LECTURA = 64 * 1024;
+
+    private final Path directorio;
+    private final long tamanoSegmento;
+    private final int loteMaximo;
+    private final BlockingQueue<byte[]> cola;
+    private final Thread escritor;
+
+    private FileChannel canal;
+    private long segmento;
+    private volatile Posicion durable;
+    private volatile boolean abierto = true;
+
+    public AuditLog(Path directorio, long tamanoSegmento, int capacidadCola, int loteMaximo) throws IOException {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.loteMaximo = loteMaximo;
+        this.cola = new LinkedBlockingQueue<>(capacidadCola);
+
+        Files.createDirectories(directorio);
+        this.segmento = ultimoSegmento();
+        this.canal = abrirSegmento(segmento);
+        recortarRegistroIncompleto();
+        this.durable = new Posicion(segmento, canal.size());
+
+        this.escritor = new Thread(this::escribir, "audit-log-writer");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Queues one record for writing. Blocks only when the queue is full, so a writer
+     * that cannot keep up slows callers down instead of dropping records.
+     */
+    public void append(String registro) throws InterruptedException {
+        if (registro.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Audit records must be single-line");
+        }
+        if (!abierto) {
+            throw new IllegalStateException("Audit log is closed");
+        }
+        cola.put((registro + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Position up to which every record has been fsynced.
+     */
+    public Posicion posicionDurable() {
+        return durable;
+    }
+
+    /**
+     * Reads up to {@code maxRegistros} complete records from {@code desde}, never past the durable position.
+     */
+    public Lectura leer(Posicion desde, int maxRegistros) throws IOException {
+        Posicion limite = durable;
+        List<String> registros = new ArrayList<>();
+        Posicion actual = desde;
+
+        while (registros.size() < maxRegistros && actual.compareTo(limite) < 0) {
+            Path ruta = rutaSegmento(actual.segmento());
+            long fin = actual.segmento() < limite.segmento()
+                    ? (Files.exists(ruta) ? Files.size(ruta) : 0)
+                    : limite.posicion();
+            if (actual.posicion() >= fin) {
+                // Segmento cerrado y leído por completo: se continúa en el siguiente
+                actual = new Posicion(actual.segmento() + 1, 0);
+                continue;
+            }
+
+            try (FileChannel lector = FileChannel.open(ruta, StandardOpenOption.READ)) {
+                long posicion = actual.posicion();
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAMANO_LECTURA, fin - posicion));
+                lector.read(buffer, posicion);
+                byte[] datos = buffer.array();
+                int inicio = 0;
+                for (int i = 0; i < buffer.position() && registros.size() < maxRegistros; i++) {
+                    if (datos[i] == '\n') {
+                        registros.add(new String(datos, inicio, i - inicio, StandardCharsets.UTF_8));
+                        inicio = i + 1;
+                    }
+                }
+                if (inicio == 0) {
+                    throw new IOException("Audit record longer than " + TAMANO_LECTURA + " bytes at " + actual);
+                }
+                actual = new Posicion(actual.segmento(), posicion + inicio);
+            }
+        }
+        return new Lectura(registros, actual);
+    }
+
+    @Override
+    public void close() throws IOException {
+        abierto = false;
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    private void escribir() {
+        // Sin interrupciones: interrumpir una escritura cerraría el FileChannel
+        List<byte[]> lote = new ArrayList<>(loteMaximo);
+        while (abierto || !cola.isEmpty() || !lote.isEmpty()) {
+            try {
+                if (lote.isEmpty()) {
+                    byte[] primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                    if (primero == null) {
+                        continue;
+                    }
+                    lote.add(primero);
+                    cola.drainTo(lote, loteMaximo - 1);
+                }
+                escribirLote(lote);
+                lote.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException ex) {
+                log.error("Could not write {} audit records, retrying", lote.size(), ex);
+                esperarReintento();
+            }
+        }
+    }
+
+    private void escribirLote(List<byte[]> lote) throws IOException {
+        // Se rota entre lotes, así que un segmento puede superar el tamaño en un lote como máximo
+        if (canal.size() >= tamanoSegmento) {
+            rotar();
+        }
+        long inicio = canal.size();
+        try {
+            for (byte[] registro : lote) {
+                ByteBuffer buffer = ByteBuffer.wrap(registro);
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+            }
+            canal.force(false);
+            durable = new Posicion(segmento, canal.size());
+        } catch (IOException ex) {
+            // Deshace la escritura parcial para que el reintento no deje registros duplicados o cortados
+            canal.truncate(inicio);
+            canal.position(inicio);
+            throw ex;
+        }
+    }
+
+    private void rotar() throws IOException {
+        canal.close();
+        segmento++;
+        canal = abrirSegmento(segmento);
+        durable = new Posicion(segmento, 0);
+    }
+
+    private void esperarReintento() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private FileChannel abrirSegmento(long numero) throws IOException {
+        FileChannel nuevo = FileChannel.open(rutaSegmento(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        nuevo.position(nuevo.size());
+        return nuevo;
+    }
+
+    private void recortarRegistroIncompleto() throws IOException {
+        long tamano = canal.size();
+        long fin = tamano;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (fin > 0) {
+            long inicio = Math.max(0, fin - buffer.capacity());
+            buffer.clear().limit((int) (fin - inicio));
+            canal.read(buffer, inicio);
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    fin = inicio + i + 1;
+                    if (fin < tamano) {
+                        log.warn("Truncating torn audit record at end of segment {}", segmento);
+                        canal.truncate(fin);
+                    }
+                    canal.position(fin);
+                    return;
+                }
+            }
+            fin = inicio;
+        }
+        if (tamano > 0) {
+            log.warn("Truncating torn audit record at end of segment {}", segmento);
+            canal.truncate(0);
+            canal.position(0);
+        }
+    }
+
+    private long ultimoSegmento() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .map(ruta -> NOMBRE_SEGMENTO.matcher(ruta.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .max()
+                    .orElse(1);
+        }
+    }
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(String.format("segment-%010d.log", numero));
+    }
+
+    /**
+     * Byte offset within a numbered segment.
+     */
+    public record Posicion(long segmento, long posicion) implements Comparable<Posicion> {
+
+        public static final Posicion INICIO = new Posicion(1, 0);
+
+        @Override
+        public int compareTo(Posicion otra) {
+            int porSegmento = Long.compare(segmento, otra.segmento);
+            return porSegmento != 0 ? porSegmento : Long.compare(posicion, otra.posicion);
+        }
+    }
+
+    /**
+     * Records read and the position to continue from.
+     */
+    public record Lectura(List<String> registros, Posicion siguiente) {
+    }
+}
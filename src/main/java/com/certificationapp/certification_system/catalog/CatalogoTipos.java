@@ -0,0 +1,175 @@
+package com.certificationapp.certification_system.catalog;
+
+import com.certificationapp.certification_system.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of the {@code tipos_certificacion} catalog.
+ * <p>
+ * Lookups in both directions read an immutable snapshot, so they take no locks and never
+ * touch the database. Names are interned: every loaded certification of a type shares one
+ * String instance. The snapshot is replaced as a whole when a type is registered here,
+ * when a key written by another instance is first seen, and periodically.
+ * New types are inserted on their own auto-commit connection, so a key is only cached
+ * once its row is committed, whatever happens to the transaction that needed it.
+ * With sharding the catalog is read and written on shard 0, which the other shards copy from.
+ */
+@Slf4j
+@Component
+public class CatalogoTipos {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean autoRegistro;
+
+    // Recargas y altas de una en una; sin synchronized para no anclar hilos virtuales durante el JDBC
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    // Se carga en el primer uso: el esquema puede no existir aún al crear el bean
+    private volatile Instantanea instantanea;
+
+    public CatalogoTipos(DataSource dataSource, @Value("${app.types.auto-register:true}") boolean autoRegistro) {
+        this.dataSource = ShardRoutingDataSource.primary(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.autoRegistro = autoRegistro;
+    }
+
+    /**
+     * Canonical, interned name for a type given by a client, registering it when
+     * auto-registration is enabled.
+     *
+     * @throws IllegalArgumentException if the name is blank, or unknown and auto-registration is disabled
+     */
+    public String resolver(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El tipo de certificación es obligatorio");
+        }
+        String limpio = nombre.trim();
+        Integer id = actual().idsPorNombre().get(limpio);
+        if (id == null) {
+            if (!autoRegistro) {
+                throw new IllegalArgumentException("Tipo de certificación desconocido: " + limpio);
+            }
+            id = registrar(limpio);
+        }
+        return nombreDe(id);
+    }
+
+    /**
+     * Key of a type already resolved through {@link #resolver}. Never registers and never
+     * touches the database, as it runs while Hibernate flushes.
+     *
+     * @throws IllegalStateException if the name is not in the catalog
+     */
+    public Integer idDe(String nombre) {
+        Integer id = actual().idsPorNombre().get(nombre);
+        if (id == null) {
+            throw new IllegalStateException("Certification type '" + nombre + "' was not resolved through the catalog");
+        }
+        return id;
+    }
+
+    /**
+     * Key for a type name, registering it whatever {@code app.types.auto-register} says.
+     * Only for names that are already stored, such as those found when migrating legacy rows.
+     */
+    public Integer asegurar(String nombre) {
+        Integer id = actual().idsPorNombre().get(nombre);
+        return id != null ? id : registrar(nombre);
+    }
+
+    public String nombreDe(Integer id) {
+        String nombre = actual().buscar(id);
+        if (nombre == null) {
+            // Clave creada por otra instancia después de nuestra última carga
+            nombre = recargar().buscar(id);
+        }
+        if (nombre == null) {
+            throw new IllegalStateException("Unknown certification type key " + id);
+        }
+        return nombre;
+    }
+
+    public List<String> nombres() {
+        return Arrays.stream(actual().nombresPorId()).filter(Objects::nonNull).sorted().toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.types.refresh-interval:PT5M}")
+    public Instantanea recargar() {
+        cerrojo.lock();
+        try {
+            Map<String, Integer> ids = new HashMap<>();
+            jdbcTemplate.query("SELECT id, nombre FROM tipos_certificacion", fila -> {
+                ids.put(fila.getString("nombre").intern(), fila.getInt("id"));
+            });
+            String[] nombres = new String[ids.values().stream().mapToInt(Integer::intValue).max().orElse(0) + 1];
+            ids.forEach((nombre, id) -> nombres[id] = nombre);
+            instantanea = new Instantanea(Map.copyOf(ids), nombres);
+            return instantanea;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private Integer registrar(String nombre) {
+        cerrojo.lock();
+        try {
+            Integer existente = recargar().idsPorNombre().get(nombre);
+            if (existente != null) {
+                return existente;
+            }
+            try (Connection conexion = dataSource.getConnection()) {
+                conexion.setAutoCommit(true);
+                try (PreparedStatement insercion = conexion.prepareStatement(
+                        "INSERT INTO tipos_certificacion (nombre, fecha_creacion) VALUES (?, ?)")) {
+                    insercion.setString(1, nombre);
+                    insercion.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    insercion.executeUpdate();
+                }
+                log.info("Registered certification type '{}'", nombre);
+            } catch (SQLException ex) {
+                // Lo más probable es que otra instancia lo haya registrado a la vez; la recarga lo dirá
+                log.debug("Could not insert certification type '{}'", nombre, ex);
+            }
+            Integer id = recargar().idsPorNombre().get(nombre);
+            if (id == null) {
+                throw new IllegalStateException("Could not register certification type " + nombre);
+            }
+            return id;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private Instantanea actual() {
+        Instantanea vista = instantanea;
+        return vista != null ? vista : recargar();
+    }
+
+    /**
+     * Immutable catalog snapshot; keys are small and dense, so names are indexed by key in an array.
+     */
+    public record Instantanea(Map<String, Integer> idsPorNombre, String[] nombresPorId) {
+
+        String buscar(Integer id) {
+            return id != null && id >= 0 && id < nombresPorId.length ? nombresPorId[id] : null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.certificationapp.certification_system.catalog;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores a certification type name as its catalog key. Hibernate obtains this converter
+ * from the Spring context, so it resolves keys through the shared in-memory catalog.
+ */
+@Component
+@Converter
+@RequiredArgsConstructor
+public class TipoCertificacionConverter implements AttributeConverter<String, Integer> {
+
+    private final CatalogoTipos catalogoTipos;
+
+    @Override
+    public Integer convertToDatabaseColumn(String nombre) {
+        return nombre != null ? catalogoTipos.idDe(nombre) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id != null ? catalogoTipos.nombreDe(id) : null;
+    }
+}
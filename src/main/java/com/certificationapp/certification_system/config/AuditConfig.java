@@ -0,0 +1,26 @@
+package com.certificationapp.certification_system.config;
+
+import com.certificationapp.certification_system.audit.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration class for the audit trail.
+ * Sets up the append-only log that status changes are written to before being indexed.
+ */
+@Configuration
+public class AuditConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditLog auditLog(@Value("${app.audit.dir:./audit}") String directorio,
+                             @Value("${app.audit.segment-size:64MB}") DataSize tamanoSegmento,
+                             @Value("${app.audit.queue-capacity:10000}") int capacidadCola,
+                             @Value("${app.audit.max-batch:500}") int loteMaximo) throws IOException {
+        return new AuditLog(Path.of(directorio), tamanoSegmento.toBytes(), capacidadCola, loteMaximo);
+    }
+}
@@ -0,0 +1,97 @@
+package com.certificationapp.certification_system.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * In-process second-level cache: one Caffeine cache per region, sized and expired as
+ * {@link RegionesCacheProperties} says, handed to Hibernate through JCache.
+ * <p>
+ * Each application context gets its own cache manager, so contexts sharing a JVM never see
+ * each other's entries. The update timestamps region, which invalidates the query cache,
+ * is always created without limits: evicting from it would serve stale query results.
+ */
+@Configuration
+public class CacheConfig {
+
+    static final String METRICA_ACIERTOS = "app.cache.hit.ratio";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(RegionesCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("certification-system-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        properties.getRegions().forEach((nombre, region) -> {
+            CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+            if (region.getMaxSize() > 0) {
+                configuracion.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            }
+            if (region.getTtl() != null) {
+                configuracion.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            }
+            cacheManager.createCache(nombre, configuracion);
+        });
+        if (cacheManager.getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME) == null) {
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    new CaffeineConfiguration<>());
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Hit ratio of every configured region, from Hibernate's statistics, as
+     * {@code app.cache.hit.ratio{region=...}}.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(EntityManagerFactory entityManagerFactory,
+                                            RegionesCacheProperties properties) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : properties.getRegions().keySet()) {
+                Gauge.builder(METRICA_ACIERTOS, statistics, stats -> tasaAciertos(stats, region))
+                        .tag("region", region)
+                        .description("Second-level cache hit ratio since startup")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double tasaAciertos(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics;
+        try {
+            regionStatistics = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME.equals(region)
+                    ? statistics.getQueryRegionStatistics(region)
+                    : statistics.getDomainDataRegionStatistics(region);
+        } catch (IllegalArgumentException ex) {
+            // Región configurada que ninguna entidad usa
+            return Double.NaN;
+        }
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long accesos = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return accesos == 0 ? 0 : (double) regionStatistics.getHitCount() / accesos;
+    }
+}
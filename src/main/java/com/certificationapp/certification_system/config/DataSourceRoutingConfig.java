@@ -0,0 +1,107 @@
+package com.certificationapp.certification_system.config;
+
+import com.certificationapp.certification_system.datasource.ReadOnlyCacheJpaDialect;
+import com.certificationapp.certification_system.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single data source with one that routes read-only transactions to the
+ * replicas in {@link ReplicasProperties} when {@code app.datasource.routing.enabled=true}.
+ * The primary keeps the regular {@code spring.datasource} settings, Hikari ones included.
+ * Read-only transactions then only read the second-level cache (see {@link ReadOnlyCacheJpaDialect}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       ReplicasProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicasProperties.Replica replica : properties.getReplicas()) {
+            if (!StringUtils.hasText(replica.getName()) || !StringUtils.hasText(replica.getUrl())) {
+                throw new IllegalStateException("Every replica needs a name and a url");
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replica.getName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setReadOnly(true);
+            // No impide arrancar con una réplica caída: queda fuera de rotación hasta que responda
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(replica.getName(), dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties.getLagQuery(), properties.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Read-only transactions may read from a lagging replica, so they must not fill the
+     * second-level cache that every later transaction reads.
+     */
+    @Bean
+    public static BeanPostProcessor readOnlyCacheDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReadOnlyCacheJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReadWriteRoutingDataSource routingDataSource) {
+        return new ReplicaHealthCheck(routingDataSource);
+    }
+
+    /**
+     * Refreshes replica health on {@code app.datasource.routing.health-interval}.
+     */
+    public static class ReplicaHealthCheck {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        ReplicaHealthCheck(ReadWriteRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.routing.health-interval:PT5S}")
+        public void check() {
+            routingDataSource.checkReplicas();
+        }
+    }
+}
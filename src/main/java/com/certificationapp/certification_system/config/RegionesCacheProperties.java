@@ -0,0 +1,33 @@
+package com.certificationapp.certification_system.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Second-level cache regions, by name, e.g.
+ * <pre>
+ * app.cache.regions.usuarios.max-size=10000
+ * app.cache.regions.usuarios.ttl=PT30M
+ * </pre>
+ * Every region an entity, collection or the query cache uses must be listed here.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class RegionesCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        // Entradas como máximo; 0 sin límite
+        private long maxSize;
+        // Tiempo de vida desde que se escribe la entrada; vacío sin caducidad
+        private Duration ttl;
+    }
+}
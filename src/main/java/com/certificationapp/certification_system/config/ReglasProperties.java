@@ -0,0 +1,52 @@
+package com.certificationapp.certification_system.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Document rules per certification type, keyed by {@code Certificacion.tipo}, e.g.
+ * <pre>
+ * app.rules.sets.PROFESIONAL.required-types[application/pdf]=1
+ * app.rules.sets.PROFESIONAL.max-file-size=2MB
+ * </pre>
+ * Types without a rule set are not screened.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rules")
+@Data
+public class ReglasProperties {
+
+    public enum Accion {
+        FLAG, REJECT
+    }
+
+    private boolean enabled = true;
+    private Accion action = Accion.FLAG;
+    private int batchSize = 200;
+    // Antigüedad mínima de una certificación para evaluarla: deja tiempo para subir los documentos
+    private Duration gracePeriod = Duration.ofHours(1);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Map<String, ConjuntoReglas> sets = new HashMap<>();
+
+    @Data
+    public static class ConjuntoReglas {
+        // Tipo MIME -> número mínimo de documentos de ese tipo
+        private Map<String, Integer> requiredTypes = new HashMap<>();
+        // Vacío: se acepta cualquier tipo permitido por app.file.allowed-file-types
+        private Set<String> allowedTypes = new HashSet<>();
+        private int minDocuments;
+        private Integer maxDocuments;
+        private DataSize maxFileSize;
+        private DataSize maxTotalSize;
+        // Sustituye a app.rules.action para este tipo
+        private Accion action;
+    }
+}
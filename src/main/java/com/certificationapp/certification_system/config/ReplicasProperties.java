@@ -0,0 +1,40 @@
+package com.certificationapp.certification_system.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions, e.g.
+ * <pre>
+ * app.datasource.routing.enabled=true
+ * app.datasource.routing.replicas[0].name=replica-1
+ * app.datasource.routing.replicas[0].url=jdbc:postgresql://replica-1:5432/certification
+ * </pre>
+ * Replicas take the primary's credentials unless they set their own.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.datasource.routing")
+@Data
+public class ReplicasProperties {
+
+    private boolean enabled;
+    // Consulta que devuelve el retraso de la réplica en segundos; vacía solo comprueba la conexión
+    private String lagQuery;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration healthInterval = Duration.ofSeconds(5);
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
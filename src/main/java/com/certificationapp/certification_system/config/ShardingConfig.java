@@ -0,0 +1,138 @@
+package com.certificationapp.certification_system.config;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.sharding.ReferenceDataReplicator;
+import com.certificationapp.certification_system.sharding.ShardRoutingDataSource;
+import com.certificationapp.certification_system.sharding.ShardedRepositoryInterceptor;
+import com.certificationapp.certification_system.sharding.ShardedSequenceGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Spreads certifications and documents over the shards in {@link ShardsProperties} when
+ * {@code app.sharding.enabled=true}; cannot be combined with the read replica routing.
+ * <p>
+ * Shard 0 is the regular data source and keeps every other table. The extra shards get their
+ * schema from the Flyway migrations at startup, whatever the profile. Archived certifications
+ * and documents stay in the shard they were archived from. The sharded repositories, hot and
+ * archive, go through {@link ShardedRepositoryInterceptor}; services and jobs that read
+ * certifications with their own SQL must enter each shard themselves, as the archive job does.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Set<Class<?>> SHARDED_REPOSITORIES = Set.of(CertificacionRepository.class, DocumentoRepository.class,
+            CertificacionArchivadaRepository.class, DocumentoArchivadoRepository.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         @Value("${spring.flyway.locations:classpath:db/migration}") String[] migrationLocations,
+                                                         ShardsProperties properties) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(primaryDataSource);
+        for (ShardsProperties.Shard shard : properties.getShards()) {
+            if (!StringUtils.hasText(shard.getName()) || !StringUtils.hasText(shard.getUrl())) {
+                throw new IllegalStateException("Every shard needs a name and a url");
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations(migrationLocations)
+                    .load()
+                    .migrate();
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardCountCustomizer(ShardRoutingDataSource shardRoutingDataSource) {
+        return hibernateProperties -> hibernateProperties.put(ShardedSequenceGenerator.SHARD_COUNT,
+                shardRoutingDataSource.shardCount());
+    }
+
+    @Bean
+    public ReferenceDataReplicator referenceDataReplicator(ShardRoutingDataSource shardRoutingDataSource,
+                                                           CatalogoTipos catalogoTipos) {
+        return new ReferenceDataReplicator(shardRoutingDataSource, catalogoTipos);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardScatterExecutor(ShardRoutingDataSource shardRoutingDataSource, ShardsProperties properties) {
+        int threads = properties.getScatterThreads() > 0 ? properties.getScatterThreads() : shardRoutingDataSource.shardCount() * 2;
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds the shard routing to the sharded repositories, ahead of their transaction handling.
+     */
+    @Bean
+    public static BeanPostProcessor shardedRepositoriesPostProcessor(ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                                                                     ObjectProvider<ReferenceDataReplicator> replicator,
+                                                                     ObjectProvider<ExecutorService> shardScatterExecutor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                        && SHARDED_REPOSITORIES.contains(factoryBean.getObjectType())) {
+                    Class<?> repositoryInterface = factoryBean.getObjectType();
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    new ShardedRepositoryInterceptor(repositoryInterface, shardRoutingDataSource.getObject(),
+                                            replicator.getObject(), shardScatterExecutor.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.certificationapp.certification_system.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extra databases for certifications and documents, e.g.
+ * <pre>
+ * app.sharding.enabled=true
+ * app.sharding.shards[0].name=shard-1
+ * app.sharding.shards[0].url=jdbc:postgresql://shard-1:5432/certification
+ * </pre>
+ * The regular data source is shard 0; the ones listed here are shards 1, 2... in order.
+ * Shards take the primary's credentials unless they set their own.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+@Data
+public class ShardsProperties {
+
+    private boolean enabled;
+    // Hilos para las consultas que recorren todos los shards; 0 = dos por shard
+    private int scatterThreads;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,54 @@
+package com.certificationapp.certification_system.controller;
+
+import com.certificationapp.certification_system.common.ApiResponse;
+import com.certificationapp.certification_system.dto.BusquedaResponseDTO;
+import com.certificationapp.certification_system.service.BusquedaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * REST controller for full-text search over certifications, documents and users.
+ */
+@RestController
+@RequestMapping("/v1/search")
+@Tag(name = "Search", description = "Full-text search APIs")
+@RequiredArgsConstructor
+@Validated
+@PreAuthorize("hasRole('ADMIN')")
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    @GetMapping
+    @Operation(summary = "Search", description = "Searches certification types, document names and user names/emails")
+    public ResponseEntity<ApiResponse<BusquedaResponseDTO>> search(
+            @Parameter(description = "Search text") @RequestParam @NotBlank String q,
+            @Parameter(description = "Match mode: PREFIJO or DIFUSO")
+            @RequestParam(defaultValue = "PREFIJO") BusquedaService.ModoBusqueda mode,
+            @Parameter(description = "Result types to include; all when empty")
+            @RequestParam(required = false) Set<BusquedaService.TipoResultado> types,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") @Min(0) int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+
+        var resultado = busquedaService.buscar(q, mode, types != null ? types : Set.of(), page, size);
+        return ResponseEntity.ok(ApiResponse.success(resultado, "Search completed successfully"));
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild search index", description = "Rebuilds the search index from the database")
+    public ResponseEntity<ApiResponse<Integer>> rebuildIndex() {
+        int entradas = busquedaService.reconstruirIndice();
+        return ResponseEntity.ok(ApiResponse.success(entradas, "Search index rebuilt successfully"));
+    }
+}
@@ -1,21 +1,43 @@
 package com.certificationapp.certification_system.controller;
 
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
 import com.certificationapp.certification_system.common.ApiResponse;
+import com.certificationapp.certification_system.dto.CambioEstadoDTO;
+import com.certificationapp.certification_system.dto.CambiosCertificacionesDTO;
 import com.certificationapp.certification_system.dto.CertificacionCreateDTO;
+import com.certificationapp.certification_system.dto.CertificacionEstadisticasDTO;
 import com.certificationapp.certification_system.dto.CertificacionResponseDTO;
 import com.certificationapp.certification_system.dto.CertificacionUpdateDTO;
+import com.certificationapp.certification_system.dto.ComprobacionReglasDTO;
+import com.certificationapp.certification_system.dto.ResultadoReglasDTO;
+import com.certificationapp.certification_system.event.CertificacionEstadoBroadcaster;
 import com.certificationapp.certification_system.mapper.CertificacionMapper;
 import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.service.AuditoriaService;
+import com.certificationapp.certification_system.service.CertificacionEstadisticasService;
+import com.certificationapp.certification_system.service.CertificacionExportService;
 import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.ReglasService;
+import com.certificationapp.certification_system.service.SincronizacionService;
+import com.certificationapp.certification_system.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,6 +56,17 @@ public class CertificacionController {
 
     private final CertificacionService certificacionService;
     private final CertificacionMapper certificacionMapper;
+    private final CertificacionEstadisticasService estadisticasService;
+    private final CertificacionExportService exportService;
+    private final CertificacionEstadoBroadcaster estadoBroadcaster;
+    private final UsuarioService usuarioService;
+    private final SincronizacionService sincronizacionService;
+    private final AuditoriaService auditoriaService;
+    private final ReglasService reglasService;
+    private final CatalogoTipos catalogoTipos;
+
+    @Value("${app.sse.timeout:PT30M}")
+    private Duration sseTimeout;
 
     /**
      * Creates a new certification.
@@ -58,6 +91,34 @@ public class CertificacionController {
                 ));
     }
 
+    /**
+     * Lists the certification types in the catalog.
+     *
+     * @return the type names, sorted
+     */
+    @GetMapping("/types")
+    @Operation(summary = "List certification types", description = "Lists the names in the certification type catalog")
+    public ResponseEntity<ApiResponse<List<String>>> getCertificationTypes() {
+        return ResponseEntity.ok(ApiResponse.success(catalogoTipos.nombres(), "Certification types retrieved successfully"));
+    }
+
+    /**
+     * Checks a certification type and its documents against the document rules,
+     * so problems can be fixed before submitting.
+     *
+     * @param comprobacionDTO the certification type and the documents to attach
+     * @return whether the rules are met and, if not, which ones fail
+     */
+    @PostMapping("/rules/check")
+    @Operation(summary = "Check document rules",
+            description = "Checks the documents planned for a certification type against its rules")
+    public ResponseEntity<ApiResponse<ResultadoReglasDTO>> checkCertificationRules(
+            @Valid @RequestBody ComprobacionReglasDTO comprobacionDTO) {
+
+        var resultado = reglasService.comprobar(comprobacionDTO);
+        return ResponseEntity.ok(ApiResponse.success(resultado, "Certification rules checked successfully"));
+    }
+
     /**
      * Retrieves a certification by ID.
      *
@@ -75,6 +136,106 @@ public class CertificacionController {
         return ResponseEntity.ok(ApiResponse.success(responseDTO, "Certification retrieved successfully"));
     }
 
+    /**
+     * Retrieves the status history of a certification from the audit trail.
+     * Also available for deleted certifications.
+     *
+     * @param id the certification ID
+     * @return the status transitions, oldest first
+     */
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get certification history",
+            description = "Retrieves who changed the certification status, from what, to what and when")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<CambioEstadoDTO>>> getCertificationHistory(
+            @Parameter(description = "Certification ID") @PathVariable Long id) {
+
+        var historial = auditoriaService.obtenerHistorial(id);
+        return ResponseEntity.ok(ApiResponse.success(historial, "Certification history retrieved successfully"));
+    }
+
+    /**
+     * Retrieves certification statistics from the in-memory counters.
+     *
+     * @return counts per status, per type and daily intake
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get certification statistics",
+            description = "Retrieves counts per status, per type and daily intake")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CertificacionEstadisticasDTO>> getCertificationStats() {
+        var estadisticas = estadisticasService.obtenerEstadisticas();
+        return ResponseEntity.ok(ApiResponse.success(estadisticas, "Certification statistics retrieved successfully"));
+    }
+
+    /**
+     * Exports all certifications with their owners and document metadata.
+     * The body is streamed row by row, so the export size does not affect heap usage.
+     *
+     * @param format the export format, CSV or NDJSON
+     * @return the streamed export
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export certifications",
+            description = "Streams all certifications with owners and document metadata as CSV or NDJSON")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCertifications(
+            @Parameter(description = "Export format: CSV or NDJSON")
+            @RequestParam(defaultValue = "CSV") CertificacionExportService.FormatoExportacion format) {
+
+        StreamingResponseBody body = outputStream -> exportService.exportar(format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"certificaciones." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of certification status changes.
+     * Regular users receive changes to their own certifications; admins receive all of them.
+     *
+     * @param authentication the authenticated caller
+     * @return the event stream
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream status changes",
+            description = "Streams certification status changes as Server-Sent Events")
+    public SseEmitter streamStatusChanges(Authentication authentication) {
+        Usuario usuario = usuarioService.obtenerUsuarioPorUsername(authentication.getName());
+
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        estadoBroadcaster.suscribir(emitter, usuario.getRole() == Usuario.Role.ADMIN ? null : usuario.getId());
+        return emitter;
+    }
+
+    /**
+     * Returns the certifications created, updated or deleted since a sync cursor.
+     * Regular users sync their own certifications; admins sync all of them or those of one user.
+     *
+     * @param since the cursor returned by the previous sync, absent for a full sync
+     * @param userId for admins, restricts the sync to one user
+     * @param limit the maximum number of changes to return
+     * @param authentication the authenticated caller
+     * @return the changes and the cursor for the next sync
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get certification changes",
+            description = "Retrieves certifications created, updated or deleted since a sync cursor")
+    public ResponseEntity<ApiResponse<CambiosCertificacionesDTO>> getCertificationChanges(
+            @Parameter(description = "Cursor returned by the previous sync") @RequestParam(required = false) String since,
+            @Parameter(description = "User ID (admins only)") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Maximum number of changes") @RequestParam(defaultValue = "500") int limit,
+            Authentication authentication) {
+
+        Usuario usuario = usuarioService.obtenerUsuarioPorUsername(authentication.getName());
+        Long usuarioId = usuario.getRole() == Usuario.Role.ADMIN ? userId : usuario.getId();
+
+        var cambios = sincronizacionService.obtenerCambios(usuarioId, since, limit);
+        return ResponseEntity.ok(ApiResponse.success(cambios, "Certification changes retrieved successfully"));
+    }
+
     /**
      * Lists certifications by user.
      *
@@ -8,6 +8,7 @@ import com.certificationapp.certification_system.model.Documento;
 import com.certificationapp.certification_system.service.CertificacionService;
 import com.certificationapp.certification_system.service.DocumentoService;
 import com.certificationapp.certification_system.service.FileStorageService;
+import com.certificationapp.certification_system.service.FileTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +16,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +32,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -46,6 +50,7 @@ public class DocumentoController {
     private final DocumentoService documentoService;
     private final CertificacionService certificacionService;
     private final FileStorageService fileStorageService;
+    private final FileTransferService fileTransferService;
     private final DocumentoMapper documentoMapper;
 
     @Operation(summary = "Upload document", description = "Uploads a new document for a certification")
@@ -76,6 +81,7 @@ public class DocumentoController {
         documento.setNombre(Objects.requireNonNull(file.getOriginalFilename()));
         documento.setTipo(Objects.requireNonNull(file.getContentType()));
         documento.setUrl(fileName);
+        documento.setTamano(file.getSize());
 
         // Guardar el documento
         var savedDocumento = documentoService.guardarDocumento(documento);
@@ -91,6 +97,52 @@ public class DocumentoController {
                 ));
     }
 
+    @Operation(summary = "Upload document asynchronously",
+            description = "Uploads a new document sent as the raw request body, with the file type as Content-Type. "
+                    + "The body is read with non-blocking I/O, so slow clients do not hold a request thread")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Document uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Certification not found")
+    })
+    @PostMapping("/upload/async")
+    @PreAuthorize("@documentoSecurity.canUploadDocument(#certificacionId, authentication)")
+    public void uploadDocumentAsync(
+            @Parameter(description = "Certification ID")
+            @RequestParam @NotNull Long certificacionId,
+            @Parameter(description = "Original file name")
+            @RequestParam String fileName,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        log.debug("Uploading document asynchronously for certification ID: {}", certificacionId);
+
+        // La certificación se comprueba antes de leer el cuerpo
+        Certificacion certificacion = certificacionService.obtenerCertificacionPorId(certificacionId);
+        if (request.getContentType() == null) {
+            throw new IllegalArgumentException("Content-Type is required");
+        }
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        String tipo = contentType.getType() + "/" + contentType.getSubtype();
+
+        fileTransferService.receive(request, response, fileName, tipo, archivo -> {
+            Documento documento = new Documento();
+            documento.setCertificacion(certificacion);
+            documento.setNombre(fileName);
+            documento.setTipo(tipo);
+            documento.setUrl(archivo.nombre());
+            documento.setTamano(archivo.tamano());
+
+            var savedDocumento = documentoService.guardarDocumento(documento);
+            log.info("Document uploaded successfully for certification ID: {}", certificacionId);
+
+            return com.certificationapp.certification_system.common.ApiResponse.success(
+                    documentoMapper.toDto(savedDocumento),
+                    "Document uploaded successfully"
+            );
+        });
+    }
+
     @Operation(summary = "Download document", description = "Downloads a document by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Document downloaded successfully"),
@@ -102,7 +154,7 @@ public class DocumentoController {
         Documento documento = documentoService.obtenerDocumentoPorId(id);
 
         try {
-            Path filePath = fileStorageService.getFileStorageLocation().resolve(documento.getUrl());
+            Path filePath = fileStorageService.resolveStoredFile(documento.getUrl());
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists()) {
@@ -119,6 +171,23 @@ public class DocumentoController {
         }
     }
 
+    @Operation(summary = "Download document asynchronously",
+            description = "Downloads a document by ID, streaming it with non-blocking I/O so slow clients do not hold a request thread")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Document downloaded successfully"),
+            @ApiResponse(responseCode = "404", description = "Document not found")
+    })
+    @GetMapping("/download/{id}/async")
+    @PreAuthorize("@documentoSecurity.canAccessDocument(#id, authentication)")
+    public void downloadDocumentAsync(@PathVariable Long id, HttpServletRequest request,
+                                      HttpServletResponse response) throws IOException {
+        Documento documento = documentoService.obtenerDocumentoPorId(id);
+
+        response.setContentType(MediaType.parseMediaType(documento.getTipo()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + documento.getNombre() + "\"");
+        fileTransferService.send(request, response, documento.getUrl());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get document", description = "Retrieves document details by ID")
     @PreAuthorize("@documentoSecurity.canAccessDocument(#id, authentication)")
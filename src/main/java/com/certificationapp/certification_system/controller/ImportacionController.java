@@ -0,0 +1,71 @@
+package com.certificationapp.certification_system.controller;
+
+import com.certificationapp.certification_system.common.ApiResponse;
+import com.certificationapp.certification_system.dto.ResultadoImportacionDTO;
+import com.certificationapp.certification_system.service.ImportacionService;
+import com.certificationapp.certification_system.service.ImportacionService.EntidadImportacion;
+import com.certificationapp.certification_system.service.ImportacionService.FormatoImportacion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk imports of legacy data.
+ * Each endpoint accepts a CSV (with header row) or NDJSON file and reports errors per row.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/v1/import")
+@Tag(name = "Bulk Import", description = "APIs for bulk importing users, certifications and documents")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportacionController {
+
+    private final ImportacionService importacionService;
+
+    @PostMapping(value = "/users", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import users", description = "Bulk imports users from a CSV or NDJSON file")
+    public ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importUsers(
+            @Parameter(description = "File format: CSV or NDJSON") @RequestParam(defaultValue = "CSV") FormatoImportacion format,
+            @Parameter(description = "File to import") @RequestParam("file") MultipartFile file) throws IOException {
+        return importar(EntidadImportacion.USUARIOS, format, file);
+    }
+
+    @PostMapping(value = "/certifications", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import certifications", description = "Bulk imports certifications from a CSV or NDJSON file")
+    public ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importCertifications(
+            @Parameter(description = "File format: CSV or NDJSON") @RequestParam(defaultValue = "CSV") FormatoImportacion format,
+            @Parameter(description = "File to import") @RequestParam("file") MultipartFile file) throws IOException {
+        return importar(EntidadImportacion.CERTIFICACIONES, format, file);
+    }
+
+    @PostMapping(value = "/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import document metadata", description = "Bulk imports document metadata from a CSV or NDJSON file")
+    public ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importDocuments(
+            @Parameter(description = "File format: CSV or NDJSON") @RequestParam(defaultValue = "CSV") FormatoImportacion format,
+            @Parameter(description = "File to import") @RequestParam("file") MultipartFile file) throws IOException {
+        return importar(EntidadImportacion.DOCUMENTOS, format, file);
+    }
+
+    private ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importar(
+            EntidadImportacion entidad, FormatoImportacion format, MultipartFile file) throws IOException {
+        log.debug("Importing {} from file {}", entidad, file.getOriginalFilename());
+
+        ResultadoImportacionDTO resultado;
+        try (InputStream entrada = file.getInputStream()) {
+            resultado = importacionService.importar(entidad, format, entrada);
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(resultado, "Import finished"));
+    }
+}
@@ -1,10 +1,20 @@
 package com.certificationapp.certification_system.controller;
 
 import com.certificationapp.certification_system.common.ApiResponse;
+import com.certificationapp.certification_system.dto.DisponibilidadDTO;
+import com.certificationapp.certification_system.dto.PaginaUsuariosDTO;
+import com.certificationapp.certification_system.dto.PurgaUsuarioDTO;
+import com.certificationapp.certification_system.dto.ResultadoProvisionDTO;
+import com.certificationapp.certification_system.dto.ResumenUsuarioDTO;
 import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
 import com.certificationapp.certification_system.dto.UsuarioResponseDTO;
 import com.certificationapp.certification_system.dto.UsuarioUpdateDTO;
 import com.certificationapp.certification_system.mapper.UsuarioMapper;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.service.DisponibilidadService;
+import com.certificationapp.certification_system.service.ImportacionService;
+import com.certificationapp.certification_system.service.PurgaUsuarioService;
+import com.certificationapp.certification_system.service.ResumenUsuarioService;
 import com.certificationapp.certification_system.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,12 +22,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for managing users.
@@ -32,6 +45,14 @@ public class UsuarioController {
     private UsuarioService usuarioService;
     @Autowired
     private UsuarioMapper usuarioMapper;
+    @Autowired
+    private ResumenUsuarioService resumenUsuarioService;
+    @Autowired
+    private PurgaUsuarioService purgaUsuarioService;
+    @Autowired
+    private ImportacionService importacionService;
+    @Autowired
+    private DisponibilidadService disponibilidadService;
 
     @PostMapping
     @Operation(summary = "Create a new user", description = "Creates a new user with the provided data")
@@ -46,6 +67,40 @@ public class UsuarioController {
                 .body(ApiResponse.success(responseDTO, "User created successfully"));
     }
 
+    /**
+     * Creates many users in one request, for onboarding whole institutions.
+     *
+     * @param usuarios the users to create
+     * @return one result per submitted user, in request order
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Create users in bulk",
+            description = "Creates up to app.provisioning.max-users users and reports the result of each one")
+    public ResponseEntity<ApiResponse<ResultadoProvisionDTO>> createUsersInBulk(
+            @RequestBody List<UsuarioCreateDTO> usuarios) {
+
+        var resultado = importacionService.provisionarUsuarios(usuarios);
+
+        return ResponseEntity.ok(ApiResponse.success(resultado, "Bulk provisioning finished"));
+    }
+
+    /**
+     * Checks whether a username and/or email can still be used to sign up.
+     *
+     * @return availability of each value given
+     */
+    @GetMapping("/availability")
+    @Operation(summary = "Check availability", description = "Checks whether a username or email is still free, for the signup form")
+    public ResponseEntity<ApiResponse<DisponibilidadDTO>> checkAvailability(
+            @Parameter(description = "Username to check") @RequestParam(required = false) String username,
+            @Parameter(description = "Email to check") @RequestParam(required = false) String email) {
+
+        var disponibilidad = disponibilidadService.comprobar(username, email);
+
+        return ResponseEntity.ok(ApiResponse.success(disponibilidad, "Availability checked"));
+    }
+
     /**
      * Retrieves a user by ID.
      *
@@ -64,19 +119,45 @@ public class UsuarioController {
     }
 
     /**
-     * Lists all users.
+     * Retrieves the certification summary of a user.
      *
-     * @return list of all users
+     * @param id the user ID
+     * @return counts by status, the latest certification and total document size
+     */
+    @GetMapping("/{id}/summary")
+    @Operation(summary = "Get user summary",
+            description = "Retrieves counts by status, the latest certification and total document bytes for a user")
+    public ResponseEntity<ApiResponse<ResumenUsuarioDTO>> getUserSummary(
+            @Parameter(description = "User ID") @PathVariable Long id) {
+
+        var resumen = resumenUsuarioService.obtenerResumen(id);
+
+        return ResponseEntity.ok(ApiResponse.success(resumen, "User summary retrieved successfully"));
+    }
+
+    /**
+     * Lists users in creation order, one page at a time.
+     *
+     * @return the page of users and the cursor for the next one
      */
     @GetMapping
-    @Operation(summary = "List all users", description = "Retrieves a list of all users")
-    public ResponseEntity<ApiResponse<List<UsuarioResponseDTO>>> getAllUsers() {
-        var usuarios = usuarioService.obtenerTodosLosUsuarios();
-        var responseDTOs = usuarios.stream()
-                .map(usuarioMapper::toDto)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success(responseDTOs, "Users retrieved successfully"));
+    @Operation(summary = "List users",
+            description = "Retrieves users ordered by creation date, with filters, prefix search and field selection")
+    public ResponseEntity<ApiResponse<PaginaUsuariosDTO>> getAllUsers(
+            @Parameter(description = "Role filter") @RequestParam(required = false) Usuario.Role role,
+            @Parameter(description = "Created at or after")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Username or email prefix") @RequestParam(required = false) String q,
+            @Parameter(description = "Fields to return: id, username, email, role, createdAt")
+            @RequestParam(required = false) List<String> fields,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int limit) {
+
+        var pagina = usuarioService.listarUsuarios(role, createdFrom, createdTo, q, fields, cursor, limit);
+
+        return ResponseEntity.ok(ApiResponse.success(pagina, "Users retrieved successfully"));
     }
 
     /**
@@ -101,17 +182,36 @@ public class UsuarioController {
     }
 
     /**
-     * Deletes a user.
+     * Schedules the deletion of a user with all its certifications, documents and files.
      *
      * @param id the user ID
-     * @return confirmation response
+     * @return the deletion job, whose progress is available at /v1/users/{id}/purge
      */
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete user", description = "Deletes the user with the specified ID")
-    public ResponseEntity<ApiResponse<Void>> deleteUser(
+    @Operation(summary = "Delete user",
+            description = "Schedules the deletion of the user with the specified ID and everything it owns")
+    public ResponseEntity<ApiResponse<PurgaUsuarioDTO>> deleteUser(
+            @Parameter(description = "User ID") @PathVariable Long id) {
+
+        var purga = purgaUsuarioService.solicitarPurga(id);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/purge").build().toUri())
+                .body(ApiResponse.success(purga, "User deletion scheduled"));
+    }
+
+    /**
+     * Retrieves the progress of a user deletion.
+     *
+     * @param id the user ID
+     * @return the deletion job
+     */
+    @GetMapping("/{id}/purge")
+    @Operation(summary = "Get user deletion progress", description = "Retrieves the state of the deletion job of a user")
+    public ResponseEntity<ApiResponse<PurgaUsuarioDTO>> getUserPurge(
             @Parameter(description = "User ID") @PathVariable Long id) {
 
-        usuarioService.eliminarUsuario(id);
-        return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
+        var purga = purgaUsuarioService.obtenerPurga(id);
+        return ResponseEntity.ok(ApiResponse.success(purga, "User deletion progress retrieved successfully"));
     }
 }
\ No newline at end of file
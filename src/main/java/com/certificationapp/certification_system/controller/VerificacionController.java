@@ -0,0 +1,60 @@
+package com.certificationapp.certification_system.controller;
+
+import com.certificationapp.certification_system.common.ApiResponse;
+import com.certificationapp.certification_system.dto.VerificacionCertificadoDTO;
+import com.certificationapp.certification_system.service.CertificadoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * Public REST controller for verifying issued certificates.
+ * Bypasses the security filter chain and is answered from memory.
+ */
+@RestController
+@RequestMapping("/verify")
+@Tag(name = "Certificate Verification", description = "Public API for verifying issued certificates")
+@RequiredArgsConstructor
+public class VerificacionController {
+
+    private final CertificadoService certificadoService;
+
+    @Value("${app.certificates.cache-max-age:PT5M}")
+    private Duration cacheMaxAge;
+
+    /**
+     * Verifies a certificate by its verification code.
+     *
+     * @param code the verification code printed on the certificate
+     * @param request the current request, used for conditional GETs
+     * @return the certificate, its signed content and signature
+     */
+    @GetMapping("/{code}")
+    @Operation(summary = "Verify certificate", description = "Retrieves a certificate and its signature by verification code")
+    public ResponseEntity<ApiResponse<VerificacionCertificadoDTO>> verifyCertificate(
+            @Parameter(description = "Verification code") @PathVariable String code,
+            WebRequest request) {
+
+        var verificacion = certificadoService.verificar(code);
+        String etag = "\"" + verificacion.getCodigo() + (verificacion.isValido() ? "-v" : "-r") + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(cacheMaxAge).cachePublic())
+                .eTag(etag)
+                .body(ApiResponse.success(verificacion, "Certificate verified successfully"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.certificationapp.certification_system.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps read-only transactions from filling the second-level cache.
+ * <p>
+ * With replica routing they read from a replica that may lag behind the primary, and an entity
+ * or query result cached from it would be served to every later transaction, writes included,
+ * until evicted or expired. Read-only transactions still read cached entries; only transactions
+ * on the primary put them.
+ */
+public class ReadOnlyCacheJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        // Propiedad del EntityManager y no modo de la sesión: find() con hints la vuelve a aplicar
+        Object anterior = entityManager.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE);
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new SoloLectura(transactionData, entityManager, anterior != null ? anterior : CacheStoreMode.USE);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof SoloLectura soloLectura) {
+            // Con open-in-view el EntityManager sigue abierto para las transacciones siguientes
+            if (soloLectura.entityManager().isOpen()) {
+                soloLectura.entityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE,
+                        soloLectura.storeModeAnterior());
+            }
+            super.cleanupTransaction(soloLectura.transactionData());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private record SoloLectura(Object transactionData, EntityManager entityManager, Object storeModeAnterior) {
+    }
+}
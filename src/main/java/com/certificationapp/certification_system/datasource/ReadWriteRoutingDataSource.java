@@ -0,0 +1,141 @@
+package com.certificationapp.certification_system.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the healthy replicas, in turn, and everything else to the primary.
+ * <p>
+ * A replica is healthy while it answers and, when a lag query is configured, lags behind the
+ * primary by no more than the allowed maximum; {@link #checkReplicas()} refreshes that state.
+ * With no healthy replica, reads go to the primary. The decision is taken when a connection
+ * is requested, so this data source must sit behind a lazy connection proxy: transaction
+ * managers fetch the connection before they mark the transaction read-only.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      String lagQuery, Duration maxLag) {
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+        this.maxLag = maxLag;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Probes every replica and updates which ones take reads.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            String reason = null;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (lagQuery == null) {
+                    healthy = connection.isValid(5);
+                } else {
+                    double lagSeconds = queryLag(connection);
+                    healthy = lagSeconds <= maxLag.toMillis() / 1000.0;
+                    reason = "lag " + lagSeconds + "s";
+                }
+            } catch (SQLException ex) {
+                healthy = false;
+                reason = ex.getMessage();
+            }
+
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Replica {} is healthy and takes read-only transactions", replica.name);
+                } else {
+                    log.warn("Replica {} taken out of rotation: {}", replica.name, reason);
+                }
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Current health of each replica, by name.
+     */
+    public Map<String, Boolean> replicaHealth() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.name, replica.healthy));
+        return health;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            // Sin filas o con nulo la réplica no está replicando: se da por atrasada
+            if (!result.next()) {
+                return Double.MAX_VALUE;
+            }
+            double lag = result.getDouble(1);
+            return result.wasNull() ? Double.MAX_VALUE : lag;
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Fuera de rotación hasta la primera comprobación
+        private volatile boolean healthy;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
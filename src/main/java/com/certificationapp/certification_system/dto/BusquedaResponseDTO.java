@@ -0,0 +1,27 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for search responses.
+ * Contains one page of results ordered by relevance and the total number of matches.
+ */
+@Data
+public class BusquedaResponseDTO {
+    private List<ResultadoDTO> resultados;
+    private long total;
+    private int page;
+    private int size;
+
+    @Data
+    public static class ResultadoDTO {
+        private String tipo;
+        private Long id;
+        private String titulo;
+        private String detalle;
+        private Long referenciaId;
+        private int puntuacion;
+    }
+}
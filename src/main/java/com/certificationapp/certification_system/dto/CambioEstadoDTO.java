@@ -0,0 +1,16 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of a certification's status history.
+ */
+@Data
+public class CambioEstadoDTO {
+    private String actor;
+    private String estadoAnterior;
+    private String estadoNuevo;
+    private LocalDateTime fecha;
+}
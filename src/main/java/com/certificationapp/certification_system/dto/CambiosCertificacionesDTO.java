@@ -0,0 +1,25 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for delta-sync responses.
+ * Contains the certifications created or updated and the certifications deleted after the
+ * client's cursor, plus the cursor to send on the next request.
+ */
+@Data
+public class CambiosCertificacionesDTO {
+    private List<CertificacionResponseDTO> modificadas;
+    private List<EliminadaDTO> eliminadas;
+    private String cursor;
+    private boolean hayMas;
+
+    @Data
+    public static class EliminadaDTO {
+        private Long certificacionId;
+        private LocalDateTime fechaEliminacion;
+    }
+}
@@ -1,9 +1,12 @@
 package com.certificationapp.certification_system.dto;
 
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 /**
  * DTO for certification creation requests.
  * Contains the essential data needed to create a new certification.
@@ -16,4 +19,8 @@ public class CertificacionCreateDTO {
 
     @NotBlank(message = "Certification type is required")
     private String tipo;
+
+    // Opcional: si falta, la validez se fija al aprobarse (app.expiry.default-validity)
+    @Future(message = "Expiry date must be in the future")
+    private LocalDateTime fechaVencimiento;
 }
\ No newline at end of file
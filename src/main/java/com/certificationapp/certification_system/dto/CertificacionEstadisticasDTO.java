@@ -0,0 +1,20 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for certification statistics.
+ * Counts per status, per type and daily intake, served from in-memory counters.
+ */
+@Data
+public class CertificacionEstadisticasDTO {
+    private long total;
+    private Map<String, Long> porEstado;
+    private Map<String, Long> porTipo;
+    private Map<LocalDate, Long> ingresosDiarios;
+    private LocalDateTime ultimaReconciliacion;
+}
@@ -0,0 +1,19 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for certification status change and renewal reminder notifications sent over Server-Sent Events.
+ */
+@Data
+public class CertificacionEstadoEventoDTO {
+    private Long certificacionId;
+    private Long usuarioId;
+    private String tipo;
+    private String estadoAnterior;
+    private String estadoNuevo;
+    private LocalDateTime fechaVencimiento;
+    private LocalDateTime fecha;
+}
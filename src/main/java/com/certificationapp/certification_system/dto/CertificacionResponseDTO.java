@@ -15,5 +15,9 @@ public class CertificacionResponseDTO {
     private String tipo;
     private String status;
     private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaActualizacion;
+    private LocalDateTime fechaVencimiento;
+    private boolean archivada;
+    private String incumplimientosReglas;
     private List<DocumentoResponseDTO> documentos;
 }
\ No newline at end of file
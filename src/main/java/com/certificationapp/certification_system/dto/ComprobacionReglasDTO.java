@@ -0,0 +1,33 @@
+package com.certificationapp.certification_system.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for checking a certification type and its documents against the rules before submitting it.
+ */
+@Data
+public class ComprobacionReglasDTO {
+
+    @NotBlank(message = "Certification type is required")
+    private String tipo;
+
+    @NotNull(message = "Documents are required")
+    private List<@Valid DocumentoPropuestoDTO> documentos = new ArrayList<>();
+
+    @Data
+    public static class DocumentoPropuestoDTO {
+
+        @NotBlank(message = "Document type is required")
+        private String tipo;
+
+        @PositiveOrZero(message = "Document size cannot be negative")
+        private Long tamano;
+    }
+}
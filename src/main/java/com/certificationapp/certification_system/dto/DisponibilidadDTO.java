@@ -0,0 +1,15 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+/**
+ * DTO for the signup availability check.
+ * Only the values that were asked for are filled in.
+ */
+@Data
+public class DisponibilidadDTO {
+    private String username;
+    private Boolean usernameDisponible;
+    private String email;
+    private Boolean emailDisponible;
+}
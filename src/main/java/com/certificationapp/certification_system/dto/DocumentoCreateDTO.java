@@ -2,6 +2,7 @@ package com.certificationapp.certification_system.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 /**
@@ -22,4 +23,7 @@ public class DocumentoCreateDTO {
 
     @NotBlank(message = "Document URL is required")
     private String url;
+
+    @PositiveOrZero(message = "Document size cannot be negative")
+    private Long tamano;
 }
\ No newline at end of file
@@ -14,5 +14,6 @@ public class DocumentoResponseDTO {
     private String nombre;
     private String tipo;
     private String url;
+    private Long tamano;
     private LocalDateTime fechaSubida;
 }
\ No newline at end of file
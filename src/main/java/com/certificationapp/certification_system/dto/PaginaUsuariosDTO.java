@@ -0,0 +1,17 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for one page of the user listing.
+ * Each user only carries the fields requested, and the cursor fetches the next page.
+ */
+@Data
+public class PaginaUsuariosDTO {
+    private List<Map<String, Object>> usuarios;
+    private String cursor;
+    private boolean hayMas;
+}
@@ -0,0 +1,21 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the progress of a user deletion job.
+ */
+@Data
+public class PurgaUsuarioDTO {
+    private Long usuarioId;
+    private String estado;
+    private long certificacionesEliminadas;
+    private long documentosEliminados;
+    private long archivosEliminados;
+    private long archivosFallidos;
+    private LocalDateTime fechaSolicitud;
+    private LocalDateTime fechaFinalizacion;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for bulk import results.
+ * Reports row counts and the errors of the rows that could not be imported.
+ */
+@Data
+public class ResultadoImportacionDTO {
+    private long filasProcesadas;
+    private long filasImportadas;
+    private long filasFallidas;
+    private List<ErrorFilaDTO> errores = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFilaDTO {
+        private long fila;
+        private String mensaje;
+    }
+}
@@ -0,0 +1,25 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for bulk user provisioning results.
+ * Holds one entry per submitted user, in request order, with the new id or the reason it failed.
+ */
+@Data
+public class ResultadoProvisionDTO {
+    private long usuariosCreados;
+    private long usuariosFallidos;
+    private List<FilaProvisionDTO> filas = new ArrayList<>();
+
+    @Data
+    public static class FilaProvisionDTO {
+        private int fila;
+        private String username;
+        private Long id;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a rules check: whether the certification complies and, if not, why.
+ */
+@Data
+public class ResultadoReglasDTO {
+    private String tipo;
+    private boolean cumple;
+    private List<IncumplimientoDTO> incumplimientos;
+
+    @Data
+    public static class IncumplimientoDTO {
+        private String regla;
+        private String detalle;
+    }
+}
@@ -0,0 +1,29 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for the per-user summary shown on the profile page.
+ * Counts per status (archived certifications included), the latest certification
+ * and the total size of the user's documents.
+ */
+@Data
+public class ResumenUsuarioDTO {
+    private Long usuarioId;
+    private long total;
+    private Map<String, Long> porEstado;
+    private UltimaCertificacionDTO ultimaCertificacion;
+    private long bytesDocumentos;
+    private LocalDateTime fechaActualizacion;
+
+    @Data
+    public static class UltimaCertificacionDTO {
+        private Long id;
+        private String tipo;
+        private String status;
+        private LocalDateTime fechaCreacion;
+    }
+}
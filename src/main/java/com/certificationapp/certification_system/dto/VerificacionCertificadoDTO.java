@@ -0,0 +1,25 @@
+package com.certificationapp.certification_system.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for public certificate verification.
+ * Includes the signed canonical content and the signature, so third parties can check it
+ * offline against the published public key.
+ */
+@Data
+public class VerificacionCertificadoDTO {
+    private String codigo;
+    private boolean valido;
+    private String titular;
+    private String tipo;
+    private LocalDateTime fechaEmision;
+    private LocalDateTime fechaRevocacion;
+    private String contenido;
+    private String firma;
+    private String algoritmo;
+    private String claveId;
+    private String clavePublica;
+}
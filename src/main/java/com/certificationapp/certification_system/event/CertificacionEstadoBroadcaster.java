@@ -0,0 +1,283 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.dto.CertificacionEstadoEventoDTO;
+import com.certificationapp.certification_system.exception.SubscriberLimitExceededException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans certification status changes and renewal reminders out to Server-Sent Events subscribers.
+ * Publishing never blocks: each subscriber has a bounded buffer, drained by a write task that
+ * is started when the first event arrives and runs until the buffer is empty, with nobody
+ * waiting for it. A subscriber whose buffer overflows is disconnected so that one slow client
+ * cannot hold back the others, and {@link #barrer()} drops subscribers whose current write has
+ * been pending longer than {@code app.sse.send-timeout}.
+ * A stalled write keeps its thread until the socket gives up, so a dropped subscriber still
+ * counts against {@code app.sse.max-subscribers} until then: new subscriptions are refused
+ * once the limit is reached instead of letting stalled clients grow the writer pool without limit.
+ */
+@Slf4j
+@Component
+public class CertificacionEstadoBroadcaster {
+
+    static final String NOMBRE_EVENTO = "status-change";
+    static final String NOMBRE_RECORDATORIO = "renewal-reminder";
+
+    private final int capacidadBuffer;
+    private final int maxSuscriptores;
+    private final Duration timeoutEnvio;
+    // Como mucho una tarea de escritura por suscriptor admitido, así que nunca hacen falta más hilos
+    private final ThreadPoolExecutor escritor;
+    private final AtomicLong secuencia = new AtomicLong();
+    // Suscriptores conectados más los desconectados cuya escritura aún retiene un hilo
+    private final AtomicInteger admitidos = new AtomicInteger();
+
+    private final Set<Suscriptor> administradores = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<Suscriptor>> porUsuario = new ConcurrentHashMap<>();
+
+    public CertificacionEstadoBroadcaster(@Value("${app.sse.buffer-size:64}") int capacidadBuffer,
+                                          @Value("${app.sse.max-subscribers:500}") int maxSuscriptores,
+                                          @Value("${app.sse.send-timeout:PT5S}") Duration timeoutEnvio) {
+        this.capacidadBuffer = capacidadBuffer;
+        this.maxSuscriptores = maxSuscriptores;
+        this.timeoutEnvio = timeoutEnvio;
+        this.escritor = new ThreadPoolExecutor(maxSuscriptores, maxSuscriptores, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-write");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Los hilos se crean al primer envío y se liberan tras un minuto sin escrituras
+        this.escritor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers an emitter. A {@code null} user id subscribes to every certification.
+     *
+     * @throws SubscriberLimitExceededException if {@code app.sse.max-subscribers} are already admitted
+     */
+    public void suscribir(SseEmitter emitter, Long usuarioId) {
+        int actuales;
+        do {
+            actuales = admitidos.get();
+            if (actuales >= maxSuscriptores) {
+                throw new SubscriberLimitExceededException(
+                        "All " + maxSuscriptores + " event stream subscriber slots are taken");
+            }
+        } while (!admitidos.compareAndSet(actuales, actuales + 1));
+
+        Suscriptor suscriptor = new Suscriptor(emitter, usuarioId, new ArrayBlockingQueue<>(capacidadBuffer));
+        emitter.onCompletion(() -> eliminar(suscriptor));
+        emitter.onTimeout(() -> eliminar(suscriptor));
+        emitter.onError(ex -> eliminar(suscriptor));
+
+        if (usuarioId == null) {
+            administradores.add(suscriptor);
+        } else {
+            porUsuario.computeIfAbsent(usuarioId, id -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        }
+    }
+
+    public int totalSuscriptores() {
+        return administradores.size() + porUsuario.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCertificacionEvent(CertificacionEvent event) {
+        String nombre = switch (event.getTipoEvento()) {
+            case ESTADO_ACTUALIZADO -> NOMBRE_EVENTO;
+            case RENOVACION_PENDIENTE -> NOMBRE_RECORDATORIO;
+            default -> null;
+        };
+        if (nombre == null) {
+            return;
+        }
+
+        CertificacionEstadoEventoDTO dto = new CertificacionEstadoEventoDTO();
+        dto.setCertificacionId(event.getCertificacionId());
+        dto.setUsuarioId(event.getUsuarioId());
+        dto.setTipo(event.getTipo());
+        dto.setEstadoAnterior(event.getEstadoAnterior() != null ? event.getEstadoAnterior().name() : null);
+        dto.setEstadoNuevo(event.getEstadoNuevo() != null ? event.getEstadoNuevo().name() : null);
+        dto.setFechaVencimiento(event.getFechaVencimiento());
+        dto.setFecha(LocalDateTime.now());
+
+        // El mensaje se construye una sola vez: build() no es idempotente
+        Set<ResponseBodyEmitter.DataWithMediaType> mensaje = SseEmitter.event()
+                .id(String.valueOf(secuencia.incrementAndGet()))
+                .name(nombre)
+                .data(dto)
+                .build();
+
+        administradores.forEach(s -> encolar(s, mensaje));
+        Set<Suscriptor> delUsuario = porUsuario.get(event.getUsuarioId());
+        if (delUsuario != null) {
+            delUsuario.forEach(s -> encolar(s, mensaje));
+        }
+    }
+
+    /**
+     * Sends a comment line to every subscriber so that dead connections are detected
+     * and intermediaries do not close idle streams.
+     */
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> latido = SseEmitter.event().comment("heartbeat").build();
+        administradores.forEach(s -> encolar(s, latido));
+        porUsuario.values().forEach(suscriptores -> suscriptores.forEach(s -> encolar(s, latido)));
+    }
+
+    /**
+     * Drops the subscribers whose current write has been pending longer than
+     * {@code app.sse.send-timeout}; their emitter is completed once the write returns.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.sweep-interval:PT1S}")
+    public void barrer() {
+        long limite = System.nanoTime() - timeoutEnvio.toNanos();
+        administradores.forEach(s -> descartarSiAtascado(s, limite));
+        porUsuario.values().forEach(suscriptores -> suscriptores.forEach(s -> descartarSiAtascado(s, limite)));
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        administradores.forEach(s -> s.emitter.complete());
+        porUsuario.values().forEach(suscriptores -> suscriptores.forEach(s -> s.emitter.complete()));
+        escritor.shutdownNow();
+    }
+
+    private void descartarSiAtascado(Suscriptor suscriptor, long limite) {
+        if (suscriptor.escribiendo.get() && suscriptor.inicioEscritura - limite < 0) {
+            log.warn("Dropping stalled SSE subscriber for user {}: send did not complete within {}",
+                    suscriptor.usuarioId, timeoutEnvio);
+            desconectar(suscriptor);
+        }
+    }
+
+    private void encolar(Suscriptor suscriptor, Set<ResponseBodyEmitter.DataWithMediaType> mensaje) {
+        if (!suscriptor.buffer.offer(mensaje)) {
+            log.warn("Dropping slow SSE subscriber for user {}: buffer of {} events is full",
+                    suscriptor.usuarioId, capacidadBuffer);
+            desconectar(suscriptor);
+            return;
+        }
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            try {
+                escritor.execute(() -> drenar(suscriptor));
+            } catch (RejectedExecutionException ex) {
+                // Solo al apagar: cada suscriptor admitido tiene su hilo disponible
+                suscriptor.enviando.set(false);
+                desconectar(suscriptor);
+            }
+        }
+    }
+
+    private void drenar(Suscriptor suscriptor) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> mensaje;
+            while (!suscriptor.cerrado && (mensaje = suscriptor.buffer.poll()) != null) {
+                enviar(suscriptor, mensaje);
+            }
+            suscriptor.enviando.set(false);
+            // Un evento encolado justo antes de liberar el flag no debe quedarse sin enviar
+        } while (!suscriptor.cerrado && !suscriptor.buffer.isEmpty() && suscriptor.enviando.compareAndSet(false, true));
+        if (suscriptor.cerrado) {
+            liberar(suscriptor);
+        }
+    }
+
+    private void enviar(Suscriptor suscriptor, Set<ResponseBodyEmitter.DataWithMediaType> mensaje) {
+        suscriptor.inicioEscritura = System.nanoTime();
+        suscriptor.escribiendo.set(true);
+        try {
+            suscriptor.emitter.send(mensaje);
+        } catch (IOException | RuntimeException ex) {
+            log.debug("SSE subscriber for user {} disconnected", suscriptor.usuarioId);
+            suscriptor.escribiendo.set(false);
+            desconectar(suscriptor);
+            return;
+        }
+        suscriptor.escribiendo.set(false);
+        // Si el barrido lo descartó durante la escritura, el cierre quedó pendiente de este hilo
+        if (suscriptor.cerrado) {
+            completar(suscriptor);
+        }
+    }
+
+    private void desconectar(Suscriptor suscriptor) {
+        eliminar(suscriptor);
+        suscriptor.buffer.clear();
+        // complete() espera a que termine un send() en curso: si hay uno, lo cierra el hilo escritor
+        if (!suscriptor.escribiendo.get()) {
+            completar(suscriptor);
+        }
+    }
+
+    private void completar(Suscriptor suscriptor) {
+        if (suscriptor.completado.compareAndSet(false, true)) {
+            suscriptor.emitter.complete();
+        }
+    }
+
+    /**
+     * Frees the subscriber's slot once it is closed and no write task holds a thread for it.
+     */
+    private void liberar(Suscriptor suscriptor) {
+        if (!suscriptor.enviando.get() && suscriptor.liberado.compareAndSet(false, true)) {
+            admitidos.decrementAndGet();
+        }
+    }
+
+    private void eliminar(Suscriptor suscriptor) {
+        suscriptor.cerrado = true;
+        liberar(suscriptor);
+        if (suscriptor.usuarioId == null) {
+            administradores.remove(suscriptor);
+        } else {
+            porUsuario.computeIfPresent(suscriptor.usuarioId, (id, suscriptores) -> {
+                suscriptores.remove(suscriptor);
+                return suscriptores.isEmpty() ? null : suscriptores;
+            });
+        }
+    }
+
+    private static class Suscriptor {
+        private final SseEmitter emitter;
+        private final Long usuarioId;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean escribiendo = new AtomicBoolean();
+        private final AtomicBoolean completado = new AtomicBoolean();
+        private final AtomicBoolean liberado = new AtomicBoolean();
+        private volatile long inicioEscritura;
+        private volatile boolean cerrado;
+
+        Suscriptor(SseEmitter emitter, Long usuarioId, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer) {
+            this.emitter = emitter;
+            this.usuarioId = usuarioId;
+            this.buffer = buffer;
+        }
+    }
+}
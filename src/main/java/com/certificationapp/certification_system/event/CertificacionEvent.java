@@ -0,0 +1,88 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Domain event published by the certification service on every write.
+ * Carries a snapshot of the fields listeners need, so they never have to
+ * reload the entity after the transaction has finished.
+ * The actor is the authenticated user at publication time, or {@value #ACTOR_SISTEMA}
+ * for background jobs. Deletion events also carry the total size of the documents
+ * removed with the certification.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CertificacionEvent {
+
+    public static final String ACTOR_SISTEMA = "system";
+
+    public enum Tipo {
+        CREADA, ESTADO_ACTUALIZADO, ELIMINADA, RENOVACION_PENDIENTE
+    }
+
+    private final Tipo tipoEvento;
+    private final Long certificacionId;
+    private final Long usuarioId;
+    private final String tipo;
+    private final LocalDateTime fechaCreacion;
+    private final Certificacion.Status estadoAnterior;
+    private final Certificacion.Status estadoNuevo;
+    private final LocalDateTime fechaVencimiento;
+    private final long tamanoDocumentos;
+    private final String actor;
+    private final LocalDateTime fechaEvento;
+
+    public static CertificacionEvent creada(Certificacion certificacion) {
+        return of(Tipo.CREADA, certificacion, null, certificacion.getStatus(), 0);
+    }
+
+    public static CertificacionEvent estadoActualizado(Certificacion certificacion, Certificacion.Status estadoAnterior) {
+        return of(Tipo.ESTADO_ACTUALIZADO, certificacion, estadoAnterior, certificacion.getStatus(), 0);
+    }
+
+    public static CertificacionEvent eliminada(Certificacion certificacion) {
+        // Los documentos se borran en cascada y la colección ya está cargada
+        long tamanoDocumentos = certificacion.getDocumentos() == null ? 0 : certificacion.getDocumentos().stream()
+                .map(Documento::getTamano)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+        return of(Tipo.ELIMINADA, certificacion, certificacion.getStatus(), null, tamanoDocumentos);
+    }
+
+    public static CertificacionEvent renovacionPendiente(Certificacion certificacion) {
+        return of(Tipo.RENOVACION_PENDIENTE, certificacion, certificacion.getStatus(), certificacion.getStatus(), 0);
+    }
+
+    private static CertificacionEvent of(Tipo tipoEvento, Certificacion certificacion,
+                                         Certificacion.Status anterior, Certificacion.Status nuevo,
+                                         long tamanoDocumentos) {
+        return new CertificacionEvent(
+                tipoEvento,
+                certificacion.getId(),
+                certificacion.getUsuario() != null ? certificacion.getUsuario().getId() : null,
+                certificacion.getTipo(),
+                certificacion.getFechaCreacion(),
+                anterior,
+                nuevo,
+                certificacion.getFechaVencimiento(),
+                tamanoDocumentos,
+                actorActual(),
+                LocalDateTime.now()
+        );
+    }
+
+    private static String actorActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : ACTOR_SISTEMA;
+    }
+}
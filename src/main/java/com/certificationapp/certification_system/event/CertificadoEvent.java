@@ -0,0 +1,30 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.model.Certificado;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Domain event published when a signed certificate is issued or revoked.
+ * Carries the certificate as written, so the verification index can be updated after commit.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CertificadoEvent {
+
+    public enum Tipo {
+        EMITIDO, REVOCADO
+    }
+
+    private final Tipo tipoEvento;
+    private final Certificado certificado;
+
+    public static CertificadoEvent emitido(Certificado certificado) {
+        return new CertificadoEvent(Tipo.EMITIDO, certificado);
+    }
+
+    public static CertificadoEvent revocado(Certificado certificado) {
+        return new CertificadoEvent(Tipo.REVOCADO, certificado);
+    }
+}
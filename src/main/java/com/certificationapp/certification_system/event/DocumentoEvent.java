@@ -0,0 +1,49 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Domain event published by the document service when document metadata is saved or deleted.
+ * Carries the owning user and the file size, so per-user summaries need no lookup.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class DocumentoEvent {
+
+    public enum Tipo {
+        GUARDADO, ELIMINADO
+    }
+
+    private final Tipo tipoEvento;
+    private final Long documentoId;
+    private final Long certificacionId;
+    private final Long usuarioId;
+    private final String nombre;
+    private final String tipo;
+    private final Long tamano;
+
+    public static DocumentoEvent guardado(Documento documento) {
+        return of(Tipo.GUARDADO, documento);
+    }
+
+    public static DocumentoEvent eliminado(Documento documento) {
+        return of(Tipo.ELIMINADO, documento);
+    }
+
+    private static DocumentoEvent of(Tipo tipoEvento, Documento documento) {
+        Certificacion certificacion = documento.getCertificacion();
+        return new DocumentoEvent(
+                tipoEvento,
+                documento.getId(),
+                certificacion != null ? certificacion.getId() : null,
+                certificacion != null && certificacion.getUsuario() != null ? certificacion.getUsuario().getId() : null,
+                documento.getNombre(),
+                documento.getTipo(),
+                documento.getTamano()
+        );
+    }
+}
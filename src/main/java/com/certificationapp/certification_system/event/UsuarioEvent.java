@@ -0,0 +1,36 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.model.Usuario;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Domain event published by the user service when a user is created, updated or deleted.
+ * Deletion events only carry the user id.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class UsuarioEvent {
+
+    public enum Tipo {
+        CREADO, ACTUALIZADO, ELIMINADO
+    }
+
+    private final Tipo tipoEvento;
+    private final Long usuarioId;
+    private final String username;
+    private final String email;
+
+    public static UsuarioEvent creado(Usuario usuario) {
+        return new UsuarioEvent(Tipo.CREADO, usuario.getId(), usuario.getUsername(), usuario.getEmail());
+    }
+
+    public static UsuarioEvent actualizado(Usuario usuario) {
+        return new UsuarioEvent(Tipo.ACTUALIZADO, usuario.getId(), usuario.getUsername(), usuario.getEmail());
+    }
+
+    public static UsuarioEvent eliminado(Long usuarioId) {
+        return new UsuarioEvent(Tipo.ELIMINADO, usuarioId, null, null);
+    }
+}
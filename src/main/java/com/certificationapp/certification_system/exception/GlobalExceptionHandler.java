@@ -1,6 +1,7 @@
 package com.certificationapp.certification_system.exception;
 
 import com.certificationapp.certification_system.common.ApiResponse;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -46,6 +47,23 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handles validation exceptions from constrained request parameters
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleConstraintViolationException(
+            ConstraintViolationException ex) {
+        log.error("Validation error: {}", ex.getMessage());
+
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(
+                        HttpStatus.BAD_REQUEST,
+                        "Validation failed",
+                        ex.getMessage()
+                ));
+    }
+
     /**
      * Handles resource not found exceptions
      */
@@ -64,6 +82,23 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handles event stream subscriptions refused while the writer threads are saturated
+     */
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleSubscriberLimitExceededException(
+            SubscriberLimitExceededException ex) {
+        log.warn("Subscription rejected: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many event stream subscribers",
+                        ex.getMessage()
+                ));
+    }
+
     /**
      * Handles all unhandled exceptions
      */
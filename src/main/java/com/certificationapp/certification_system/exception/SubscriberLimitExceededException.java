@@ -0,0 +1,7 @@
+package com.certificationapp.certification_system.exception;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -25,6 +25,14 @@ public interface CertificacionMapper {
     @Mapping(source = "usuario.id", target = "usuarioId")
     CertificacionResponseDTO toDto(Certificacion certificacion);
 
+    /**
+     * Leaves the documents out, for certifications whose documents are loaded separately.
+     */
+    @Named("sinDocumentos")
+    @Mapping(source = "usuario.id", target = "usuarioId")
+    @Mapping(target = "documentos", ignore = true)
+    CertificacionResponseDTO toDtoSinDocumentos(Certificacion certificacion);
+
     @Mapping(target = "status", source = "status")
     void updateEntity(@MappingTarget Certificacion entity, CertificacionUpdateDTO dto);
 }
\ No newline at end of file
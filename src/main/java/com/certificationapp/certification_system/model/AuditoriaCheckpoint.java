@@ -0,0 +1,27 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position in a node's audit log up to which records have been indexed.
+ * One row per node, updated in the same transaction as the indexed records.
+ */
+@Entity
+@Table(name = "auditoria_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class AuditoriaCheckpoint {
+    @Id
+    private String nodo;
+
+    @Column(nullable = false)
+    private long segmento;
+
+    @Column(nullable = false)
+    private long posicion;
+}
@@ -0,0 +1,44 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Indexed copy of one audit log record: a certification status transition.
+ * Null statuses mark creation (no previous status) and deletion (no new status).
+ */
+@Entity
+@Table(name = "historial_estados_certificacion", indexes = {
+        @Index(name = "idx_historial_certificacion_fecha", columnList = "certificacion_id, fecha")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class CambioEstadoCertificacion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historial_estados_seq")
+    @SequenceGenerator(name = "historial_estados_seq", sequenceName = "historial_estados_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "certificacion_id", nullable = false)
+    private Long certificacionId;
+
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    private Certificacion.Status estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    private Certificacion.Status estadoNuevo;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -1,42 +1,103 @@
 package com.certificationapp.certification_system.model;
 
+import com.certificationapp.certification_system.catalog.TipoCertificacionConverter;
+import com.certificationapp.certification_system.sharding.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "certificaciones")
+@Table(name = "certificaciones", indexes = {
+        @Index(name = "idx_certificaciones_actualizacion", columnList = "fecha_actualizacion, id"),
+        @Index(name = "idx_certificaciones_usuario_actualizacion", columnList = "usuario_id, fecha_actualizacion, id"),
+        @Index(name = "idx_certificaciones_usuario_estado", columnList = "usuario_id, status"),
+        @Index(name = "idx_certificaciones_estado_actualizacion", columnList = "status, fecha_actualizacion"),
+        @Index(name = "idx_certificaciones_estado_vencimiento", columnList = "status, fecha_vencimiento, id"),
+        @Index(name = "idx_certificaciones_tipo", columnList = "tipo_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "certificaciones")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 
 public class Certificacion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "certificaciones_seq")
+    @GenericGenerator(name = "certificaciones_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "certificaciones_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = ShardedSequenceGenerator.SHARDED_BY, value = "usuario")
+    })
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
-    @Column(nullable = false)
+    // Se guarda como clave de tipos_certificacion; admite nulos solo para poder añadir la columna
+    // a tablas con la columna de texto antigua (ver MigracionTiposServiceImpl)
+    @Convert(converter = TipoCertificacionConverter.class)
+    @Column(name = "tipo_id")
     private String tipo;
 
+    // Solo declara la clave foránea; el nombre del tipo se resuelve en memoria
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tipo_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TipoCertificacion tipoCatalogo;
+
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
 
     @CreationTimestamp
     private LocalDateTime fechaCreacion;
 
+    // Se actualiza en cada escritura y también cuando cambian sus documentos (ver SincronizacionServiceImpl)
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    // Fin de la validez de una certificación aprobada (ver VencimientoServiceImpl)
+    private LocalDateTime fechaVencimiento;
+
+    @Column(nullable = false)
+    private boolean recordatorioEnviado;
+
+    // Resultado del pre-filtrado automático (ver ReglasServiceImpl); nulo si cumple las reglas
+    @Column(length = 2000)
+    private String incumplimientosReglas;
+
+    // Versión (fechaActualizacion) evaluada por última vez
+    private LocalDateTime fechaEvaluacion;
+
+    // En caché como lista de ids; se invalida al cambiar la certificación de un documento
+    // (hibernate.cache.auto_evict_collection_cache)
     @OneToMany(mappedBy = "certificacion", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "certificaciones-documentos")
     private List<Documento> documentos;
 
+    // Copia de solo lectura cargada desde el archivo (ver ArchivoServiceImpl)
+    @Transient
+    private boolean archivada;
+
     public enum Status {
-        PENDING, IN_REVIEW, APPROVED, REJECTED
+        PENDING, IN_REVIEW, APPROVED, REJECTED, EXPIRED
     }
 }
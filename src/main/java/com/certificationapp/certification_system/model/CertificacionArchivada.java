@@ -0,0 +1,48 @@
+package com.certificationapp.certification_system.model;
+
+import com.certificationapp.certification_system.catalog.TipoCertificacionConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed certification moved out of the hot {@code certificaciones} table by the archival job.
+ * Keeps the original id, so reads by id can fall through to it.
+ */
+@Entity
+@Table(name = "certificaciones_archivo", indexes = {
+        @Index(name = "idx_cert_archivo_usuario", columnList = "usuario_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class CertificacionArchivada {
+    @Id
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Convert(converter = TipoCertificacionConverter.class)
+    @Column(name = "tipo_id")
+    private String tipo;
+
+    @Enumerated(EnumType.STRING)
+    private Certificacion.Status status;
+
+    private LocalDateTime fechaCreacion;
+
+    private LocalDateTime fechaActualizacion;
+
+    private LocalDateTime fechaVencimiento;
+
+    @Column(nullable = false)
+    private boolean recordatorioEnviado;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaArchivado;
+}
@@ -0,0 +1,35 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone left behind when a certification is deleted, so that delta-sync clients
+ * can learn about the deletion. Purged once older than the sync retention window.
+ */
+@Entity
+@Table(name = "certificaciones_eliminadas", indexes = {
+        @Index(name = "idx_cert_eliminadas_fecha", columnList = "fecha_eliminacion, certificacion_id"),
+        @Index(name = "idx_cert_eliminadas_usuario_fecha", columnList = "usuario_id, fecha_eliminacion, certificacion_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class CertificacionEliminada {
+    @Id
+    @Column(name = "certificacion_id")
+    private Long certificacionId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @CreationTimestamp
+    @Column(name = "fecha_eliminacion", nullable = false)
+    private LocalDateTime fechaEliminacion;
+}
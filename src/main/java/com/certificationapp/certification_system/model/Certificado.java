@@ -0,0 +1,58 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Signed certificate issued when a certification is approved.
+ * The certification is referenced by id only, so the certificate (revoked) outlives it.
+ */
+@Entity
+@Table(name = "certificados", indexes = {
+        @Index(name = "idx_certificados_certificacion", columnList = "certificacion_id"),
+        @Index(name = "idx_certificados_fecha_emision", columnList = "fecha_emision"),
+        @Index(name = "idx_certificados_fecha_revocacion", columnList = "fecha_revocacion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class Certificado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificados_seq")
+    @SequenceGenerator(name = "certificados_seq", sequenceName = "certificados_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 16)
+    private String codigo;
+
+    @Column(name = "certificacion_id", nullable = false)
+    private Long certificacionId;
+
+    @Column(nullable = false)
+    private String titular;
+
+    @Column(nullable = false)
+    private String tipo;
+
+    // JSON canónico firmado; se guarda literal para que la firma siga siendo verificable
+    @Column(nullable = false, length = 2000)
+    private String contenido;
+
+    @Column(nullable = false, length = 128)
+    private String firma;
+
+    @Column(nullable = false, length = 32)
+    private String claveId;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaEmision;
+
+    private boolean revocado;
+
+    private LocalDateTime fechaRevocacion;
+}
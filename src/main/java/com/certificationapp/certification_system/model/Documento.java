@@ -1,22 +1,39 @@
 package com.certificationapp.certification_system.model;
 
+import com.certificationapp.certification_system.sharding.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documentos")
+@Table(name = "documentos", indexes = {
+        @Index(name = "idx_documentos_actualizacion", columnList = "fecha_actualizacion, id"),
+        @Index(name = "idx_documentos_certificacion", columnList = "certificacion_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "documentos")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 
 public class Documento {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "documentos_seq")
+    @GenericGenerator(name = "documentos_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "documentos_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = ShardedSequenceGenerator.SHARDED_BY, value = "certificacion")
+    })
     private Long id;
 
     @ManyToOne
@@ -32,6 +49,13 @@ public class Documento {
     @Column(nullable = false)
     private String url;
 
+    // Tamaño en bytes; nulo en documentos registrados sin él
+    private Long tamano;
+
     @CreationTimestamp
     private LocalDateTime fechaSubida;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime fechaActualizacion;
 }
@@ -0,0 +1,42 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Document metadata archived together with its certification.
+ */
+@Entity
+@Table(name = "documentos_archivo", indexes = {
+        @Index(name = "idx_doc_archivo_certificacion", columnList = "certificacion_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class DocumentoArchivado {
+    @Id
+    private Long id;
+
+    @Column(name = "certificacion_id", nullable = false)
+    private Long certificacionId;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(nullable = false)
+    private String tipo;
+
+    @Column(nullable = false)
+    private String url;
+
+    private Long tamano;
+
+    private LocalDateTime fechaSubida;
+
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,60 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background job that deletes a user with everything it owns
+ * (see PurgaUsuarioServiceImpl). Outlives the user, so the outcome stays queryable.
+ */
+@Entity
+@Table(name = "purgas_usuario", indexes = {
+        @Index(name = "idx_purgas_usuario_estado", columnList = "estado")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class PurgaUsuario {
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Estado estado = Estado.PENDIENTE;
+
+    @Column(nullable = false)
+    private long certificacionesEliminadas;
+
+    @Column(nullable = false)
+    private long documentosEliminados;
+
+    @Column(nullable = false)
+    private long archivosEliminados;
+
+    // Ficheros que no se pudieron borrar; las filas ya no existen y quedan para limpieza manual
+    @Column(nullable = false)
+    private long archivosFallidos;
+
+    @CreationTimestamp
+    private LocalDateTime fechaSolicitud;
+
+    private LocalDateTime fechaFinalizacion;
+
+    @Column(length = 1000)
+    private String error;
+
+    public PurgaUsuario(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public enum Estado {
+        PENDIENTE, EN_CURSO, COMPLETADA, FALLIDA
+    }
+}
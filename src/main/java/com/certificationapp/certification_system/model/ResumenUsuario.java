@@ -0,0 +1,69 @@
+package com.certificationapp.certification_system.model;
+
+import com.certificationapp.certification_system.catalog.TipoCertificacionConverter;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user summary of certifications and documents, kept up to date by the write paths
+ * (see ResumenUsuarioServiceImpl) so a profile is served by one primary-key lookup.
+ * Counts include archived certifications. There is no foreign key to the user: the row
+ * is removed inside the transaction that deletes the user.
+ */
+@Entity
+@Table(name = "resumenes_usuario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class ResumenUsuario {
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private long pendientes;
+
+    @Column(nullable = false)
+    private long enRevision;
+
+    @Column(nullable = false)
+    private long aprobadas;
+
+    @Column(nullable = false)
+    private long rechazadas;
+
+    @Column(nullable = false)
+    private long vencidas;
+
+    // Certificación creada más recientemente
+    private Long ultimaCertificacionId;
+
+    @Convert(converter = TipoCertificacionConverter.class)
+    @Column(name = "ultima_certificacion_tipo_id")
+    private String ultimaCertificacionTipo;
+
+    @Enumerated(EnumType.STRING)
+    private Certificacion.Status ultimaCertificacionEstado;
+
+    private LocalDateTime ultimaCertificacionFecha;
+
+    // Suma de los tamaños conocidos de sus documentos
+    @Column(nullable = false)
+    private long bytesDocumentos;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaActualizacion;
+
+    @Version
+    private Long version;
+
+    public ResumenUsuario(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+}
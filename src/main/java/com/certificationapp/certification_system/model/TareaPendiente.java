@@ -0,0 +1,53 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Write to another shard queued in the transaction of the change that causes it, so it commits
+ * or rolls back with that change and is delivered after it, retried until it succeeds
+ * (see ShardOutbox). Each shard keeps its own queue.
+ */
+@Entity
+@Table(name = "tareas_pendientes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class TareaPendiente {
+    // IDENTITY: cada shard tiene su propia cola y sus propios ids
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String tarea;
+
+    @Column(name = "shard_destino", nullable = false)
+    private int shardDestino;
+
+    // Datos de la tarea en JSON
+    @Column(nullable = false, length = 10000)
+    private String datos;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    // Último fallo al entregarla
+    @Column(length = 1000)
+    private String error;
+
+    @CreationTimestamp
+    private LocalDateTime fechaCreacion;
+
+    public TareaPendiente(String tarea, int shardDestino, String datos) {
+        this.tarea = tarea;
+        this.shardDestino = shardDestino;
+        this.datos = datos;
+    }
+}
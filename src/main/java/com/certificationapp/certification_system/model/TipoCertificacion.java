@@ -0,0 +1,33 @@
+package com.certificationapp.certification_system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalog of certification types. Certifications reference it by its small integer key;
+ * names are resolved in memory by {@code CatalogoTipos}.
+ * Rows are only ever added, so a key once handed out never changes meaning.
+ */
+@Entity
+@Table(name = "tipos_certificacion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class TipoCertificacion {
+    // IDENTITY: CatalogoTipos inserts con JDBC fuera de la transacción de negocio
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String nombre;
+
+    @CreationTimestamp
+    private LocalDateTime fechaCreacion;
+}
@@ -1,33 +1,54 @@
 package com.certificationapp.certification_system.model;
 
+import com.certificationapp.certification_system.sharding.ShardedSequenceGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", indexes = {
+        @Index(name = "idx_usuarios_creacion", columnList = "created_at, id"),
+        @Index(name = "idx_usuarios_rol_creacion", columnList = "role, created_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = Usuario.UK_USERNAME, columnNames = "username_normalizado"),
+        @UniqueConstraint(name = Usuario.UK_EMAIL, columnNames = "email_normalizado")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 
 public class Usuario {
+    // Los servicios reconocen los duplicados por el nombre de la restricción violada
+    public static final String UK_USERNAME = "uk_usuarios_username_normalizado";
+    public static final String UK_EMAIL = "uk_usuarios_email_normalizado";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "usuarios_seq")
+    @GenericGenerator(name = "usuarios_seq", type = ShardedSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "usuarios_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
 
     @NotBlank(message = "El username es obligatorio")
-    @Column(unique = true)
     private String username;
 
     @NotBlank(message = "El email es obligatorio")
     @Email(message = "El formato del email no es válido")
-    @Column(unique = true)
     private String email;
 
     @NotBlank(message = "La contraseña es obligatoria")
@@ -39,6 +60,28 @@ public class Usuario {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // Copias normalizadas, únicas, para la unicidad sin distinguir mayúsculas y las búsquedas por
+    // prefijo; admiten nulos solo hasta que MigracionUsuariosServiceImpl rellena las filas antiguas
+    @Column(name = "username_normalizado")
+    private String usernameNormalizado;
+
+    @Column(name = "email_normalizado")
+    private String emailNormalizado;
+
+    @PrePersist
+    @PreUpdate
+    void normalizarCampos() {
+        usernameNormalizado = normalizar(username);
+        emailNormalizado = normalizar(email);
+    }
+
+    /**
+     * Form used for lookups: trimmed and lower-cased, matching SQL {@code LOWER(TRIM(...))}.
+     */
+    public static String normalizar(String valor) {
+        return valor == null ? null : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
     public enum Role {
         ADMIN, USER
     }
@@ -0,0 +1,96 @@
+package com.certificationapp.certification_system.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, JDBC execution time and entities loaded by Hibernate on the current thread
+ * while a request is being served.
+ * <p>
+ * Statements are also grouped by fingerprint, the SQL with literals and {@code IN} lists
+ * collapsed, so an N+1 shows up as one fingerprint repeated many times. Work handed to other
+ * threads, and plain JDBC that does not go through Hibernate, is not counted.
+ */
+public final class QueryStats {
+
+    static final int MAX_FINGERPRINTS = 50;
+    static final String OTHER_FINGERPRINTS = "(other statements)";
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private int statements;
+    private long jdbcNanos;
+    private int entitiesLoaded;
+    private final Map<String, Integer> fingerprints = new LinkedHashMap<>();
+
+    /**
+     * Starts counting on the current thread, discarding anything left by a previous request.
+     */
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stats of the request being served on this thread, or {@code null} outside a request.
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void statementPrepared(String sql) {
+        statements++;
+        String fingerprint = fingerprint(sql);
+        if (fingerprints.containsKey(fingerprint) || fingerprints.size() < MAX_FINGERPRINTS) {
+            fingerprints.merge(fingerprint, 1, Integer::sum);
+        } else {
+            fingerprints.merge(OTHER_FINGERPRINTS, 1, Integer::sum);
+        }
+    }
+
+    void jdbcExecuted(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    /**
+     * Statement count per fingerprint, in the order they first ran.
+     */
+    public Map<String, Integer> getFingerprints() {
+        return Collections.unmodifiableMap(fingerprints);
+    }
+
+    static String fingerprint(String sql) {
+        String fingerprint = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        return PARAMETER_LIST.matcher(fingerprint).replaceAll("(?...)");
+    }
+}
@@ -0,0 +1,122 @@
+package com.certificationapp.certification_system.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements, JDBC time and entities loaded by each request and publishes them
+ * per endpoint as {@code app.http.server.queries}, {@code app.http.server.jdbc} and
+ * {@code app.http.server.entities.loaded}.
+ * <p>
+ * Requests over the statement budget are logged with their query fingerprints. When enabled,
+ * the counts are also sent back in {@code X-Query-*} response headers, as they stand when the
+ * response is committed. Runs ahead of the security chain so authentication queries count too.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_QUERY_COUNT = "X-Query-Count";
+    public static final String HEADER_QUERY_TIME = "X-Query-Time-Ms";
+    public static final String HEADER_ENTITIES_LOADED = "X-Entities-Loaded";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-stats.statement-budget:30}")
+    private int presupuestoSentencias;
+
+    @Value("${app.query-stats.response-headers:false}")
+    private boolean cabecerasRespuesta;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        HttpServletResponse respuesta = cabecerasRespuesta ? conCabeceras(response, stats) : response;
+        try {
+            filterChain.doFilter(request, respuesta);
+        } finally {
+            QueryStats.end();
+            if (cabecerasRespuesta && !response.isCommitted()) {
+                escribirCabeceras(response, stats);
+            }
+            registrar(request, stats);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, QueryStats stats) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Solo el patrón de la ruta, para no crear una serie por cada id
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("app.http.server.queries")
+                .description("SQL statements per request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("app.http.server.jdbc")
+                .description("JDBC execution time per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("app.http.server.entities.loaded")
+                .description("Entities loaded per request")
+                .baseUnit("entities")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getEntitiesLoaded());
+
+        if (stats.getStatements() > presupuestoSentencias) {
+            log.warn("{} {} ran {} SQL statements ({} ms JDBC, {} entities loaded), over the budget of {}:\n{}",
+                    request.getMethod(), uri, stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()),
+                    stats.getEntitiesLoaded(), presupuestoSentencias, huellas(stats));
+        }
+    }
+
+    private static String huellas(QueryStats stats) {
+        return stats.getFingerprints().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .map(huella -> String.format("  %5dx %s", huella.getValue(), huella.getKey()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static HttpServletResponse conCabeceras(HttpServletResponse response, QueryStats stats) {
+        return new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                escribirCabeceras(response, stats);
+            }
+        };
+    }
+
+    private static void escribirCabeceras(HttpServletResponse response, QueryStats stats) {
+        response.setHeader(HEADER_QUERY_COUNT, String.valueOf(stats.getStatements()));
+        response.setHeader(HEADER_QUERY_TIME, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+        response.setHeader(HEADER_ENTITIES_LOADED, String.valueOf(stats.getEntitiesLoaded()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.certificationapp.certification_system.monitoring;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds {@link QueryStats} from Hibernate: statements as they are prepared, execution time
+ * around each JDBC execute or batch, and every entity loaded, from the database or the
+ * second-level cache.
+ * <p>
+ * Hibernate creates one session listener per session from the class name, so per-execution
+ * state lives in the instance while the counts go to the current thread's stats.
+ */
+public class QueryStatsHibernateListener implements SessionEventListener, StatementInspector, PostLoadEventListener {
+
+    private long executionStart;
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        QueryStats stats = QueryStats.current();
+        if (stats != null && executionStart != 0) {
+            stats.jdbcExecuted(System.nanoTime() - executionStart);
+        }
+        executionStart = 0;
+    }
+}
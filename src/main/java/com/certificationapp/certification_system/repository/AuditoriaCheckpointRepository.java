@@ -0,0 +1,9 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.AuditoriaCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuditoriaCheckpointRepository extends JpaRepository<AuditoriaCheckpoint, String> {
+}
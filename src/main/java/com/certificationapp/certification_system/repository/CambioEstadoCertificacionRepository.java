@@ -0,0 +1,12 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.CambioEstadoCertificacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CambioEstadoCertificacionRepository extends JpaRepository<CambioEstadoCertificacion, Long> {
+    List<CambioEstadoCertificacion> findByCertificacionIdOrderByFechaAscIdAsc(Long certificacionId);
+}
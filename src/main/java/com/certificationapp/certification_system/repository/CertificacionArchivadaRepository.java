@@ -0,0 +1,71 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.CertificacionArchivada;
+import com.certificationapp.certification_system.sharding.ScatterGather;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archive table for closed certifications. Moves between the hot and archive tables
+ * are set-based {@code INSERT ... SELECT} statements, so rows never pass through the JVM.
+ * With sharding, archived rows stay in their shard and are routed like the hot ones.
+ */
+@Repository
+public interface CertificacionArchivadaRepository extends JpaRepository<CertificacionArchivada, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO certificaciones_archivo " +
+            "(id, usuario_id, tipo_id, status, fecha_creacion, fecha_actualizacion, fecha_vencimiento, " +
+            "recordatorio_enviado, fecha_archivado) " +
+            "SELECT id, usuario_id, tipo_id, status, fecha_creacion, fecha_actualizacion, fecha_vencimiento, " +
+            "recordatorio_enviado, :fecha " +
+            "FROM certificaciones WHERE id IN (:ids)", nativeQuery = true)
+    int archivar(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query(value = "INSERT INTO certificaciones " +
+            "(id, usuario_id, tipo_id, status, fecha_creacion, fecha_actualizacion, fecha_vencimiento, " +
+            "recordatorio_enviado) " +
+            "SELECT id, usuario_id, tipo_id, status, fecha_creacion, fecha_actualizacion, fecha_vencimiento, " +
+            "recordatorio_enviado " +
+            "FROM certificaciones_archivo WHERE id = :id", nativeQuery = true)
+    int restaurar(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM CertificacionArchivada a WHERE a.usuarioId = :usuarioId")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT a.id FROM CertificacionArchivada a WHERE a.usuarioId = :usuarioId ORDER BY a.id")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    @ScatterGather
+    @Query("SELECT a.status AS estado, COUNT(a) AS total FROM CertificacionArchivada a GROUP BY a.status")
+    List<CertificacionRepository.ConteoPorEstado> contarPorEstado();
+
+    @Query("SELECT a.status AS estado, COUNT(a) AS total FROM CertificacionArchivada a " +
+            "WHERE a.usuarioId = :usuarioId GROUP BY a.status")
+    List<CertificacionRepository.ConteoPorEstado> contarPorEstadoDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    Optional<CertificacionArchivada> findFirstByUsuarioIdOrderByFechaCreacionDescIdDesc(Long usuarioId);
+
+    @ScatterGather
+    @Query("SELECT a.tipo AS tipo, COUNT(a) AS total FROM CertificacionArchivada a GROUP BY a.tipo")
+    List<CertificacionRepository.ConteoPorTipo> contarPorTipo();
+
+    @ScatterGather
+    @Query("SELECT CAST(a.fechaCreacion AS LocalDate) AS dia, COUNT(a) AS total FROM CertificacionArchivada a " +
+            "WHERE a.fechaCreacion >= :desde GROUP BY CAST(a.fechaCreacion AS LocalDate)")
+    List<CertificacionRepository.ConteoPorDia> contarPorDiaDesde(@Param("desde") LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM CertificacionArchivada a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
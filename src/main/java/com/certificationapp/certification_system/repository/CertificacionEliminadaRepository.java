@@ -0,0 +1,37 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.CertificacionEliminada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CertificacionEliminadaRepository extends JpaRepository<CertificacionEliminada, Long> {
+
+    @Query("SELECT e FROM CertificacionEliminada e " +
+            "WHERE (e.fechaEliminacion > :marca OR (e.fechaEliminacion = :marca AND e.certificacionId > :ultimoId)) " +
+            "AND e.fechaEliminacion <= :hasta ORDER BY e.fechaEliminacion, e.certificacionId")
+    List<CertificacionEliminada> findEliminadasDespuesDe(@Param("marca") LocalDateTime marca,
+                                                         @Param("ultimoId") Long ultimoId,
+                                                         @Param("hasta") LocalDateTime hasta,
+                                                         Pageable pageable);
+
+    @Query("SELECT e FROM CertificacionEliminada e WHERE e.usuarioId = :usuarioId " +
+            "AND (e.fechaEliminacion > :marca OR (e.fechaEliminacion = :marca AND e.certificacionId > :ultimoId)) " +
+            "AND e.fechaEliminacion <= :hasta ORDER BY e.fechaEliminacion, e.certificacionId")
+    List<CertificacionEliminada> findEliminadasDeUsuarioDespuesDe(@Param("usuarioId") Long usuarioId,
+                                                                  @Param("marca") LocalDateTime marca,
+                                                                  @Param("ultimoId") Long ultimoId,
+                                                                  @Param("hasta") LocalDateTime hasta,
+                                                                  Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CertificacionEliminada e WHERE e.fechaEliminacion < :limite")
+    int deleteAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -3,15 +3,176 @@ package com.certificationapp.certification_system.repository;
 
 import com.certificationapp.certification_system.model.Certificacion;
 import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.sharding.ScatterGather;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CertificacionRepository extends JpaRepository<Certificacion, Long> {
+    // Resultados en la caché de consultas: solo guarda ids, las entidades salen de la caché de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Certificacion> findByUsuario(Usuario usuario);
+    @ScatterGather
     List<Certificacion> findByStatus(Certificacion.Status status);
+
+    /**
+     * Next page of certifications in {@code status} after the {@code despuesDe} id, over all shards.
+     */
+    @ScatterGather
+    List<Certificacion> findByStatusAndIdGreaterThanOrderById(Certificacion.Status status, Long despuesDe, Pageable pageable);
+
+    @Override
+    @ScatterGather
+    List<Certificacion> findAll();
+
+    @Override
+    @ScatterGather
+    long count();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Certificacion> findByUsuarioAndStatus(Usuario usuario, Certificacion.Status status);
 
+    @ScatterGather
+    @Query("SELECT c.status AS estado, COUNT(c) AS total FROM Certificacion c GROUP BY c.status")
+    List<ConteoPorEstado> contarPorEstado();
+
+    @Query("SELECT c.status AS estado, COUNT(c) AS total FROM Certificacion c " +
+            "WHERE c.usuario.id = :usuarioId GROUP BY c.status")
+    List<ConteoPorEstado> contarPorEstadoDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    Optional<Certificacion> findFirstByUsuario_IdOrderByFechaCreacionDescIdDesc(Long usuarioId);
+
+    List<Certificacion> findByUsuario_IdOrderById(Long usuarioId, Pageable pageable);
+
+    @ScatterGather
+    @Query("SELECT c.tipo AS tipo, COUNT(c) AS total FROM Certificacion c GROUP BY c.tipo")
+    List<ConteoPorTipo> contarPorTipo();
+
+    @ScatterGather
+    @Query("SELECT CAST(c.fechaCreacion AS LocalDate) AS dia, COUNT(c) AS total FROM Certificacion c " +
+            "WHERE c.fechaCreacion >= :desde GROUP BY CAST(c.fechaCreacion AS LocalDate)")
+    List<ConteoPorDia> contarPorDiaDesde(@Param("desde") LocalDateTime desde);
+
+    @ScatterGather
+    @Query("SELECT c.id AS id, c.tipo AS tipo, c.usuario.id AS usuarioId FROM Certificacion c " +
+            "WHERE c.id > :despuesDe ORDER BY c.id")
+    List<CertificacionIndexable> findIndexablesDespuesDe(@Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @ScatterGather(orderBy = "fechaActualizacion")
+    @Query("SELECT c FROM Certificacion c JOIN FETCH c.usuario " +
+            "WHERE (c.fechaActualizacion > :marca OR (c.fechaActualizacion = :marca AND c.id > :ultimoId)) " +
+            "AND c.fechaActualizacion <= :hasta ORDER BY c.fechaActualizacion, c.id")
+    List<Certificacion> findModificadasDespuesDe(@Param("marca") LocalDateTime marca,
+                                                 @Param("ultimoId") Long ultimoId,
+                                                 @Param("hasta") LocalDateTime hasta,
+                                                 Pageable pageable);
+
+    @Query("SELECT c FROM Certificacion c JOIN FETCH c.usuario WHERE c.usuario.id = :usuarioId " +
+            "AND (c.fechaActualizacion > :marca OR (c.fechaActualizacion = :marca AND c.id > :ultimoId)) " +
+            "AND c.fechaActualizacion <= :hasta ORDER BY c.fechaActualizacion, c.id")
+    List<Certificacion> findModificadasDeUsuarioDespuesDe(@Param("usuarioId") Long usuarioId,
+                                                          @Param("marca") LocalDateTime marca,
+                                                          @Param("ultimoId") Long ultimoId,
+                                                          @Param("hasta") LocalDateTime hasta,
+                                                          Pageable pageable);
+
+    /**
+     * Locks the next batch of closed certifications last changed before {@code limite},
+     * so they cannot change while being moved to the archive. Approved certifications
+     * that still have to expire stay in the hot table for the expiry scheduler.
+     * Runs on the current shard: the archive job enters each shard in turn.
+     */
+    @Query(value = "SELECT id FROM certificaciones WHERE status IN (:estados) AND fecha_actualizacion < :limite " +
+            "AND (status <> 'APPROVED' OR fecha_vencimiento IS NULL) " +
+            "ORDER BY id LIMIT :filas FOR UPDATE", nativeQuery = true)
+    List<Long> bloquearArchivables(@Param("estados") Collection<String> estados,
+                                   @Param("limite") LocalDateTime limite,
+                                   @Param("filas") int filas);
+
+    @Modifying
+    @Query("DELETE FROM Certificacion c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Next chunk of certifications in {@code estado} expiring up to {@code hasta}, in expiry order,
+     * starting after the (fecha, id) keyset position. Served by idx_certificaciones_estado_vencimiento.
+     */
+    @ScatterGather(orderBy = "fechaVencimiento")
+    @Query("SELECT c.id AS id, c.fechaVencimiento AS fechaVencimiento FROM Certificacion c " +
+            "WHERE c.status = :estado AND c.fechaVencimiento <= :hasta " +
+            "AND (c.fechaVencimiento > :marca OR (c.fechaVencimiento = :marca AND c.id > :ultimoId)) " +
+            "ORDER BY c.fechaVencimiento, c.id")
+    List<Vencimiento> findVencimientosHasta(@Param("estado") Certificacion.Status estado,
+                                            @Param("hasta") LocalDateTime hasta,
+                                            @Param("marca") LocalDateTime marca,
+                                            @Param("ultimoId") Long ultimoId,
+                                            Pageable pageable);
+
+    @ScatterGather(orderBy = "fechaVencimiento")
+    @Query("SELECT c.id AS id, c.fechaVencimiento AS fechaVencimiento FROM Certificacion c " +
+            "WHERE c.status = :estado AND c.recordatorioEnviado = false AND c.fechaVencimiento <= :hasta " +
+            "AND (c.fechaVencimiento > :marca OR (c.fechaVencimiento = :marca AND c.id > :ultimoId)) " +
+            "ORDER BY c.fechaVencimiento, c.id")
+    List<Vencimiento> findSinRecordatorioHasta(@Param("estado") Certificacion.Status estado,
+                                               @Param("hasta") LocalDateTime hasta,
+                                               @Param("marca") LocalDateTime marca,
+                                               @Param("ultimoId") Long ultimoId,
+                                               Pageable pageable);
+
+    interface CertificacionIndexable {
+        Long getId();
+        String getTipo();
+        Long getUsuarioId();
+    }
+
+    interface ConteoPorEstado {
+        Certificacion.Status getEstado();
+        Long getTotal();
+    }
+
+    interface ConteoPorTipo {
+        String getTipo();
+        Long getTotal();
+    }
+
+    /**
+     * Next chunk of certifications in {@code estado}, created before {@code creadaAntesDe}, changed since
+     * they were last screened by the rules engine.
+     */
+    @ScatterGather
+    @Query("SELECT c.id AS id, c.tipo AS tipo, c.fechaActualizacion AS fechaActualizacion FROM Certificacion c " +
+            "WHERE c.status = :estado AND c.fechaCreacion <= :creadaAntesDe AND c.id > :ultimoId " +
+            "AND (c.fechaEvaluacion IS NULL OR c.fechaEvaluacion < c.fechaActualizacion) ORDER BY c.id")
+    List<PendienteEvaluacion> findPendientesDeEvaluar(@Param("estado") Certificacion.Status estado,
+                                                      @Param("creadaAntesDe") LocalDateTime creadaAntesDe,
+                                                      @Param("ultimoId") Long ultimoId,
+                                                      Pageable pageable);
+
+    interface PendienteEvaluacion {
+        Long getId();
+        String getTipo();
+        LocalDateTime getFechaActualizacion();
+    }
+
+    interface Vencimiento {
+        Long getId();
+        LocalDateTime getFechaVencimiento();
+    }
+
+    interface ConteoPorDia {
+        LocalDate getDia();
+        Long getTotal();
+    }
 }
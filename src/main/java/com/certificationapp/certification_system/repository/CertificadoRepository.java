@@ -0,0 +1,27 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.Certificado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CertificadoRepository extends JpaRepository<Certificado, Long> {
+    List<Certificado> findByCertificacionIdAndRevocadoFalse(Long certificacionId);
+    List<Certificado> findByCertificacionIdInAndRevocadoFalse(Collection<Long> certificacionIds);
+    boolean existsByCodigo(String codigo);
+
+    @Query("SELECT c FROM Certificado c WHERE c.id > :despuesDe ORDER BY c.id")
+    List<Certificado> findDespuesDe(@Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @Query("SELECT c FROM Certificado c WHERE (c.fechaEmision > :desde OR c.fechaRevocacion > :desde) " +
+            "AND c.id > :despuesDe ORDER BY c.id")
+    List<Certificado> findCambiadosDesde(@Param("desde") LocalDateTime desde, @Param("despuesDe") Long despuesDe,
+                                         Pageable pageable);
+}
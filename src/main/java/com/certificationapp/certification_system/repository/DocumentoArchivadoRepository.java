@@ -0,0 +1,41 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.DocumentoArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentoArchivadoRepository extends JpaRepository<DocumentoArchivado, Long> {
+    List<DocumentoArchivado> findByCertificacionId(Long certificacionId);
+
+    @Modifying
+    @Query(value = "INSERT INTO documentos_archivo " +
+            "(id, certificacion_id, nombre, tipo, url, tamano, fecha_subida, fecha_actualizacion) " +
+            "SELECT id, certificacion_id, nombre, tipo, url, tamano, fecha_subida, fecha_actualizacion " +
+            "FROM documentos WHERE certificacion_id IN (:ids)", nativeQuery = true)
+    int archivar(@Param("ids") Collection<Long> certificacionIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO documentos " +
+            "(id, certificacion_id, nombre, tipo, url, tamano, fecha_subida, fecha_actualizacion) " +
+            "SELECT id, certificacion_id, nombre, tipo, url, tamano, fecha_subida, fecha_actualizacion " +
+            "FROM documentos_archivo WHERE certificacion_id = :certificacionId", nativeQuery = true)
+    int restaurar(@Param("certificacionId") Long certificacionId);
+
+    @Query("SELECT d.url FROM DocumentoArchivado d WHERE d.certificacionId IN :ids")
+    List<String> findUrlsByCertificacionIdIn(@Param("ids") Collection<Long> certificacionIds);
+
+    @Query("SELECT COALESCE(SUM(d.tamano), 0) FROM DocumentoArchivado d WHERE d.certificacionId IN " +
+            "(SELECT a.id FROM CertificacionArchivada a WHERE a.usuarioId = :usuarioId)")
+    long sumarTamanoDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM DocumentoArchivado d WHERE d.certificacionId IN :ids")
+    int deleteByCertificacionIdIn(@Param("ids") Collection<Long> certificacionIds);
+}
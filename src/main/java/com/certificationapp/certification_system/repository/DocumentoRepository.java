@@ -3,13 +3,51 @@ package com.certificationapp.certification_system.repository;
 
 import com.certificationapp.certification_system.model.Documento;
 import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.sharding.ScatterGather;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DocumentoRepository extends JpaRepository<Documento, Long>{
     List<Documento> findByCertificacion(Certificacion certificacion);
     void deleteByCertificacion(Certificacion certificacion);
+
+    @ScatterGather
+    @Query("SELECT d.id AS id, d.nombre AS nombre, d.tipo AS tipo, d.certificacion.id AS certificacionId " +
+            "FROM Documento d WHERE d.id > :despuesDe ORDER BY d.id")
+    List<DocumentoIndexable> findIndexablesDespuesDe(@Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    @Query("SELECT d FROM Documento d WHERE d.certificacion.id IN :ids ORDER BY d.id")
+    List<Documento> findByCertificacionIdIn(@Param("ids") Collection<Long> certificacionIds);
+
+    @Modifying
+    @Query("DELETE FROM Documento d WHERE d.certificacion.id IN :ids")
+    int deleteByCertificacionIdIn(@Param("ids") Collection<Long> certificacionIds);
+
+    @Query("SELECT d.certificacion.id AS certificacionId, d.tipo AS tipo, d.tamano AS tamano " +
+            "FROM Documento d WHERE d.certificacion.id IN :ids")
+    List<DocumentoResumen> findResumenesByCertificacionIdIn(@Param("ids") Collection<Long> certificacionIds);
+
+    @Query("SELECT COALESCE(SUM(d.tamano), 0) FROM Documento d WHERE d.certificacion.usuario.id = :usuarioId")
+    long sumarTamanoDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    interface DocumentoResumen {
+        Long getCertificacionId();
+        String getTipo();
+        Long getTamano();
+    }
+
+    interface DocumentoIndexable {
+        Long getId();
+        String getNombre();
+        String getTipo();
+        Long getCertificacionId();
+    }
 }
@@ -0,0 +1,13 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.PurgaUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PurgaUsuarioRepository extends JpaRepository<PurgaUsuario, Long> {
+    List<PurgaUsuario> findByEstadoIn(Collection<PurgaUsuario.Estado> estados);
+}
@@ -0,0 +1,34 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.ResumenUsuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResumenUsuarioRepository extends JpaRepository<ResumenUsuario, Long> {
+
+    /**
+     * Loads the summary locked for update, so concurrent writes for the same user apply
+     * their changes one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResumenUsuario r WHERE r.usuarioId = :usuarioId")
+    Optional<ResumenUsuario> bloquear(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT u.id FROM Usuario u WHERE u.id > :ultimoId " +
+            "AND NOT EXISTS (SELECT r FROM ResumenUsuario r WHERE r.usuarioId = u.id) ORDER BY u.id")
+    List<Long> findUsuariosSinResumen(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ResumenUsuario r WHERE r.usuarioId = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+}
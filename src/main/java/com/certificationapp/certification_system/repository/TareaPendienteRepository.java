@@ -0,0 +1,30 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.TareaPendiente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Not sharded: runs on the shard of the current transaction, whose queue it reads and writes.
+ */
+@Repository
+public interface TareaPendienteRepository extends JpaRepository<TareaPendiente, Long> {
+
+    @Query("SELECT t.id FROM TareaPendiente t ORDER BY t.id")
+    List<Long> findIdsEnOrden(Pageable pageable);
+
+    /**
+     * Loads the task locked for update, so two instances never deliver it at the same time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TareaPendiente t WHERE t.id = :id")
+    Optional<TareaPendiente> bloquear(@Param("id") Long id);
+}
@@ -0,0 +1,33 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.Usuario;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset-paginated user listing that reads only the requested columns.
+ */
+public interface UsuarioListadoRepository {
+
+    /**
+     * Columns that can be requested, by their name in the API.
+     */
+    List<String> CAMPOS = List.of("id", "username", "email", "role", "createdAt");
+
+    /**
+     * Returns up to {@code limite} users after the given position in {@code (createdAt, id)} order.
+     * Each row holds the requested fields plus {@code id} and {@code createdAt}, which make up the cursor.
+     */
+    List<Map<String, Object>> listar(ConsultaUsuarios consulta);
+
+    /**
+     * @param prefijo normalized prefix matched against username or email, or null
+     * @param marca   createdAt of the last row already returned, or null for the first page
+     */
+    record ConsultaUsuarios(Set<String> campos, Usuario.Role rol, LocalDateTime desde, LocalDateTime hasta,
+                            String prefijo, LocalDateTime marca, Long ultimoId, int limite) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.certificationapp.certification_system.repository;
+
+import com.certificationapp.certification_system.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class UsuarioListadoRepositoryImpl implements UsuarioListadoRepository {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> listar(ConsultaUsuarios consulta) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Usuario> usuario = query.from(Usuario.class);
+        Path<LocalDateTime> createdAt = usuario.get("createdAt");
+        Path<Long> id = usuario.get("id");
+
+        Set<String> campos = new LinkedHashSet<>(List.of("id", "createdAt"));
+        campos.addAll(consulta.campos());
+        List<Selection<?>> selecciones = new ArrayList<>();
+        for (String campo : campos) {
+            selecciones.add(usuario.get(campo).alias(campo));
+        }
+        query.multiselect(selecciones);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (consulta.rol() != null) {
+            condiciones.add(cb.equal(usuario.get("role"), consulta.rol()));
+        }
+        if (consulta.desde() != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(createdAt, consulta.desde()));
+        }
+        if (consulta.hasta() != null) {
+            condiciones.add(cb.lessThan(createdAt, consulta.hasta()));
+        }
+        if (consulta.prefijo() != null) {
+            String patron = escaparLike(consulta.prefijo()) + "%";
+            condiciones.add(cb.or(
+                    cb.like(usuario.get("usernameNormalizado"), patron, ESCAPE),
+                    cb.like(usuario.get("emailNormalizado"), patron, ESCAPE)));
+        }
+        if (consulta.marca() != null) {
+            condiciones.add(cb.or(
+                    cb.greaterThan(createdAt, consulta.marca()),
+                    cb.and(cb.equal(createdAt, consulta.marca()), cb.greaterThan(id, consulta.ultimoId()))));
+        }
+        query.where(condiciones.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(createdAt), cb.asc(id));
+
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Tuple tupla : entityManager.createQuery(query).setMaxResults(consulta.limite()).getResultList()) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            for (TupleElement<?> elemento : tupla.getElements()) {
+                fila.put(elemento.getAlias(), tupla.get(elemento));
+            }
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    private static String escaparLike(String valor) {
+        StringBuilder escapado = new StringBuilder(valor.length());
+        for (char c : valor.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escapado.append(ESCAPE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
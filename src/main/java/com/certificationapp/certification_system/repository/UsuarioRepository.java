@@ -1,17 +1,31 @@
 package com.certificationapp.certification_system.repository;
 
 import com.certificationapp.certification_system.model.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioListadoRepository {
 
     Optional<Usuario> findByEmail(String email);
     Optional<Usuario> findByUsername(String username);
-    boolean existsByEmail(String email);
-    boolean existsByUsername(String username);
+    boolean existsByEmailNormalizado(String emailNormalizado);
+    boolean existsByUsernameNormalizado(String usernameNormalizado);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM Usuario u " +
+            "WHERE u.id > :despuesDe ORDER BY u.id")
+    List<UsuarioIndexable> findIndexablesDespuesDe(@Param("despuesDe") Long despuesDe, Pageable pageable);
+
+    interface UsuarioIndexable {
+        Long getId();
+        String getUsername();
+        String getEmail();
+    }
 
 }
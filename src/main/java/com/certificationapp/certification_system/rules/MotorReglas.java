@@ -0,0 +1,120 @@
+package com.certificationapp.certification_system.rules;
+
+import com.certificationapp.certification_system.config.ReglasProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates the document rules configured for a certification type.
+ * Stateless and side-effect free, so it can be called concurrently from the batch job
+ * and from the synchronous pre-submission check.
+ */
+@Component
+@RequiredArgsConstructor
+public class MotorReglas {
+
+    private final ReglasProperties properties;
+
+    public List<Incumplimiento> evaluar(String tipoCertificacion, List<DocumentoRegla> documentos) {
+        ReglasProperties.ConjuntoReglas reglas = reglasPara(tipoCertificacion);
+        if (reglas == null) {
+            return List.of();
+        }
+
+        List<Incumplimiento> incumplimientos = new ArrayList<>();
+        if (documentos.size() < reglas.getMinDocuments()) {
+            incumplimientos.add(new Incumplimiento(Regla.TOO_FEW_DOCUMENTS, String.format(
+                    "At least %d documents are required, found %d", reglas.getMinDocuments(), documentos.size())));
+        }
+        if (reglas.getMaxDocuments() != null && documentos.size() > reglas.getMaxDocuments()) {
+            incumplimientos.add(new Incumplimiento(Regla.TOO_MANY_DOCUMENTS, String.format(
+                    "At most %d documents are allowed, found %d", reglas.getMaxDocuments(), documentos.size())));
+        }
+
+        Map<String, Long> porTipo = documentos.stream()
+                .collect(Collectors.groupingBy(documento -> normalizar(documento.tipo()), Collectors.counting()));
+        reglas.getRequiredTypes().forEach((tipo, minimo) -> {
+            long encontrados = porTipo.getOrDefault(normalizar(tipo), 0L);
+            if (encontrados < minimo) {
+                incumplimientos.add(new Incumplimiento(Regla.MISSING_REQUIRED_TYPE, String.format(
+                        "At least %d documents of type %s are required, found %d", minimo, tipo, encontrados)));
+            }
+        });
+
+        if (!reglas.getAllowedTypes().isEmpty()) {
+            List<String> permitidos = reglas.getAllowedTypes().stream().map(MotorReglas::normalizar).toList();
+            porTipo.keySet().stream()
+                    .filter(tipo -> !permitidos.contains(tipo))
+                    .sorted()
+                    .forEach(tipo -> incumplimientos.add(new Incumplimiento(Regla.TYPE_NOT_ALLOWED,
+                            "Documents of type " + tipo + " are not accepted")));
+        }
+
+        if (reglas.getMaxFileSize() != null) {
+            long maximo = reglas.getMaxFileSize().toBytes();
+            documentos.stream()
+                    .filter(documento -> documento.tamano() != null && documento.tamano() > maximo)
+                    .forEach(documento -> incumplimientos.add(new Incumplimiento(Regla.FILE_TOO_LARGE, String.format(
+                            "A %s document of %d bytes exceeds the limit of %d bytes",
+                            documento.tipo(), documento.tamano(), maximo))));
+        }
+        if (reglas.getMaxTotalSize() != null) {
+            long total = documentos.stream().map(DocumentoRegla::tamano).filter(Objects::nonNull)
+                    .mapToLong(Long::longValue).sum();
+            long maximo = reglas.getMaxTotalSize().toBytes();
+            if (total > maximo) {
+                incumplimientos.add(new Incumplimiento(Regla.TOTAL_TOO_LARGE, String.format(
+                        "Documents total %d bytes, over the limit of %d bytes", total, maximo)));
+            }
+        }
+        return incumplimientos;
+    }
+
+    /**
+     * Action configured for the type: its own, or the global default.
+     */
+    public ReglasProperties.Accion accionPara(String tipoCertificacion) {
+        ReglasProperties.ConjuntoReglas reglas = reglasPara(tipoCertificacion);
+        return reglas != null && reglas.getAction() != null ? reglas.getAction() : properties.getAction();
+    }
+
+    private ReglasProperties.ConjuntoReglas reglasPara(String tipoCertificacion) {
+        if (tipoCertificacion == null) {
+            return null;
+        }
+        ReglasProperties.ConjuntoReglas reglas = properties.getSets().get(tipoCertificacion);
+        if (reglas != null) {
+            return reglas;
+        }
+        // Las claves de las propiedades no distinguen mayúsculas de forma fiable
+        return properties.getSets().entrySet().stream()
+                .filter(entrada -> entrada.getKey().equalsIgnoreCase(tipoCertificacion))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String normalizar(String tipo) {
+        return tipo == null ? "" : tipo.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Regla {
+        TOO_FEW_DOCUMENTS, TOO_MANY_DOCUMENTS, MISSING_REQUIRED_TYPE, TYPE_NOT_ALLOWED, FILE_TOO_LARGE, TOTAL_TOO_LARGE
+    }
+
+    /**
+     * Document attributes the rules look at.
+     */
+    public record DocumentoRegla(String tipo, Long tamano) {
+    }
+
+    public record Incumplimiento(Regla regla, String detalle) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.certificationapp.certification_system.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of slots, each holding the items due during one tick.
+ * <p>
+ * A single worker thread advances one slot per tick and hands every item whose time has
+ * come to the callback in one batch, so firing costs one slot visit per tick no matter how
+ * many items are scheduled, and nothing is polled per item. Items due further than one
+ * revolution away stay in their slot with a count of remaining rounds. Items are fired
+ * at most one tick late. Scheduling the same item again while it is still pending is ignored.
+ */
+@Slf4j
+public class TimingWheel<T> implements Closeable {
+
+    private final long duracionTick;
+    private final int mascara;
+    private final List<Queue<Entrada<T>>> ranuras;
+    private final Queue<Entrada<T>> nuevas = new ConcurrentLinkedQueue<>();
+    private final Set<T> pendientes = ConcurrentHashMap.newKeySet();
+    private final Consumer<List<T>> alVencer;
+    private final Thread trabajador;
+    private final long inicio;
+
+    private volatile boolean abierto = true;
+
+    public TimingWheel(Duration tick, int tamano, Consumer<List<T>> alVencer, String nombreHilo) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (tamano <= 0 || Integer.bitCount(tamano) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.duracionTick = tick.toNanos();
+        this.mascara = tamano - 1;
+        this.alVencer = alVencer;
+        this.ranuras = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            ranuras.add(new ArrayDeque<>());
+        }
+
+        this.inicio = System.nanoTime();
+        this.trabajador = new Thread(this::girar, nombreHilo);
+        this.trabajador.setDaemon(true);
+        this.trabajador.start();
+    }
+
+    /**
+     * Schedules {@code item} to fire at {@code vencimiento}; a time in the past fires on the next tick.
+     *
+     * @return false if the item was already pending or the wheel is closed
+     */
+    public boolean programar(T item, Instant vencimiento) {
+        if (!abierto || !pendientes.add(item)) {
+            return false;
+        }
+        long espera = Math.max(0, Duration.between(Instant.now(), vencimiento).toNanos());
+        nuevas.add(new Entrada<>(item, System.nanoTime() - inicio + espera));
+        return true;
+    }
+
+    /**
+     * Items scheduled and not fired yet.
+     */
+    public int pendientes() {
+        return pendientes.size();
+    }
+
+    @Override
+    public void close() {
+        abierto = false;
+        LockSupport.unpark(trabajador);
+        try {
+            trabajador.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void girar() {
+        long tick = 0;
+        while (abierto) {
+            esperarTick(tick);
+            if (!abierto) {
+                return;
+            }
+            repartirNuevas(tick);
+
+            List<T> vencidas = new ArrayList<>();
+            Iterator<Entrada<T>> entradas = ranuras.get((int) (tick & mascara)).iterator();
+            while (entradas.hasNext()) {
+                Entrada<T> entrada = entradas.next();
+                if (entrada.rondas <= 0) {
+                    entradas.remove();
+                    vencidas.add(entrada.item);
+                } else {
+                    entrada.rondas--;
+                }
+            }
+            tick++;
+
+            if (!vencidas.isEmpty()) {
+                // Se liberan antes de notificar para que el callback pueda volver a programarlas
+                vencidas.forEach(pendientes::remove);
+                try {
+                    alVencer.accept(vencidas);
+                } catch (RuntimeException ex) {
+                    log.error("Timing wheel callback failed for {} items", vencidas.size(), ex);
+                }
+            }
+        }
+    }
+
+    private void esperarTick(long tick) {
+        long objetivo = inicio + (tick + 1) * duracionTick;
+        long restante;
+        while (abierto && (restante = objetivo - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, restante);
+        }
+    }
+
+    private void repartirNuevas(long tick) {
+        Entrada<T> entrada;
+        while ((entrada = nuevas.poll()) != null) {
+            // Lo que ya debería haber vencido cae en la ranura actual
+            long tickDestino = Math.max(entrada.plazo / duracionTick, tick);
+            entrada.rondas = (tickDestino - tick) / ranuras.size();
+            ranuras.get((int) (tickDestino & mascara)).add(entrada);
+        }
+    }
+
+    private static final class Entrada<T> {
+        private final T item;
+        private final long plazo;
+        private long rondas;
+
+        private Entrada(T item, long plazo) {
+            this.item = item;
+            this.plazo = plazo;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.certificationapp.certification_system.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe in-memory inverted index with prefix and fuzzy term matching.
+ * Terms are kept in a sorted map so a prefix lookup is a range scan, and fuzzy
+ * lookups only compare against terms sharing the first character of the query term.
+ * Entries can optionally be grouped (e.g. by parent id) so a whole group is removed
+ * without scanning the index.
+ *
+ * @param <K> the key identifying an indexed entry
+ * @param <V> the value returned for matching entries
+ */
+public class InvertedIndex<K, V> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    private final ConcurrentSkipListMap<String, Set<K>> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Set<K>> groups = new ConcurrentHashMap<>();
+    private final Function<V, ?> grouping;
+
+    public InvertedIndex() {
+        this(value -> null);
+    }
+
+    /**
+     * @param grouping maps a value to its group, or {@code null} when it belongs to none
+     */
+    public InvertedIndex(Function<V, ?> grouping) {
+        this.grouping = grouping;
+    }
+
+    /**
+     * Indexes (or re-indexes) an entry, replacing any terms it had before.
+     */
+    public void put(K key, V value, String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            terms.addAll(tokenize(text));
+        }
+
+        Object group = grouping.apply(value);
+        entries.compute(key, (k, previous) -> {
+            if (previous != null) {
+                previous.terms.stream().filter(t -> !terms.contains(t)).forEach(t -> removePosting(t, k));
+                if (previous.group != null && !previous.group.equals(group)) {
+                    removeMember(previous.group, k);
+                }
+            }
+            terms.forEach(t -> addPosting(t, k));
+            if (group != null) {
+                groups.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(k);
+            }
+            return new Entry<>(value, terms, group);
+        });
+    }
+
+    public void remove(K key) {
+        entries.computeIfPresent(key, (k, previous) -> {
+            previous.terms.forEach(t -> removePosting(t, k));
+            if (previous.group != null) {
+                removeMember(previous.group, k);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Removes every entry of a group, touching only that group's entries.
+     */
+    public void removeGroup(Object group) {
+        Set<K> members = groups.remove(group);
+        if (members != null) {
+            members.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches the predicate. This is a full scan,
+     * meant for infrequent cascading removals.
+     */
+    public void removeIf(Predicate<V> predicate) {
+        entries.forEach((key, entry) -> {
+            if (predicate.test(entry.value)) {
+                remove(key);
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the entries matching every term of the query, best matches first.
+     * Each query term matches index terms exactly, by prefix, or (when {@code fuzzy}
+     * is set) within a small edit distance. Ties are ordered with {@code tieBreaker}
+     * so that paging over the result is stable.
+     */
+    public List<Hit<V>> search(String query, boolean fuzzy, Predicate<V> filter, Comparator<V> tieBreaker) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<K, Integer> scores = null;
+        for (String queryTerm : queryTerms) {
+            Map<K, Integer> termScores = matchTerm(queryTerm, fuzzy);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((k, score) -> score + termScores.get(k));
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Hit<V>> hits = new ArrayList<>(scores.size());
+        scores.forEach((key, score) -> {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && filter.test(entry.value)) {
+                hits.add(new Hit<>(entry.value, score));
+            }
+        });
+        hits.sort(Comparator.comparingInt(Hit<V>::getScore).reversed()
+                .thenComparing(Hit::getValue, tieBreaker));
+        return hits;
+    }
+
+    private Map<K, Integer> matchTerm(String queryTerm, boolean fuzzy) {
+        Map<K, Integer> matches = new HashMap<>();
+
+        NavigableMap<String, Set<K>> prefixed = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true);
+        prefixed.forEach((term, keys) -> {
+            int score = term.equals(queryTerm) ? SCORE_EXACT : SCORE_PREFIX;
+            keys.forEach(k -> matches.merge(k, score, Math::max));
+        });
+
+        if (fuzzy) {
+            int maxEdits = queryTerm.length() <= 4 ? 1 : 2;
+            String first = queryTerm.substring(0, 1);
+            postings.subMap(first, true, first + Character.MAX_VALUE, true).forEach((term, keys) -> {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxEdits
+                        && levenshtein(term, queryTerm, maxEdits) <= maxEdits) {
+                    keys.forEach(k -> matches.merge(k, SCORE_FUZZY, Math::max));
+                }
+            });
+        }
+        return matches;
+    }
+
+    private void removeMember(Object group, K key) {
+        groups.computeIfPresent(group, (g, members) -> {
+            members.remove(key);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private void addPosting(String term, K key) {
+        postings.compute(term, (t, keys) -> {
+            Set<K> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    private void removePosting(String term, K key) {
+        postings.computeIfPresent(term, (t, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Bounded Levenshtein distance; returns {@code max + 1} as soon as the distance exceeds {@code max}.
+     */
+    static int levenshtein(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private record Entry<V>(V value, Set<String> terms, Object group) {
+    }
+
+    public static class Hit<V> {
+        private final V value;
+        private final int score;
+
+        Hit(V value, int score) {
+            this.value = value;
+            this.score = score;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.certificationapp.certification_system.security;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Signs and verifies certificate contents with Ed25519.
+ * Keys are read from configuration as Base64 PKCS#8 (private) and X.509 (public);
+ * without them an ephemeral key pair is generated, which only suits development.
+ */
+@Slf4j
+@Component
+public class CertificadoFirmaProvider {
+
+    public static final String ALGORITMO = "Ed25519";
+
+    private final PrivateKey clavePrivada;
+    private final PublicKey clavePublica;
+
+    @Getter
+    private final String clavePublicaCodificada;
+
+    @Getter
+    private final String claveId;
+
+    public CertificadoFirmaProvider(@Value("${app.certificates.private-key:}") String clavePrivadaBase64,
+                                    @Value("${app.certificates.public-key:}") String clavePublicaBase64)
+            throws GeneralSecurityException {
+        if (StringUtils.hasText(clavePrivadaBase64) && StringUtils.hasText(clavePublicaBase64)) {
+            KeyFactory factory = KeyFactory.getInstance(ALGORITMO);
+            this.clavePrivada = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(clavePrivadaBase64)));
+            this.clavePublica = factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(clavePublicaBase64)));
+        } else {
+            log.warn("No certificate signing key configured; using an ephemeral {} key pair. " +
+                    "Certificates signed with it cannot be verified after a restart", ALGORITMO);
+            KeyPair par = KeyPairGenerator.getInstance(ALGORITMO).generateKeyPair();
+            this.clavePrivada = par.getPrivate();
+            this.clavePublica = par.getPublic();
+        }
+
+        byte[] codificada = clavePublica.getEncoded();
+        this.clavePublicaCodificada = Base64.getEncoder().encodeToString(codificada);
+        // Huella corta de la clave pública para identificar qué clave firmó cada certificado
+        byte[] huella = MessageDigest.getInstance("SHA-256").digest(codificada);
+        this.claveId = HexFormat.of().formatHex(huella, 0, 8);
+    }
+
+    public String firmar(String contenido) {
+        try {
+            Signature firma = Signature.getInstance(ALGORITMO);
+            firma.initSign(clavePrivada);
+            firma.update(contenido.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(firma.sign());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not sign certificate content", ex);
+        }
+    }
+
+    public boolean verificar(String contenido, String firmaBase64) {
+        try {
+            Signature firma = Signature.getInstance(ALGORITMO);
+            firma.initVerify(clavePublica);
+            firma.update(contenido.getBytes(StandardCharsets.UTF_8));
+            return firma.verify(Base64.getDecoder().decode(firmaBase64));
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            log.debug("Certificate signature could not be verified: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.certificationapp.certification_system.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes passwords for bulk operations on a dedicated, fixed-size pool.
+ * <p>
+ * BCrypt is deliberately slow, so hashing thousands of passwords one after another on the
+ * request thread takes minutes. Bulk imports submit every password here as soon as the row is
+ * read and only wait for the hash when the row is inserted. The pool is shared by all bulk
+ * operations, so concurrent imports queue behind each other instead of multiplying threads.
+ * By default it leaves one core free for interactive requests; thread priorities are not
+ * used because the JVM ignores them on Linux.
+ */
+@Component
+public class CifradorPasswords {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService pool;
+
+    public CifradorPasswords(PasswordEncoder passwordEncoder,
+                             @Value("${app.provisioning.hash-threads:0}") int hilos) {
+        this.passwordEncoder = passwordEncoder;
+        int tamano = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger contador = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(tamano, tarea -> {
+            Thread hilo = new Thread(tarea, "password-hash-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Starts hashing {@code password} in the background.
+     */
+    public CompletableFuture<String> cifrar(String password) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), pool);
+    }
+
+    @PreDestroy
+    void detener() {
+        pool.shutdownNow();
+    }
+}
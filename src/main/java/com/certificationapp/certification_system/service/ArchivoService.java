@@ -0,0 +1,13 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+
+import java.util.Optional;
+
+public interface ArchivoService {
+    int archivar();
+    Optional<Certificacion> buscarCertificacion(Long id);
+    Optional<Documento> buscarDocumento(Long id);
+    boolean restaurar(Long certificacionId);
+}
@@ -0,0 +1,10 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CambioEstadoDTO;
+
+import java.util.List;
+
+public interface AuditoriaService {
+    List<CambioEstadoDTO> obtenerHistorial(Long certificacionId);
+    int indexarPendientes();
+}
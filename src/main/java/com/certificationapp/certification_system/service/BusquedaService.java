@@ -0,0 +1,22 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.BusquedaResponseDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface BusquedaService {
+    BusquedaResponseDTO buscar(String consulta, ModoBusqueda modo, Set<TipoResultado> tipos, int page, int size);
+    int reconstruirIndice();
+    void eliminarCertificaciones(Collection<Long> certificacionIds);
+    void indexarCertificacion(Certificacion certificacion);
+
+    enum ModoBusqueda {
+        PREFIJO, DIFUSO
+    }
+
+    enum TipoResultado {
+        CERTIFICACION, DOCUMENTO, USUARIO
+    }
+}
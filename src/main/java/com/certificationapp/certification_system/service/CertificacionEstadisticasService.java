@@ -0,0 +1,8 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CertificacionEstadisticasDTO;
+
+public interface CertificacionEstadisticasService {
+    CertificacionEstadisticasDTO obtenerEstadisticas();
+    void reconciliar();
+}
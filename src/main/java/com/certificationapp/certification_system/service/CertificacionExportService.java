@@ -0,0 +1,31 @@
+package com.certificationapp.certification_system.service;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CertificacionExportService {
+    void exportar(FormatoExportacion formato, OutputStream salida) throws IOException;
+
+    enum FormatoExportacion {
+        CSV(new MediaType("text", "csv"), "csv"),
+        NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        FormatoExportacion(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
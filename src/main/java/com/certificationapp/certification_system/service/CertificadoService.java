@@ -0,0 +1,11 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.VerificacionCertificadoDTO;
+
+import java.util.Collection;
+
+public interface CertificadoService {
+    VerificacionCertificadoDTO verificar(String codigo);
+    int recargarIndice();
+    void revocarPorCertificaciones(Collection<Long> certificacionIds);
+}
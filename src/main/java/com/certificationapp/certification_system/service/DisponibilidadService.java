@@ -0,0 +1,10 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.DisponibilidadDTO;
+
+public interface DisponibilidadService {
+    DisponibilidadDTO comprobar(String username, String email);
+    boolean usernameOcupado(String username);
+    boolean emailOcupado(String email);
+    long reconstruirFiltros();
+}
@@ -39,8 +39,7 @@ public class FileStorageService {
         validateFile(file);
 
         String originalFileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        String fileExtension = getFileExtension(originalFileName);
-        String fileName = generateUniqueFileName(fileExtension);
+        String fileName = newFileName(originalFileName);
 
         try {
             Path targetLocation = this.fileStorageLocation.resolve(fileName);
@@ -57,9 +56,31 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Unique name under which an upload of the given file is stored.
+     */
+    public String newFileName(String originalFileName) {
+        return generateUniqueFileName(getFileExtension(StringUtils.cleanPath(originalFileName)));
+    }
+
+    /**
+     * Location of a stored file, refusing names that resolve outside the storage directory.
+     */
+    public Path resolveStoredFile(String fileName) {
+        Path targetLocation = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!targetLocation.startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("File outside the storage directory: " + fileName);
+        }
+        return targetLocation;
+    }
+
     public void deleteFile(String fileName) {
+        Path targetLocation = this.fileStorageLocation.resolve(fileName).normalize();
+        // Las URL importadas no pasan por storeFile: nunca se borra fuera del directorio de subida
+        if (!targetLocation.startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Cannot delete file outside the storage directory: " + fileName);
+        }
         try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
             Files.deleteIfExists(targetLocation);
             log.info("File {} deleted successfully", fileName);
         } catch (IOException ex) {
@@ -72,9 +93,15 @@ public class FileStorageService {
         if (file.isEmpty()) {
             throw new FileStorageException("Failed to store empty file");
         }
+        validateUpload(Objects.requireNonNull(file.getOriginalFilename()), file.getContentType(), file.getSize());
+    }
 
+    /**
+     * Checks the size, type and extension of an upload; a negative size is not checked.
+     */
+    public void validateUpload(String originalFileName, String contentType, long size) {
         // Validar el tamaño del archivo
-        if (file.getSize() > fileStorageProperties.getMaxFileSize()) {
+        if (size > fileStorageProperties.getMaxFileSize()) {
             throw new FileSizeLimitExceededException(
                     String.format("File size exceeds maximum allowed size of %d bytes",
                             fileStorageProperties.getMaxFileSize())
@@ -82,13 +109,12 @@ public class FileStorageService {
         }
 
         // Validar el tipo de archivo
-        String contentType = file.getContentType();
         if (contentType == null || !fileStorageProperties.isFileTypeAllowed(contentType)) {
             throw new InvalidFileTypeException("File type not allowed: " + contentType);
         }
 
         // Validar la extensión del archivo
-        String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
+        String fileName = StringUtils.cleanPath(originalFileName);
         if (!fileStorageProperties.isExtensionAllowed(fileName)) {
             throw new InvalidFileTypeException("File extension not allowed for file: " + fileName);
         }
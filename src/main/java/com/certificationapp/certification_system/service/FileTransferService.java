@@ -0,0 +1,432 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.config.FileStorageProperties;
+import com.certificationapp.certification_system.exception.FileSizeLimitExceededException;
+import com.certificationapp.certification_system.exception.FileStorageException;
+import com.certificationapp.certification_system.exception.FileStorageOperationException;
+import com.certificationapp.certification_system.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Moves file contents between the client and the upload directory with non-blocking Servlet I/O.
+ * <p>
+ * The request thread returns as soon as the request is put in async mode. From then on the
+ * container calls back when the socket can take or give more bytes, and file reads and writes
+ * run on a small dedicated executor, so a slow client holds an async context and one buffer,
+ * not a thread. Only one chunk is in flight per transfer: the next socket or file operation
+ * starts when the previous one completes. Errors after the switch to async mode are answered
+ * like {@link GlobalExceptionHandler} would, if the response is not committed yet.
+ */
+@Slf4j
+@Service
+public class FileTransferService {
+
+    private final FileStorageService fileStorageService;
+    private final FileStorageProperties fileStorageProperties;
+    private final ObjectMapper objectMapper;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final ExceptionHandlerMethodResolver exceptionHandlers = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+    private final ExecutorService ejecutor;
+    private final int tamanoBuffer;
+    private final long timeoutMillis;
+
+    public FileTransferService(FileStorageService fileStorageService,
+                               FileStorageProperties fileStorageProperties,
+                               ObjectMapper objectMapper,
+                               GlobalExceptionHandler exceptionHandler,
+                               @Value("${app.file.transfer.threads:4}") int hilos,
+                               @Value("${app.file.transfer.buffer-size:64KB}") DataSize tamanoBuffer,
+                               @Value("${app.file.transfer.timeout:PT30M}") Duration timeout) {
+        this.fileStorageService = fileStorageService;
+        this.fileStorageProperties = fileStorageProperties;
+        this.objectMapper = objectMapper;
+        this.exceptionHandler = exceptionHandler;
+        this.tamanoBuffer = (int) tamanoBuffer.toBytes();
+        this.timeoutMillis = timeout.toMillis();
+        this.ejecutor = Executors.newFixedThreadPool(hilos, runnable -> {
+            Thread thread = new Thread(runnable, "file-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Streams a stored file as the response body. The caller sets the status and headers;
+     * the transfer goes on after this method returns.
+     *
+     * @throws FileStorageException if the file does not exist
+     */
+    public void send(HttpServletRequest request, HttpServletResponse response, String fileName) throws IOException {
+        Path ruta = fileStorageService.resolveStoredFile(fileName);
+        AsynchronousFileChannel archivo;
+        try {
+            archivo = AsynchronousFileChannel.open(ruta, Set.of(StandardOpenOption.READ), ejecutor);
+        } catch (NoSuchFileException ex) {
+            throw new FileStorageException("File not found: " + fileName);
+        }
+
+        try {
+            response.setContentLengthLong(archivo.size());
+            AsyncContext context = request.startAsync();
+            context.setTimeout(timeoutMillis);
+            Envio envio = new Envio(context, archivo, response.getOutputStream(), archivo.size());
+            context.addListener(envio);
+            response.getOutputStream().setWriteListener(envio);
+        } catch (IOException | RuntimeException ex) {
+            archivo.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads the request body into a new file in the upload directory. Once it is complete,
+     * {@code alRecibir} runs on the transfer executor with the stored file, and its result is
+     * written as a 201 response; if it fails, the file is removed again.
+     *
+     * @throws FileStorageException if the declared size, type or extension is not allowed
+     */
+    public void receive(HttpServletRequest request, HttpServletResponse response, String originalFileName,
+                        String contentType, Function<ArchivoRecibido, Object> alRecibir) throws IOException {
+        fileStorageService.validateUpload(originalFileName, contentType, request.getContentLengthLong());
+        String nombre = fileStorageService.newFileName(originalFileName);
+        Path ruta = fileStorageService.resolveStoredFile(nombre);
+        AsynchronousFileChannel archivo = AsynchronousFileChannel.open(ruta,
+                Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW), ejecutor);
+
+        try {
+            AsyncContext context = request.startAsync();
+            context.setTimeout(timeoutMillis);
+            Recepcion recepcion = new Recepcion(context, response, archivo, request.getInputStream(), ruta, alRecibir);
+            context.addListener(recepcion);
+            request.getInputStream().setReadListener(recepcion);
+        } catch (IOException | RuntimeException ex) {
+            archivo.close();
+            Files.deleteIfExists(ruta);
+            throw ex;
+        }
+    }
+
+    private void responder(HttpServletResponse response, HttpStatus status, Object cuerpo) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] json = objectMapper.writeValueAsBytes(cuerpo);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+
+    private void responderError(HttpServletResponse response, Throwable error) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Exception excepcion = error instanceof Exception ex ? ex : new IllegalStateException(error);
+        Method manejador = exceptionHandlers.resolveMethodByThrowable(excepcion);
+        try {
+            ResponseEntity<?> respuesta = (ResponseEntity<?>) ReflectionUtils.invokeMethod(manejador, exceptionHandler, excepcion);
+            responder(response, HttpStatus.valueOf(respuesta.getStatusCode().value()), respuesta.getBody());
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Could not write error response of a file transfer", ex);
+        }
+    }
+
+    private static void cerrar(AsynchronousFileChannel archivo) {
+        try {
+            archivo.close();
+        } catch (IOException ex) {
+            log.warn("Could not close transferred file", ex);
+        }
+    }
+
+    private static void completar(AsyncContext context) {
+        try {
+            context.complete();
+        } catch (IllegalStateException ex) {
+            // Ya completado por un timeout o un error del contenedor
+        }
+    }
+
+    /**
+     * A file fully received and stored in the upload directory.
+     */
+    public record ArchivoRecibido(String nombre, long tamano) {
+    }
+
+    /**
+     * Download: file chunk read on the executor, then written while the socket is ready.
+     */
+    private final class Envio implements WriteListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final AsynchronousFileChannel archivo;
+        private final ServletOutputStream salida;
+        private final long tamano;
+        private final ByteBuffer buffer = ByteBuffer.allocate(tamanoBuffer);
+        private final AtomicBoolean terminada = new AtomicBoolean();
+
+        // Solo los toca un hilo a la vez: el del contenedor o el que completa la lectura
+        private volatile long posicion;
+        private volatile boolean pendiente;
+
+        private Envio(AsyncContext context, AsynchronousFileChannel archivo, ServletOutputStream salida, long tamano) {
+            this.context = context;
+            this.archivo = archivo;
+            this.salida = salida;
+            this.tamano = tamano;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (salida.isReady()) {
+                if (pendiente) {
+                    salida.write(buffer.array(), 0, buffer.limit());
+                    posicion += buffer.limit();
+                    pendiente = false;
+                } else if (posicion >= tamano) {
+                    terminar();
+                    return;
+                } else {
+                    leer();
+                    return;
+                }
+            }
+            // El contenedor vuelve a llamar cuando el cliente acepte más datos
+        }
+
+        private void leer() {
+            buffer.clear();
+            archivo.read(buffer, posicion, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer leidos, Void adjunto) {
+                    if (leidos < 0) {
+                        onError(new FileStorageException("File shrank while being sent"));
+                        return;
+                    }
+                    buffer.flip();
+                    pendiente = true;
+                    try {
+                        onWritePossible();
+                    } catch (IOException | RuntimeException ex) {
+                        onError(ex);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable ex, Void adjunto) {
+                    onError(ex);
+                }
+            });
+        }
+
+        private void terminar() {
+            if (terminada.compareAndSet(false, true)) {
+                cerrar(archivo);
+                completar(context);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            // Lo normal es que el cliente haya cortado la descarga
+            log.debug("Download aborted after {} of {} bytes: {}", posicion, tamano, error.toString());
+            terminar();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (terminada.compareAndSet(false, true)) {
+                cerrar(archivo);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.debug("Download timed out after {} of {} bytes", posicion, tamano);
+            terminar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * Upload: body read while data is available, each chunk written to the file on the executor.
+     */
+    private final class Recepcion implements ReadListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final HttpServletResponse response;
+        private final AsynchronousFileChannel archivo;
+        private final ServletInputStream entrada;
+        private final Path ruta;
+        private final Function<ArchivoRecibido, Object> alRecibir;
+        private final ByteBuffer buffer = ByteBuffer.allocate(tamanoBuffer);
+        private final AtomicBoolean terminada = new AtomicBoolean();
+
+        private volatile long recibidos;
+        private volatile boolean escribiendo;
+
+        private Recepcion(AsyncContext context, HttpServletResponse response, AsynchronousFileChannel archivo,
+                          ServletInputStream entrada, Path ruta, Function<ArchivoRecibido, Object> alRecibir) {
+            this.context = context;
+            this.response = response;
+            this.archivo = archivo;
+            this.entrada = entrada;
+            this.ruta = ruta;
+            this.alRecibir = alRecibir;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (entrada.isReady()) {
+                int leidos = entrada.read(buffer.array());
+                if (leidos < 0) {
+                    break;
+                }
+                if (leidos > 0) {
+                    recibidos += leidos;
+                    if (recibidos > fileStorageProperties.getMaxFileSize()) {
+                        throw new FileSizeLimitExceededException(String.format(
+                                "File size exceeds maximum allowed size of %d bytes", fileStorageProperties.getMaxFileSize()));
+                    }
+                    buffer.position(0).limit(leidos);
+                    escribir(recibidos - leidos);
+                    return;
+                }
+            }
+            if (entrada.isFinished()) {
+                onAllDataRead();
+            }
+            // El contenedor vuelve a llamar cuando lleguen más datos
+        }
+
+        private void escribir(long posicion) {
+            escribiendo = true;
+            archivo.write(buffer, posicion, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer escritos, Void adjunto) {
+                    if (buffer.hasRemaining()) {
+                        archivo.write(buffer, posicion + buffer.position(), null, this);
+                        return;
+                    }
+                    escribiendo = false;
+                    try {
+                        onDataAvailable();
+                    } catch (IOException | RuntimeException ex) {
+                        onError(ex);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable ex, Void adjunto) {
+                    onError(new FileStorageOperationException("Could not store file " + ruta.getFileName(), ex));
+                }
+            });
+        }
+
+        @Override
+        public void onAllDataRead() {
+            // Con una escritura en curso termina quien la complete
+            if (escribiendo || !terminada.compareAndSet(false, true)) {
+                return;
+            }
+            cerrar(archivo);
+            ejecutor.execute(() -> {
+                try {
+                    if (recibidos == 0) {
+                        throw new FileStorageException("Failed to store empty file");
+                    }
+                    Object cuerpo = alRecibir.apply(new ArchivoRecibido(ruta.getFileName().toString(), recibidos));
+                    responder(response, HttpStatus.CREATED, cuerpo);
+                } catch (IOException | RuntimeException ex) {
+                    borrar();
+                    responderError(response, ex);
+                } finally {
+                    completar(context);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (!terminada.compareAndSet(false, true)) {
+                return;
+            }
+            log.debug("Upload aborted after {} bytes: {}", recibidos, error.toString());
+            cerrar(archivo);
+            borrar();
+            responderError(response, error);
+            completar(context);
+        }
+
+        private void borrar() {
+            try {
+                Files.deleteIfExists(ruta);
+            } catch (IOException ex) {
+                log.warn("Could not delete partial upload {}", ruta, ex);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            onError(new FileStorageException("Upload timed out after " + recibidos + " bytes"));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.ResultadoImportacionDTO;
+import com.certificationapp.certification_system.dto.ResultadoProvisionDTO;
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface ImportacionService {
+    ResultadoImportacionDTO importar(EntidadImportacion entidad, FormatoImportacion formato, InputStream entrada) throws IOException;
+
+    ResultadoProvisionDTO provisionarUsuarios(List<UsuarioCreateDTO> usuarios);
+
+    enum EntidadImportacion {
+        USUARIOS, CERTIFICACIONES, DOCUMENTOS
+    }
+
+    enum FormatoImportacion {
+        CSV, NDJSON
+    }
+}
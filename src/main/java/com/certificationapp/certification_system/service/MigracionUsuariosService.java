@@ -0,0 +1,5 @@
+package com.certificationapp.certification_system.service;
+
+public interface MigracionUsuariosService {
+    int migrar();
+}
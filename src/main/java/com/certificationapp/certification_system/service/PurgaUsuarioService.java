@@ -0,0 +1,8 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.PurgaUsuarioDTO;
+
+public interface PurgaUsuarioService {
+    PurgaUsuarioDTO solicitarPurga(Long usuarioId);
+    PurgaUsuarioDTO obtenerPurga(Long usuarioId);
+}
@@ -0,0 +1,9 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.ComprobacionReglasDTO;
+import com.certificationapp.certification_system.dto.ResultadoReglasDTO;
+
+public interface ReglasService {
+    ResultadoReglasDTO comprobar(ComprobacionReglasDTO comprobacion);
+    int evaluarPendientes();
+}
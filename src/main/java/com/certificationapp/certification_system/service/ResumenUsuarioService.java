@@ -0,0 +1,8 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.ResumenUsuarioDTO;
+
+public interface ResumenUsuarioService {
+    ResumenUsuarioDTO obtenerResumen(Long usuarioId);
+    int crearResumenesFaltantes();
+}
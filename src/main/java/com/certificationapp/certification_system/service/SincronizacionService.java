@@ -0,0 +1,8 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CambiosCertificacionesDTO;
+
+public interface SincronizacionService {
+    CambiosCertificacionesDTO obtenerCambios(Long usuarioId, String cursor, int limite);
+    int purgarEliminadas();
+}
@@ -1,7 +1,9 @@
 package com.certificationapp.certification_system.service;
 
+import com.certificationapp.certification_system.dto.PaginaUsuariosDTO;
 import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
 import com.certificationapp.certification_system.model.Usuario;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UsuarioService {
@@ -9,6 +11,8 @@ public interface UsuarioService {
     Usuario obtenerUsuarioPorId(Long id);
     Usuario obtenerUsuarioPorUsername(String username);
     List<Usuario> obtenerTodosLosUsuarios();
+    PaginaUsuariosDTO listarUsuarios(Usuario.Role rol, LocalDateTime desde, LocalDateTime hasta, String prefijo,
+                                     List<String> campos, String cursor, int limite);
     Usuario actualizarUsuario(Long id, Usuario usuarioDetails);
     void eliminarUsuario(Long id);
     boolean existeEmail(String email);
@@ -0,0 +1,214 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.CertificacionArchivada;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.DocumentoArchivado;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.ArchivoService;
+import com.certificationapp.certification_system.service.BusquedaService;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import com.certificationapp.certification_system.sharding.ShardRoutingDataSource;
+import com.certificationapp.certification_system.sharding.ShardTransactions;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Hot/archive partitioning of certifications.
+ * Closed certifications (rejected, expired, or approved without an expiry date) untouched
+ * for longer than the configured age are moved, with their document metadata, to the
+ * archive tables in short batched transactions, keeping the hot tables and their indexes small.
+ * Archived rows keep their ids: reads by id fall through to them as read-only copies,
+ * and a write to an archived certification first moves it back to the hot tables.
+ * Only hot rows are searchable: a batch leaves the search index once it commits, and a
+ * restored certification returns to it with its documents.
+ * With sharding, each shard archives its own rows into its own archive tables.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchivoServiceImpl implements ArchivoService {
+
+    private static final String TAREA_BORRAR_DE_USUARIO = "archivo.borrar-de-usuario";
+
+    private static final List<String> ESTADOS_CERRADOS = List.of(Certificacion.Status.APPROVED.name(),
+            Certificacion.Status.REJECTED.name(), Certificacion.Status.EXPIRED.name());
+
+    private final CertificacionRepository certificacionRepository;
+    private final DocumentoRepository documentoRepository;
+    private final CertificacionArchivadaRepository certificacionArchivadaRepository;
+    private final DocumentoArchivadoRepository documentoArchivadoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTransactions shardTransactions;
+    private final BusquedaService busquedaService;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    @Value("${app.archive.min-age:P180D}")
+    private Duration antiguedadMinima;
+
+    @Value("${app.archive.batch-size:500}")
+    private int tamanoLote;
+
+    @Override
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public int archivar() {
+        cerrojo.lock();
+        try {
+            LocalDateTime limite = LocalDateTime.now().minus(antiguedadMinima);
+            ShardRoutingDataSource routing = shards.getIfAvailable();
+            int shardCount = routing != null ? routing.shardCount() : 1;
+            int total = 0;
+            for (int shard = 0; shard < shardCount; shard++) {
+                List<Long> movidas;
+                do {
+                    // Cada lote bloquea y mueve filas con SQL propio, en una transacción del shard
+                    movidas = ShardContext.callInShard(shard, () -> transactionTemplate.execute(status -> archivarLote(limite)));
+                    // El archivo no se indexa: las movidas salen de la búsqueda una vez confirmado el lote
+                    if (!movidas.isEmpty()) {
+                        busquedaService.eliminarCertificaciones(movidas);
+                    }
+                    total += movidas.size();
+                } while (movidas.size() == tamanoLote);
+            }
+
+            if (total > 0) {
+                log.info("Archived {} closed certifications last changed before {}", total, limite);
+            }
+            return total;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Certificacion> buscarCertificacion(Long id) {
+        return certificacionArchivadaRepository.findById(id).map(archivada -> {
+            Certificacion certificacion = toCertificacion(archivada);
+            certificacion.setDocumentos(documentoArchivadoRepository.findByCertificacionId(id).stream()
+                    .map(documento -> toDocumento(documento, certificacion))
+                    .collect(Collectors.toList()));
+            return certificacion;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Documento> buscarDocumento(Long id) {
+        return documentoArchivadoRepository.findById(id).flatMap(documento ->
+                certificacionArchivadaRepository.findById(documento.getCertificacionId())
+                        .map(archivada -> toDocumento(documento, toCertificacion(archivada))));
+    }
+
+    @Override
+    @Transactional
+    public boolean restaurar(Long certificacionId) {
+        Optional<Certificacion> archivada = buscarCertificacion(certificacionId);
+        if (certificacionArchivadaRepository.restaurar(certificacionId) == 0) {
+            return false;
+        }
+        // Vuelve a la búsqueda cuando se confirme la transacción que la restaura
+        archivada.ifPresent(certificacion -> TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        busquedaService.indexarCertificacion(certificacion);
+                    }
+                }));
+        documentoArchivadoRepository.restaurar(certificacionId);
+        documentoArchivadoRepository.deleteByCertificacionIdIn(List.of(certificacionId));
+        certificacionArchivadaRepository.deleteByIdIn(List.of(certificacionId));
+        log.debug("Restored archived certification {} to the hot tables", certificacionId);
+        return true;
+    }
+
+    /**
+     * Deleting a user's archived rows is idempotent: a redelivery finds none left.
+     */
+    @PostConstruct
+    void registrarTareas() {
+        shardTransactions.register(TAREA_BORRAR_DE_USUARIO, Long.class, usuarioId -> {
+            List<Long> ids = certificacionArchivadaRepository.findIdsByUsuarioId(usuarioId);
+            if (!ids.isEmpty()) {
+                documentoArchivadoRepository.deleteByCertificacionIdIn(ids);
+                certificacionArchivadaRepository.deleteByIdIn(ids);
+            }
+        });
+    }
+
+    /**
+     * Archived certifications have no foreign key to their user, so they are removed here,
+     * inside the transaction that deletes the user; with sharding, the removal is queued with
+     * it when they are on another shard.
+     */
+    @EventListener
+    public void onUsuarioEvent(UsuarioEvent event) {
+        if (event.getTipoEvento() != UsuarioEvent.Tipo.ELIMINADO) {
+            return;
+        }
+        shardTransactions.runInShardOf(event.getUsuarioId(), TAREA_BORRAR_DE_USUARIO, event.getUsuarioId());
+    }
+
+    private List<Long> archivarLote(LocalDateTime limite) {
+        List<Long> ids = certificacionRepository.bloquearArchivables(ESTADOS_CERRADOS, limite, tamanoLote);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        certificacionArchivadaRepository.archivar(ids, LocalDateTime.now());
+        documentoArchivadoRepository.archivar(ids);
+        documentoRepository.deleteByCertificacionIdIn(ids);
+        certificacionRepository.deleteByIdIn(ids);
+        return ids;
+    }
+
+    private Certificacion toCertificacion(CertificacionArchivada archivada) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setId(archivada.getId());
+        certificacion.setUsuario(usuarioRepository.findById(archivada.getUsuarioId()).orElse(null));
+        certificacion.setTipo(archivada.getTipo());
+        certificacion.setStatus(archivada.getStatus());
+        certificacion.setFechaCreacion(archivada.getFechaCreacion());
+        certificacion.setFechaActualizacion(archivada.getFechaActualizacion());
+        certificacion.setFechaVencimiento(archivada.getFechaVencimiento());
+        certificacion.setRecordatorioEnviado(archivada.isRecordatorioEnviado());
+        certificacion.setArchivada(true);
+        return certificacion;
+    }
+
+    private Documento toDocumento(DocumentoArchivado archivado, Certificacion certificacion) {
+        Documento documento = new Documento();
+        documento.setId(archivado.getId());
+        documento.setCertificacion(certificacion);
+        documento.setNombre(archivado.getNombre());
+        documento.setTipo(archivado.getTipo());
+        documento.setUrl(archivado.getUrl());
+        documento.setTamano(archivado.getTamano());
+        documento.setFechaSubida(archivado.getFechaSubida());
+        documento.setFechaActualizacion(archivado.getFechaActualizacion());
+        return documento;
+    }
+}
@@ -0,0 +1,159 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.audit.AuditLog;
+import com.certificationapp.certification_system.dto.CambioEstadoDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.model.AuditoriaCheckpoint;
+import com.certificationapp.certification_system.model.CambioEstadoCertificacion;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.repository.AuditoriaCheckpointRepository;
+import com.certificationapp.certification_system.repository.CambioEstadoCertificacionRepository;
+import com.certificationapp.certification_system.service.AuditoriaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit trail of certification status transitions.
+ * Committed transitions are appended to the {@link AuditLog} off the request's
+ * transaction; a scheduled indexer copies durable records into
+ * {@code historial_estados_certificacion} in batches, advancing a per-node checkpoint
+ * in the same transaction so each record is indexed exactly once.
+ * History therefore lags the status change by up to one indexing interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditoriaServiceImpl implements AuditoriaService {
+
+    private final AuditLog auditLog;
+    private final CambioEstadoCertificacionRepository cambioRepository;
+    private final AuditoriaCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    @Value("${app.audit.node-id:local}")
+    private String nodo;
+
+    @Value("${app.audit.index-batch-size:500}")
+    private int tamanoLoteIndexado;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CambioEstadoDTO> obtenerHistorial(Long certificacionId) {
+        return cambioRepository.findByCertificacionIdOrderByFechaAscIdAsc(certificacionId).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.audit.index-interval:PT5S}")
+    public int indexarPendientes() {
+        cerrojo.lock();
+        try {
+            int total = 0;
+            int indexados;
+            do {
+                indexados = transactionTemplate.execute(status -> indexarLote());
+                total += indexados;
+            } while (indexados == tamanoLoteIndexado);
+            return total;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCertificacionEvent(CertificacionEvent event) {
+        if (event.getEstadoAnterior() == event.getEstadoNuevo()) {
+            return;
+        }
+        RegistroAuditoria registro = new RegistroAuditoria(event.getCertificacionId(), event.getUsuarioId(),
+                event.getActor(), event.getEstadoAnterior(), event.getEstadoNuevo(), event.getFechaEvento());
+        try {
+            auditLog.append(objectMapper.writeValueAsString(registro));
+        } catch (JsonProcessingException ex) {
+            log.error("Could not serialize audit record for certification {}", event.getCertificacionId(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while queueing audit record for certification {}", event.getCertificacionId());
+        }
+    }
+
+    private int indexarLote() {
+        AuditoriaCheckpoint checkpoint = checkpointRepository.findById(nodo)
+                .orElseGet(() -> new AuditoriaCheckpoint(nodo,
+                        AuditLog.Posicion.INICIO.segmento(), AuditLog.Posicion.INICIO.posicion()));
+
+        AuditLog.Lectura lectura;
+        try {
+            lectura = auditLog.leer(new AuditLog.Posicion(checkpoint.getSegmento(), checkpoint.getPosicion()),
+                    tamanoLoteIndexado);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read audit log", ex);
+        }
+        if (lectura.registros().isEmpty()) {
+            return 0;
+        }
+
+        List<CambioEstadoCertificacion> cambios = new ArrayList<>(lectura.registros().size());
+        for (String linea : lectura.registros()) {
+            try {
+                cambios.add(toEntidad(objectMapper.readValue(linea, RegistroAuditoria.class)));
+            } catch (JsonProcessingException ex) {
+                // Un registro ilegible no debe bloquear el resto del historial
+                log.error("Skipping unreadable audit record: {}", linea, ex);
+            }
+        }
+        cambioRepository.saveAll(cambios);
+
+        checkpoint.setSegmento(lectura.siguiente().segmento());
+        checkpoint.setPosicion(lectura.siguiente().posicion());
+        checkpointRepository.save(checkpoint);
+        return lectura.registros().size();
+    }
+
+    private CambioEstadoCertificacion toEntidad(RegistroAuditoria registro) {
+        CambioEstadoCertificacion cambio = new CambioEstadoCertificacion();
+        cambio.setCertificacionId(registro.certificacionId());
+        cambio.setUsuarioId(registro.usuarioId());
+        cambio.setActor(registro.actor());
+        cambio.setEstadoAnterior(registro.estadoAnterior());
+        cambio.setEstadoNuevo(registro.estadoNuevo());
+        cambio.setFecha(registro.fecha());
+        return cambio;
+    }
+
+    private CambioEstadoDTO toDto(CambioEstadoCertificacion cambio) {
+        CambioEstadoDTO dto = new CambioEstadoDTO();
+        dto.setActor(cambio.getActor());
+        dto.setEstadoAnterior(cambio.getEstadoAnterior() != null ? cambio.getEstadoAnterior().name() : null);
+        dto.setEstadoNuevo(cambio.getEstadoNuevo() != null ? cambio.getEstadoNuevo().name() : null);
+        dto.setFecha(cambio.getFecha());
+        return dto;
+    }
+
+    /**
+     * One line of the audit log.
+     */
+    record RegistroAuditoria(Long certificacionId, Long usuarioId, String actor,
+                             Certificacion.Status estadoAnterior, Certificacion.Status estadoNuevo,
+                             LocalDateTime fecha) {
+    }
+}
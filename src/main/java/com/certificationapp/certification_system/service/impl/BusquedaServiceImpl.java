@@ -0,0 +1,304 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.BusquedaResponseDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.event.DocumentoEvent;
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.search.InvertedIndex;
+import com.certificationapp.certification_system.service.BusquedaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Full-text search over certification types, document names and user names/emails,
+ * backed by an in-memory inverted index.
+ * The index follows committed service-layer writes incrementally and can be rebuilt
+ * from the database, loading each source table in parallel. Writes committed during a
+ * rebuild are replayed on the new index before it is swapped in, so that a page read
+ * before a delete committed cannot bring the deleted entry back. The replay and the
+ * swap exclude concurrent writes, so no write can reach only the index being replaced.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BusquedaServiceImpl implements BusquedaService {
+
+    private final CertificacionRepository certificacionRepository;
+    private final DocumentoRepository documentoRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${app.search.rebuild-page-size:1000}")
+    private int tamanoPaginaReconstruccion;
+
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    private volatile InvertedIndex<Clave, Entrada> indice = nuevoIndice();
+
+    // Recibe también las escrituras confirmadas mientras dura una reconstrucción
+    private volatile InvertedIndex<Clave, Entrada> indiceEnConstruccion;
+
+    // Cambios aplicados durante la reconstrucción, para repetirlos cuando terminen las cargas
+    private final Queue<Consumer<InvertedIndex<Clave, Entrada>>> cambiosDuranteReconstruccion =
+            new ConcurrentLinkedQueue<>();
+
+    // Las escrituras toman la lectura; instalar, repetir y reemplazar el índice, la escritura
+    private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    @Override
+    public BusquedaResponseDTO buscar(String consulta, ModoBusqueda modo, Set<TipoResultado> tipos, int page, int size) {
+        List<InvertedIndex.Hit<Entrada>> hits = indice.search(consulta, modo == ModoBusqueda.DIFUSO,
+                entrada -> tipos.isEmpty() || tipos.contains(entrada.tipo()),
+                Comparator.comparing(Entrada::tipo).thenComparing(Entrada::id));
+
+        BusquedaResponseDTO respuesta = new BusquedaResponseDTO();
+        respuesta.setTotal(hits.size());
+        respuesta.setPage(page);
+        respuesta.setSize(size);
+        respuesta.setResultados(hits.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(this::toResultado)
+                .toList());
+        return respuesta;
+    }
+
+    @Override
+    public int reconstruirIndice() {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            throw new IllegalStateException("Search index rebuild already in progress");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            InvertedIndex<Clave, Entrada> nuevo = nuevoIndice();
+            conCerrojo(() -> {
+                cambiosDuranteReconstruccion.clear();
+                indiceEnConstruccion = nuevo;
+            });
+
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> cargarCertificaciones(nuevo), executor),
+                    CompletableFuture.runAsync(() -> cargarDocumentos(nuevo), executor),
+                    CompletableFuture.runAsync(() -> cargarUsuarios(nuevo), executor)
+            ).join();
+
+            conCerrojo(() -> {
+                // Una página leída antes de confirmarse un cambio pudo pisarlo: se repiten en orden
+                Consumer<InvertedIndex<Clave, Entrada>> cambio;
+                while ((cambio = cambiosDuranteReconstruccion.poll()) != null) {
+                    cambio.accept(nuevo);
+                }
+                indice = nuevo;
+                indiceEnConstruccion = null;
+            });
+            log.info("Search index rebuilt with {} entries", nuevo.size());
+            return nuevo.size();
+        } finally {
+            // Sólo queda algo por limpiar si una carga falló antes del reemplazo
+            conCerrojo(() -> {
+                indiceEnConstruccion = null;
+                cambiosDuranteReconstruccion.clear();
+            });
+            executor.shutdown();
+            reconstruyendo.set(false);
+        }
+    }
+
+    /**
+     * Removes certifications deleted without a deletion event, such as archived ones, with their documents.
+     */
+    @Override
+    public void eliminarCertificaciones(Collection<Long> certificacionIds) {
+        aplicar(i -> certificacionIds.forEach(id -> {
+            i.remove(new Clave(TipoResultado.CERTIFICACION, id));
+            i.removeGroup(id);
+        }));
+    }
+
+    /**
+     * Adds a certification with its documents inserted without a creation event, such as one
+     * moved back from the archive.
+     */
+    @Override
+    public void indexarCertificacion(Certificacion certificacion) {
+        Long usuarioId = certificacion.getUsuario() != null ? certificacion.getUsuario().getId() : null;
+        aplicar(i -> {
+            indexarCertificacion(i, certificacion.getId(), certificacion.getTipo(), usuarioId);
+            certificacion.getDocumentos().forEach(documento -> indexarDocumento(i, documento.getId(),
+                    documento.getNombre(), documento.getTipo(), certificacion.getId()));
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        Thread thread = new Thread(() -> {
+            try {
+                reconstruirIndice();
+            } catch (RuntimeException ex) {
+                log.error("Initial search index build failed", ex);
+            }
+        }, "search-index-bootstrap");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCertificacionEvent(CertificacionEvent event) {
+        switch (event.getTipoEvento()) {
+            case CREADA -> aplicar(i -> indexarCertificacion(i, event.getCertificacionId(), event.getTipo(), event.getUsuarioId()));
+            case ELIMINADA -> aplicar(i -> {
+                i.remove(new Clave(TipoResultado.CERTIFICACION, event.getCertificacionId()));
+                // Los documentos se eliminan en cascada sin publicar sus propios eventos
+                i.removeGroup(event.getCertificacionId());
+            });
+            default -> {
+                // Los cambios de estado no afectan a los campos indexados
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentoEvent(DocumentoEvent event) {
+        switch (event.getTipoEvento()) {
+            case GUARDADO -> aplicar(i -> indexarDocumento(i, event.getDocumentoId(), event.getNombre(),
+                    event.getTipo(), event.getCertificacionId()));
+            case ELIMINADO -> aplicar(i -> i.remove(new Clave(TipoResultado.DOCUMENTO, event.getDocumentoId())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUsuarioEvent(UsuarioEvent event) {
+        switch (event.getTipoEvento()) {
+            case CREADO, ACTUALIZADO -> aplicar(i -> indexarUsuario(i, event.getUsuarioId(),
+                    event.getUsername(), event.getEmail()));
+            case ELIMINADO -> aplicar(i -> i.remove(new Clave(TipoResultado.USUARIO, event.getUsuarioId())));
+        }
+    }
+
+    // Agrupa los documentos por certificación para poder retirarlos sin recorrer el índice
+    private static InvertedIndex<Clave, Entrada> nuevoIndice() {
+        return new InvertedIndex<>(entrada -> entrada.tipo() == TipoResultado.DOCUMENTO ? entrada.referenciaId() : null);
+    }
+
+    private void aplicar(Consumer<InvertedIndex<Clave, Entrada>> cambio) {
+        cerrojo.readLock().lock();
+        try {
+            cambio.accept(indice);
+            InvertedIndex<Clave, Entrada> enConstruccion = indiceEnConstruccion;
+            if (enConstruccion != null) {
+                cambiosDuranteReconstruccion.add(cambio);
+                cambio.accept(enConstruccion);
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    private void conCerrojo(Runnable accion) {
+        cerrojo.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    private void cargarCertificaciones(InvertedIndex<Clave, Entrada> destino) {
+        long ultimoId = 0;
+        List<CertificacionRepository.CertificacionIndexable> pagina;
+        do {
+            pagina = certificacionRepository.findIndexablesDespuesDe(ultimoId, PageRequest.ofSize(tamanoPaginaReconstruccion));
+            for (var c : pagina) {
+                indexarCertificacion(destino, c.getId(), c.getTipo(), c.getUsuarioId());
+                ultimoId = c.getId();
+            }
+        } while (pagina.size() == tamanoPaginaReconstruccion);
+    }
+
+    private void cargarDocumentos(InvertedIndex<Clave, Entrada> destino) {
+        long ultimoId = 0;
+        List<DocumentoRepository.DocumentoIndexable> pagina;
+        do {
+            pagina = documentoRepository.findIndexablesDespuesDe(ultimoId, PageRequest.ofSize(tamanoPaginaReconstruccion));
+            for (var d : pagina) {
+                indexarDocumento(destino, d.getId(), d.getNombre(), d.getTipo(), d.getCertificacionId());
+                ultimoId = d.getId();
+            }
+        } while (pagina.size() == tamanoPaginaReconstruccion);
+    }
+
+    private void cargarUsuarios(InvertedIndex<Clave, Entrada> destino) {
+        long ultimoId = 0;
+        List<UsuarioRepository.UsuarioIndexable> pagina;
+        do {
+            pagina = usuarioRepository.findIndexablesDespuesDe(ultimoId, PageRequest.ofSize(tamanoPaginaReconstruccion));
+            for (var u : pagina) {
+                indexarUsuario(destino, u.getId(), u.getUsername(), u.getEmail());
+                ultimoId = u.getId();
+            }
+        } while (pagina.size() == tamanoPaginaReconstruccion);
+    }
+
+    private void indexarCertificacion(InvertedIndex<Clave, Entrada> destino, Long id, String tipo, Long usuarioId) {
+        destino.put(new Clave(TipoResultado.CERTIFICACION, id),
+                new Entrada(TipoResultado.CERTIFICACION, id, tipo, null, usuarioId), tipo);
+    }
+
+    private void indexarDocumento(InvertedIndex<Clave, Entrada> destino, Long id, String nombre, String tipo,
+                                  Long certificacionId) {
+        destino.put(new Clave(TipoResultado.DOCUMENTO, id),
+                new Entrada(TipoResultado.DOCUMENTO, id, nombre, tipo, certificacionId), nombre);
+    }
+
+    private void indexarUsuario(InvertedIndex<Clave, Entrada> destino, Long id, String username, String email) {
+        destino.put(new Clave(TipoResultado.USUARIO, id),
+                new Entrada(TipoResultado.USUARIO, id, username, email, null), username, email);
+    }
+
+    private BusquedaResponseDTO.ResultadoDTO toResultado(InvertedIndex.Hit<Entrada> hit) {
+        Entrada entrada = hit.getValue();
+        BusquedaResponseDTO.ResultadoDTO resultado = new BusquedaResponseDTO.ResultadoDTO();
+        resultado.setTipo(entrada.tipo().name());
+        resultado.setId(entrada.id());
+        resultado.setTitulo(entrada.titulo());
+        resultado.setDetalle(entrada.detalle());
+        resultado.setReferenciaId(entrada.referenciaId());
+        resultado.setPuntuacion(hit.getScore());
+        return resultado;
+    }
+
+    private record Clave(TipoResultado tipo, Long id) {
+    }
+
+    private record Entrada(TipoResultado tipo, Long id, String titulo, String detalle, Long referenciaId) {
+    }
+}
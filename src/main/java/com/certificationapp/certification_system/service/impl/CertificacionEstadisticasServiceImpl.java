@@ -0,0 +1,301 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.CertificacionEstadisticasDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.service.CertificacionEstadisticasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps certification statistics in memory so the dashboard endpoint never
+ * has to aggregate the certificaciones table.
+ * Counters are adjusted in O(1) after each committed write, and a periodic
+ * reconciliation against the database corrects any drift.
+ * <p>
+ * A transaction that publishes certification events holds a shared lock from before its
+ * commit until its events are applied. The reconciliation counts each dimension under the
+ * exclusive lock, so every event either committed before that dimension's queries and is
+ * in their result, or commits after them and is applied to the recalculated counters too.
+ * Writers wait at most for one dimension's queries.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificacionEstadisticasServiceImpl implements CertificacionEstadisticasService {
+
+    private final CertificacionRepository certificacionRepository;
+    private final CertificacionArchivadaRepository certificacionArchivadaRepository;
+
+    @Value("${app.stats.daily-window-days:30}")
+    private int ventanaDias;
+
+    private volatile Contadores contadores = new Contadores(EnumSet.allOf(Dimension.class));
+    // Contadores en recálculo; reciben los eventos de las dimensiones ya contadas
+    private volatile Contadores enReconciliacion;
+    // Los commits con eventos toman la lectura; contar una dimensión y reemplazar, la escritura.
+    // Justo: al soltar la escritura, los commits que esperaban entran antes que la siguiente dimensión
+    private final ReadWriteLock compuerta = new ReentrantReadWriteLock(true);
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private volatile LocalDateTime ultimaReconciliacion;
+
+    @Override
+    public CertificacionEstadisticasDTO obtenerEstadisticas() {
+        Contadores actuales = contadores;
+        LocalDate desde = LocalDate.now().minusDays(ventanaDias - 1L);
+
+        Map<String, Long> porEstado = new TreeMap<>();
+        actuales.porEstado.forEach((estado, total) -> porEstado.put(estado.name(), total.sum()));
+
+        Map<String, Long> porTipo = new TreeMap<>();
+        actuales.porTipo.forEach((tipo, total) -> {
+            long valor = total.sum();
+            if (valor > 0) {
+                porTipo.put(tipo, valor);
+            }
+        });
+
+        Map<LocalDate, Long> ingresosDiarios = new TreeMap<>();
+        actuales.porDia.forEach((dia, total) -> {
+            long valor = total.sum();
+            if (!dia.isBefore(desde) && valor > 0) {
+                ingresosDiarios.put(dia, valor);
+            }
+        });
+
+        CertificacionEstadisticasDTO dto = new CertificacionEstadisticasDTO();
+        dto.setTotal(porEstado.values().stream().mapToLong(Long::longValue).sum());
+        dto.setPorEstado(porEstado);
+        dto.setPorTipo(porTipo);
+        dto.setIngresosDiarios(ingresosDiarios);
+        dto.setUltimaReconciliacion(ultimaReconciliacion);
+        return dto;
+    }
+
+    /**
+     * Holds the shared lock across the commit and applies the event right after it, before
+     * the after-commit listeners run. Without a transaction the event is applied right away.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCertificacionEvent(CertificacionEvent event) {
+        compuerta.readLock().lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                aplicar(event);
+            } finally {
+                compuerta.readLock().unlock();
+            }
+            return;
+        }
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new Commit(event));
+        } catch (RuntimeException ex) {
+            compuerta.readLock().unlock();
+            throw ex;
+        }
+    }
+
+    private void aplicar(CertificacionEvent event) {
+        contadores.aplicar(event);
+        Contadores recalculados = enReconciliacion;
+        if (recalculados != null) {
+            recalculados.aplicar(event);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${app.stats.reconcile-interval:PT5M}")
+    // En el primario: una réplica atrasada no vería commits cuyos eventos ya se aplicaron
+    @Transactional
+    public void reconciliar() {
+        cerrojo.lock();
+        try {
+            Contadores recalculados = new Contadores(EnumSet.noneOf(Dimension.class));
+            LocalDateTime desde = LocalDate.now().minusDays(ventanaDias - 1L).atStartOfDay();
+            enReconciliacion = recalculados;
+            try {
+                // Las certificaciones archivadas siguen existiendo y cuentan igual que las activas
+                contar(recalculados, Dimension.ESTADO, () -> Stream.concat(
+                                certificacionRepository.contarPorEstado().stream(),
+                                certificacionArchivadaRepository.contarPorEstado().stream())
+                        .forEach(conteo -> recalculados.contador(recalculados.porEstado, conteo.getEstado()).add(conteo.getTotal())));
+                contar(recalculados, Dimension.TIPO, () -> Stream.concat(
+                                certificacionRepository.contarPorTipo().stream(),
+                                certificacionArchivadaRepository.contarPorTipo().stream())
+                        .forEach(conteo -> recalculados.contador(recalculados.porTipo, conteo.getTipo()).add(conteo.getTotal())));
+                contar(recalculados, Dimension.DIA, () -> Stream.concat(
+                                certificacionRepository.contarPorDiaDesde(desde).stream(),
+                                certificacionArchivadaRepository.contarPorDiaDesde(desde).stream())
+                        .forEach(conteo -> recalculados.contador(recalculados.porDia, conteo.getDia()).add(conteo.getTotal())));
+
+                conCompuerta(() -> contadores = recalculados);
+            } finally {
+                enReconciliacion = null;
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+
+        ultimaReconciliacion = LocalDateTime.now();
+        log.debug("Certification statistics reconciled at {}", ultimaReconciliacion);
+    }
+
+    /**
+     * Runs the queries of one dimension with commits held back; from then on the
+     * recalculated counters take that dimension's events.
+     */
+    private void contar(Contadores recalculados, Dimension dimension, Runnable consultas) {
+        conCompuerta(() -> {
+            consultas.run();
+            recalculados.completas.add(dimension);
+        });
+    }
+
+    private void conCompuerta(Runnable accion) {
+        compuerta.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            compuerta.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies one event after its transaction commits and releases the shared lock taken
+     * before the commit, whatever the outcome.
+     */
+    private class Commit implements TransactionSynchronization {
+        private final CertificacionEvent event;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        Commit(CertificacionEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (liberado.compareAndSet(false, true)) {
+                try {
+                    aplicar(event);
+                } finally {
+                    compuerta.readLock().unlock();
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            // Rollback, o un afterCommit anterior falló antes de llegar a éste
+            if (liberado.compareAndSet(false, true)) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        aplicar(event);
+                    }
+                } finally {
+                    compuerta.readLock().unlock();
+                }
+            }
+        }
+    }
+
+    private enum Dimension {
+        ESTADO, TIPO, DIA
+    }
+
+    private static class Contadores {
+        private final ConcurrentMap<Certificacion.Status, LongAdder> porEstado = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> porTipo = new ConcurrentHashMap<>();
+        private final ConcurrentMap<LocalDate, LongAdder> porDia = new ConcurrentHashMap<>();
+        // Dimensiones que ya reflejan la base de datos; sólo cambia bajo la compuerta exclusiva
+        private final Set<Dimension> completas;
+
+        Contadores(Set<Dimension> completas) {
+            this.completas = completas;
+        }
+
+        void aplicar(CertificacionEvent event) {
+            boolean estado = completas.contains(Dimension.ESTADO);
+            boolean tipo = completas.contains(Dimension.TIPO);
+            boolean dia = completas.contains(Dimension.DIA);
+            switch (event.getTipoEvento()) {
+                case CREADA -> {
+                    if (estado) {
+                        sumar(porEstado, event.getEstadoNuevo(), 1);
+                    }
+                    if (tipo) {
+                        sumar(porTipo, event.getTipo(), 1);
+                    }
+                    if (dia) {
+                        sumar(porDia, dia(event), 1);
+                    }
+                }
+                case ESTADO_ACTUALIZADO -> {
+                    if (estado && event.getEstadoAnterior() != event.getEstadoNuevo()) {
+                        sumar(porEstado, event.getEstadoAnterior(), -1);
+                        sumar(porEstado, event.getEstadoNuevo(), 1);
+                    }
+                }
+                case ELIMINADA -> {
+                    if (estado) {
+                        sumar(porEstado, event.getEstadoAnterior(), -1);
+                    }
+                    if (tipo) {
+                        sumar(porTipo, event.getTipo(), -1);
+                    }
+                    if (dia) {
+                        sumar(porDia, dia(event), -1);
+                    }
+                }
+            }
+        }
+
+        private LocalDate dia(CertificacionEvent event) {
+            return event.getFechaCreacion() != null ? event.getFechaCreacion().toLocalDate() : LocalDate.now();
+        }
+
+        private <K> void sumar(ConcurrentMap<K, LongAdder> mapa, K clave, long delta) {
+            if (clave != null) {
+                contador(mapa, clave).add(delta);
+            }
+        }
+
+        private <K> LongAdder contador(ConcurrentMap<K, LongAdder> mapa, K clave) {
+            return mapa.computeIfAbsent(clave, k -> new LongAdder());
+        }
+    }
+}
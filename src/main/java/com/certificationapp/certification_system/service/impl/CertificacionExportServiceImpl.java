@@ -0,0 +1,233 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.common.CsvUtils;
+import com.certificationapp.certification_system.service.CertificacionExportService;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import com.certificationapp.certification_system.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Streams every certification, with its owner and document metadata, to an output stream.
+ * Rows are read through a forward-only cursor and written as soon as they are mapped,
+ * so heap usage does not depend on the size of the export. With sharding, the shards are
+ * read one after another, each in its own read-only transaction.
+ */
+@Slf4j
+@Service
+public class CertificacionExportServiceImpl implements CertificacionExportService {
+
+    // Proyección escalar: ninguna entidad queda gestionada por el contexto de persistencia
+    private static final String CONSULTA_EXPORTACION =
+            "SELECT c.id, c.tipo, c.status, c.fechaCreacion, u.id, u.username, u.email, " +
+            "d.id, d.nombre, d.tipo, d.url, d.fechaSubida " +
+            "FROM Certificacion c JOIN c.usuario u LEFT JOIN c.documentos d " +
+            "ORDER BY c.id, d.id";
+
+    private static final String[] CABECERA_CSV = {
+            "certificacion_id", "tipo", "status", "fecha_creacion", "usuario_id", "username", "email",
+            "documento_id", "documento_nombre", "documento_tipo", "documento_url", "documento_fecha_subida"
+    };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    public CertificacionExportServiceImpl(ObjectMapper objectMapper,
+                                          ObjectProvider<ShardRoutingDataSource> shards,
+                                          PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.shards = shards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void exportar(FormatoExportacion formato, OutputStream salida) throws IOException {
+        ShardRoutingDataSource routing = shards.getIfAvailable();
+        int shardCount = routing != null ? routing.shardCount() : 1;
+        long filas = 0;
+
+        try (EscritorExportacion escritor = crearEscritor(formato, salida)) {
+            // El shard va en los bits altos del id: recorrerlos en orden mantiene el orden por id
+            for (int shard = 0; shard < shardCount; shard++) {
+                filas += exportarShard(shard, escritor);
+            }
+        }
+
+        log.info("Exported {} certification rows as {}", filas, formato);
+    }
+
+    private long exportarShard(int shard, EscritorExportacion escritor) throws IOException {
+        try {
+            return ShardContext.callInShard(shard, () -> readOnlyTransaction.execute(status -> {
+                try {
+                    return volcar(escritor);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private long volcar(EscritorExportacion escritor) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        long filas = 0;
+
+        try (ScrollableResults<Object[]> cursor = session.createQuery(CONSULTA_EXPORTACION, Object[].class)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            while (cursor.next()) {
+                escritor.escribir(cursor.get());
+                if (++filas % fetchSize == 0) {
+                    escritor.flush();
+                    session.clear();
+                }
+            }
+        }
+        escritor.flush();
+        return filas;
+    }
+
+    private EscritorExportacion crearEscritor(FormatoExportacion formato, OutputStream salida) throws IOException {
+        return switch (formato) {
+            case CSV -> new EscritorCsv(salida);
+            case NDJSON -> new EscritorNdjson(objectMapper, salida);
+        };
+    }
+
+    private interface EscritorExportacion extends Closeable {
+        void escribir(Object[] fila) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * One CSV record per (certification, document) pair; certifications without
+     * documents produce a single record with empty document columns.
+     */
+    private static class EscritorCsv implements EscritorExportacion {
+        private final Writer writer;
+
+        EscritorCsv(OutputStream salida) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            writer.write(CsvUtils.toLine((Object[]) CABECERA_CSV));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void escribir(Object[] fila) throws IOException {
+            writer.write(CsvUtils.toLine(fila));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per certification with its documents nested. Rows arrive ordered
+     * by certification id, so an object is closed as soon as the next id shows up.
+     */
+    private static class EscritorNdjson implements EscritorExportacion {
+        private final JsonGenerator generator;
+        private Long certificacionActual;
+
+        EscritorNdjson(ObjectMapper objectMapper, OutputStream salida) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(salida);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void escribir(Object[] fila) throws IOException {
+            Long certificacionId = (Long) fila[0];
+            if (!Objects.equals(certificacionId, certificacionActual)) {
+                cerrarCertificacion();
+                abrirCertificacion(fila);
+                certificacionActual = certificacionId;
+            }
+            if (fila[7] != null) {
+                generator.writeStartObject();
+                generator.writeObjectField("id", fila[7]);
+                generator.writeObjectField("nombre", fila[8]);
+                generator.writeObjectField("tipo", fila[9]);
+                generator.writeObjectField("url", fila[10]);
+                generator.writeObjectField("fechaSubida", fila[11]);
+                generator.writeEndObject();
+            }
+        }
+
+        private void abrirCertificacion(Object[] fila) throws IOException {
+            generator.writeStartObject();
+            generator.writeObjectField("id", fila[0]);
+            generator.writeObjectField("tipo", fila[1]);
+            generator.writeObjectField("status", fila[2]);
+            generator.writeObjectField("fechaCreacion", fila[3]);
+            generator.writeObjectFieldStart("usuario");
+            generator.writeObjectField("id", fila[4]);
+            generator.writeObjectField("username", fila[5]);
+            generator.writeObjectField("email", fila[6]);
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("documentos");
+        }
+
+        private void cerrarCertificacion() throws IOException {
+            if (certificacionActual != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            cerrarCertificacion();
+            generator.flush();
+        }
+    }
+}
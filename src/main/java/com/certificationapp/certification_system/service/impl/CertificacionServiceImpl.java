@@ -1,18 +1,35 @@
 package com.certificationapp.certification_system.service.impl;
 
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.event.CertificacionEvent;
 import com.certificationapp.certification_system.exception.ResourceNotFoundException;
 import com.certificationapp.certification_system.mapper.CertificacionMapper;
 import com.certificationapp.certification_system.model.Certificacion;
 import com.certificationapp.certification_system.model.Usuario;
 import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.service.ArchivoService;
 import com.certificationapp.certification_system.service.CertificacionService;
 import com.certificationapp.certification_system.service.UsuarioService;
+import com.certificationapp.certification_system.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Operations on one user's certifications enter that user's shard before their transaction
+ * starts, as a transaction stays on the shard of its first statement; the user, read from
+ * shard 0, or a second-level cache hit would otherwise leave it on the wrong one.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -21,19 +38,33 @@ public class CertificacionServiceImpl implements CertificacionService{
     private final CertificacionRepository certificacionRepository;
     private final UsuarioService usuarioService;
     private final CertificacionMapper certificacionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArchivoService archivoService;
+    private final CatalogoTipos catalogoTipos;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.expiry.default-validity:P365D}")
+    private Duration validezPorDefecto;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Certificacion crearCertificacion(Certificacion certificacion) {
-        // Verificar y cargar el usuario completo
+        // Verificar y cargar el usuario completo; el usuario y el tipo son datos del shard 0
         Usuario usuario = usuarioService.obtenerUsuarioPorId(certificacion.getUsuario().getId());
         certificacion.setUsuario(usuario);
-        return certificacionRepository.save(certificacion);
+        certificacion.setTipo(catalogoTipos.resolver(certificacion.getTipo()));
+        return ShardContext.callInShardOf(usuario.getId(), () -> transactionTemplate.execute(status -> {
+            Certificacion creada = certificacionRepository.save(certificacion);
+            eventPublisher.publishEvent(CertificacionEvent.creada(creada));
+            return creada;
+        }));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Certificacion obtenerCertificacionPorId(Long id) {
         return certificacionRepository.findById(id)
+                .or(() -> archivoService.buscarCertificacion(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Certificación no encontrada con id: " + id));
     }
 
@@ -44,24 +75,57 @@ public class CertificacionServiceImpl implements CertificacionService{
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Certificacion> obtenerCertificacionesPorUsuario(Long usuarioId) {
         Usuario usuario = usuarioService.obtenerUsuarioPorId(usuarioId);
-        return certificacionRepository.findByUsuario(usuario);
+        return ShardContext.callInShardOf(usuarioId, () -> transactionTemplate.execute(status -> {
+            List<Certificacion> certificaciones = certificacionRepository.findByUsuario(usuario);
+            // Los documentos se cargan aquí, en el shard del usuario, y no al mapear la respuesta
+            certificaciones.forEach(certificacion -> Hibernate.initialize(certificacion.getDocumentos()));
+            return certificaciones;
+        }));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Certificacion actualizarEstadoCertificacion(Long id, Certificacion.Status nuevoEstado) {
-        Certificacion certificacion = obtenerCertificacionPorId(id);
-        certificacion.setStatus(nuevoEstado);
-        return certificacionRepository.save(certificacion);
+        return ShardContext.callInShardOf(id, () -> transactionTemplate.execute(status -> {
+            Certificacion certificacion = obtenerCertificacionParaEscritura(id);
+            Certificacion.Status estadoAnterior = certificacion.getStatus();
+            if (nuevoEstado == Certificacion.Status.APPROVED && estadoAnterior != Certificacion.Status.APPROVED) {
+                renovarVigencia(certificacion);
+            }
+            certificacion.setStatus(nuevoEstado);
+            Certificacion actualizada = certificacionRepository.save(certificacion);
+            eventPublisher.publishEvent(CertificacionEvent.estadoActualizado(actualizada, estadoAnterior));
+            return actualizada;
+        }));
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void eliminarCertificacion(Long id) {
-        if (!certificacionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Certificación no encontrada con id: " + id);
+        ShardContext.callInShardOf(id, () -> transactionTemplate.execute(status -> {
+            Certificacion certificacion = obtenerCertificacionParaEscritura(id);
+            certificacionRepository.delete(certificacion);
+            eventPublisher.publishEvent(CertificacionEvent.eliminada(certificacion));
+            return null;
+        }));
+    }
+
+    private void renovarVigencia(Certificacion certificacion) {
+        // Se respeta un vencimiento futuro indicado al crearla; si no, empieza un nuevo periodo
+        LocalDateTime ahora = LocalDateTime.now();
+        if (certificacion.getFechaVencimiento() == null || !certificacion.getFechaVencimiento().isAfter(ahora)) {
+            certificacion.setFechaVencimiento(ahora.plus(validezPorDefecto));
         }
-        certificacionRepository.deleteById(id);
+        certificacion.setRecordatorioEnviado(false);
+    }
+
+    private Certificacion obtenerCertificacionParaEscritura(Long id) {
+        // Una certificación archivada vuelve a la tabla activa antes de modificarse
+        return certificacionRepository.findById(id)
+                .or(() -> archivoService.restaurar(id) ? certificacionRepository.findById(id) : Optional.empty())
+                .orElseThrow(() -> new ResourceNotFoundException("Certificación no encontrada con id: " + id));
     }
 }
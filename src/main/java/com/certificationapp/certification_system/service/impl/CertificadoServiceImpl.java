@@ -0,0 +1,304 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.VerificacionCertificadoDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.event.CertificadoEvent;
+import com.certificationapp.certification_system.exception.ResourceNotFoundException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Certificado;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.security.CertificadoFirmaProvider;
+import com.certificationapp.certification_system.service.CertificadoService;
+import com.certificationapp.certification_system.sharding.ShardTransactions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Issues a signed certificate when a certification is approved and revokes it when the
+ * approval is withdrawn or the certification deleted.
+ * Public verification is answered from an in-memory index keyed by verification code,
+ * so it never touches the database. The index is loaded at startup, follows committed
+ * issuances and revocations, and is periodically refreshed to pick up other instances' writes.
+ * A refresh only reads certificates issued or revoked since the previous one (minus an
+ * overlap for transactions that committed late) and skips those already indexed as-is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificadoServiceImpl implements CertificadoService {
+
+    // Base32 de Crockford: sin I, L, O ni U para que el código se pueda dictar sin ambigüedad
+    private static final String ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    // Sin configuración adicional: escribe un TreeMap en orden de claves y sin espacios
+    private static final ObjectMapper JSON_CANONICO = new ObjectMapper();
+
+    private static final String TAREA_EMITIR = "certificados.emitir";
+    private static final String TAREA_REVOCAR = "certificados.revocar";
+
+    private final CertificadoRepository certificadoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CertificadoFirmaProvider firmaProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardTransactions shardTransactions;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final ConcurrentMap<String, VerificacionCertificadoDTO> indice = new ConcurrentHashMap<>();
+
+    @Value("${app.certificates.code-length:10}")
+    private int longitudCodigo;
+
+    @Value("${app.certificates.issuer:certification-system}")
+    private String emisor;
+
+    @Value("${app.certificates.reload-page-size:1000}")
+    private int tamanoPaginaRecarga;
+
+    @Value("${app.certificates.index-refresh-overlap:PT1M}")
+    private Duration solapamientoRefresco;
+
+    // Cambios anteriores a esta marca ya están en el índice
+    private volatile LocalDateTime marcaRefresco;
+
+    @Override
+    public VerificacionCertificadoDTO verificar(String codigo) {
+        VerificacionCertificadoDTO verificacion = indice.get(normalizar(codigo));
+        if (verificacion == null) {
+            throw new ResourceNotFoundException("Certificado no encontrado con código: " + codigo);
+        }
+        return verificacion;
+    }
+
+    @Override
+    public int recargarIndice() {
+        LocalDateTime marca = LocalDateTime.now().minus(solapamientoRefresco);
+        int total = 0;
+        long ultimoId = 0;
+        List<Certificado> pagina;
+        do {
+            pagina = certificadoRepository.findDespuesDe(ultimoId, PageRequest.of(0, tamanoPaginaRecarga));
+            for (Certificado certificado : pagina) {
+                indexar(certificado);
+                ultimoId = certificado.getId();
+            }
+            total += pagina.size();
+        } while (pagina.size() == tamanoPaginaRecarga);
+        marcaRefresco = marca;
+        return total;
+    }
+
+    /**
+     * Loads the index before the web server starts accepting verification requests.
+     */
+    @PostConstruct
+    void cargarIndice() {
+        log.info("Certificate verification index loaded with {} certificates", recargarIndice());
+    }
+
+    /**
+     * Certificates live in shard 0, so issuing or revoking one for a certification on another
+     * shard is queued in that certification's transaction. Both are idempotent: a redelivered
+     * issuance finds the certificate already issued and a revocation only touches valid ones.
+     */
+    @PostConstruct
+    void registrarTareas() {
+        shardTransactions.register(TAREA_EMITIR, Emision.class, this::emitir);
+        shardTransactions.register(TAREA_REVOCAR, Revocacion.class,
+                revocacion -> revocar(certificadoRepository.findByCertificacionIdInAndRevocadoFalse(revocacion.certificacionIds())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.certificates.index-refresh-interval:PT10M}",
+            initialDelayString = "${app.certificates.index-refresh-interval:PT10M}")
+    public void refrescarIndice() {
+        LocalDateTime desde = marcaRefresco;
+        if (desde == null) {
+            recargarIndice();
+            return;
+        }
+        LocalDateTime marca = LocalDateTime.now().minus(solapamientoRefresco);
+        int cambiados = 0;
+        long ultimoId = 0;
+        List<Certificado> pagina;
+        do {
+            pagina = certificadoRepository.findCambiadosDesde(desde, ultimoId, PageRequest.of(0, tamanoPaginaRecarga));
+            for (Certificado certificado : pagina) {
+                if (!yaIndexado(certificado)) {
+                    indexar(certificado);
+                    cambiados++;
+                }
+                ultimoId = certificado.getId();
+            }
+        } while (pagina.size() == tamanoPaginaRecarga);
+        marcaRefresco = marca;
+        log.debug("Certificate verification index refreshed: {} certificates changed since {}", cambiados, desde);
+    }
+
+    /**
+     * Runs inside the transaction that changes the certification, so the certificate is
+     * issued or revoked atomically with the status change, or queued with it on another shard.
+     */
+    @EventListener
+    public void onCertificacionEvent(CertificacionEvent event) {
+        boolean aprobada = event.getEstadoNuevo() == Certificacion.Status.APPROVED;
+        boolean estabaAprobada = event.getEstadoAnterior() == Certificacion.Status.APPROVED;
+        // Los certificados están en el shard 0, aunque la certificación esté en otro
+        if (aprobada && !estabaAprobada) {
+            shardTransactions.runOnPrimary(TAREA_EMITIR,
+                    new Emision(event.getCertificacionId(), event.getUsuarioId(), event.getTipo()));
+        } else if (estabaAprobada && !aprobada) {
+            shardTransactions.runOnPrimary(TAREA_REVOCAR, new Revocacion(List.of(event.getCertificacionId())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCertificadoEvent(CertificadoEvent event) {
+        indexar(event.getCertificado());
+    }
+
+    private void emitir(Emision emision) {
+        if (!certificadoRepository.findByCertificacionIdAndRevocadoFalse(emision.certificacionId()).isEmpty()) {
+            log.debug("Certificate of certification {} already issued", emision.certificacionId());
+            return;
+        }
+        Optional<Usuario> usuario = usuarioRepository.findById(emision.usuarioId());
+        if (usuario.isEmpty()) {
+            // Emisión encolada que llega después de purgar al usuario
+            log.warn("Certificate of certification {} not issued: user {} no longer exists",
+                    emision.certificacionId(), emision.usuarioId());
+            return;
+        }
+        Usuario titular = usuario.get();
+        String codigo = generarCodigo();
+        LocalDateTime fechaEmision = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Map<String, Object> campos = new TreeMap<>();
+        campos.put("certificacionId", emision.certificacionId());
+        campos.put("claveId", firmaProvider.getClaveId());
+        campos.put("codigo", codigo);
+        campos.put("emisor", emisor);
+        campos.put("fechaEmision", fechaEmision.toString());
+        campos.put("tipo", emision.tipo());
+        campos.put("titular", titular.getUsername());
+        String contenido;
+        try {
+            contenido = JSON_CANONICO.writeValueAsString(campos);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize certificate content", ex);
+        }
+
+        Certificado certificado = new Certificado();
+        certificado.setCodigo(codigo);
+        certificado.setCertificacionId(emision.certificacionId());
+        certificado.setTitular(titular.getUsername());
+        certificado.setTipo(emision.tipo());
+        certificado.setContenido(contenido);
+        certificado.setFirma(firmaProvider.firmar(contenido));
+        certificado.setClaveId(firmaProvider.getClaveId());
+        certificado.setFechaEmision(fechaEmision);
+        Certificado emitido = certificadoRepository.save(certificado);
+        eventPublisher.publishEvent(CertificadoEvent.emitido(emitido));
+    }
+
+    /**
+     * Revokes the certificates of certifications removed without a deletion event, such as
+     * archived ones deleted set-based. Must run inside the transaction that deletes them, which
+     * queues the revocation when it is on another shard.
+     */
+    @Override
+    public void revocarPorCertificaciones(Collection<Long> certificacionIds) {
+        shardTransactions.runOnPrimary(TAREA_REVOCAR, new Revocacion(List.copyOf(certificacionIds)));
+    }
+
+    private void revocar(List<Certificado> certificados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Certificado certificado : certificados) {
+            certificado.setRevocado(true);
+            certificado.setFechaRevocacion(ahora);
+            eventPublisher.publishEvent(CertificadoEvent.revocado(certificado));
+        }
+    }
+
+    record Emision(Long certificacionId, Long usuarioId, String tipo) {
+    }
+
+    record Revocacion(List<Long> certificacionIds) {
+    }
+
+    private String generarCodigo() {
+        String codigo;
+        do {
+            StringBuilder builder = new StringBuilder(longitudCodigo);
+            for (int i = 0; i < longitudCodigo; i++) {
+                builder.append(ALFABETO.charAt(aleatorio.nextInt(ALFABETO.length())));
+            }
+            codigo = builder.toString();
+        } while (certificadoRepository.existsByCodigo(codigo));
+        return codigo;
+    }
+
+    // Las filas del solapamiento ya indexadas sin cambios no se vuelven a verificar
+    private boolean yaIndexado(Certificado certificado) {
+        VerificacionCertificadoDTO actual = indice.get(certificado.getCodigo());
+        return actual != null && Objects.equals(actual.getFechaRevocacion(), certificado.getFechaRevocacion());
+    }
+
+    private void indexar(Certificado certificado) {
+        VerificacionCertificadoDTO verificacion = new VerificacionCertificadoDTO();
+        verificacion.setCodigo(certificado.getCodigo());
+        verificacion.setTitular(certificado.getTitular());
+        verificacion.setTipo(certificado.getTipo());
+        verificacion.setFechaEmision(certificado.getFechaEmision());
+        verificacion.setFechaRevocacion(certificado.getFechaRevocacion());
+        verificacion.setContenido(certificado.getContenido());
+        verificacion.setFirma(certificado.getFirma());
+        verificacion.setAlgoritmo(CertificadoFirmaProvider.ALGORITMO);
+        verificacion.setClaveId(certificado.getClaveId());
+
+        // La firma se comprueba una vez al indexar, no en cada consulta
+        boolean firmadoConClaveActual = firmaProvider.getClaveId().equals(certificado.getClaveId());
+        if (firmadoConClaveActual) {
+            verificacion.setClavePublica(firmaProvider.getClavePublicaCodificada());
+        }
+        verificacion.setValido(!certificado.isRevocado() && firmadoConClaveActual
+                && firmaProvider.verificar(certificado.getContenido(), certificado.getFirma()));
+
+        // La revocación es definitiva: una recarga con datos anteriores no la deshace
+        indice.merge(certificado.getCodigo(), verificacion,
+                (actual, nueva) -> actual.getFechaRevocacion() != null ? actual : nueva);
+    }
+
+    private static String normalizar(String codigo) {
+        return codigo.trim().toUpperCase(Locale.ROOT)
+                .replace("-", "")
+                .replace('O', '0')
+                .replace('I', '1')
+                .replace('L', '1');
+    }
+}
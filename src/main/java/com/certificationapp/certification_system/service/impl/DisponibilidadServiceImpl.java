@@ -0,0 +1,236 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.DisponibilidadDTO;
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.search.BloomFilter;
+import com.certificationapp.certification_system.service.DisponibilidadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers username and email availability from two in-memory Bloom filters of the
+ * normalized values, so the signup form's per-keystroke checks rarely reach the database.
+ * <p>
+ * A value the filter has never seen is available without a query; only probable hits are
+ * confirmed with the indexed lookup. New values are added while the creating transaction is
+ * still open and again after it commits, so a taken value is never reported as available,
+ * not even while the filters are being rebuilt. Deleted or renamed values cannot be taken
+ * out of a Bloom filter and just cost a query until the next rebuild, which runs in the
+ * background once they, or growth beyond the sized capacity, degrade the filters.
+ * Until the first build finishes every check goes to the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DisponibilidadServiceImpl implements DisponibilidadService {
+
+    private static final long MIN_OBSOLETOS_RECONSTRUCCION = 1000;
+
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${app.availability.expected-users:1000000}")
+    private long usuariosEsperados;
+
+    @Value("${app.availability.false-positive-rate:0.01}")
+    private double tasaFalsosPositivos;
+
+    @Value("${app.availability.max-stale-ratio:0.1}")
+    private double maxProporcionObsoletos;
+
+    @Value("${app.availability.rebuild-page-size:5000}")
+    private int tamanoPaginaReconstruccion;
+
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    // Bajas y renombrados desde la última reconstrucción: siguen dando positivo en los filtros
+    private final AtomicLong obsoletos = new AtomicLong();
+
+    // Nulo hasta que termina la primera carga
+    private volatile Filtros filtros;
+
+    // Recibe también las altas mientras dura una reconstrucción
+    private volatile Filtros filtrosEnConstruccion;
+
+    @Override
+    public DisponibilidadDTO comprobar(String username, String email) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            throw new IllegalArgumentException("Indique un username o un email");
+        }
+
+        DisponibilidadDTO disponibilidad = new DisponibilidadDTO();
+        if (StringUtils.hasText(username)) {
+            disponibilidad.setUsername(username);
+            disponibilidad.setUsernameDisponible(!usernameOcupado(username));
+        }
+        if (StringUtils.hasText(email)) {
+            disponibilidad.setEmail(email);
+            disponibilidad.setEmailDisponible(!emailOcupado(email));
+        }
+        return disponibilidad;
+    }
+
+    @Override
+    public boolean usernameOcupado(String username) {
+        String normalizado = Usuario.normalizar(username);
+        Filtros actuales = filtros;
+        if (actuales != null && !actuales.usernames().mightContain(normalizado)) {
+            return false;
+        }
+        return usuarioRepository.existsByUsernameNormalizado(normalizado);
+    }
+
+    @Override
+    public boolean emailOcupado(String email) {
+        String normalizado = Usuario.normalizar(email);
+        Filtros actuales = filtros;
+        if (actuales != null && !actuales.emails().mightContain(normalizado)) {
+            return false;
+        }
+        return usuarioRepository.existsByEmailNormalizado(normalizado);
+    }
+
+    @Override
+    public long reconstruirFiltros() {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            throw new IllegalStateException("Availability filter rebuild already in progress");
+        }
+        try {
+            long obsoletosAlEmpezar = obsoletos.get();
+            Filtros nuevos = Filtros.crear(Math.max(usuariosEsperados, usuarioRepository.count() * 2), tasaFalsosPositivos);
+            filtrosEnConstruccion = nuevos;
+
+            long cargados = 0;
+            long ultimoId = 0;
+            List<UsuarioRepository.UsuarioIndexable> pagina;
+            do {
+                pagina = usuarioRepository.findIndexablesDespuesDe(ultimoId, PageRequest.ofSize(tamanoPaginaReconstruccion));
+                for (var usuario : pagina) {
+                    nuevos.anadir(usuario.getUsername(), usuario.getEmail());
+                    ultimoId = usuario.getId();
+                }
+                cargados += pagina.size();
+            } while (pagina.size() == tamanoPaginaReconstruccion);
+
+            filtros = nuevos;
+            obsoletos.addAndGet(-obsoletosAlEmpezar);
+            log.info("Availability filters built with {} users ({} KB)", cargados, nuevos.tamanoEnBytes() / 1024);
+            return cargados;
+        } finally {
+            filtrosEnConstruccion = null;
+            reconstruyendo.set(false);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        reconstruirEnSegundoPlano();
+    }
+
+    /**
+     * Adds new values before the transaction commits, so they are never reported as available.
+     */
+    @EventListener
+    public void onUsuarioEvent(UsuarioEvent event) {
+        aplicar(event);
+    }
+
+    /**
+     * Adds the values again, for a rebuild that started while the transaction was open and
+     * could not see its row, and tracks the values the filters can no longer forget.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUsuarioConfirmado(UsuarioEvent event) {
+        aplicar(event);
+        if (event.getTipoEvento() != UsuarioEvent.Tipo.CREADO) {
+            obsoletos.incrementAndGet();
+        }
+        comprobarDegradacion();
+    }
+
+    private void aplicar(UsuarioEvent event) {
+        if (event.getTipoEvento() == UsuarioEvent.Tipo.ELIMINADO) {
+            return;
+        }
+        Filtros actuales = filtros;
+        if (actuales != null) {
+            actuales.anadir(event.getUsername(), event.getEmail());
+        }
+        Filtros enConstruccion = filtrosEnConstruccion;
+        if (enConstruccion != null) {
+            enConstruccion.anadir(event.getUsername(), event.getEmail());
+        }
+    }
+
+    private void comprobarDegradacion() {
+        Filtros actuales = filtros;
+        if (actuales == null || reconstruyendo.get()) {
+            return;
+        }
+        long valores = actuales.valores();
+        if (valores > actuales.capacidad()
+                || obsoletos.get() > Math.max(MIN_OBSOLETOS_RECONSTRUCCION, valores * maxProporcionObsoletos)) {
+            reconstruirEnSegundoPlano();
+        }
+    }
+
+    private void reconstruirEnSegundoPlano() {
+        Thread thread = new Thread(() -> {
+            try {
+                reconstruirFiltros();
+            } catch (IllegalStateException ex) {
+                log.debug("Availability filter rebuild skipped: {}", ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.error("Availability filter build failed", ex);
+            }
+        }, "availability-filter-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private record Filtros(BloomFilter usernames, BloomFilter emails) {
+
+        static Filtros crear(long capacidad, double tasaFalsosPositivos) {
+            return new Filtros(new BloomFilter(capacidad, tasaFalsosPositivos),
+                    new BloomFilter(capacidad, tasaFalsosPositivos));
+        }
+
+        void anadir(String username, String email) {
+            anadir(usernames, username);
+            anadir(emails, email);
+        }
+
+        long valores() {
+            return Math.max(usernames.insertions(), emails.insertions());
+        }
+
+        long capacidad() {
+            return usernames.capacity();
+        }
+
+        long tamanoEnBytes() {
+            return usernames.sizeInBytes() + emails.sizeInBytes();
+        }
+
+        private static void anadir(BloomFilter filtro, String valor) {
+            String normalizado = Usuario.normalizar(valor);
+            // Sin repetir los que ya están, para que el recuento refleje valores distintos
+            if (normalizado != null && !filtro.mightContain(normalizado)) {
+                filtro.put(normalizado);
+            }
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.certificationapp.certification_system.service.impl;
 
+import com.certificationapp.certification_system.event.DocumentoEvent;
 import com.certificationapp.certification_system.exception.ResourceNotFoundException;
 import com.certificationapp.certification_system.model.Certificacion;
 import com.certificationapp.certification_system.model.Documento;
 import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.service.ArchivoService;
 import com.certificationapp.certification_system.service.CertificacionService;
 import com.certificationapp.certification_system.service.DocumentoService;
+import com.certificationapp.certification_system.sharding.ShardContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -22,6 +28,9 @@ public class DocumentoServiceImpl implements DocumentoService {
 
     private final DocumentoRepository documentoRepository;
     private final CertificacionService certificacionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArchivoService archivoService;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Set<String> TIPOS_PERMITIDOS = new HashSet<>(Arrays.asList(
             "application/pdf",
@@ -32,9 +41,20 @@ public class DocumentoServiceImpl implements DocumentoService {
     ));
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Documento guardarDocumento(Documento documento) {
         validarDocumento(documento);
-        return documentoRepository.save(documento);
+        // Como las certificaciones, se escribe en una transacción abierta en el shard de la certificación
+        return ShardContext.callInShardOf(documento.getCertificacion().getId(), () -> transactionTemplate.execute(status -> {
+            if (documento.getCertificacion().isArchivada()) {
+                Long certificacionId = documento.getCertificacion().getId();
+                archivoService.restaurar(certificacionId);
+                documento.setCertificacion(certificacionService.obtenerCertificacionPorId(certificacionId));
+            }
+            Documento guardado = documentoRepository.save(documento);
+            eventPublisher.publishEvent(DocumentoEvent.guardado(guardado));
+            return guardado;
+        }));
     }
 
     private void validarDocumento(Documento documento) {
@@ -51,6 +71,7 @@ public class DocumentoServiceImpl implements DocumentoService {
     @Transactional(readOnly = true)
     public Documento obtenerDocumentoPorId(Long id) {
         return documentoRepository.findById(id)
+                .or(() -> archivoService.buscarDocumento(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con id: " + id));
     }
 
@@ -58,14 +79,24 @@ public class DocumentoServiceImpl implements DocumentoService {
     @Transactional(readOnly = true)
     public List<Documento> obtenerDocumentosPorCertificacion(Long certificacionId) {
         Certificacion certificacion = certificacionService.obtenerCertificacionPorId(certificacionId);
+        if (certificacion.isArchivada()) {
+            return certificacion.getDocumentos();
+        }
         return documentoRepository.findByCertificacion(certificacion);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void eliminarDocumento(Long id) {
-        if (!documentoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Documento no encontrado con id: " + id);
-        }
-        documentoRepository.deleteById(id);
+        ShardContext.callInShardOf(id, () -> transactionTemplate.execute(status -> {
+            Documento documento = obtenerDocumentoPorId(id);
+            if (documento.getCertificacion().isArchivada()) {
+                archivoService.restaurar(documento.getCertificacion().getId());
+                documento = obtenerDocumentoPorId(id);
+            }
+            documentoRepository.delete(documento);
+            eventPublisher.publishEvent(DocumentoEvent.eliminado(documento));
+            return null;
+        }));
     }
 }
\ No newline at end of file
@@ -0,0 +1,386 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.common.CsvUtils;
+import com.certificationapp.certification_system.config.FileStorageProperties;
+import com.certificationapp.certification_system.dto.CertificacionCreateDTO;
+import com.certificationapp.certification_system.dto.DocumentoCreateDTO;
+import com.certificationapp.certification_system.dto.ResultadoImportacionDTO;
+import com.certificationapp.certification_system.dto.ResultadoProvisionDTO;
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.event.DocumentoEvent;
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.exception.FileStorageException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.security.CifradorPasswords;
+import com.certificationapp.certification_system.service.FileStorageService;
+import com.certificationapp.certification_system.service.ImportacionService;
+import com.certificationapp.certification_system.sharding.ReferenceDataReplicator;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import com.certificationapp.certification_system.sharding.ShardKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk importer for users, certifications and document metadata.
+ * Rows are read and validated one at a time and inserted in JDBC batches,
+ * one short transaction per batch and shard. When a batch fails, its rows are
+ * retried one by one so that a single bad row only fails itself. User passwords
+ * are hashed in parallel while the following rows are read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportacionServiceImpl implements ImportacionService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CifradorPasswords cifradorPasswords;
+    private final FileStorageProperties fileStorageProperties;
+    private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoTipos catalogoTipos;
+    private final ObjectProvider<ReferenceDataReplicator> referenceDataReplicator;
+
+    @Value("${app.import.batch-size:50}")
+    private int tamanoLote;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxErroresReportados;
+
+    @Value("${app.provisioning.max-users:10000}")
+    private int maxUsuariosProvision;
+
+    @Override
+    public ResultadoImportacionDTO importar(EntidadImportacion entidad, FormatoImportacion formato,
+                                           InputStream entrada) throws IOException {
+        return switch (entidad) {
+            case USUARIOS -> procesar(UsuarioCreateDTO.class, this::prepararUsuario, formato, entrada);
+            case CERTIFICACIONES -> procesar(CertificacionCreateDTO.class, this::prepararCertificacion, formato, entrada);
+            case DOCUMENTOS -> procesar(DocumentoCreateDTO.class, this::prepararDocumento, formato, entrada);
+        };
+    }
+
+    @Override
+    public ResultadoProvisionDTO provisionarUsuarios(List<UsuarioCreateDTO> usuarios) {
+        if (usuarios.size() > maxUsuariosProvision) {
+            throw new IllegalArgumentException(String.format(
+                    "Se admiten como máximo %d usuarios por petición", maxUsuariosProvision));
+        }
+
+        List<ResultadoProvisionDTO.FilaProvisionDTO> filas = new ArrayList<>(usuarios.size());
+        List<FilaPendiente> pendientes = new ArrayList<>(usuarios.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            UsuarioCreateDTO dto = usuarios.get(i);
+            ResultadoProvisionDTO.FilaProvisionDTO fila = new ResultadoProvisionDTO.FilaProvisionDTO();
+            fila.setFila(i + 1);
+            filas.add(fila);
+            try {
+                if (dto == null) {
+                    throw new IllegalArgumentException("Fila vacía");
+                }
+                fila.setUsername(dto.getUsername());
+                validar(dto);
+                // Los duplicados dentro de la petición se descartan aquí para no hacer fallar lotes enteros
+                if (!usernames.add(Usuario.normalizar(dto.getUsername()))) {
+                    throw new IllegalArgumentException("Username already taken");
+                }
+                if (!emails.add(Usuario.normalizar(dto.getEmail()))) {
+                    throw new IllegalArgumentException("Email already registered");
+                }
+                pendientes.add(new FilaPendiente(i + 1, prepararUsuario(dto)));
+            } catch (IllegalArgumentException ex) {
+                fila.setError(ex.getMessage());
+            }
+        }
+
+        // Todas las contraseñas se están cifrando ya en paralelo; cada lote espera solo por las suyas
+        for (int inicio = 0; inicio < pendientes.size(); inicio += tamanoLote) {
+            List<FilaPendiente> lote = pendientes.subList(inicio, Math.min(inicio + tamanoLote, pendientes.size()));
+            Map<Long, Object> guardadas = guardarLote(lote,
+                    (numeroFila, mensaje) -> filas.get(numeroFila.intValue() - 1).setError(mensaje));
+            guardadas.forEach((numeroFila, id) -> filas.get(numeroFila.intValue() - 1).setId((Long) id));
+        }
+
+        ResultadoProvisionDTO resultado = new ResultadoProvisionDTO();
+        resultado.setFilas(filas);
+        resultado.setUsuariosCreados(filas.stream().filter(fila -> fila.getId() != null).count());
+        resultado.setUsuariosFallidos(filas.size() - resultado.getUsuariosCreados());
+        log.info("Provisioning of {} users finished: {} created, {} failed",
+                filas.size(), resultado.getUsuariosCreados(), resultado.getUsuariosFallidos());
+        return resultado;
+    }
+
+    private <D> ResultadoImportacionDTO procesar(Class<D> tipoDto, Function<D, FabricaEntidad> preparar,
+                                                 FormatoImportacion formato, InputStream entrada) throws IOException {
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        List<FilaPendiente> lote = new ArrayList<>(tamanoLote);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            List<String> cabecera = null;
+            long numeroLinea = 0;
+            String linea;
+
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (formato == FormatoImportacion.CSV && cabecera == null) {
+                    cabecera = CsvUtils.parseLine(linea);
+                    continue;
+                }
+
+                resultado.setFilasProcesadas(resultado.getFilasProcesadas() + 1);
+                try {
+                    D dto = leerFila(tipoDto, formato, cabecera, linea);
+                    validar(dto);
+                    lote.add(new FilaPendiente(numeroLinea, preparar.apply(dto)));
+                } catch (JsonProcessingException ex) {
+                    registrarError(resultado, numeroLinea, "JSON inválido: " + ex.getOriginalMessage());
+                } catch (IllegalArgumentException ex) {
+                    registrarError(resultado, numeroLinea, ex.getMessage());
+                }
+
+                if (lote.size() >= tamanoLote) {
+                    guardarLote(lote, resultado);
+                    lote.clear();
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            guardarLote(lote, resultado);
+        }
+
+        log.info("Import of {} finished: {} processed, {} imported, {} failed", tipoDto.getSimpleName(),
+                resultado.getFilasProcesadas(), resultado.getFilasImportadas(), resultado.getFilasFallidas());
+        return resultado;
+    }
+
+    private <D> D leerFila(Class<D> tipoDto, FormatoImportacion formato, List<String> cabecera, String linea)
+            throws JsonProcessingException {
+        if (formato == FormatoImportacion.NDJSON) {
+            return objectMapper.readValue(linea, tipoDto);
+        }
+
+        List<String> valores = CsvUtils.parseLine(linea);
+        if (valores.size() != cabecera.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Número de columnas incorrecto: se esperaban %d y hay %d", cabecera.size(), valores.size()));
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String valor = valores.get(i);
+            campos.put(cabecera.get(i).trim(), valor.isEmpty() ? null : valor);
+        }
+        try {
+            return objectMapper.convertValue(campos, tipoDto);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Valor con formato inválido en la fila", ex);
+        }
+    }
+
+    private <D> void validar(D dto) {
+        Set<ConstraintViolation<D>> violaciones = validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalArgumentException(violaciones.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private void guardarLote(List<FilaPendiente> lote, ResultadoImportacionDTO resultado) {
+        int guardadas = guardarLote(lote, (numeroLinea, mensaje) -> registrarError(resultado, numeroLinea, mensaje)).size();
+        resultado.setFilasImportadas(resultado.getFilasImportadas() + guardadas);
+    }
+
+    /**
+     * Inserts the batch and returns the ids of the rows saved, by row number; the others are reported to {@code alFallar}.
+     */
+    private Map<Long, Object> guardarLote(List<FilaPendiente> lote, BiConsumer<Long, String> alFallar) {
+        Map<Long, Object> guardadas = new LinkedHashMap<>();
+        // Una transacción por shard: cada fila se guarda en el shard de su propietario
+        lote.stream()
+                .collect(Collectors.groupingBy(fila -> fila.fabrica().shard(), TreeMap::new, Collectors.toList()))
+                .forEach((shard, grupo) -> {
+                    try {
+                        List<Object> ids = persistirEnShard(shard, grupo);
+                        for (int i = 0; i < grupo.size(); i++) {
+                            guardadas.put(grupo.get(i).numeroLinea(), ids.get(i));
+                        }
+                    } catch (RuntimeException ex) {
+                        log.debug("Import batch failed, retrying its {} rows one by one", grupo.size(), ex);
+                        for (FilaPendiente fila : grupo) {
+                            try {
+                                List<Object> ids = persistirEnShard(shard, List.of(fila));
+                                guardadas.put(fila.numeroLinea(), ids.get(0));
+                            } catch (RuntimeException filaEx) {
+                                alFallar.accept(fila.numeroLinea(), describir(filaEx));
+                            }
+                        }
+                    }
+                });
+        return guardadas;
+    }
+
+    private List<Object> persistirEnShard(int shard, List<FilaPendiente> filas) {
+        return ShardContext.callInShard(shard, () -> transactionTemplate.execute(status -> persistir(shard, filas)));
+    }
+
+    private List<Object> persistir(int shard, List<FilaPendiente> filas) {
+        List<Object> entidades = new ArrayList<>(filas.size());
+        for (FilaPendiente fila : filas) {
+            Object entidad = fila.fabrica().crear().apply(entityManager);
+            if (entidad instanceof Certificacion certificacion) {
+                // Sin pasar por el repositorio, el usuario y el tipo se copian aquí al shard
+                referenceDataReplicator.ifAvailable(replicator -> replicator.ensureReferences(shard, certificacion));
+            }
+            entityManager.persist(entidad);
+            entidades.add(entidad);
+        }
+        entityManager.flush();
+
+        for (Object entidad : entidades) {
+            if (entidad instanceof Certificacion certificacion) {
+                eventPublisher.publishEvent(CertificacionEvent.creada(certificacion));
+            } else if (entidad instanceof Documento documento) {
+                eventPublisher.publishEvent(DocumentoEvent.guardado(documento));
+            } else if (entidad instanceof Usuario usuario) {
+                eventPublisher.publishEvent(UsuarioEvent.creado(usuario));
+            }
+        }
+        // Los listeners escriben en el mismo contexto de persistencia (p. ej. los resúmenes por usuario)
+        entityManager.flush();
+        List<Object> ids = entidades.stream()
+                .map(entityManager.getEntityManagerFactory().getPersistenceUnitUtil()::getIdentifier)
+                .toList();
+        entityManager.clear();
+        return ids;
+    }
+
+    private FabricaEntidad prepararUsuario(UsuarioCreateDTO dto) {
+        CompletableFuture<String> passwordHash = cifradorPasswords.cifrar(dto.getPassword());
+        return new FabricaEntidad(0, em -> {
+            Usuario usuario = new Usuario();
+            usuario.setUsername(dto.getUsername());
+            usuario.setEmail(dto.getEmail());
+            usuario.setPassword(passwordHash.join());
+            usuario.setRole(Usuario.Role.USER);
+            return usuario;
+        });
+    }
+
+    private FabricaEntidad prepararCertificacion(CertificacionCreateDTO dto) {
+        String tipo = catalogoTipos.resolver(dto.getTipo());
+        return new FabricaEntidad(ShardKeys.shardOf(dto.getUsuarioId()), em -> {
+            Certificacion certificacion = new Certificacion();
+            certificacion.setUsuario(em.getReference(Usuario.class, dto.getUsuarioId()));
+            certificacion.setTipo(tipo);
+            certificacion.setFechaVencimiento(dto.getFechaVencimiento());
+            certificacion.setStatus(Certificacion.Status.PENDING);
+            return certificacion;
+        });
+    }
+
+    private FabricaEntidad prepararDocumento(DocumentoCreateDTO dto) {
+        if (!fileStorageProperties.isFileTypeAllowed(dto.getTipo())) {
+            throw new IllegalArgumentException("Tipo de documento no permitido");
+        }
+        // Solo archivos del directorio de subida: la URL se descarga después tal cual
+        try {
+            fileStorageService.resolveStoredFile(dto.getUrl());
+        } catch (FileStorageException | InvalidPathException ex) {
+            throw new IllegalArgumentException("Ruta de documento no permitida: " + dto.getUrl());
+        }
+        return new FabricaEntidad(ShardKeys.shardOf(dto.getCertificacionId()), em -> {
+            Documento documento = new Documento();
+            documento.setCertificacion(em.getReference(Certificacion.class, dto.getCertificacionId()));
+            documento.setNombre(dto.getNombre());
+            documento.setTipo(dto.getTipo());
+            documento.setUrl(dto.getUrl());
+            documento.setTamano(dto.getTamano());
+            return documento;
+        });
+    }
+
+    private String describir(RuntimeException ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof org.hibernate.exception.ConstraintViolationException violacion
+                    && violacion.getConstraintName() != null) {
+                String restriccion = violacion.getConstraintName().toLowerCase(Locale.ROOT);
+                if (restriccion.contains(Usuario.UK_EMAIL)) {
+                    return "Email already registered";
+                }
+                if (restriccion.contains(Usuario.UK_USERNAME)) {
+                    return "Username already taken";
+                }
+            }
+        }
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof DataIntegrityViolationException
+                    || causa instanceof org.hibernate.exception.ConstraintViolationException) {
+                return "La fila viola una restricción de integridad (valor duplicado o referencia inexistente)";
+            }
+        }
+        return ex.getMessage();
+    }
+
+    private void registrarError(ResultadoImportacionDTO resultado, long numeroLinea, String mensaje) {
+        resultado.setFilasFallidas(resultado.getFilasFallidas() + 1);
+        if (resultado.getErrores().size() < maxErroresReportados) {
+            resultado.getErrores().add(new ResultadoImportacionDTO.ErrorFilaDTO(numeroLinea, mensaje));
+        }
+    }
+
+    /**
+     * Creates the entity of a row inside its batch transaction, which runs on {@code shard}.
+     */
+    private record FabricaEntidad(int shard, Function<EntityManager, Object> crear) {
+    }
+
+    private record FilaPendiente(long numeroLinea, FabricaEntidad fabrica) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.service.MigracionTiposService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Converts tables created before the type catalog, which store the type name in a text
+ * {@code tipo} column, to the {@code tipo_id} key.
+ * <p>
+ * Rows are converted in id batches, each in its own transaction, and the text column is
+ * dropped once every row has its key. It runs while the application starts, before the
+ * web server accepts requests: the old column is NOT NULL, so new rows could not be
+ * inserted until it is gone. On a schema without the old column it does nothing.
+ */
+@Slf4j
+@Service
+public class MigracionTiposServiceImpl implements MigracionTiposService, SmartLifecycle {
+
+    private static final List<String> TABLAS = List.of("certificaciones", "certificaciones_archivo");
+    private static final String COLUMNA_LEGADA = "tipo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogoTipos catalogoTipos;
+    private final int tamanoLote;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    private volatile boolean ejecutado;
+
+    public MigracionTiposServiceImpl(DataSource dataSource,
+                                     TransactionTemplate transactionTemplate,
+                                     CatalogoTipos catalogoTipos,
+                                     @Value("${app.types.migration-batch-size:1000}") int tamanoLote) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.catalogoTipos = catalogoTipos;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public int migrar() {
+        cerrojo.lock();
+        try {
+            int total = 0;
+            for (String tabla : TABLAS) {
+                if (tieneColumnaLegada(tabla)) {
+                    total += migrarTabla(tabla);
+                }
+            }
+            return total;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private int migrarTabla(String tabla) {
+        log.info("Converting {}.{} to catalog keys", tabla, COLUMNA_LEGADA);
+        int total = 0;
+        List<Object[]> lote;
+        do {
+            lote = jdbcTemplate.query(
+                    "SELECT id, " + COLUMNA_LEGADA + " FROM " + tabla + " WHERE tipo_id IS NULL ORDER BY id LIMIT ?",
+                    (fila, numero) -> new Object[]{fila.getLong(1), fila.getString(2)},
+                    tamanoLote);
+            List<Object[]> actualizaciones = lote.stream()
+                    .map(fila -> new Object[]{catalogoTipos.asegurar(((String) fila[1]).trim()), fila[0]})
+                    .toList();
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE " + tabla + " SET tipo_id = ? WHERE id = ?", actualizaciones));
+            total += lote.size();
+        } while (lote.size() == tamanoLote);
+
+        jdbcTemplate.execute("ALTER TABLE " + tabla + " DROP COLUMN " + COLUMNA_LEGADA);
+        log.info("Converted {} rows of {} and dropped the old type column", total, tabla);
+        return total;
+    }
+
+    private boolean tieneColumnaLegada(String tabla) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            // Los nombres se guardan en mayúsculas o minúsculas según la base de datos
+            for (String nombreTabla : List.of(tabla, tabla.toUpperCase())) {
+                for (String columna : List.of(COLUMNA_LEGADA, COLUMNA_LEGADA.toUpperCase())) {
+                    try (ResultSet columnas = metadatos.getColumns(conexion.getCatalog(), null, nombreTabla, columna)) {
+                        if (columnas.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    @Override
+    public void start() {
+        migrar();
+        ejecutado = true;
+    }
+
+    @Override
+    public void stop() {
+        ejecutado = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ejecutado;
+    }
+
+    @Override
+    public int getPhase() {
+        // Antes que el servidor web, que arranca en una de las últimas fases
+        return 0;
+    }
+}
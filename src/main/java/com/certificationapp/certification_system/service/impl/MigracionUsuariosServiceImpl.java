@@ -0,0 +1,87 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.service.MigracionUsuariosService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fills the normalized username and email columns of users created before they existed.
+ * <p>
+ * Rows are updated in id batches, each in its own transaction, while the application starts
+ * and before the web server accepts requests, so lookups on the normalized columns never
+ * miss an old user. On an up-to-date table it does nothing.
+ */
+@Slf4j
+@Service
+public class MigracionUsuariosServiceImpl implements MigracionUsuariosService, SmartLifecycle {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    private volatile boolean ejecutado;
+
+    public MigracionUsuariosServiceImpl(DataSource dataSource,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${app.users.migration-batch-size:1000}") int tamanoLote) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public int migrar() {
+        cerrojo.lock();
+        try {
+            int total = 0;
+            int lote;
+            do {
+                // Misma normalización que Usuario.normalizar
+                lote = transactionTemplate.execute(status -> jdbcTemplate.update(
+                        "UPDATE usuarios SET username_normalizado = LOWER(TRIM(username)), " +
+                                "email_normalizado = LOWER(TRIM(email)) WHERE id IN (SELECT id FROM usuarios " +
+                                "WHERE (username_normalizado IS NULL AND username IS NOT NULL) " +
+                                "OR (email_normalizado IS NULL AND email IS NOT NULL) ORDER BY id LIMIT ?)",
+                        tamanoLote));
+                total += lote;
+            } while (lote == tamanoLote);
+
+            if (total > 0) {
+                log.info("Normalized username and email of {} users", total);
+            }
+            return total;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        migrar();
+        ejecutado = true;
+    }
+
+    @Override
+    public void stop() {
+        ejecutado = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ejecutado;
+    }
+
+    @Override
+    public int getPhase() {
+        // Antes que el servidor web, que arranca en una de las últimas fases
+        return 0;
+    }
+}
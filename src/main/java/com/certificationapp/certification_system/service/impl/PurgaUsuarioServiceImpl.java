@@ -0,0 +1,307 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.PurgaUsuarioDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.exception.FileStorageException;
+import com.certificationapp.certification_system.exception.ResourceNotFoundException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.PurgaUsuario;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.PurgaUsuarioRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.BusquedaService;
+import com.certificationapp.certification_system.service.CertificadoService;
+import com.certificationapp.certification_system.service.FileStorageService;
+import com.certificationapp.certification_system.service.PurgaUsuarioService;
+import com.certificationapp.certification_system.service.UsuarioService;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Deletes users together with their certifications, documents and stored files.
+ * <p>
+ * A deletion request only records a job and returns; a worker thread then removes the
+ * user's data in bounded batches, each in its own short transaction. Active certifications
+ * go through the usual deletion events, so tombstones, certificates, statistics and the
+ * search index stay consistent; archived ones are deleted set-based, so their certificates
+ * are revoked and their search entries removed explicitly. The files of each batch are deleted in parallel once the
+ * batch has committed, so no row ever points to a missing file, and the user row goes last.
+ * Progress is stored with every batch, and jobs interrupted by a restart are resumed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurgaUsuarioServiceImpl implements PurgaUsuarioService {
+
+    private static final int MAX_INTENTOS = 3;
+
+    private final PurgaUsuarioRepository purgaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioService usuarioService;
+    private final CertificacionRepository certificacionRepository;
+    private final CertificacionArchivadaRepository certificacionArchivadaRepository;
+    private final DocumentoArchivadoRepository documentoArchivadoRepository;
+    private final FileStorageService fileStorageService;
+    private final CertificadoService certificadoService;
+    private final BusquedaService busquedaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.purge.batch-size:100}")
+    private int tamanoLote;
+
+    @Value("${app.purge.workers:1}")
+    private int trabajadores;
+
+    @Value("${app.purge.file-threads:4}")
+    private int hilosArchivos;
+
+    private final Set<Long> enCurso = ConcurrentHashMap.newKeySet();
+    private ExecutorService ejecutor;
+    private ExecutorService ejecutorArchivos;
+
+    @PostConstruct
+    void iniciar() {
+        ejecutor = Executors.newFixedThreadPool(trabajadores, hilo("user-purge"));
+        ejecutorArchivos = Executors.newFixedThreadPool(hilosArchivos, hilo("user-purge-files"));
+    }
+
+    @PreDestroy
+    void detener() {
+        // Lo que quede a medias se reanuda en el siguiente arranque
+        ejecutor.shutdownNow();
+        ejecutorArchivos.shutdownNow();
+    }
+
+    @Override
+    public PurgaUsuarioDTO solicitarPurga(Long usuarioId) {
+        PurgaUsuario purga;
+        try {
+            purga = transactionTemplate.execute(status -> purgaRepository.findById(usuarioId).orElseGet(() -> {
+                if (!usuarioRepository.existsById(usuarioId)) {
+                    throw new ResourceNotFoundException("Usuario no encontrado con id: " + usuarioId);
+                }
+                return purgaRepository.save(new PurgaUsuario(usuarioId));
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            // Otra petición ha registrado la misma purga a la vez
+            purga = purgaRepository.findById(usuarioId).orElseThrow(() -> ex);
+        }
+        if (purga.getEstado() != PurgaUsuario.Estado.COMPLETADA) {
+            lanzar(usuarioId);
+        }
+        return toDto(purga);
+    }
+
+    @Override
+    public PurgaUsuarioDTO obtenerPurga(Long usuarioId) {
+        return purgaRepository.findById(usuarioId)
+                .map(PurgaUsuarioServiceImpl::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("No hay eliminación solicitada para el usuario con id: " + usuarioId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reanudarPendientes() {
+        purgaRepository.findByEstadoIn(List.of(PurgaUsuario.Estado.PENDIENTE, PurgaUsuario.Estado.EN_CURSO))
+                .forEach(purga -> lanzar(purga.getUsuarioId()));
+    }
+
+    private void lanzar(Long usuarioId) {
+        if (!enCurso.add(usuarioId)) {
+            return;
+        }
+        ejecutor.execute(() -> {
+            try {
+                purgar(usuarioId);
+            } finally {
+                enCurso.remove(usuarioId);
+            }
+        });
+    }
+
+    private void purgar(Long usuarioId) {
+        actualizar(usuarioId, purga -> {
+            purga.setEstado(PurgaUsuario.Estado.EN_CURSO);
+            purga.setError(null);
+        });
+        log.info("Purging user {}", usuarioId);
+        try {
+            for (int intento = 1; ; intento++) {
+                while (purgarLoteActivas(usuarioId)) {
+                    // sigue hasta vaciar
+                }
+                while (purgarLoteArchivadas(usuarioId)) {
+                    // sigue hasta vaciar
+                }
+                try {
+                    usuarioService.eliminarUsuario(usuarioId);
+                    break;
+                } catch (ResourceNotFoundException ex) {
+                    break;
+                } catch (DataIntegrityViolationException ex) {
+                    // Se ha creado algo para el usuario mientras se purgaba: otra pasada
+                    if (intento == MAX_INTENTOS) {
+                        throw ex;
+                    }
+                }
+            }
+            actualizar(usuarioId, purga -> {
+                purga.setEstado(PurgaUsuario.Estado.COMPLETADA);
+                purga.setFechaFinalizacion(LocalDateTime.now());
+            });
+            log.info("Purged user {}", usuarioId);
+        } catch (RuntimeException ex) {
+            log.error("Purge of user {} failed", usuarioId, ex);
+            actualizar(usuarioId, purga -> {
+                purga.setEstado(PurgaUsuario.Estado.FALLIDA);
+                purga.setFechaFinalizacion(LocalDateTime.now());
+                purga.setError(ex.getMessage() == null ? ex.getClass().getName()
+                        : ex.getMessage().substring(0, Math.min(ex.getMessage().length(), 1000)));
+            });
+        }
+    }
+
+    /**
+     * Deletes the next batch of active certifications with their documents.
+     *
+     * @return true if a full batch was deleted, so there may be more
+     */
+    private boolean purgarLoteActivas(Long usuarioId) {
+        // Las certificaciones están en el shard del usuario; el progreso, en el shard 0
+        Lote lote = ShardContext.callInShardOf(usuarioId, () -> transactionTemplate.execute(status -> {
+            List<Certificacion> certificaciones = certificacionRepository.findByUsuario_IdOrderById(
+                    usuarioId, PageRequest.of(0, tamanoLote));
+            List<String> archivos = certificaciones.stream()
+                    .flatMap(certificacion -> certificacion.getDocumentos().stream())
+                    .map(Documento::getUrl)
+                    .toList();
+            // Los documentos se borran en cascada
+            certificacionRepository.deleteAll(certificaciones);
+            certificaciones.forEach(certificacion -> eventPublisher.publishEvent(CertificacionEvent.eliminada(certificacion)));
+            return new Lote(certificaciones.stream().map(Certificacion::getId).toList(), archivos);
+        }));
+        registrar(usuarioId, lote);
+        eliminarArchivos(usuarioId, lote.archivos());
+        return lote.certificaciones().size() == tamanoLote;
+    }
+
+    /**
+     * Deletes the next batch of archived certifications with their documents.
+     *
+     * @return true if a full batch was deleted, so there may be more
+     */
+    private boolean purgarLoteArchivadas(Long usuarioId) {
+        Lote lote = ShardContext.callInShardOf(usuarioId, () -> transactionTemplate.execute(status -> {
+            List<Long> ids = certificacionArchivadaRepository.findIdsByUsuarioId(usuarioId, PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return new Lote(List.of(), List.of());
+            }
+            List<String> archivos = documentoArchivadoRepository.findUrlsByCertificacionIdIn(ids);
+            // El borrado por lotes no publica eventos: los certificados se revocan aquí
+            certificadoService.revocarPorCertificaciones(ids);
+            documentoArchivadoRepository.deleteByCertificacionIdIn(ids);
+            certificacionArchivadaRepository.deleteByIdIn(ids);
+            return new Lote(ids, archivos);
+        }));
+        registrar(usuarioId, lote);
+        if (!lote.certificaciones().isEmpty()) {
+            busquedaService.eliminarCertificaciones(lote.certificaciones());
+        }
+        eliminarArchivos(usuarioId, lote.archivos());
+        return lote.certificaciones().size() == tamanoLote;
+    }
+
+    private void eliminarArchivos(Long usuarioId, List<String> archivos) {
+        if (archivos.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Boolean>> borrados = archivos.stream()
+                .map(archivo -> CompletableFuture.supplyAsync(() -> eliminarArchivo(archivo), ejecutorArchivos))
+                .toList();
+        long eliminados = borrados.stream().filter(CompletableFuture::join).count();
+        long fallidos = archivos.size() - eliminados;
+        actualizar(usuarioId, purga -> {
+            purga.setArchivosEliminados(purga.getArchivosEliminados() + eliminados);
+            purga.setArchivosFallidos(purga.getArchivosFallidos() + fallidos);
+        });
+    }
+
+    private boolean eliminarArchivo(String archivo) {
+        try {
+            fileStorageService.deleteFile(archivo);
+            return true;
+        } catch (FileStorageException ex) {
+            log.warn("Could not delete file {} of a purged user", archivo, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Counts a committed batch, in a transaction of its own on shard 0, where the job's row is.
+     */
+    private void registrar(Long usuarioId, Lote lote) {
+        if (lote.certificaciones().isEmpty()) {
+            return;
+        }
+        actualizar(usuarioId, purga -> {
+            purga.setCertificacionesEliminadas(purga.getCertificacionesEliminadas() + lote.certificaciones().size());
+            purga.setDocumentosEliminados(purga.getDocumentosEliminados() + lote.archivos().size());
+        });
+    }
+
+    private void actualizar(Long usuarioId, Consumer<PurgaUsuario> cambio) {
+        ShardContext.callInShard(0, () -> transactionTemplate.execute(status -> {
+            purgaRepository.findById(usuarioId).ifPresent(cambio);
+            return null;
+        }));
+    }
+
+    private static ThreadFactory hilo(String nombre) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, nombre);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static PurgaUsuarioDTO toDto(PurgaUsuario purga) {
+        PurgaUsuarioDTO dto = new PurgaUsuarioDTO();
+        dto.setUsuarioId(purga.getUsuarioId());
+        dto.setEstado(purga.getEstado().name());
+        dto.setCertificacionesEliminadas(purga.getCertificacionesEliminadas());
+        dto.setDocumentosEliminados(purga.getDocumentosEliminados());
+        dto.setArchivosEliminados(purga.getArchivosEliminados());
+        dto.setArchivosFallidos(purga.getArchivosFallidos());
+        dto.setFechaSolicitud(purga.getFechaSolicitud());
+        dto.setFechaFinalizacion(purga.getFechaFinalizacion());
+        dto.setError(purga.getError());
+        return dto;
+    }
+
+    private record Lote(List<Long> certificaciones, List<String> archivos) {
+    }
+}
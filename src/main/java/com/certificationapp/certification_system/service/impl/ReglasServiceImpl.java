@@ -0,0 +1,229 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.config.ReglasProperties;
+import com.certificationapp.certification_system.dto.ComprobacionReglasDTO;
+import com.certificationapp.certification_system.dto.ResultadoReglasDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.rules.MotorReglas;
+import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.ReglasService;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import com.certificationapp.certification_system.sharding.ShardKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Screens PENDING certifications against the document rules of their type, so reviewers
+ * only see the ones that can pass.
+ * <p>
+ * The job walks the certifications changed since their last screening in id batches, loads
+ * the document metadata of a whole batch with one query and evaluates it on a dedicated
+ * work-stealing pool. Results are stored against the version that was read: a certification
+ * changed in the meantime, for instance by a new document, is screened again on the next run.
+ * Non-compliant ones are flagged or, where configured, rejected through the normal status change.
+ * Certifications younger than {@code app.rules.grace-period} are left alone, so that their
+ * owner has time to upload the documents before they are judged.
+ * <p>
+ * The results of a batch are stored with one JDBC batch update; only the rows actually
+ * written are evicted from the second-level cache, instead of the whole region that a
+ * bulk JPQL update would invalidate.
+ */
+@Slf4j
+@Service
+public class ReglasServiceImpl implements ReglasService {
+
+    private static final String SQL_REGISTRAR_EVALUACION = "UPDATE certificaciones SET incumplimientos_reglas = ?, "
+            + "fecha_evaluacion = ? WHERE id = ? AND fecha_actualizacion = ?";
+
+    private static final int LONGITUD_MAXIMA_INCUMPLIMIENTOS = 2000;
+
+    private final ReglasProperties properties;
+    private final MotorReglas motorReglas;
+    private final CertificacionRepository certificacionRepository;
+    private final DocumentoRepository documentoRepository;
+    private final CertificacionService certificacionService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    private ForkJoinPool pool;
+
+    public ReglasServiceImpl(ReglasProperties properties,
+                             MotorReglas motorReglas,
+                             CertificacionRepository certificacionRepository,
+                             DocumentoRepository documentoRepository,
+                             CertificacionService certificacionService,
+                             TransactionTemplate transactionTemplate,
+                             DataSource dataSource,
+                             EntityManagerFactory entityManagerFactory) {
+        this.properties = properties;
+        this.motorReglas = motorReglas;
+        this.certificacionRepository = certificacionRepository;
+        this.documentoRepository = documentoRepository;
+        this.certificacionService = certificacionService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        pool = new ForkJoinPool(properties.getParallelism());
+    }
+
+    @PreDestroy
+    void detener() {
+        pool.shutdown();
+    }
+
+    @Override
+    public ResultadoReglasDTO comprobar(ComprobacionReglasDTO comprobacion) {
+        List<MotorReglas.DocumentoRegla> documentos = comprobacion.getDocumentos().stream()
+                .map(documento -> new MotorReglas.DocumentoRegla(documento.getTipo(), documento.getTamano()))
+                .toList();
+        List<MotorReglas.Incumplimiento> incumplimientos = motorReglas.evaluar(comprobacion.getTipo(), documentos);
+
+        ResultadoReglasDTO resultado = new ResultadoReglasDTO();
+        resultado.setTipo(comprobacion.getTipo());
+        resultado.setCumple(incumplimientos.isEmpty());
+        resultado.setIncumplimientos(incumplimientos.stream().map(incumplimiento -> {
+            ResultadoReglasDTO.IncumplimientoDTO dto = new ResultadoReglasDTO.IncumplimientoDTO();
+            dto.setRegla(incumplimiento.regla().name());
+            dto.setDetalle(incumplimiento.detalle());
+            return dto;
+        }).toList());
+        return resultado;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.rules.interval:PT1M}")
+    public int evaluarPendientes() {
+        cerrojo.lock();
+        try {
+            if (!properties.isEnabled() || properties.getSets().isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime creadaAntesDe = LocalDateTime.now().minus(properties.getGracePeriod());
+            long ultimoId = 0;
+            int evaluadas = 0;
+            int marcadas = 0;
+            while (true) {
+                List<CertificacionRepository.PendienteEvaluacion> lote = certificacionRepository.findPendientesDeEvaluar(
+                        Certificacion.Status.PENDING, creadaAntesDe, ultimoId, PageRequest.of(0, properties.getBatchSize()));
+                if (lote.isEmpty()) {
+                    break;
+                }
+
+                List<Evaluacion> evaluaciones = evaluar(lote);
+                marcadas += registrar(evaluaciones);
+                evaluadas += lote.size();
+
+                if (lote.size() < properties.getBatchSize()) {
+                    break;
+                }
+                ultimoId = lote.get(lote.size() - 1).getId();
+            }
+
+            if (evaluadas > 0) {
+                log.info("Rules engine screened {} pending certifications, {} non-compliant", evaluadas, marcadas);
+            }
+            return evaluadas;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private List<Evaluacion> evaluar(List<CertificacionRepository.PendienteEvaluacion> lote) {
+        List<Long> ids = lote.stream().map(CertificacionRepository.PendienteEvaluacion::getId).toList();
+        Map<Long, List<MotorReglas.DocumentoRegla>> documentos = documentoRepository.findResumenesByCertificacionIdIn(ids)
+                .stream()
+                .collect(Collectors.groupingBy(DocumentoRepository.DocumentoResumen::getCertificacionId,
+                        Collectors.mapping(resumen -> new MotorReglas.DocumentoRegla(resumen.getTipo(), resumen.getTamano()),
+                                Collectors.toList())));
+
+        // Un parallel stream lanzado desde dentro del pool reparte el trabajo entre sus hilos
+        return pool.submit(() -> lote.parallelStream()
+                .map(pendiente -> new Evaluacion(pendiente.getId(), pendiente.getTipo(), pendiente.getFechaActualizacion(),
+                        motorReglas.evaluar(pendiente.getTipo(), documentos.getOrDefault(pendiente.getId(), List.of()))))
+                .toList()).join();
+    }
+
+    private int registrar(List<Evaluacion> evaluaciones) {
+        List<Evaluacion> escritas = new ArrayList<>();
+        // Una sola ida y vuelta por lote y shard; la condición sobre la versión descarta las filas cambiadas desde la lectura
+        evaluaciones.stream()
+                .collect(Collectors.groupingBy(evaluacion -> ShardKeys.shardOf(evaluacion.certificacionId()), TreeMap::new,
+                        Collectors.toList()))
+                .forEach((shard, grupo) -> {
+                    int[][] registradas = ShardContext.callInShard(shard, () -> transactionTemplate.execute(status ->
+                            jdbcTemplate.batchUpdate(SQL_REGISTRAR_EVALUACION, grupo, grupo.size(), (ps, evaluacion) -> {
+                                ps.setString(1, describir(evaluacion.incumplimientos()));
+                                ps.setObject(2, evaluacion.version());
+                                ps.setLong(3, evaluacion.certificacionId());
+                                ps.setObject(4, evaluacion.version());
+                            })));
+                    for (int i = 0; i < grupo.size(); i++) {
+                        if (registradas[0][i] != 0) {
+                            escritas.add(grupo.get(i));
+                        }
+                    }
+                });
+
+        List<Evaluacion> aRechazar = new ArrayList<>();
+        for (Evaluacion evaluacion : escritas) {
+            // Solo las filas escritas salen de la caché, no toda la región
+            entityManagerFactory.getCache().evict(Certificacion.class, evaluacion.certificacionId());
+            if (!evaluacion.incumplimientos().isEmpty()
+                    && motorReglas.accionPara(evaluacion.tipo()) == ReglasProperties.Accion.REJECT) {
+                aRechazar.add(evaluacion);
+            }
+        }
+
+        // Cada rechazo en su propia transacción: uno que falle no deshace los demás
+        for (Evaluacion evaluacion : aRechazar) {
+            try {
+                certificacionService.actualizarEstadoCertificacion(evaluacion.certificacionId(), Certificacion.Status.REJECTED);
+            } catch (RuntimeException ex) {
+                log.warn("Could not auto-reject certification {}", evaluacion.certificacionId(), ex);
+            }
+        }
+        return (int) evaluaciones.stream().filter(evaluacion -> !evaluacion.incumplimientos().isEmpty()).count();
+    }
+
+    private static String describir(List<MotorReglas.Incumplimiento> incumplimientos) {
+        if (incumplimientos.isEmpty()) {
+            return null;
+        }
+        String texto = incumplimientos.stream()
+                .map(incumplimiento -> incumplimiento.regla() + ": " + incumplimiento.detalle())
+                .collect(Collectors.joining("; "));
+        return texto.length() <= LONGITUD_MAXIMA_INCUMPLIMIENTOS
+                ? texto
+                : texto.substring(0, LONGITUD_MAXIMA_INCUMPLIMIENTOS - 3) + "...";
+    }
+
+    private record Evaluacion(Long certificacionId, String tipo, LocalDateTime version,
+                              List<MotorReglas.Incumplimiento> incumplimientos) {
+    }
+}
@@ -0,0 +1,302 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.ResumenUsuarioDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.event.DocumentoEvent;
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.exception.ResourceNotFoundException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.CertificacionArchivada;
+import com.certificationapp.certification_system.model.ResumenUsuario;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.ResumenUsuarioRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.ResumenUsuarioService;
+import com.certificationapp.certification_system.sharding.ShardTransactions;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one summary row per user, so the profile page reads a single row instead of
+ * loading every certification and document of the user.
+ * <p>
+ * The listeners run inside the transaction of each certification, document or user write
+ * and adjust the row while holding its lock, so the summary commits or rolls back together
+ * with the change and concurrent writes for one user never lose an update. With sharding,
+ * changes on another shard than the summary's queue a recomputation of the summary from the
+ * tables, delivered once they commit. Users that existed before the summary get it computed
+ * from the tables at startup, or on their first write, whichever comes first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumenUsuarioServiceImpl implements ResumenUsuarioService {
+
+    private static final String TAREA_RECALCULAR = "resumen.recalcular";
+
+    private final ResumenUsuarioRepository resumenRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CertificacionRepository certificacionRepository;
+    private final CertificacionArchivadaRepository certificacionArchivadaRepository;
+    private final DocumentoRepository documentoRepository;
+    private final DocumentoArchivadoRepository documentoArchivadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTransactions shardTransactions;
+
+    @Value("${app.summary.backfill-batch-size:500}")
+    private int tamanoLote;
+
+    /**
+     * A queued change may be delivered more than once or after later ones, so instead of
+     * replaying its delta the summary is recomputed from the tables.
+     */
+    @PostConstruct
+    void registrarTareas() {
+        shardTransactions.register(TAREA_RECALCULAR, Long.class, this::recalcular);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResumenUsuarioDTO obtenerResumen(Long usuarioId) {
+        ResumenUsuario resumen = resumenRepository.findById(usuarioId).orElseGet(() -> {
+            if (!usuarioRepository.existsById(usuarioId)) {
+                throw new ResourceNotFoundException("Usuario no encontrado con id: " + usuarioId);
+            }
+            // Usuario anterior al resumen que aún no tiene el suyo: se calcula sin guardarlo
+            return calcular(usuarioId);
+        });
+        return toDto(resumen);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int crearResumenesFaltantes() {
+        long ultimoId = 0;
+        int creados = 0;
+        while (true) {
+            List<Long> ids = resumenRepository.findUsuariosSinResumen(ultimoId, PageRequest.of(0, tamanoLote));
+            for (Long usuarioId : ids) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> resumenRepository.save(calcular(usuarioId)));
+                    creados++;
+                } catch (DataIntegrityViolationException ex) {
+                    log.debug("Summary of user {} was created concurrently", usuarioId);
+                }
+            }
+            if (ids.size() < tamanoLote) {
+                break;
+            }
+            ultimoId = ids.get(ids.size() - 1);
+        }
+        if (creados > 0) {
+            log.info("Computed the summary of {} existing users", creados);
+        }
+        return creados;
+    }
+
+    @EventListener
+    public void onUsuarioEvent(UsuarioEvent event) {
+        switch (event.getTipoEvento()) {
+            case CREADO -> resumenRepository.save(new ResumenUsuario(event.getUsuarioId()));
+            case ELIMINADO -> resumenRepository.deleteByUsuarioId(event.getUsuarioId());
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onCertificacionEvent(CertificacionEvent event) {
+        if (event.getUsuarioId() == null) {
+            return;
+        }
+        shardTransactions.runOnPrimary(() -> aplicar(event), TAREA_RECALCULAR, event.getUsuarioId());
+    }
+
+    private void aplicar(CertificacionEvent event) {
+        switch (event.getTipoEvento()) {
+            case CREADA -> bloquear(event.getUsuarioId()).ifPresent(resumen -> {
+                sumar(resumen, event.getEstadoNuevo(), 1);
+                if (esMasReciente(event.getFechaCreacion(), event.getCertificacionId(), resumen)) {
+                    asignarUltima(resumen, event.getCertificacionId(), event.getTipo(), event.getEstadoNuevo(),
+                            event.getFechaCreacion());
+                }
+            });
+            case ESTADO_ACTUALIZADO -> {
+                if (event.getEstadoAnterior() == event.getEstadoNuevo()) {
+                    return;
+                }
+                bloquear(event.getUsuarioId()).ifPresent(resumen -> {
+                    sumar(resumen, event.getEstadoAnterior(), -1);
+                    sumar(resumen, event.getEstadoNuevo(), 1);
+                    if (event.getCertificacionId().equals(resumen.getUltimaCertificacionId())) {
+                        resumen.setUltimaCertificacionEstado(event.getEstadoNuevo());
+                    }
+                });
+            }
+            case ELIMINADA -> bloquear(event.getUsuarioId()).ifPresent(resumen -> {
+                sumar(resumen, event.getEstadoAnterior(), -1);
+                resumen.setBytesDocumentos(resumen.getBytesDocumentos() - event.getTamanoDocumentos());
+                if (event.getCertificacionId().equals(resumen.getUltimaCertificacionId())) {
+                    buscarUltima(resumen);
+                }
+            });
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Documents are never modified after upload, so a save always adds its size.
+     */
+    @EventListener
+    public void onDocumentoEvent(DocumentoEvent event) {
+        if (event.getUsuarioId() == null || event.getTamano() == null) {
+            return;
+        }
+        long tamano = event.getTipoEvento() == DocumentoEvent.Tipo.GUARDADO ? event.getTamano() : -event.getTamano();
+        shardTransactions.runOnPrimary(() -> bloquear(event.getUsuarioId()).ifPresent(resumen ->
+                resumen.setBytesDocumentos(resumen.getBytesDocumentos() + tamano)), TAREA_RECALCULAR, event.getUsuarioId());
+    }
+
+    /**
+     * Returns the user's summary locked for update, or empty when it did not exist yet and has
+     * just been computed from the tables, which already reflect the change being applied.
+     */
+    private Optional<ResumenUsuario> bloquear(Long usuarioId) {
+        Optional<ResumenUsuario> resumen = resumenRepository.bloquear(usuarioId);
+        if (resumen.isEmpty()) {
+            resumenRepository.save(calcular(usuarioId));
+        }
+        return resumen;
+    }
+
+    private void recalcular(Long usuarioId) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            // El usuario se borró después del cambio encolado
+            resumenRepository.deleteByUsuarioId(usuarioId);
+            return;
+        }
+        // Se calcula con la fila bloqueada, para que un recálculo anterior no pise a uno posterior
+        Optional<ResumenUsuario> bloqueado = resumenRepository.bloquear(usuarioId);
+        ResumenUsuario calculado = calcular(usuarioId);
+        if (bloqueado.isEmpty()) {
+            resumenRepository.save(calculado);
+            return;
+        }
+        ResumenUsuario resumen = bloqueado.get();
+        resumen.setPendientes(calculado.getPendientes());
+        resumen.setEnRevision(calculado.getEnRevision());
+        resumen.setAprobadas(calculado.getAprobadas());
+        resumen.setRechazadas(calculado.getRechazadas());
+        resumen.setVencidas(calculado.getVencidas());
+        asignarUltima(resumen, calculado.getUltimaCertificacionId(), calculado.getUltimaCertificacionTipo(),
+                calculado.getUltimaCertificacionEstado(), calculado.getUltimaCertificacionFecha());
+        resumen.setBytesDocumentos(calculado.getBytesDocumentos());
+    }
+
+    private ResumenUsuario calcular(Long usuarioId) {
+        ResumenUsuario resumen = new ResumenUsuario(usuarioId);
+        // Las filas activas y las archivadas están en el shard del usuario; el resumen, en el shard 0
+        List<CertificacionRepository.ConteoPorEstado> activas = shardTransactions.readInShardOf(usuarioId,
+                () -> certificacionRepository.contarPorEstadoDeUsuario(usuarioId));
+        List<CertificacionRepository.ConteoPorEstado> archivadas = shardTransactions.readInShardOf(usuarioId,
+                () -> certificacionArchivadaRepository.contarPorEstadoDeUsuario(usuarioId));
+        Stream.concat(activas.stream(), archivadas.stream())
+                .forEach(conteo -> sumar(resumen, conteo.getEstado(), conteo.getTotal()));
+        buscarUltima(resumen);
+        long bytes = shardTransactions.readInShardOf(usuarioId, () -> documentoRepository.sumarTamanoDeUsuario(usuarioId)
+                + documentoArchivadoRepository.sumarTamanoDeUsuario(usuarioId));
+        resumen.setBytesDocumentos(bytes);
+        return resumen;
+    }
+
+    private void buscarUltima(ResumenUsuario resumen) {
+        asignarUltima(resumen, null, null, null, null);
+        shardTransactions.readInShardOf(resumen.getUsuarioId(),
+                        () -> certificacionRepository.findFirstByUsuario_IdOrderByFechaCreacionDescIdDesc(resumen.getUsuarioId()))
+                .ifPresent(ultima -> asignarUltima(resumen, ultima.getId(), ultima.getTipo(), ultima.getStatus(),
+                        ultima.getFechaCreacion()));
+        Optional<CertificacionArchivada> archivada = shardTransactions.readInShardOf(resumen.getUsuarioId(),
+                () -> certificacionArchivadaRepository.findFirstByUsuarioIdOrderByFechaCreacionDescIdDesc(resumen.getUsuarioId()));
+        archivada.filter(ultima -> esMasReciente(ultima.getFechaCreacion(), ultima.getId(), resumen))
+                .ifPresent(ultima -> asignarUltima(resumen, ultima.getId(), ultima.getTipo(), ultima.getStatus(),
+                        ultima.getFechaCreacion()));
+    }
+
+    private static boolean esMasReciente(LocalDateTime fecha, Long id, ResumenUsuario resumen) {
+        if (resumen.getUltimaCertificacionId() == null || resumen.getUltimaCertificacionFecha() == null) {
+            return true;
+        }
+        if (fecha == null) {
+            return false;
+        }
+        int comparacion = fecha.compareTo(resumen.getUltimaCertificacionFecha());
+        return comparacion > 0 || (comparacion == 0 && id > resumen.getUltimaCertificacionId());
+    }
+
+    private static void asignarUltima(ResumenUsuario resumen, Long id, String tipo, Certificacion.Status estado,
+                                      LocalDateTime fecha) {
+        resumen.setUltimaCertificacionId(id);
+        resumen.setUltimaCertificacionTipo(tipo);
+        resumen.setUltimaCertificacionEstado(estado);
+        resumen.setUltimaCertificacionFecha(fecha);
+    }
+
+    private static void sumar(ResumenUsuario resumen, Certificacion.Status estado, long cantidad) {
+        if (estado == null) {
+            return;
+        }
+        switch (estado) {
+            case PENDING -> resumen.setPendientes(resumen.getPendientes() + cantidad);
+            case IN_REVIEW -> resumen.setEnRevision(resumen.getEnRevision() + cantidad);
+            case APPROVED -> resumen.setAprobadas(resumen.getAprobadas() + cantidad);
+            case REJECTED -> resumen.setRechazadas(resumen.getRechazadas() + cantidad);
+            case EXPIRED -> resumen.setVencidas(resumen.getVencidas() + cantidad);
+        }
+    }
+
+    private static ResumenUsuarioDTO toDto(ResumenUsuario resumen) {
+        Map<String, Long> porEstado = new TreeMap<>();
+        porEstado.put(Certificacion.Status.PENDING.name(), resumen.getPendientes());
+        porEstado.put(Certificacion.Status.IN_REVIEW.name(), resumen.getEnRevision());
+        porEstado.put(Certificacion.Status.APPROVED.name(), resumen.getAprobadas());
+        porEstado.put(Certificacion.Status.REJECTED.name(), resumen.getRechazadas());
+        porEstado.put(Certificacion.Status.EXPIRED.name(), resumen.getVencidas());
+
+        ResumenUsuarioDTO dto = new ResumenUsuarioDTO();
+        dto.setUsuarioId(resumen.getUsuarioId());
+        dto.setTotal(porEstado.values().stream().mapToLong(Long::longValue).sum());
+        dto.setPorEstado(porEstado);
+        if (resumen.getUltimaCertificacionId() != null) {
+            ResumenUsuarioDTO.UltimaCertificacionDTO ultima = new ResumenUsuarioDTO.UltimaCertificacionDTO();
+            ultima.setId(resumen.getUltimaCertificacionId());
+            ultima.setTipo(resumen.getUltimaCertificacionTipo());
+            ultima.setStatus(resumen.getUltimaCertificacionEstado() != null
+                    ? resumen.getUltimaCertificacionEstado().name() : null);
+            ultima.setFechaCreacion(resumen.getUltimaCertificacionFecha());
+            dto.setUltimaCertificacion(ultima);
+        }
+        dto.setBytesDocumentos(resumen.getBytesDocumentos());
+        dto.setFechaActualizacion(resumen.getFechaActualizacion());
+        return dto;
+    }
+}
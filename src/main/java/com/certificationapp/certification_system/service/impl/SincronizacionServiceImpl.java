@@ -0,0 +1,242 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.dto.CambiosCertificacionesDTO;
+import com.certificationapp.certification_system.dto.CertificacionResponseDTO;
+import com.certificationapp.certification_system.dto.DocumentoResponseDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.event.DocumentoEvent;
+import com.certificationapp.certification_system.mapper.CertificacionMapper;
+import com.certificationapp.certification_system.mapper.DocumentoMapper;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.CertificacionEliminada;
+import com.certificationapp.certification_system.repository.CertificacionEliminadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.service.SincronizacionService;
+import com.certificationapp.certification_system.sharding.ShardTransactions;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Delta-sync over certifications.
+ * Every write bumps {@code fechaActualizacion} (document writes bump their parent's), and
+ * deletions leave a tombstone. Changes are paged with a keyset cursor over
+ * {@code (fecha, id)}, so a sync costs work proportional to what changed.
+ * Rows newer than the safety window are held back until the next request, so that a
+ * transaction which committed slightly after a later timestamp was read is not skipped.
+ * With sharding, the changes of all users are gathered from every shard and merged in cursor order.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SincronizacionServiceImpl implements SincronizacionService {
+
+    private static final String TAREA_LAPIDA = "sincronizacion.lapida";
+
+    private final CertificacionRepository certificacionRepository;
+    private final CertificacionEliminadaRepository eliminadaRepository;
+    private final DocumentoRepository documentoRepository;
+    private final CertificacionMapper certificacionMapper;
+    private final DocumentoMapper documentoMapper;
+    private final ShardTransactions shardTransactions;
+
+    @Value("${app.sync.safety-window:PT5S}")
+    private Duration ventanaSeguridad;
+
+    @Value("${app.sync.tombstone-retention:P30D}")
+    private Duration retencion;
+
+    @Value("${app.sync.max-page-size:1000}")
+    private int limiteMaximo;
+
+    /**
+     * Not transactional: each query picks its own shard, while a transaction would stay on the first one's.
+     */
+    @Override
+    public CambiosCertificacionesDTO obtenerCambios(Long usuarioId, String cursor, int limite) {
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + limiteMaximo);
+        }
+        boolean inicial = cursor == null || cursor.isBlank();
+        Cursor desde = inicial ? Cursor.INICIAL : Cursor.decodificar(cursor);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        if (!inicial && desde.marca().isBefore(ahora.minus(retencion))) {
+            throw new IllegalArgumentException("El cursor ha expirado; realice una sincronización completa");
+        }
+        LocalDateTime hasta = ahora.minus(ventanaSeguridad).truncatedTo(ChronoUnit.MICROS);
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+
+        List<Certificacion> modificadas = usuarioId == null
+                ? certificacionRepository.findModificadasDespuesDe(desde.marca(), desde.ultimaModificada(), hasta, pagina)
+                : certificacionRepository.findModificadasDeUsuarioDespuesDe(usuarioId, desde.marca(), desde.ultimaModificada(), hasta, pagina);
+        // Un cliente sin cursor no tiene nada que borrar
+        List<CertificacionEliminada> eliminadas = inicial ? List.of() : usuarioId == null
+                ? eliminadaRepository.findEliminadasDespuesDe(desde.marca(), desde.ultimaEliminada(), hasta, pagina)
+                : eliminadaRepository.findEliminadasDeUsuarioDespuesDe(usuarioId, desde.marca(), desde.ultimaEliminada(), hasta, pagina);
+
+        // Fusiona ambas secuencias en orden (fecha, modificadas antes que eliminadas, id)
+        List<Certificacion> paginaModificadas = new ArrayList<>();
+        List<CertificacionEliminada> paginaEliminadas = new ArrayList<>();
+        Cursor siguiente = desde;
+        int i = 0;
+        int j = 0;
+        while (i + j < limite && (i < modificadas.size() || j < eliminadas.size())) {
+            boolean tomarModificada = j >= eliminadas.size() || (i < modificadas.size()
+                    && !modificadas.get(i).getFechaActualizacion().isAfter(eliminadas.get(j).getFechaEliminacion()));
+            if (tomarModificada) {
+                Certificacion certificacion = modificadas.get(i++);
+                paginaModificadas.add(certificacion);
+                siguiente = siguiente.trasModificada(certificacion.getFechaActualizacion(), certificacion.getId());
+            } else {
+                CertificacionEliminada eliminada = eliminadas.get(j++);
+                paginaEliminadas.add(eliminada);
+                siguiente = siguiente.trasEliminada(eliminada.getFechaEliminacion(), eliminada.getCertificacionId());
+            }
+        }
+        boolean hayMas = i < modificadas.size() || j < eliminadas.size();
+        if (!hayMas && hasta.isAfter(siguiente.marca())) {
+            // Todo lo anterior a 'hasta' ya se ha entregado
+            siguiente = new Cursor(hasta, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+
+        CambiosCertificacionesDTO cambios = new CambiosCertificacionesDTO();
+        cambios.setModificadas(conDocumentos(paginaModificadas));
+        cambios.setEliminadas(paginaEliminadas.stream().map(this::toEliminadaDto).toList());
+        cambios.setCursor(siguiente.codificar());
+        cambios.setHayMas(hayMas);
+        return cambios;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.sync.tombstone-purge-interval:PT1H}")
+    public int purgarEliminadas() {
+        int purgadas = eliminadaRepository.deleteAnterioresA(LocalDateTime.now().minus(retencion));
+        if (purgadas > 0) {
+            log.info("Purged {} certification tombstones older than {}", purgadas, retencion);
+        }
+        return purgadas;
+    }
+
+    /**
+     * Tombstones live in shard 0; a redelivered one finds its row already written.
+     */
+    @PostConstruct
+    void registrarTareas() {
+        shardTransactions.register(TAREA_LAPIDA, Eliminacion.class, eliminacion -> {
+            if (!eliminadaRepository.existsById(eliminacion.certificacionId())) {
+                eliminadaRepository.save(new CertificacionEliminada(eliminacion.certificacionId(),
+                        eliminacion.usuarioId(), null));
+            }
+        });
+    }
+
+    /**
+     * Runs inside the deleting transaction, so the tombstone commits or rolls back with it;
+     * with sharding, it is queued with it when the certification was on another shard.
+     */
+    @EventListener
+    public void onCertificacionEvent(CertificacionEvent event) {
+        if (event.getTipoEvento() == CertificacionEvent.Tipo.ELIMINADA && event.getUsuarioId() != null) {
+            shardTransactions.runOnPrimary(TAREA_LAPIDA, new Eliminacion(event.getCertificacionId(), event.getUsuarioId()));
+        }
+    }
+
+    record Eliminacion(Long certificacionId, Long usuarioId) {
+    }
+
+    /**
+     * Documents are synced as part of their certification, so a document write bumps the parent.
+     * The parent is touched as a managed entity, so the second-level cache only refreshes that
+     * entry instead of a bulk update evicting the whole region.
+     */
+    @EventListener
+    public void onDocumentoEvent(DocumentoEvent event) {
+        if (event.getCertificacionId() != null) {
+            certificacionRepository.findById(event.getCertificacionId())
+                    .ifPresent(certificacion -> certificacion.setFechaActualizacion(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Maps the page with its documents, read in one query per shard; the certifications are
+     * detached by then and cannot load them lazily.
+     */
+    private List<CertificacionResponseDTO> conDocumentos(List<Certificacion> certificaciones) {
+        if (certificaciones.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<DocumentoResponseDTO>> documentos = documentoRepository
+                .findByCertificacionIdIn(certificaciones.stream().map(Certificacion::getId).toList()).stream()
+                .collect(Collectors.groupingBy(documento -> documento.getCertificacion().getId(),
+                        Collectors.mapping(documentoMapper::toDto, Collectors.toList())));
+        return certificaciones.stream()
+                .map(certificacion -> {
+                    CertificacionResponseDTO dto = certificacionMapper.toDtoSinDocumentos(certificacion);
+                    dto.setDocumentos(documentos.getOrDefault(certificacion.getId(), List.of()));
+                    return dto;
+                })
+                .toList();
+    }
+
+    private CambiosCertificacionesDTO.EliminadaDTO toEliminadaDto(CertificacionEliminada eliminada) {
+        CambiosCertificacionesDTO.EliminadaDTO dto = new CambiosCertificacionesDTO.EliminadaDTO();
+        dto.setCertificacionId(eliminada.getCertificacionId());
+        dto.setFechaEliminacion(eliminada.getFechaEliminacion());
+        return dto;
+    }
+
+    /**
+     * Position in the change stream: everything up to {@code marca} has been delivered, except
+     * rows stamped exactly {@code marca} whose id is above the last id delivered for that table.
+     */
+    record Cursor(LocalDateTime marca, long ultimaModificada, long ultimaEliminada) {
+
+        static final Cursor INICIAL = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0, 0);
+
+        Cursor trasModificada(LocalDateTime fecha, long id) {
+            return new Cursor(fecha, id, fecha.equals(marca) ? ultimaEliminada : 0);
+        }
+
+        Cursor trasEliminada(LocalDateTime fecha, long id) {
+            // Las modificadas con la misma fecha se entregan antes que las eliminadas
+            return new Cursor(fecha, Long.MAX_VALUE, id);
+        }
+
+        String codificar() {
+            String valor = marca + "|" + ultimaModificada + "|" + ultimaEliminada;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String cursor) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (partes.length != 3) {
+                    throw new IllegalArgumentException("Cursor de sincronización inválido");
+                }
+                return new Cursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]), Long.parseLong(partes[2]));
+            } catch (DateTimeParseException | IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Cursor de sincronización inválido");
+            }
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package com.certificationapp.certification_system.service.impl;
 
+import com.certificationapp.certification_system.dto.PaginaUsuariosDTO;
 import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.event.UsuarioEvent;
 import com.certificationapp.certification_system.exception.ResourceNotFoundException;
 import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.UsuarioListadoRepository;
 import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.DisponibilidadService;
 import com.certificationapp.certification_system.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -19,6 +35,11 @@ public class UsuarioServiceImpl implements UsuarioService{
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DisponibilidadService disponibilidadService;
+
+    @Value("${app.users.max-page-size:200}")
+    private int limiteMaximo;
 
     @Override
     public Usuario crearUsuario(UsuarioCreateDTO createDTO) {
@@ -30,19 +51,13 @@ public class UsuarioServiceImpl implements UsuarioService{
         usuario.setPassword(passwordEncoder.encode(createDTO.getPassword()));
         usuario.setRole(Usuario.Role.USER);  // Por defecto, role USER
 
-        return usuarioRepository.save(usuario);
+        Usuario creado = guardarUnico(usuario, "Email already registered", "Username already taken");
+        eventPublisher.publishEvent(UsuarioEvent.creado(creado));
+        return creado;
     }
 
     private void validarDatosCreacionUsuario(UsuarioCreateDTO createDTO) {
-        // Validar email duplicado
-        if (usuarioRepository.existsByEmail(createDTO.getEmail())) {
-            throw new IllegalArgumentException("Email already registered");
-        }
-
-        // Validar username duplicado
-        if (usuarioRepository.existsByUsername(createDTO.getUsername())) {
-            throw new IllegalArgumentException("Username already taken");
-        }
+        // Los duplicados de email y username los detectan los índices únicos al insertar (ver guardarUnico)
 
         // Validar requisitos de contraseña
         if (createDTO.getPassword() == null || createDTO.getPassword().length() < 6) {
@@ -76,23 +91,93 @@ public class UsuarioServiceImpl implements UsuarioService{
     }
 
     @Override
-    public Usuario actualizarUsuario(Long id, Usuario usuarioDetails) {
-        Usuario usuario = obtenerUsuarioPorId(id);
-
-        if (!usuario.getEmail().equals(usuarioDetails.getEmail()) &&
-                usuarioRepository.existsByEmail(usuarioDetails.getEmail())) {
-            throw new IllegalArgumentException("El email ya está registrado");
+    @Transactional(readOnly = true)
+    public PaginaUsuariosDTO listarUsuarios(Usuario.Role rol, LocalDateTime desde, LocalDateTime hasta, String prefijo,
+                                            List<String> campos, String cursor, int limite) {
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + limiteMaximo);
+        }
+        List<String> solicitados = campos == null || campos.isEmpty() ? UsuarioListadoRepository.CAMPOS : campos;
+        for (String campo : solicitados) {
+            if (!UsuarioListadoRepository.CAMPOS.contains(campo)) {
+                throw new IllegalArgumentException("Campo desconocido: " + campo
+                        + ". Campos disponibles: " + String.join(", ", UsuarioListadoRepository.CAMPOS));
+            }
         }
+        Cursor desdeCursor = cursor == null || cursor.isBlank() ? null : Cursor.decodificar(cursor);
+        String prefijoNormalizado = prefijo == null || prefijo.isBlank() ? null : Usuario.normalizar(prefijo);
+
+        // Una fila de más indica si hay otra página
+        List<Map<String, Object>> filas = usuarioRepository.listar(new UsuarioListadoRepository.ConsultaUsuarios(
+                new LinkedHashSet<>(solicitados), rol, desde, hasta, prefijoNormalizado,
+                desdeCursor != null ? desdeCursor.marca() : null,
+                desdeCursor != null ? desdeCursor.ultimoId() : null,
+                limite + 1));
+        boolean hayMas = filas.size() > limite;
+        List<Map<String, Object>> pagina = hayMas ? filas.subList(0, limite) : filas;
+
+        PaginaUsuariosDTO dto = new PaginaUsuariosDTO();
+        dto.setUsuarios(pagina.stream().map(fila -> proyectar(fila, solicitados)).toList());
+        if (!pagina.isEmpty()) {
+            Map<String, Object> ultima = pagina.get(pagina.size() - 1);
+            dto.setCursor(new Cursor((LocalDateTime) ultima.get("createdAt"), (Long) ultima.get("id")).codificar());
+        } else {
+            dto.setCursor(cursor);
+        }
+        dto.setHayMas(hayMas);
+        return dto;
+    }
 
-        if (!usuario.getUsername().equals(usuarioDetails.getUsername()) &&
-                usuarioRepository.existsByUsername(usuarioDetails.getUsername())) {
-            throw new IllegalArgumentException("El username ya está en uso");
+    private static Map<String, Object> proyectar(Map<String, Object> fila, List<String> campos) {
+        Map<String, Object> usuario = new LinkedHashMap<>();
+        for (String campo : UsuarioListadoRepository.CAMPOS) {
+            if (campos.contains(campo)) {
+                Object valor = fila.get(campo);
+                usuario.put(campo, valor instanceof Usuario.Role role ? role.name() : valor);
+            }
         }
+        return usuario;
+    }
+
+    @Override
+    public Usuario actualizarUsuario(Long id, Usuario usuarioDetails) {
+        Usuario usuario = obtenerUsuarioPorId(id);
 
         usuario.setUsername(usuarioDetails.getUsername());
         usuario.setEmail(usuarioDetails.getEmail());
 
-        return usuarioRepository.save(usuario);
+        Usuario actualizado = guardarUnico(usuario, "El email ya está registrado", "El username ya está en uso");
+        eventPublisher.publishEvent(UsuarioEvent.actualizado(actualizado));
+        return actualizado;
+    }
+
+    /**
+     * Saves and flushes the user, so a duplicate email or username surfaces here as a violation
+     * of the normalized unique indexes instead of being checked with extra queries beforehand.
+     */
+    private Usuario guardarUnico(Usuario usuario, String mensajeEmail, String mensajeUsername) {
+        try {
+            return usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException ex) {
+            String restriccion = restriccionViolada(ex);
+            if (restriccion.contains(Usuario.UK_EMAIL)) {
+                throw new IllegalArgumentException(mensajeEmail);
+            }
+            if (restriccion.contains(Usuario.UK_USERNAME)) {
+                throw new IllegalArgumentException(mensajeUsername);
+            }
+            throw ex;
+        }
+    }
+
+    private static String restriccionViolada(DataIntegrityViolationException ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        // Algunos drivers no informan del nombre por separado, pero sí en el mensaje
+        return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
     }
 
     @Override
@@ -101,17 +186,41 @@ public class UsuarioServiceImpl implements UsuarioService{
             throw new ResourceNotFoundException("Usuario no encontrado con id: " + id);
         }
         usuarioRepository.deleteById(id);
+        eventPublisher.publishEvent(UsuarioEvent.eliminado(id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean existeEmail(String email) {
-        return usuarioRepository.existsByEmail(email);
+        return disponibilidadService.emailOcupado(email);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean existeUsername(String username) {
-        return usuarioRepository.existsByUsername(username);
+        return disponibilidadService.usernameOcupado(username);
+    }
+
+    /**
+     * Position in the listing: the {@code (createdAt, id)} of the last user returned.
+     */
+    record Cursor(LocalDateTime marca, long ultimoId) {
+
+        String codificar() {
+            String valor = marca + "|" + ultimoId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String cursor) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (partes.length != 2) {
+                    throw new IllegalArgumentException("Cursor de paginación inválido");
+                }
+                return new Cursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+            } catch (DateTimeParseException | IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+        }
     }
 }
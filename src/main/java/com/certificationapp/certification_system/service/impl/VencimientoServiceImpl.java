@@ -0,0 +1,189 @@
+package com.certificationapp.certification_system.service.impl;
+
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.scheduling.TimingWheel;
+import com.certificationapp.certification_system.service.VencimientoService;
+import com.certificationapp.certification_system.sharding.ShardContext;
+import com.certificationapp.certification_system.sharding.ShardKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Expires approved certifications when their validity ends and flags them for renewal
+ * {@code app.expiry.reminder-lead} beforehand.
+ * <p>
+ * A periodic scan reads only the certifications due within the next {@code app.expiry.horizon},
+ * in bounded keyset chunks over the (status, expiry) index, and hands them to an in-memory
+ * timing wheel that fires each one close to its due time. Every action re-checks the row
+ * in its own transaction, so renewals or deletions made after scheduling are respected,
+ * and anything lost on a restart is simply picked up by the next scan.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VencimientoServiceImpl implements VencimientoService {
+
+    private static final LocalDateTime INICIO_KEYSET = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final CertificacionRepository certificacionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    @Value("${app.expiry.reminder-lead:P30D}")
+    private Duration antelacionRecordatorio;
+
+    @Value("${app.expiry.horizon:PT5M}")
+    private Duration horizonte;
+
+    @Value("${app.expiry.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${app.expiry.wheel-size:512}")
+    private int tamanoRueda;
+
+    @Value("${app.expiry.chunk-size:500}")
+    private int tamanoLote;
+
+    @Value("${app.expiry.max-pending:50000}")
+    private int maxPendientes;
+
+    private TimingWheel<Tarea> rueda;
+
+    @PostConstruct
+    void iniciar() {
+        rueda = new TimingWheel<>(tick, tamanoRueda, this::procesar, "expiry-wheel");
+    }
+
+    @PreDestroy
+    void detener() {
+        rueda.close();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.expiry.scan-interval:PT1M}")
+    public int programarProximos() {
+        cerrojo.lock();
+        try {
+            LocalDateTime hasta = LocalDateTime.now().plus(horizonte);
+            int programadas = programar(Accion.VENCER, Duration.ZERO, hasta,
+                    certificacionRepository::findVencimientosHasta);
+            programadas += programar(Accion.RECORDAR, antelacionRecordatorio, hasta.plus(antelacionRecordatorio),
+                    certificacionRepository::findSinRecordatorioHasta);
+            if (programadas > 0) {
+                log.debug("Scheduled {} expiry actions due before {}", programadas, hasta);
+            }
+            return programadas;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private int programar(Accion accion, Duration antelacion, LocalDateTime hasta, ConsultaVencimientos consulta) {
+        LocalDateTime marca = INICIO_KEYSET;
+        long ultimoId = 0;
+        int programadas = 0;
+        // Con la rueda llena se deja el resto para el siguiente barrido
+        while (rueda.pendientes() < maxPendientes) {
+            List<CertificacionRepository.Vencimiento> lote = consulta.buscar(Certificacion.Status.APPROVED,
+                    hasta, marca, ultimoId, PageRequest.of(0, tamanoLote));
+            for (CertificacionRepository.Vencimiento vencimiento : lote) {
+                if (rueda.programar(new Tarea(accion, vencimiento.getId()),
+                        momento(vencimiento.getFechaVencimiento().minus(antelacion)))) {
+                    programadas++;
+                }
+            }
+            if (lote.size() < tamanoLote) {
+                break;
+            }
+            CertificacionRepository.Vencimiento ultimo = lote.get(lote.size() - 1);
+            marca = ultimo.getFechaVencimiento();
+            ultimoId = ultimo.getId();
+        }
+        return programadas;
+    }
+
+    private void procesar(List<Tarea> tareas) {
+        // Si el lote falla no se pierde nada: siguen pendientes en la tabla y el próximo barrido las reprograma.
+        // Una transacción por shard, abierta ya en él; sin sharding todas son del shard 0
+        tareas.stream()
+                .collect(Collectors.groupingBy(tarea -> ShardKeys.shardOf(tarea.certificacionId()), TreeMap::new, Collectors.toList()))
+                .forEach((shard, grupo) -> ShardContext.callInShard(shard, () -> transactionTemplate.execute(status -> {
+                    grupo.forEach(this::aplicar);
+                    return null;
+                })));
+    }
+
+    private void aplicar(Tarea tarea) {
+        Certificacion certificacion = certificacionRepository.findById(tarea.certificacionId()).orElse(null);
+        if (certificacion == null || certificacion.getStatus() != Certificacion.Status.APPROVED
+                || certificacion.getFechaVencimiento() == null) {
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime vence = certificacion.getFechaVencimiento();
+        switch (tarea.accion()) {
+            case VENCER -> {
+                if (vence.isAfter(ahora)) {
+                    rueda.programar(tarea, momento(vence));
+                    return;
+                }
+                certificacion.setStatus(Certificacion.Status.EXPIRED);
+                certificacionRepository.save(certificacion);
+                eventPublisher.publishEvent(
+                        CertificacionEvent.estadoActualizado(certificacion, Certificacion.Status.APPROVED));
+            }
+            case RECORDAR -> {
+                if (certificacion.isRecordatorioEnviado()) {
+                    return;
+                }
+                LocalDateTime aviso = vence.minus(antelacionRecordatorio);
+                if (aviso.isAfter(ahora)) {
+                    rueda.programar(tarea, momento(aviso));
+                    return;
+                }
+                certificacion.setRecordatorioEnviado(true);
+                certificacionRepository.save(certificacion);
+                eventPublisher.publishEvent(CertificacionEvent.renovacionPendiente(certificacion));
+            }
+        }
+    }
+
+    private static Instant momento(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private enum Accion {
+        VENCER, RECORDAR
+    }
+
+    private record Tarea(Accion accion, Long certificacionId) {
+    }
+
+    @FunctionalInterface
+    private interface ConsultaVencimientos {
+        List<CertificacionRepository.Vencimiento> buscar(Certificacion.Status estado, LocalDateTime hasta,
+                                                         LocalDateTime marca, Long ultimoId, Pageable pageable);
+    }
+}
@@ -0,0 +1,111 @@
+package com.certificationapp.certification_system.sharding;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.event.UsuarioEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Copies the rows a certification references, its user and its type, from shard 0 to the
+ * shard that stores it, so the shard's foreign keys and joins work.
+ * <p>
+ * Rows are copied the first time a shard needs them and remembered afterwards. A user copy
+ * is refreshed after each committed change of the user and removed when the user is deleted;
+ * types never change once registered.
+ */
+@Slf4j
+public class ReferenceDataReplicator {
+
+    static final String USERS = "usuarios";
+    static final String TYPES = "tipos_certificacion";
+
+    private final ShardRoutingDataSource shards;
+    private final CatalogoTipos catalogoTipos;
+    private final Map<Integer, Set<String>> copied = new ConcurrentHashMap<>();
+
+    public ReferenceDataReplicator(ShardRoutingDataSource shards, CatalogoTipos catalogoTipos) {
+        this.shards = shards;
+        this.catalogoTipos = catalogoTipos;
+    }
+
+    /**
+     * Makes sure the user and type of {@code certificacion} exist in {@code shard}.
+     */
+    public void ensureReferences(int shard, Certificacion certificacion) {
+        if (shard == 0) {
+            return;
+        }
+        if (certificacion.getUsuario() != null && certificacion.getUsuario().getId() != null) {
+            ensure(shard, USERS, certificacion.getUsuario().getId());
+        }
+        if (certificacion.getTipo() != null) {
+            ensure(shard, TYPES, catalogoTipos.idDe(certificacion.getTipo()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUsuarioEvent(UsuarioEvent event) {
+        int shard = ShardKeys.shardOf(event.getUsuarioId());
+        String key = USERS + ":" + event.getUsuarioId();
+        if (shard == 0 || shard >= shards.shardCount() || !copiedTo(shard).contains(key)) {
+            return;
+        }
+        try {
+            if (event.getTipoEvento() == UsuarioEvent.Tipo.ELIMINADO) {
+                new JdbcTemplate(shards.shard(shard)).update("DELETE FROM " + USERS + " WHERE id = ?", event.getUsuarioId());
+                copiedTo(shard).remove(key);
+            } else {
+                copy(USERS, event.getUsuarioId(), shard);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not refresh the copy of user {} in shard {}", event.getUsuarioId(), shard, ex);
+        }
+    }
+
+    private void ensure(int shard, String table, Object id) {
+        String key = table + ":" + id;
+        if (copiedTo(shard).contains(key)) {
+            return;
+        }
+        copy(table, id, shard);
+        copiedTo(shard).add(key);
+    }
+
+    private void copy(String table, Object id, int shard) {
+        List<Map<String, Object>> rows = new JdbcTemplate(shards.shard(0))
+                .queryForList("SELECT * FROM " + table + " WHERE id = ?", id);
+        if (rows.isEmpty()) {
+            // Sin fila de origen no hay nada que copiar; la clave foránea del shard lo rechazará
+            return;
+        }
+        Map<String, Object> row = rows.get(0);
+        List<String> columns = new ArrayList<>(row.keySet());
+        List<Object> values = new ArrayList<>(row.values());
+
+        JdbcTemplate target = new JdbcTemplate(shards.shard(shard));
+        String assignments = columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "));
+        List<Object> updateValues = new ArrayList<>(values);
+        updateValues.add(id);
+        // Actualizar y, si no estaba, insertar: sin UPSERT propio de cada base de datos
+        if (target.update("UPDATE " + table + " SET " + assignments + " WHERE id = ?", updateValues.toArray()) == 0) {
+            target.update("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")", values.toArray());
+        }
+        log.debug("Copied {} {} to shard {}", table, id, shard);
+    }
+
+    private Set<String> copiedTo(int shard) {
+        return copied.computeIfAbsent(shard, key -> ConcurrentHashMap.newKeySet());
+    }
+}
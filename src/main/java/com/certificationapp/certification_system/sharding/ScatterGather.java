@@ -0,0 +1,27 @@
+package com.certificationapp.certification_system.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a sharded repository query that reads every shard.
+ * <p>
+ * The query runs on all shards in parallel. Lists are merged in id order, or by the
+ * {@link #orderBy} properties and then id, and, when the query takes a
+ * {@link org.springframework.data.domain.Pageable}, cut to the page size, so a keyset query
+ * ordered the same way pages through all shards as if they were one table. Rows without an
+ * id, such as grouped counts, are appended shard after shard. Counts are summed.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScatterGather {
+
+    /**
+     * Properties the query orders by ahead of the id, e.g. {@code "fechaVencimiento"}.
+     */
+    String[] orderBy() default {};
+}
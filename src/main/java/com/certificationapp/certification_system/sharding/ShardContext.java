@@ -0,0 +1,53 @@
+package com.certificationapp.certification_system.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread works on; shard 0, the primary database, when none is set.
+ * <p>
+ * It only decides where a connection comes from when one is opened. A transaction stays on the
+ * shard of its first statement, so code that works on one user's certifications in a single
+ * transaction should enter that user's shard before the transaction starts.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static <T> T callInShard(int shard, Supplier<T> action) {
+        Integer previous = enter(shard);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs {@code action} in the shard that holds the given user's, certification's or document's rows.
+     */
+    public static <T> T callInShardOf(long id, Supplier<T> action) {
+        return callInShard(ShardKeys.shardOf(id), action);
+    }
+
+    static Integer enter(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.certificationapp.certification_system.sharding;
+
+/**
+ * Ids that carry their shard: the shard number sits above the sequence value, in bits 48 and up.
+ * <p>
+ * Shard 0 ids are plain sequence values, so rows created before sharding, or with a single
+ * database, keep their ids and resolve to shard 0. With at most {@link #MAX_SHARDS} shards
+ * every id stays below 2<sup>53</sup> and survives a round trip through a JSON number.
+ */
+public final class ShardKeys {
+
+    public static final int MAX_SHARDS = 32;
+
+    private static final int SHARD_SHIFT = 48;
+    private static final long MAX_VALUE = (1L << SHARD_SHIFT) - 1;
+
+    private ShardKeys() {
+    }
+
+    public static long encode(int shard, long value) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard out of range: " + shard);
+        }
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Sequence value out of range: " + value);
+        }
+        return (long) shard << SHARD_SHIFT | value;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+
+    public static long valueOf(long id) {
+        return id & MAX_VALUE;
+    }
+}
@@ -0,0 +1,202 @@
+package com.certificationapp.certification_system.sharding;
+
+import com.certificationapp.certification_system.model.TareaPendiente;
+import com.certificationapp.certification_system.repository.TareaPendienteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Queue of writes to another shard, kept in a table of the shard whose transaction causes them.
+ * <p>
+ * A task is saved in the originating transaction, so it exists exactly when that change
+ * committed, and is delivered right after the commit and then periodically until it succeeds,
+ * each time in a new transaction on the target shard. The row is deleted once the target
+ * transaction commits, so a crash in between delivers the task again: handlers must be
+ * idempotent. Tasks of one shard are delivered in the order they were queued; a failing task
+ * holds back the ones after it until it goes through.
+ */
+@Slf4j
+@Component
+public class ShardOutbox {
+
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final TareaPendienteRepository tareaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, Handler<?>> handlers = new ConcurrentHashMap<>();
+    private final Map<Integer, ReentrantLock> drains = new ConcurrentHashMap<>();
+
+    @Value("${app.sharding.outbox-batch-size:100}")
+    private int batchSize;
+
+    public ShardOutbox(ObjectProvider<ShardRoutingDataSource> shards, TareaPendienteRepository tareaRepository,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.shards = shards;
+        this.tareaRepository = tareaRepository;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Registers the handler of a task. It runs in a transaction on the task's target shard and
+     * may run more than once for the same payload.
+     */
+    public <T> void register(String task, Class<T> payloadType, Consumer<T> handler) {
+        if (handlers.putIfAbsent(task, new Handler<>(payloadType, handler)) != null) {
+            throw new IllegalStateException("Task " + task + " is already registered");
+        }
+    }
+
+    /**
+     * Runs a task's handler right away, in the caller's transaction.
+     */
+    public void handle(String task, Object payload) {
+        handler(task).run(payload);
+    }
+
+    /**
+     * Queues a task in the current transaction, which must be on the {@code origin} shard,
+     * and delivers it once that transaction commits.
+     */
+    public void enqueue(int origin, int target, String task, Object payload) {
+        handler(task);
+        String datos;
+        try {
+            datos = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the payload of task " + task, ex);
+        }
+        tareaRepository.save(new TareaPendiente(task, target, datos));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    drain(origin);
+                } catch (RuntimeException ex) {
+                    // La tarea sigue en la cola y se reintenta en la siguiente pasada
+                    log.warn("Could not deliver the queued tasks of shard {} after commit", origin, ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Delivers the tasks queued in every shard, including those left by other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.sharding.outbox-interval:PT5S}")
+    public void drainAll() {
+        ShardRoutingDataSource routing = shards.getIfAvailable();
+        if (routing == null) {
+            return;
+        }
+        for (int shard = 0; shard < routing.shardCount(); shard++) {
+            try {
+                drain(shard);
+            } catch (RuntimeException ex) {
+                log.error("Could not deliver the queued tasks of shard {}", shard, ex);
+            }
+        }
+    }
+
+    /**
+     * Delivers the tasks queued in a shard in order, stopping at the first one that fails.
+     *
+     * @return number of tasks delivered
+     */
+    public int drain(int shard) {
+        // Un solo hilo por shard en esta instancia; entre instancias ordena el bloqueo de cada fila
+        ReentrantLock drain = drains.computeIfAbsent(shard, clave -> new ReentrantLock());
+        drain.lock();
+        try {
+            int delivered = 0;
+            while (true) {
+                List<Long> ids = ShardContext.callInShard(shard, () -> readOnlyTransaction.execute(status ->
+                        tareaRepository.findIdsEnOrden(PageRequest.of(0, batchSize))));
+                for (Long id : ids) {
+                    if (!deliver(shard, id)) {
+                        return delivered;
+                    }
+                    delivered++;
+                }
+                if (ids.size() < batchSize) {
+                    return delivered;
+                }
+            }
+        } finally {
+            drain.unlock();
+        }
+    }
+
+    private boolean deliver(int shard, Long id) {
+        return ShardContext.callInShard(shard, () -> newTransaction.execute(status -> {
+            Optional<TareaPendiente> pendiente = tareaRepository.bloquear(id);
+            if (pendiente.isEmpty()) {
+                // Otra instancia la entregó mientras tanto
+                return true;
+            }
+            TareaPendiente tarea = pendiente.get();
+            try {
+                Object payload = read(tarea);
+                ShardContext.callInShard(tarea.getShardDestino(), () -> newTransaction.execute(destino -> {
+                    handle(tarea.getTarea(), payload);
+                    return null;
+                }));
+            } catch (RuntimeException ex) {
+                tarea.setIntentos(tarea.getIntentos() + 1);
+                String error = String.valueOf(ex);
+                tarea.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                log.warn("Task {} {} queued in shard {} failed on attempt {}", tarea.getTarea(), id, shard,
+                        tarea.getIntentos(), ex);
+                return false;
+            }
+            tareaRepository.delete(tarea);
+            return true;
+        }));
+    }
+
+    private Object read(TareaPendiente tarea) {
+        try {
+            return objectMapper.readValue(tarea.getDatos(), handler(tarea.getTarea()).payloadType());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read the payload of task " + tarea.getTarea(), ex);
+        }
+    }
+
+    private Handler<?> handler(String task) {
+        Handler<?> handler = handlers.get(task);
+        if (handler == null) {
+            throw new IllegalStateException("No handler registered for task " + task);
+        }
+        return handler;
+    }
+
+    private record Handler<T>(Class<T> payloadType, Consumer<T> consumer) {
+        void run(Object payload) {
+            consumer.accept(payloadType.cast(payload));
+        }
+    }
+}
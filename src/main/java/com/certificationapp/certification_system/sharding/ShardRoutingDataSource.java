@@ -0,0 +1,107 @@
+package com.certificationapp.certification_system.sharding;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens connections on the shard of the current {@link ShardContext}.
+ * <p>
+ * Each transaction remembers the shard of its connection, so sharded repositories can refuse
+ * to run in a transaction that is already on another shard instead of silently reading or
+ * writing the wrong database. A transaction suspended for a new one takes its shard along, so
+ * the new one picks its own. Like the replica routing, it must sit behind a lazy connection
+ * proxy: the shard is chosen when the first statement runs, not when the transaction begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+    private final Object transactionShardKey = new Object();
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty() || shards.size() > ShardKeys.MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + ShardKeys.MAX_SHARDS + " shards are supported");
+        }
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Shard 0 when {@code dataSource} routes between shards, otherwise {@code dataSource} itself.
+     * For reference data, which only shard 0 owns, whatever shard the caller is working on.
+     */
+    public static DataSource primary(DataSource dataSource) {
+        DataSource target = dataSource;
+        while (target instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            target = delegating.getTargetDataSource();
+        }
+        return target instanceof ShardRoutingDataSource routing ? routing.shard(0) : dataSource;
+    }
+
+    /**
+     * Shard of the current transaction's connection, or {@code null} when no transaction is
+     * active or it has not run a statement yet.
+     */
+    public Integer transactionShard() {
+        return (Integer) TransactionSynchronizationManager.getResource(transactionShardKey);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.current();
+        if (shard >= shards.size()) {
+            throw new IllegalStateException("No shard " + shard + ": " + shards.size() + " configured");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(transactionShardKey) == null) {
+            TransactionSynchronizationManager.bindResource(transactionShardKey, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionShardKey);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(transactionShardKey, shard);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionShardKey);
+                }
+            });
+        }
+        return shard;
+    }
+
+    @Override
+    public void close() throws Exception {
+        // El shard 0 es el pool principal y lo cierra su propio bean
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.certificationapp.certification_system.sharding;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lets code joining another transaction reach the tables of a shard that transaction is not on.
+ * <p>
+ * Listeners of certification and document events keep summaries, certificates and tombstones
+ * in tables only shard 0 has, while the event's transaction may be on the certification's shard.
+ * Without sharding, or when the transaction is on the right shard, writes run in the caller's
+ * transaction; otherwise they are queued as tasks of the {@link ShardOutbox} in that
+ * transaction and delivered after it commits.
+ */
+@Component
+public class ShardTransactions {
+
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final ShardOutbox outbox;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ShardTransactions(ObjectProvider<ShardRoutingDataSource> shards, ShardOutbox outbox,
+                             PlatformTransactionManager transactionManager) {
+        this.shards = shards;
+        this.outbox = outbox;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Registers a write that {@link #runOnPrimary} and {@link #runInShardOf} can run in another
+     * shard. As it may be delivered more than once, it must be idempotent.
+     */
+    public <T> void register(String task, Class<T> payloadType, Consumer<T> write) {
+        outbox.register(task, payloadType, write);
+    }
+
+    /**
+     * Runs a registered write to shard 0 tables. Inside a transaction on another shard it is
+     * queued in that transaction, so it never outlives a rollback, and retried until it
+     * succeeds after the transaction commits.
+     */
+    public void runOnPrimary(String task, Object payload) {
+        runInShard(0, null, task, payload);
+    }
+
+    /**
+     * Like {@link #runOnPrimary(String, Object)}, but runs {@code write} instead of the task when
+     * the transaction is on shard 0, for changes cheaper to apply in place than to redo later.
+     */
+    public void runOnPrimary(Runnable write, String task, Object payload) {
+        runInShard(0, write, task, payload);
+    }
+
+    /**
+     * Runs a registered write to the rows owned by the given user, certification or document,
+     * such as its archived certifications, the same way {@link #runOnPrimary} runs shard 0 writes.
+     */
+    public void runInShardOf(long id, String task, Object payload) {
+        runInShard(ShardKeys.shardOf(id), null, task, payload);
+    }
+
+    /**
+     * Runs a read of the rows owned by the given user, certification or document. From a
+     * transaction on another shard it runs in a separate read-only transaction on the owner's
+     * shard, which only sees committed rows.
+     */
+    public <T> T readInShardOf(long id, Supplier<T> read) {
+        int shard = ShardKeys.shardOf(id);
+        if (shards.getIfAvailable() == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || shardOfTransaction() == shard) {
+            return read.get();
+        }
+        return ShardContext.callInShard(shard, () -> readOnlyTransaction.execute(status -> read.get()));
+    }
+
+    private void runInShard(int shard, Runnable write, String task, Object payload) {
+        if (shards.getIfAvailable() == null || shardOfTransaction() == shard) {
+            if (write != null) {
+                write.run();
+            } else {
+                outbox.handle(task, payload);
+            }
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ShardContext.callInShard(shard, () -> newTransaction.execute(status -> {
+                outbox.handle(task, payload);
+                return null;
+            }));
+            return;
+        }
+        outbox.enqueue(shardOfTransaction(), shard, task, payload);
+    }
+
+    /**
+     * Shard the current transaction is on, or will be on once it runs its first statement.
+     */
+    private int shardOfTransaction() {
+        Integer shard = shards.getObject().transactionShard();
+        return shard != null ? shard : ShardContext.current();
+    }
+}
@@ -0,0 +1,279 @@
+package com.certificationapp.certification_system.sharding;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Routes the calls of a sharded repository to the shard of the data they touch.
+ * <p>
+ * The shard comes from the first argument that identifies an owner: a user, certification or
+ * document (new ones through their owner), or an id parameter named {@code id},
+ * {@code usuarioId} or {@code certificacionId}; the inherited CRUD methods count any id.
+ * Collections of ids or entities spanning several shards are split into one call per shard,
+ * which is only allowed outside a transaction. Calls with no owner run on the current
+ * shard, shard 0 unless the caller chose another; {@link ScatterGather} ones run everywhere.
+ * A call that needs a shard other than the one its transaction is already on is refused.
+ */
+public class ShardedRepositoryInterceptor implements MethodInterceptor {
+
+    private static final Set<String> KEY_PARAMETERS = Set.of("id", "ids", "usuarioId", "certificacionId", "certificacionIds");
+
+    private final Class<?> repositoryInterface;
+    private final ShardRoutingDataSource shards;
+    private final ReferenceDataReplicator replicator;
+    private final Executor executor;
+
+    public ShardedRepositoryInterceptor(Class<?> repositoryInterface, ShardRoutingDataSource shards,
+                                        ReferenceDataReplicator replicator, Executor executor) {
+        this.repositoryInterface = repositoryInterface;
+        this.shards = shards;
+        this.replicator = replicator;
+        this.executor = executor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = ClassUtils.getMostSpecificMethod(invocation.getMethod(), repositoryInterface);
+        if (AnnotatedElementUtils.hasAnnotation(method, ScatterGather.class)) {
+            return scatterGather(invocation, method);
+        }
+
+        Map<Integer, Object[]> calls = splitByShard(method, invocation.getArguments());
+        if (calls.isEmpty()) {
+            return invocation.proceed();
+        }
+        if (calls.size() == 1) {
+            Map.Entry<Integer, Object[]> call = calls.entrySet().iterator().next();
+            return proceedInShard(invocation, method, call.getKey(), call.getValue());
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(describe(method) + " spans shards " + calls.keySet()
+                    + " and cannot run inside one transaction");
+        }
+        List<Object> results = new ArrayList<>();
+        for (Map.Entry<Integer, Object[]> call : calls.entrySet()) {
+            results.add(proceedInShard(invocation, method, call.getKey(), call.getValue()));
+        }
+        return combine(method, results, null, null);
+    }
+
+    private Object proceedInShard(MethodInvocation invocation, Method method, int shard, Object[] arguments) throws Throwable {
+        Integer transactionShard = shards.transactionShard();
+        if (transactionShard != null && transactionShard != shard) {
+            throw new IllegalStateException(describe(method) + " needs shard " + shard
+                    + " but the current transaction is on shard " + transactionShard);
+        }
+        if (method.getName().startsWith("save")) {
+            for (Object argument : arguments) {
+                ensureReferences(shard, argument);
+            }
+        }
+
+        Integer previous = ShardContext.enter(shard);
+        try {
+            return ((ProxyMethodInvocation) invocation).invocableClone(arguments).proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private Object scatterGather(MethodInvocation invocation, Method method) throws Throwable {
+        ScatterGather scatterGather = AnnotatedElementUtils.findMergedAnnotation(method, ScatterGather.class);
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            int target = shard;
+            MethodInvocation call = ((ProxyMethodInvocation) invocation).invocableClone();
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Integer previous = ShardContext.enter(target);
+                try {
+                    return call.proceed();
+                } catch (Throwable ex) {
+                    throw new CompletionException(ex);
+                } finally {
+                    ShardContext.restore(previous);
+                }
+            }, executor));
+        }
+
+        List<Object> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<Object> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException ex) {
+            throw ex.getCause() != null ? ex.getCause() : ex;
+        }
+        Pageable pageable = null;
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof Pageable page) {
+                pageable = page;
+            }
+        }
+        return combine(method, results, order(scatterGather.orderBy()), pageable);
+    }
+
+    /**
+     * Arguments of one call per shard, or none when the call names no owner.
+     */
+    private Map<Integer, Object[]> splitByShard(Method method, Object[] arguments) {
+        boolean inherited = !method.getDeclaringClass().equals(repositoryInterface);
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            boolean key = inherited || KEY_PARAMETERS.contains(parameterName(parameters[i]));
+
+            Integer shard = entityShard(argument);
+            if (shard == null && key && argument instanceof Number id) {
+                shard = ShardKeys.shardOf(id.longValue());
+            }
+            if (shard != null) {
+                return Map.of(shard, arguments);
+            }
+
+            Map<Integer, List<Object>> groups = argument instanceof Iterable<?> elements ? groupByShard(elements, key) : null;
+            if (groups != null) {
+                Map<Integer, Object[]> calls = new LinkedHashMap<>();
+                for (Map.Entry<Integer, List<Object>> group : groups.entrySet()) {
+                    Object[] groupArguments = arguments.clone();
+                    groupArguments[i] = groups.size() == 1 ? argument : group.getValue();
+                    calls.put(group.getKey(), groupArguments);
+                }
+                return calls;
+            }
+        }
+        return Map.of();
+    }
+
+    /**
+     * Elements by shard, or {@code null} when the collection is empty or not made of owners.
+     */
+    private static Map<Integer, List<Object>> groupByShard(Iterable<?> elements, boolean key) {
+        Map<Integer, List<Object>> groups = new LinkedHashMap<>();
+        for (Object element : elements) {
+            Integer shard = entityShard(element);
+            if (shard == null && key && element instanceof Number id) {
+                shard = ShardKeys.shardOf(id.longValue());
+            }
+            if (shard == null) {
+                return null;
+            }
+            groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(element);
+        }
+        return groups.isEmpty() ? null : groups;
+    }
+
+    private static Integer entityShard(Object argument) {
+        Long id = null;
+        if (argument instanceof Usuario usuario) {
+            id = usuario.getId();
+        } else if (argument instanceof Certificacion certificacion) {
+            id = certificacion.getId() != null ? certificacion.getId()
+                    : certificacion.getUsuario() != null ? certificacion.getUsuario().getId() : null;
+        } else if (argument instanceof Documento documento) {
+            id = documento.getId() != null ? documento.getId()
+                    : documento.getCertificacion() != null ? documento.getCertificacion().getId() : null;
+        }
+        return id != null ? ShardKeys.shardOf(id) : null;
+    }
+
+    private void ensureReferences(int shard, Object argument) {
+        if (argument instanceof Certificacion certificacion) {
+            replicator.ensureReferences(shard, certificacion);
+        } else if (argument instanceof Iterable<?> elements) {
+            elements.forEach(element -> ensureReferences(shard, element));
+        }
+    }
+
+    private static String parameterName(Parameter parameter) {
+        Param param = parameter.getAnnotation(Param.class);
+        return param != null ? param.value() : parameter.getName();
+    }
+
+    /**
+     * Merge order of a scatter-gather query: its {@code orderBy} properties, then the id.
+     */
+    private static Comparator<Object> order(String[] properties) {
+        Comparator<Object> order = null;
+        for (String property : properties) {
+            Comparator<Object> byProperty = Comparator.comparing(element -> property(element, property),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            order = order == null ? byProperty : order.thenComparing(byProperty);
+        }
+        Comparator<Object> byId = Comparator.comparing(ShardedRepositoryInterceptor::idOf,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        return order == null ? byId : order.thenComparing(byId);
+    }
+
+    private static Object combine(Method method, List<Object> results, Comparator<Object> order, Pageable pageable) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            return null;
+        }
+        if (List.class.isAssignableFrom(returnType)) {
+            List<Object> merged = new ArrayList<>();
+            results.forEach(result -> merged.addAll((List<?>) result));
+            if (order != null) {
+                merged.sort(order);
+            }
+            if (pageable != null && pageable.isPaged() && merged.size() > pageable.getPageSize()) {
+                return new ArrayList<>(merged.subList(0, pageable.getPageSize()));
+            }
+            return merged;
+        }
+        if (Optional.class.equals(returnType)) {
+            return results.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> ((Number) result).longValue()).sum();
+        }
+        if (returnType == int.class || returnType == Integer.class) {
+            return results.stream().mapToInt(result -> ((Number) result).intValue()).sum();
+        }
+        throw new IllegalStateException("Cannot combine the results of " + describe(method) + " from several shards");
+    }
+
+    private static Long idOf(Object element) {
+        if (element instanceof Certificacion certificacion) {
+            return certificacion.getId();
+        }
+        if (element instanceof Documento documento) {
+            return documento.getId();
+        }
+        return property(element, "id") instanceof Number number ? number.longValue() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> property(Object element, String property) {
+        Method getter = element != null ? ReflectionUtils.findMethod(element.getClass(), "get" + StringUtils.capitalize(property)) : null;
+        return getter != null ? (Comparable<Object>) ReflectionUtils.invokeMethod(getter, element) : null;
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
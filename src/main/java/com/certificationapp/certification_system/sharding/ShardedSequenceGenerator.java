@@ -0,0 +1,110 @@
+package com.certificationapp.certification_system.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequence-based ids that encode the shard holding the row (see {@link ShardKeys}).
+ * <p>
+ * Takes the usual sequence parameters. With {@value #SHARDED_BY} naming an association, the
+ * shard is the one encoded in the associated entity's id, e.g. a certification goes to its
+ * user's shard. Without it, the entity is a shard root and new rows are spread over the
+ * shards by sequence value. Every shard has its own copy of the sequence, so values are
+ * drawn, and pooled, separately per shard. With a single shard ids are plain sequence values.
+ */
+public class ShardedSequenceGenerator implements IdentifierGenerator {
+
+    public static final String SHARDED_BY = "sharded_by";
+
+    /**
+     * Hibernate setting with the number of shards; 1 when sharding is off.
+     */
+    public static final String SHARD_COUNT = "certification.sharding.shard_count";
+
+    private Type type;
+    private Properties params;
+    private ServiceRegistry serviceRegistry;
+    private Database database;
+    private SqlStringGenerationContext sqlContext;
+    private String shardedBy;
+    private int shardCount;
+
+    private final SequenceStyleGenerator primary = new SequenceStyleGenerator();
+    private final Map<Integer, SequenceStyleGenerator> perShard = new ConcurrentHashMap<>();
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        this.type = type;
+        this.params = params;
+        this.serviceRegistry = serviceRegistry;
+        this.shardedBy = params.getProperty(SHARDED_BY);
+        this.shardCount = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(SHARD_COUNT, StandardConverters.INTEGER, 1);
+        primary.configure(type, params, serviceRegistry);
+        perShard.put(0, primary);
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        this.database = database;
+        primary.registerExportables(database);
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        this.sqlContext = context;
+        primary.initialize(context);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        // La secuencia sale de la base de datos de la conexión de la sesión
+        int connectionShard = ShardContext.current();
+        long value = ((Number) perShard.computeIfAbsent(connectionShard, shard -> newDelegate())
+                .generate(session, entity)).longValue();
+
+        int shard;
+        if (shardedBy == null) {
+            shard = shardCount > 1 ? (int) (value % shardCount) : 0;
+        } else {
+            shard = ShardKeys.shardOf(ownerId(session, entity));
+            if (shard != connectionShard) {
+                throw new IdentifierGenerationException("Entity " + entity.getClass().getSimpleName()
+                        + " belongs to shard " + shard + " but is being stored in shard " + connectionShard);
+            }
+        }
+        return ShardKeys.encode(shard, value);
+    }
+
+    private long ownerId(SharedSessionContractImplementor session, Object entity) {
+        Object owner = session.getEntityPersister(null, entity).getPropertyValue(entity, shardedBy);
+        Object ownerId = owner != null ? session.getFactory().getPersistenceUnitUtil().getIdentifier(owner) : null;
+        if (!(ownerId instanceof Number number)) {
+            throw new IdentifierGenerationException("Entity " + entity.getClass().getSimpleName()
+                    + " needs a persisted " + shardedBy + " to choose its shard");
+        }
+        return number.longValue();
+    }
+
+    private SequenceStyleGenerator newDelegate() {
+        SequenceStyleGenerator delegate = new SequenceStyleGenerator();
+        delegate.configure(type, params, serviceRegistry);
+        // Encuentra ya registrada la secuencia del shard 0 y solo toma su nombre físico
+        delegate.registerExportables(database);
+        delegate.initialize(sqlContext);
+        return delegate;
+    }
+}
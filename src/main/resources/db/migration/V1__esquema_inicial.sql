@@ -0,0 +1,187 @@
+-- Esquema inicial para el perfil prod (PostgreSQL, o H2 en modo PostgreSQL).
+-- Debe coincidir con las entidades JPA: el perfil arranca con ddl-auto=validate.
+
+CREATE SEQUENCE usuarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE certificaciones_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE documentos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE certificados_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE historial_estados_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE usuarios (
+    id                   BIGINT       NOT NULL,
+    username             VARCHAR(255),
+    email                VARCHAR(255),
+    password             VARCHAR(255),
+    role                 VARCHAR(255) CHECK (role IN ('ADMIN', 'USER')),
+    created_at           TIMESTAMP(6),
+    username_normalizado VARCHAR(255),
+    email_normalizado    VARCHAR(255),
+    CONSTRAINT pk_usuarios PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_username_normalizado UNIQUE (username_normalizado),
+    CONSTRAINT uk_usuarios_email_normalizado UNIQUE (email_normalizado)
+);
+
+CREATE INDEX idx_usuarios_creacion ON usuarios (created_at, id);
+CREATE INDEX idx_usuarios_rol_creacion ON usuarios (role, created_at, id);
+
+CREATE TABLE tipos_certificacion (
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    nombre         VARCHAR(255) NOT NULL,
+    fecha_creacion TIMESTAMP(6),
+    CONSTRAINT pk_tipos_certificacion PRIMARY KEY (id),
+    CONSTRAINT uk_tipos_certificacion_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE certificaciones (
+    id                     BIGINT        NOT NULL,
+    usuario_id             BIGINT        NOT NULL,
+    tipo_id                INTEGER       NOT NULL,
+    status                 VARCHAR(255) CHECK (status IN ('PENDING', 'IN_REVIEW', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    fecha_creacion         TIMESTAMP(6),
+    fecha_actualizacion    TIMESTAMP(6)  NOT NULL,
+    fecha_vencimiento      TIMESTAMP(6),
+    recordatorio_enviado   BOOLEAN       NOT NULL,
+    fecha_evaluacion       TIMESTAMP(6),
+    incumplimientos_reglas VARCHAR(2000),
+    CONSTRAINT pk_certificaciones PRIMARY KEY (id),
+    CONSTRAINT fk_certificaciones_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_certificaciones_tipo FOREIGN KEY (tipo_id) REFERENCES tipos_certificacion (id)
+);
+
+-- (usuario_id, status) resuelve findByUsuarioAndStatus y los recuentos por estado de un usuario,
+-- y su prefijo sirve a las búsquedas solo por usuario; las consultas solo por estado usan los
+-- índices que empiezan por status
+CREATE INDEX idx_certificaciones_usuario_estado ON certificaciones (usuario_id, status);
+CREATE INDEX idx_certificaciones_usuario_actualizacion ON certificaciones (usuario_id, fecha_actualizacion, id);
+CREATE INDEX idx_certificaciones_actualizacion ON certificaciones (fecha_actualizacion, id);
+CREATE INDEX idx_certificaciones_estado_actualizacion ON certificaciones (status, fecha_actualizacion);
+CREATE INDEX idx_certificaciones_estado_vencimiento ON certificaciones (status, fecha_vencimiento, id);
+CREATE INDEX idx_certificaciones_tipo ON certificaciones (tipo_id);
+
+CREATE TABLE documentos (
+    id                  BIGINT       NOT NULL,
+    certificacion_id    BIGINT       NOT NULL,
+    nombre              VARCHAR(255) NOT NULL,
+    tipo                VARCHAR(255) NOT NULL,
+    url                 VARCHAR(255) NOT NULL,
+    tamano              BIGINT,
+    fecha_subida        TIMESTAMP(6),
+    fecha_actualizacion TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_documentos PRIMARY KEY (id),
+    CONSTRAINT fk_documentos_certificacion FOREIGN KEY (certificacion_id) REFERENCES certificaciones (id)
+);
+
+CREATE INDEX idx_documentos_certificacion ON documentos (certificacion_id);
+CREATE INDEX idx_documentos_actualizacion ON documentos (fecha_actualizacion, id);
+
+-- Archivo de certificaciones cerradas: sin claves foráneas, sus filas se mueven en bloque
+CREATE TABLE certificaciones_archivo (
+    id                   BIGINT       NOT NULL,
+    usuario_id           BIGINT       NOT NULL,
+    tipo_id              INTEGER      NOT NULL,
+    status               VARCHAR(255) CHECK (status IN ('PENDING', 'IN_REVIEW', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    fecha_creacion       TIMESTAMP(6),
+    fecha_actualizacion  TIMESTAMP(6),
+    fecha_vencimiento    TIMESTAMP(6),
+    recordatorio_enviado BOOLEAN      NOT NULL,
+    fecha_archivado      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_certificaciones_archivo PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cert_archivo_usuario ON certificaciones_archivo (usuario_id);
+
+CREATE TABLE documentos_archivo (
+    id                  BIGINT       NOT NULL,
+    certificacion_id    BIGINT       NOT NULL,
+    nombre              VARCHAR(255) NOT NULL,
+    tipo                VARCHAR(255) NOT NULL,
+    url                 VARCHAR(255) NOT NULL,
+    tamano              BIGINT,
+    fecha_subida        TIMESTAMP(6),
+    fecha_actualizacion TIMESTAMP(6),
+    CONSTRAINT pk_documentos_archivo PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_doc_archivo_certificacion ON documentos_archivo (certificacion_id);
+
+-- Marcas de borrado para la sincronización incremental
+CREATE TABLE certificaciones_eliminadas (
+    certificacion_id  BIGINT       NOT NULL,
+    usuario_id        BIGINT       NOT NULL,
+    fecha_eliminacion TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_certificaciones_eliminadas PRIMARY KEY (certificacion_id)
+);
+
+CREATE INDEX idx_cert_eliminadas_fecha ON certificaciones_eliminadas (fecha_eliminacion, certificacion_id);
+CREATE INDEX idx_cert_eliminadas_usuario_fecha ON certificaciones_eliminadas (usuario_id, fecha_eliminacion, certificacion_id);
+
+CREATE TABLE historial_estados_certificacion (
+    id               BIGINT       NOT NULL,
+    certificacion_id BIGINT       NOT NULL,
+    usuario_id       BIGINT,
+    actor            VARCHAR(255) NOT NULL,
+    estado_anterior  VARCHAR(255) CHECK (estado_anterior IN ('PENDING', 'IN_REVIEW', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    estado_nuevo     VARCHAR(255) CHECK (estado_nuevo IN ('PENDING', 'IN_REVIEW', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    fecha            TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_historial_estados_certificacion PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_historial_certificacion_fecha ON historial_estados_certificacion (certificacion_id, fecha);
+
+CREATE TABLE auditoria_checkpoint (
+    nodo     VARCHAR(255) NOT NULL,
+    segmento BIGINT       NOT NULL,
+    posicion BIGINT       NOT NULL,
+    CONSTRAINT pk_auditoria_checkpoint PRIMARY KEY (nodo)
+);
+
+CREATE TABLE certificados (
+    id               BIGINT        NOT NULL,
+    codigo           VARCHAR(16)   NOT NULL,
+    certificacion_id BIGINT        NOT NULL,
+    titular          VARCHAR(255)  NOT NULL,
+    tipo             VARCHAR(255)  NOT NULL,
+    contenido        VARCHAR(2000) NOT NULL,
+    firma            VARCHAR(128)  NOT NULL,
+    clave_id         VARCHAR(32)   NOT NULL,
+    fecha_emision    TIMESTAMP(6)  NOT NULL,
+    revocado         BOOLEAN       NOT NULL,
+    fecha_revocacion TIMESTAMP(6),
+    CONSTRAINT pk_certificados PRIMARY KEY (id),
+    CONSTRAINT uk_certificados_codigo UNIQUE (codigo)
+);
+
+CREATE INDEX idx_certificados_certificacion ON certificados (certificacion_id);
+
+-- Resumen por usuario: sin clave foránea para que el borrado de usuarios no dependa del orden
+CREATE TABLE resumenes_usuario (
+    usuario_id                   BIGINT       NOT NULL,
+    pendientes                   BIGINT       NOT NULL,
+    en_revision                  BIGINT       NOT NULL,
+    aprobadas                    BIGINT       NOT NULL,
+    rechazadas                   BIGINT       NOT NULL,
+    vencidas                     BIGINT       NOT NULL,
+    ultima_certificacion_id      BIGINT,
+    ultima_certificacion_tipo_id INTEGER,
+    ultima_certificacion_estado  VARCHAR(255) CHECK (ultima_certificacion_estado IN ('PENDING', 'IN_REVIEW', 'APPROVED', 'REJECTED', 'EXPIRED')),
+    ultima_certificacion_fecha   TIMESTAMP(6),
+    bytes_documentos             BIGINT       NOT NULL,
+    fecha_actualizacion          TIMESTAMP(6),
+    version                      BIGINT,
+    CONSTRAINT pk_resumenes_usuario PRIMARY KEY (usuario_id)
+);
+
+CREATE TABLE purgas_usuario (
+    usuario_id                 BIGINT       NOT NULL,
+    estado                     VARCHAR(255) NOT NULL CHECK (estado IN ('PENDIENTE', 'EN_CURSO', 'COMPLETADA', 'FALLIDA')),
+    certificaciones_eliminadas BIGINT       NOT NULL,
+    documentos_eliminados      BIGINT       NOT NULL,
+    archivos_eliminados        BIGINT       NOT NULL,
+    archivos_fallidos          BIGINT       NOT NULL,
+    fecha_solicitud            TIMESTAMP(6),
+    fecha_finalizacion         TIMESTAMP(6),
+    error                      VARCHAR(1000),
+    CONSTRAINT pk_purgas_usuario PRIMARY KEY (usuario_id)
+);
+
+CREATE INDEX idx_purgas_usuario_estado ON purgas_usuario (estado);
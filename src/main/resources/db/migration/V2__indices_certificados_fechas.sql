@@ -0,0 +1,3 @@
+-- Refresco incremental del índice de verificación: certificados emitidos o revocados desde una marca
+CREATE INDEX idx_certificados_fecha_emision ON certificados (fecha_emision);
+CREATE INDEX idx_certificados_fecha_revocacion ON certificados (fecha_revocacion);
@@ -0,0 +1,11 @@
+-- Escrituras entre shards pendientes de entregar; cada shard tiene su propia cola
+CREATE TABLE tareas_pendientes (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    tarea          VARCHAR(100)   NOT NULL,
+    shard_destino  INTEGER        NOT NULL,
+    datos          VARCHAR(10000) NOT NULL,
+    intentos       INTEGER        NOT NULL,
+    error          VARCHAR(1000),
+    fecha_creacion TIMESTAMP(6),
+    CONSTRAINT pk_tareas_pendientes PRIMARY KEY (id)
+);
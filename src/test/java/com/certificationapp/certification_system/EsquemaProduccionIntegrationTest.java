@@ -0,0 +1,65 @@
+package com.certificationapp.certification_system;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the prod profile against H2 in PostgreSQL mode: the context only loads if the
+ * migrations build the schema the entities expect, since Hibernate just validates it.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "prod"})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodschema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class EsquemaProduccionIntegrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Las migraciones crean el esquema que validan las entidades")
+    void arrancar_PerfilProd_AplicaMigraciones() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("3");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Buscar certificaciones por usuario y estado usa el índice compuesto")
+    void findByUsuarioAndStatus_PlanDeEjecucion_UsaIndice() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM certificaciones WHERE usuario_id = 1 AND status = 'PENDING'", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_certificaciones_usuario_estado")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("Buscar documentos por certificación usa su índice")
+    void findByCertificacion_PlanDeEjecucion_UsaIndice() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM documentos WHERE certificacion_id = 1", String.class);
+
+        // H2 indexa por su cuenta las claves foráneas y puede elegir ese índice; PostgreSQL no,
+        // por eso se comprueba además que la migración declara el índice
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'idx_documentos_certificacion'",
+                Integer.class)).isPositive();
+    }
+}
@@ -0,0 +1,77 @@
+package com.certificationapp.certification_system.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Los registros escritos se leen en orden a través de varios segmentos")
+    void leer_VariosSegmentos_DevuelveRegistrosEnOrden() throws Exception {
+        List<String> escritos = new ArrayList<>();
+        try (AuditLog auditLog = new AuditLog(directorio, 64, 100, 3)) {
+            for (int i = 0; i < 20; i++) {
+                String registro = "{\"registro\":" + i + "}";
+                escritos.add(registro);
+                auditLog.append(registro);
+            }
+            esperarDurable(auditLog, escritos);
+
+            List<String> leidos = new ArrayList<>();
+            AuditLog.Posicion posicion = AuditLog.Posicion.INICIO;
+            AuditLog.Lectura lectura;
+            do {
+                lectura = auditLog.leer(posicion, 7);
+                leidos.addAll(lectura.registros());
+                posicion = lectura.siguiente();
+            } while (!lectura.registros().isEmpty());
+
+            assertThat(leidos).containsExactlyElementsOf(escritos);
+            assertThat(posicion.segmento()).isGreaterThan(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Al reabrir se descarta un registro incompleto y se sigue escribiendo a continuación")
+    void abrir_RegistroIncompleto_SeRecorta() throws Exception {
+        try (AuditLog auditLog = new AuditLog(directorio, 1024, 100, 10)) {
+            auditLog.append("uno");
+            esperarDurable(auditLog, List.of("uno"));
+        }
+        Files.writeString(directorio.resolve("segment-0000000001.log"), "dos-cortad",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (AuditLog auditLog = new AuditLog(directorio, 1024, 100, 10)) {
+            auditLog.append("tres");
+            esperarDurable(auditLog, List.of("uno", "tres"));
+
+            assertThat(auditLog.leer(AuditLog.Posicion.INICIO, 10).registros()).containsExactly("uno", "tres");
+        }
+    }
+
+    private void esperarDurable(AuditLog auditLog, List<String> esperados) throws IOException, InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (contar(auditLog) < esperados.size()) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando el fsync").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private int contar(AuditLog auditLog) throws IOException {
+        return auditLog.leer(AuditLog.Posicion.INICIO, Integer.MAX_VALUE).registros().size();
+    }
+}
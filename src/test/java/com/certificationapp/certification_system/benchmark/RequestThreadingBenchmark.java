@@ -0,0 +1,232 @@
+package com.certificationapp.certification_system.benchmark;
+
+import com.certificationapp.certification_system.CertificationSystemApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and latency of the document upload/download/list mix with request handling on
+ * platform threads (a small Tomcat pool, so it saturates) and on virtual threads.
+ * Run with {@code mvn test -Pbenchmark}; the virtual thread run needs Java 21.
+ */
+@Slf4j
+@Tag("benchmark")
+class RequestThreadingBenchmark {
+
+    private static final int CLIENTES = 64;
+    private static final int HILOS_TOMCAT = 16;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(5);
+    private static final Duration MEDICION = Duration.ofSeconds(20);
+    private static final int TAMANO_ARCHIVO = 256 * 1024;
+    private static final String BOUNDARY = "benchmark-boundary";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @Test
+    @DisplayName("Mezcla de subidas, descargas y listados con hilos de plataforma y virtuales")
+    void mezclaDocumentos_HilosDePlataformaYVirtuales_ComparaRendimiento() throws Exception {
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(medir(false));
+        if (Runtime.version().feature() >= 21) {
+            resultados.add(medir(true));
+        } else {
+            log.warn("Virtual threads need Java 21: measured platform threads only");
+        }
+
+        StringBuilder informe = new StringBuilder(String.format("%n%-10s %10s %10s %10s %10s %8s",
+                "modo", "peticiones", "req/s", "p50 ms", "p99 ms", "errores"));
+        resultados.forEach(resultado -> informe.append(String.format("%n%-10s %10d %10.1f %10.1f %10.1f %8d",
+                resultado.modo(), resultado.peticiones(), resultado.porSegundo(),
+                resultado.percentil(0.5), resultado.percentil(0.99), resultado.errores())));
+        log.info("{}", informe);
+
+        assertThat(resultados).allSatisfy(resultado -> {
+            assertThat(resultado.peticiones()).isPositive();
+            assertThat(resultado.errores()).isZero();
+        });
+    }
+
+    private Resultado medir(boolean virtuales) throws Exception {
+        String modo = virtuales ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CertificationSystemApplication.class)
+                .profiles("test")
+                // Como argumentos, para que prevalezcan sobre application-test.properties
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + modo + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtuales,
+                        "--server.tomcat.threads.max=" + HILOS_TOMCAT,
+                        "--app.file.upload-dir=target/benchmark-uploads/" + modo,
+                        // La clave de los tests no llega a los 512 bits que exige HS512 al emitir tokens
+                        "--app.jwt.secret=" + "benchmarkSecretKeyForHs512Tokens".repeat(3),
+                        "--app.query-stats.statement-budget=1000")) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api";
+            Escenario escenario = preparar(base);
+
+            ejecutar(escenario, modo, CALENTAMIENTO);
+            return ejecutar(escenario, modo, MEDICION);
+        }
+    }
+
+    private Escenario preparar(String base) throws IOException, InterruptedException {
+        JsonNode registro = enviar(HttpRequest.newBuilder(URI.create(base + "/v1/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "username", "benchmark", "email", "benchmark@example.com", "password", "password123"))))
+                .build());
+        String token = registro.path("data").path("token").asText();
+        long usuarioId = registro.path("data").path("id").asLong();
+
+        JsonNode certificacion = enviar(autenticada(base + "/v1/certifications", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "usuarioId", usuarioId, "tipo", "PROFESIONAL"))))
+                .build());
+        Escenario escenario = new Escenario(base, token, certificacion.path("data").path("id").asLong(),
+                new CopyOnWriteArrayList<>());
+        for (int i = 0; i < 10; i++) {
+            escenario.documentos().add(subir(escenario));
+        }
+        return escenario;
+    }
+
+    private Resultado ejecutar(Escenario escenario, String modo, Duration duracion) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        AtomicLong errores = new AtomicLong();
+        long fin = System.nanoTime() + duracion.toNanos();
+        CountDownLatch terminados = new CountDownLatch(CLIENTES);
+
+        for (int i = 0; i < CLIENTES; i++) {
+            Thread cliente = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < fin) {
+                        long inicio = System.nanoTime();
+                        try {
+                            operacion(escenario);
+                            latencias.add(System.nanoTime() - inicio);
+                        } catch (IOException | RuntimeException ex) {
+                            errores.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    terminados.countDown();
+                }
+            }, "benchmark-client-" + i);
+            cliente.setDaemon(true);
+            cliente.start();
+        }
+        terminados.await();
+
+        long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Resultado(modo, ordenadas, errores.get(), duracion);
+    }
+
+    /**
+     * 20% uploads, 50% downloads and 30% listings of the certification's documents.
+     */
+    private void operacion(Escenario escenario) throws IOException, InterruptedException {
+        int tirada = ThreadLocalRandom.current().nextInt(10);
+        if (tirada < 2) {
+            subir(escenario);
+        } else if (tirada < 7) {
+            List<Long> documentos = escenario.documentos();
+            long id = documentos.get(ThreadLocalRandom.current().nextInt(documentos.size()));
+            HttpResponse<byte[]> respuesta = httpClient.send(
+                    autenticada(escenario.base() + "/v1/documents/download/" + id, escenario.token()).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            comprobar(respuesta.statusCode(), 200);
+            comprobar(respuesta.body().length, TAMANO_ARCHIVO);
+        } else {
+            enviar(autenticada(escenario.base() + "/v1/documents/certification/" + escenario.certificacionId(),
+                    escenario.token()).GET().build());
+        }
+    }
+
+    private long subir(Escenario escenario) throws IOException, InterruptedException {
+        byte[] contenido = new byte[TAMANO_ARCHIVO];
+        ThreadLocalRandom.current().nextBytes(contenido);
+
+        ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(TAMANO_ARCHIVO + 512);
+        cuerpo.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"documento.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        cuerpo.write(contenido);
+        cuerpo.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        JsonNode respuesta = enviar(autenticada(escenario.base() + "/v1/documents/upload?certificacionId="
+                + escenario.certificacionId(), escenario.token())
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo.toByteArray()))
+                .build());
+        return respuesta.path("data").path("id").asLong();
+    }
+
+    private JsonNode enviar(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() >= 300) {
+            throw new IllegalStateException(request.uri() + " answered " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private static HttpRequest.Builder autenticada(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private static void comprobar(int valor, int esperado) {
+        if (valor != esperado) {
+            throw new IllegalStateException("Expected " + esperado + " but got " + valor);
+        }
+    }
+
+    private record Escenario(String base, String token, long certificacionId, List<Long> documentos) {
+    }
+
+    private record Resultado(String modo, long[] latenciasNanos, long errores, Duration duracion) {
+
+        long peticiones() {
+            return latenciasNanos.length;
+        }
+
+        double porSegundo() {
+            return latenciasNanos.length / (duracion.toMillis() / 1000.0);
+        }
+
+        double percentil(double p) {
+            if (latenciasNanos.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.min(latenciasNanos.length - 1, Math.ceil(p * latenciasNanos.length) - 1);
+            return latenciasNanos[Math.max(0, indice)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.certificationapp.certification_system.config;
+
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.DocumentoService;
+import com.certificationapp.certification_system.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheConfigIntegrationTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Usuario usuario;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+        createDTO.setUsername("cache");
+        createDTO.setEmail("cache@example.com");
+        createDTO.setPassword("password123");
+        usuario = usuarioService.crearUsuario(createDTO);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Una certificación ya leída se sirve desde la caché de segundo nivel")
+    void findById_SegundaLectura_AciertaEnCache() {
+        Long id = crearCertificacion("PROFESIONAL").getId();
+
+        certificacionRepository.findById(id);
+        certificacionRepository.findById(id);
+
+        assertThat(statistics.getDomainDataRegionStatistics("certificaciones").getHitCount()).isPositive();
+        assertThat(meterRegistry.get(CacheConfig.METRICA_ACIERTOS).tag("region", "certificaciones").gauge().value())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("La colección de documentos en caché recoge los documentos añadidos después")
+    void documentos_DocumentoNuevo_InvalidaLaColeccion() {
+        Certificacion certificacion = crearCertificacion("PROFESIONAL");
+        crearDocumento(certificacion);
+        assertThat(contarDocumentos(certificacion.getId())).isEqualTo(1);
+        assertThat(contarDocumentos(certificacion.getId())).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("certificaciones-documentos").getHitCount()).isPositive();
+
+        crearDocumento(certificacion);
+
+        assertThat(contarDocumentos(certificacion.getId())).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Subir un documento no vacía la región de certificaciones de la caché")
+    void guardarDocumento_OtrasCertificaciones_SiguenEnCache() {
+        Certificacion conDocumento = crearCertificacion("PROFESIONAL");
+        Certificacion otra = crearCertificacion("TECNICA");
+        LocalDateTime antes = certificacionRepository.findById(conDocumento.getId()).orElseThrow().getFechaActualizacion();
+        certificacionRepository.findById(otra.getId());
+
+        crearDocumento(conDocumento);
+        statistics.clear();
+
+        certificacionRepository.findById(otra.getId());
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("certificaciones");
+        assertThat(region.getHitCount()).isEqualTo(1);
+        assertThat(region.getMissCount()).isZero();
+        // La certificación del documento sigue marcada como modificada para la sincronización
+        assertThat(certificacionRepository.findById(conDocumento.getId()).orElseThrow().getFechaActualizacion())
+                .isAfter(antes);
+    }
+
+    @Test
+    @DisplayName("Las consultas por usuario salen de la caché de consultas hasta que cambia la tabla")
+    void findByUsuario_ConsultaRepetida_UsaCacheDeConsultasYSeInvalida() {
+        crearCertificacion("PROFESIONAL");
+
+        assertThat(certificacionRepository.findByUsuario(usuario)).hasSize(1);
+        assertThat(certificacionRepository.findByUsuario(usuario)).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+
+        crearCertificacion("TECNICA");
+
+        assertThat(certificacionRepository.findByUsuario(usuario)).hasSize(2);
+    }
+
+    private int contarDocumentos(Long certificacionId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status ->
+                certificacionRepository.findById(certificacionId).orElseThrow().getDocumentos().size());
+    }
+
+    private Certificacion crearCertificacion(String tipo) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(tipo);
+        return certificacionService.crearCertificacion(certificacion);
+    }
+
+    private void crearDocumento(Certificacion certificacion) {
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacion);
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(10L);
+        documentoService.guardarDocumento(documento);
+    }
+}
@@ -0,0 +1,222 @@
+package com.certificationapp.certification_system.controller;
+
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.FileStorageService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Async transfers against a real Tomcat with only two request threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transferencias;DB_CLOSE_DELAY=-1",
+        "server.tomcat.threads.max=2",
+        "server.tomcat.threads.min-spare=1",
+        "app.file.max-file-size=33554432",
+        // Los tests no emiten tokens; HS512 necesita una clave de 512 bits
+        "app.jwt.secret=testSecretKeyWithMinimumLength64CharsForHs512TokensInTransferTests"
+})
+class DocumentoControllerIntegrationTest {
+
+    private static final int TAMANO_DESCARGA_LENTA = 16 * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private String token;
+    private Certificacion certificacion;
+
+    @BeforeEach
+    void setup() throws Exception {
+        UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+        createDTO.setUsername("transferencias");
+        createDTO.setEmail("transferencias@example.com");
+        createDTO.setPassword("password123");
+        HttpResponse<String> registro = httpClient.send(HttpRequest.newBuilder(uri("/v1/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(createDTO)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        token = objectMapper.readTree(registro.body()).path("data").path("token").asText();
+
+        certificacion = new Certificacion();
+        certificacion.setUsuario(usuarioRepository.findByUsername("transferencias").orElseThrow());
+        certificacion.setTipo("PROFESIONAL");
+        certificacion = certificacionService.crearCertificacion(certificacion);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        for (Documento documento : documentoRepository.findAll()) {
+            Files.deleteIfExists(fileStorageService.resolveStoredFile(documento.getUrl()));
+        }
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Un documento subido de forma asíncrona se descarga igual de forma asíncrona")
+    void uploadYDownloadAsync_ArchivoDeVariosBloques_ConservaElContenido() throws Exception {
+        byte[] contenido = new byte[300_000];
+        new Random(42).nextBytes(contenido);
+
+        HttpResponse<String> subida = httpClient.send(autenticada("/v1/documents/upload/async?certificacionId="
+                        + certificacion.getId() + "&fileName=informe.pdf")
+                        .header("Content-Type", "application/pdf")
+                        // Sin Content-Length: el tamaño solo se conoce al leer el cuerpo
+                        .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(contenido)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(subida.statusCode()).isEqualTo(201);
+        JsonNode documento = objectMapper.readTree(subida.body()).path("data");
+        assertThat(documento.path("nombre").asText()).isEqualTo("informe.pdf");
+        assertThat(documento.path("tamano").asLong()).isEqualTo(contenido.length);
+
+        HttpResponse<byte[]> descarga = httpClient.send(
+                autenticada("/v1/documents/download/" + documento.path("id").asLong() + "/async").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(descarga.statusCode()).isEqualTo(200);
+        assertThat(descarga.headers().firstValue("Content-Type")).hasValue("application/pdf");
+        assertThat(descarga.headers().firstValue("Content-Disposition")).hasValue("attachment; filename=\"informe.pdf\"");
+        assertThat(descarga.body()).isEqualTo(contenido);
+    }
+
+    @Test
+    @DisplayName("Una subida que supera el tamaño máximo se rechaza sin dejar documento ni archivo")
+    void uploadAsync_CuerpoDemasiadoGrande_RechazaYLimpia() throws Exception {
+        byte[] contenido = new byte[33554432 + 1];
+        long archivosAntes = contarArchivos();
+
+        HttpResponse<String> subida = httpClient.send(autenticada("/v1/documents/upload/async?certificacionId="
+                        + certificacion.getId() + "&fileName=enorme.pdf")
+                        .header("Content-Type", "application/pdf")
+                        .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(contenido)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(subida.statusCode()).isEqualTo(500);
+        assertThat(objectMapper.readTree(subida.body()).path("errorDetails").asText()).contains("maximum allowed size");
+        assertThat(documentoRepository.count()).isZero();
+        assertThat(contarArchivos()).isEqualTo(archivosAntes);
+    }
+
+    @Test
+    @DisplayName("Los clientes lentos no ocupan hilos: con dos hilos y cuatro descargas paradas se siguen atendiendo peticiones")
+    void downloadAsync_ClientesQueNoLeen_NoBloqueanLosHilos() throws Exception {
+        Documento documento = guardarArchivo("grande.pdf", TAMANO_DESCARGA_LENTA);
+
+        List<Socket> clientesLentos = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                Socket socket = new Socket("localhost", port);
+                OutputStream salida = socket.getOutputStream();
+                salida.write(("GET /api/v1/documents/download/" + documento.getId() + "/async HTTP/1.1\r\n"
+                        + "Host: localhost\r\nAuthorization: Bearer " + token + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                salida.flush();
+                // Nunca se lee la respuesta
+                clientesLentos.add(socket);
+            }
+            Thread.sleep(500);
+
+            HttpResponse<String> listado = httpClient.send(
+                    autenticada("/v1/documents/certification/" + certificacion.getId()).timeout(Duration.ofSeconds(10)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertThat(listado.statusCode()).isEqualTo(200);
+        } finally {
+            for (Socket socket : clientesLentos) {
+                socket.close();
+            }
+        }
+    }
+
+    private Documento guardarArchivo(String nombre, int tamano) throws IOException {
+        String archivo = fileStorageService.newFileName(nombre);
+        byte[] contenido = new byte[tamano];
+        new Random(7).nextBytes(contenido);
+        Files.write(fileStorageService.resolveStoredFile(archivo), contenido);
+
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacion);
+        documento.setNombre(nombre);
+        documento.setTipo("application/pdf");
+        documento.setUrl(archivo);
+        documento.setTamano((long) tamano);
+        return documentoRepository.save(documento);
+    }
+
+    private long contarArchivos() throws IOException {
+        try (var archivos = Files.list(fileStorageService.getFileStorageLocation())) {
+            return archivos.count();
+        }
+    }
+
+    private HttpRequest.Builder autenticada(String ruta) {
+        return HttpRequest.newBuilder(uri(ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + port + "/api" + ruta);
+    }
+}
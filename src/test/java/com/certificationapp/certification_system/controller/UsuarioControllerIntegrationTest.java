@@ -4,6 +4,7 @@ import com.certificationapp.certification_system.config.SecurityConfigTest;
 import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
 import com.certificationapp.certification_system.dto.UsuarioUpdateDTO;
 import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.monitoring.QueryStatsFilter;
 import com.certificationapp.certification_system.repository.UsuarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +26,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -82,8 +84,9 @@ class UsuarioControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(createDTO)))
                 .andExpect(status().isCreated());
 
-        // Intentar crear segundo usuario con mismo email
+        // Intentar crear segundo usuario con mismo email, escrito con otras mayúsculas
         createDTO.setUsername("otheruser");
+        createDTO.setEmail("Test@Example.com");
         ResultActions response = mockMvc.perform(post("/v1/users")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(createDTO)));
@@ -116,6 +119,30 @@ class UsuarioControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.email", is(usuario.getEmail())));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Las respuestas indican las consultas y entidades cargadas por la petición")
+    void obtenerUsuario_CualquierPeticion_DevuelveCabecerasDeConsultas() throws Exception {
+        // Arrange
+        Usuario usuario = new Usuario();
+        usuario.setUsername("testuser");
+        usuario.setEmail("test@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+
+        // Act & Assert
+        mockMvc.perform(get("/v1/users/{id}", usuario.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsFilter.HEADER_QUERY_COUNT, matchesPattern("\\d+")))
+                .andExpect(header().string(QueryStatsFilter.HEADER_QUERY_TIME, matchesPattern("\\d+")))
+                .andExpect(header().string(QueryStatsFilter.HEADER_ENTITIES_LOADED, "1"));
+        mockMvc.perform(get("/v1/users/{id}", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(QueryStatsFilter.HEADER_QUERY_COUNT, "1"))
+                .andExpect(header().string(QueryStatsFilter.HEADER_ENTITIES_LOADED, "0"));
+    }
+
     @Test
     @DisplayName("Obtener usuario por ID inexistente retorna error")
     void obtenerUsuario_IdInexistente_RetornaError() throws Exception {
@@ -158,8 +185,8 @@ class UsuarioControllerIntegrationTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    @DisplayName("Eliminar usuario exitosamente")
-    void eliminarUsuario_IdExistente_RetornaExito() throws Exception {
+    @DisplayName("Eliminar usuario programa su borrado")
+    void eliminarUsuario_IdExistente_RetornaAceptado() throws Exception {
         // Arrange
         Usuario usuario = new Usuario();
         usuario.setUsername("testuser");
@@ -173,7 +200,87 @@ class UsuarioControllerIntegrationTest {
 
         // Assert
         response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/v1/users/" + usuario.getId() + "/purge")))
+                .andExpect(jsonPath("$.data.usuarioId", is(usuario.getId().intValue())))
+                .andExpect(jsonPath("$.message").value(containsString("User deletion scheduled")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Listar usuarios pagina por cursor y devuelve solo los campos pedidos")
+    void listarUsuarios_ConCursorYCampos_PaginaYProyecta() throws Exception {
+        // Arrange
+        guardarUsuario("Ana", "ana@example.com", Usuario.Role.USER);
+        guardarUsuario("andres", "andres@example.com", Usuario.Role.USER);
+        guardarUsuario("beatriz", "beatriz@example.com", Usuario.Role.ADMIN);
+
+        // Act
+        String primera = mockMvc.perform(get("/v1/users")
+                        .param("fields", "username")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.usuarios.length()", is(2)))
+                .andExpect(jsonPath("$.data.usuarios[0].username", is("Ana")))
+                .andExpect(jsonPath("$.data.usuarios[0].email").doesNotExist())
+                .andExpect(jsonPath("$.data.hayMas", is(true)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(primera).at("/data/cursor").asText();
+
+        // Assert
+        mockMvc.perform(get("/v1/users")
+                        .param("fields", "username")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.usuarios.length()", is(1)))
+                .andExpect(jsonPath("$.data.usuarios[0].username", is("beatriz")))
+                .andExpect(jsonPath("$.data.hayMas", is(false)));
+        mockMvc.perform(get("/v1/users")
+                        .param("q", " AN")
+                        .param("role", "USER"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value(containsString("User deleted successfully")));
+                .andExpect(jsonPath("$.data.usuarios.length()", is(2)))
+                .andExpect(jsonPath("$.data.usuarios[1].email", is("andres@example.com")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Listar usuarios con un campo desconocido retorna error")
+    void listarUsuarios_CampoDesconocido_RetornaError() throws Exception {
+        mockMvc.perform(get("/v1/users").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Comprobar disponibilidad ignora mayúsculas y no requiere autenticación")
+    void comprobarDisponibilidad_UsuarioRegistrado_RetornaOcupado() throws Exception {
+        UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+        createDTO.setUsername("ocupado");
+        createDTO.setEmail("ocupado@example.com");
+        createDTO.setPassword("password123");
+        mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/users/availability")
+                        .param("username", "Ocupado")
+                        .param("email", "libre@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.usernameDisponible").value(false))
+                .andExpect(jsonPath("$.data.emailDisponible").value(true));
+
+        mockMvc.perform(get("/v1/users/availability"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void guardarUsuario(String username, String email, Usuario.Role role) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setEmail(email);
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(role);
+        usuarioRepository.save(usuario);
     }
 }
\ No newline at end of file
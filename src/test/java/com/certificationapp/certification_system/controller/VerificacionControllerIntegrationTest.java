@@ -0,0 +1,158 @@
+package com.certificationapp.certification_system.controller;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Certificado;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.security.CertificadoFirmaProvider;
+import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.impl.CertificadoServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VerificacionControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private CertificadoServiceImpl certificadoService;
+
+    @Autowired
+    private CertificadoFirmaProvider firmaProvider;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    private Certificacion certificacion;
+
+    @BeforeEach
+    void setup() {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("titular");
+        usuario.setEmail("titular@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+
+        certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo("PROFESIONAL");
+        certificacion = certificacionService.crearCertificacion(certificacion);
+    }
+
+    @AfterEach
+    void cleanup() {
+        certificadoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Aprobar emite un certificado firmado verificable sin autenticación")
+    void verificar_CertificacionAprobada_DevuelveCertificadoFirmado() throws Exception {
+        certificacionService.actualizarEstadoCertificacion(certificacion.getId(), Certificacion.Status.APPROVED);
+        Certificado certificado = unicoCertificado();
+
+        assertThat(certificado.getContenido()).contains("\"codigo\":\"" + certificado.getCodigo() + "\"");
+        assertThat(firmaProvider.verificar(certificado.getContenido(), certificado.getFirma())).isTrue();
+
+        mockMvc.perform(get("/verify/{code}", certificado.getCodigo().toLowerCase()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("public")))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.data.valido", is(true)))
+                .andExpect(jsonPath("$.data.titular", is("titular")))
+                .andExpect(jsonPath("$.data.firma", is(certificado.getFirma())))
+                .andExpect(jsonPath("$.data.clavePublica", is(firmaProvider.getClavePublicaCodificada())));
+    }
+
+    @Test
+    @DisplayName("Retirar la aprobación revoca el certificado")
+    void verificar_AprobacionRetirada_DevuelveRevocado() throws Exception {
+        certificacionService.actualizarEstadoCertificacion(certificacion.getId(), Certificacion.Status.APPROVED);
+        certificacionService.actualizarEstadoCertificacion(certificacion.getId(), Certificacion.Status.REJECTED);
+        Certificado certificado = unicoCertificado();
+
+        assertThat(certificado.isRevocado()).isTrue();
+        mockMvc.perform(get("/verify/{code}", certificado.getCodigo()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.valido", is(false)));
+    }
+
+    @Test
+    @DisplayName("El refresco periódico incorpora emisiones y revocaciones de otras instancias")
+    void refrescarIndice_CambiosExternos_ActualizaVerificacion() throws Exception {
+        certificadoService.refrescarIndice();
+
+        // Escrituras directas, como las de otra instancia que no publica eventos en esta
+        Certificado externo = new Certificado();
+        externo.setCodigo("EXTERN0001");
+        externo.setCertificacionId(certificacion.getId());
+        externo.setTitular("titular");
+        externo.setTipo("PROFESIONAL");
+        externo.setContenido("{\"codigo\":\"EXTERN0001\"}");
+        externo.setFirma(firmaProvider.firmar(externo.getContenido()));
+        externo.setClaveId(firmaProvider.getClaveId());
+        externo.setFechaEmision(LocalDateTime.now());
+        externo = certificadoRepository.save(externo);
+
+        mockMvc.perform(get("/verify/{code}", "EXTERN0001")).andExpect(status().isNotFound());
+        certificadoService.refrescarIndice();
+        mockMvc.perform(get("/verify/{code}", "EXTERN0001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.valido", is(true)));
+
+        externo.setRevocado(true);
+        externo.setFechaRevocacion(LocalDateTime.now());
+        certificadoRepository.save(externo);
+        certificadoService.refrescarIndice();
+        mockMvc.perform(get("/verify/{code}", "EXTERN0001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.valido", is(false)));
+    }
+
+    @Test
+    @DisplayName("Un código desconocido devuelve 404")
+    void verificar_CodigoDesconocido_RetornaNoEncontrado() throws Exception {
+        mockMvc.perform(get("/verify/{code}", "ZZZZZZZZZZ"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Certificado unicoCertificado() {
+        List<Certificado> certificados = certificadoRepository.findAll();
+        assertThat(certificados).hasSize(1);
+        return certificados.get(0);
+    }
+}
@@ -0,0 +1,179 @@
+package com.certificationapp.certification_system.datasource;
+
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.UsuarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between three embedded H2 databases: a primary and two replicas whose lag is
+ * simulated with a table the lag query reads.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replicas[0].name=replica-1",
+        "app.datasource.routing.replicas[0].url=" + ReadWriteRoutingDataSourceIntegrationTest.REPLICA_1,
+        "app.datasource.routing.replicas[1].name=replica-2",
+        "app.datasource.routing.replicas[1].url=" + ReadWriteRoutingDataSourceIntegrationTest.REPLICA_2,
+        "app.datasource.routing.lag-query=SELECT segundos FROM retraso_replica",
+        "app.datasource.routing.max-lag=PT5S",
+        "app.datasource.routing.health-interval=PT1H"
+})
+class ReadWriteRoutingDataSourceIntegrationTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        simularRetraso(REPLICA_1, 0);
+        simularRetraso(REPLICA_2, 0);
+        routingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void cleanup() throws SQLException {
+        // Las réplicas no tienen el esquema: se sacan de la rotación para el resto de la ejecución
+        vaciar(REPLICA_1);
+        vaciar(REPLICA_2);
+        usuarioRepository.deleteAll();
+        simularRetraso(REPLICA_1, 3600);
+        simularRetraso(REPLICA_2, 3600);
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    @DisplayName("Las transacciones de solo lectura se reparten entre las réplicas y el resto va a la primaria")
+    void transacciones_SegunSoloLectura_EnrutaALaBaseCorrespondiente() {
+        List<String> lecturas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lecturas.add(baseDeDatos(true));
+        }
+
+        assertThat(lecturas).containsOnly("REPLICA1", "REPLICA2");
+        assertThat(lecturas.get(0)).isNotEqualTo(lecturas.get(1));
+        assertThat(baseDeDatos(false)).isEqualTo("PRIMARIA");
+        assertThat(jdbcTemplate.queryForObject("SELECT DATABASE()", String.class)).isEqualTo("PRIMARIA");
+    }
+
+    @Test
+    @DisplayName("Una réplica con demasiado retraso sale de la rotación y sin réplicas sanas se lee de la primaria")
+    void checkReplicas_ReplicaRetrasada_DejaDeRecibirLecturas() throws SQLException {
+        simularRetraso(REPLICA_1, 60);
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.replicaHealth()).containsEntry("replica-1", false).containsEntry("replica-2", true);
+        assertThat(baseDeDatos(true)).isEqualTo("REPLICA2");
+        assertThat(baseDeDatos(true)).isEqualTo("REPLICA2");
+
+        simularRetraso(REPLICA_2, 60);
+        routingDataSource.checkReplicas();
+
+        assertThat(baseDeDatos(true)).isEqualTo("PRIMARIA");
+    }
+
+    @Test
+    @DisplayName("Lo leído de una réplica atrasada no entra en la caché de segundo nivel")
+    void findById_ReplicaAtrasada_NoLlenaLaCache() throws SQLException {
+        UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+        createDTO.setUsername("replica");
+        createDTO.setEmail("antes@example.com");
+        createDTO.setPassword("password123");
+        Long id = usuarioService.crearUsuario(createDTO).getId();
+        // La réplica 1 se queda con la copia anterior al cambio; la 2 sale de la rotación
+        copiarPrimaria(REPLICA_1);
+        simularRetraso(REPLICA_2, 60);
+        routingDataSource.checkReplicas();
+        jdbcTemplate.update("UPDATE usuarios SET email = 'despues@example.com' WHERE id = ?", id);
+        entityManagerFactory.getCache().evictAll();
+
+        assertThat(email(id, true)).isEqualTo("antes@example.com");
+        assertThat(entityManagerFactory.getCache().contains(Usuario.class, id)).isFalse();
+
+        assertThat(email(id, false)).isEqualTo("despues@example.com");
+        assertThat(entityManagerFactory.getCache().contains(Usuario.class, id)).isTrue();
+        assertThat(email(id, true)).isEqualTo("despues@example.com");
+    }
+
+    private String email(Long id, boolean soloLectura) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(soloLectura);
+        return transactionTemplate.execute(status -> usuarioRepository.findById(id).orElseThrow().getEmail());
+    }
+
+    private String baseDeDatos(boolean soloLectura) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(soloLectura);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private void copiarPrimaria(String url) throws SQLException {
+        List<String> script = jdbcTemplate.queryForList("SCRIPT", String.class);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            for (String sentencia : script) {
+                if (!sentencia.startsWith("CREATE USER")) {
+                    statement.execute(sentencia);
+                }
+            }
+        }
+    }
+
+    private static void vaciar(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private static void simularRetraso(String url, int segundos) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS retraso_replica (segundos INT)");
+            statement.execute("DELETE FROM retraso_replica");
+            statement.execute("INSERT INTO retraso_replica VALUES (" + segundos + ")");
+        }
+    }
+}
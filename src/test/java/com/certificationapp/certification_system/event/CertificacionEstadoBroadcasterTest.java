@@ -0,0 +1,238 @@
+package com.certificationapp.certification_system.event;
+
+import com.certificationapp.certification_system.dto.CertificacionEstadoEventoDTO;
+import com.certificationapp.certification_system.exception.SubscriberLimitExceededException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CertificacionEstadoBroadcasterTest {
+
+    private CertificacionEstadoBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new CertificacionEstadoBroadcaster(2, 4, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.cerrar();
+    }
+
+    @Test
+    @DisplayName("Los cambios de estado llegan al dueño de la certificación y a los administradores")
+    void onCertificacionEvent_EstadoActualizado_NotificaDuenoYAdministradores() throws InterruptedException {
+        EmisorDePrueba dueno = new EmisorDePrueba();
+        EmisorDePrueba otroUsuario = new EmisorDePrueba();
+        EmisorDePrueba administrador = new EmisorDePrueba();
+        broadcaster.suscribir(dueno, 1L);
+        broadcaster.suscribir(otroUsuario, 2L);
+        broadcaster.suscribir(administrador, null);
+
+        broadcaster.onCertificacionEvent(cambioDeEstado(1L));
+
+        esperarHasta(() -> dueno.enviados.size() == 1 && administrador.enviados.size() == 1);
+        assertThat(otroUsuario.enviados).isEmpty();
+        assertThat(dueno.enviados.get(0))
+                .anySatisfy(dato -> assertThat(dato.getData()).isInstanceOf(CertificacionEstadoEventoDTO.class));
+    }
+
+    @Test
+    @DisplayName("Los eventos que no son cambios de estado se ignoran")
+    void onCertificacionEvent_Creada_NoNotifica() throws InterruptedException {
+        EmisorDePrueba administrador = new EmisorDePrueba();
+        broadcaster.suscribir(administrador, null);
+
+        Certificacion certificacion = certificacion(1L);
+        broadcaster.onCertificacionEvent(CertificacionEvent.creada(certificacion));
+
+        Thread.sleep(100);
+        assertThat(administrador.enviados).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un suscriptor lento se desconecta sin bloquear a los demás")
+    void onCertificacionEvent_SuscriptorLento_SeDesconecta() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmisorDePrueba lento = new EmisorDePrueba(liberar);
+        EmisorDePrueba rapido = new EmisorDePrueba();
+        broadcaster.suscribir(lento, null);
+        broadcaster.suscribir(rapido, null);
+
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.onCertificacionEvent(cambioDeEstado(1L));
+            int esperados = i;
+            esperarHasta(() -> rapido.enviados.size() == esperados);
+        }
+
+        esperarHasta(() -> broadcaster.totalSuscriptores() == 1);
+        // El cierre espera a que el envío bloqueado termine, sin ocupar otro hilo
+        assertThat(lento.completado).isFalse();
+        liberar.countDown();
+        esperarHasta(() -> lento.completado);
+    }
+
+    @Test
+    @DisplayName("El barrido descarta al suscriptor cuyo envío no termina a tiempo sin retrasar a los demás")
+    void barrer_EnvioAtascado_DescartaSuscriptor() throws InterruptedException {
+        broadcaster.cerrar();
+        broadcaster = new CertificacionEstadoBroadcaster(8, 4, Duration.ofMillis(200));
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmisorDePrueba atascado = new EmisorDePrueba(liberar);
+        EmisorDePrueba rapido = new EmisorDePrueba();
+        broadcaster.suscribir(atascado, null);
+        broadcaster.suscribir(rapido, null);
+
+        broadcaster.onCertificacionEvent(cambioDeEstado(1L));
+
+        // Nadie espera al envío atascado: el otro suscriptor recibe el evento
+        esperarHasta(() -> rapido.enviados.size() == 1);
+        broadcaster.barrer();
+        assertThat(broadcaster.totalSuscriptores()).isEqualTo(2);
+
+        Thread.sleep(250);
+        broadcaster.barrer();
+        assertThat(broadcaster.totalSuscriptores()).isEqualTo(1);
+
+        broadcaster.onCertificacionEvent(cambioDeEstado(1L));
+        esperarHasta(() -> rapido.enviados.size() == 2);
+        assertThat(atascado.enviados).isEmpty();
+        // El cierre espera a que el envío bloqueado termine
+        assertThat(atascado.completado).isFalse();
+        liberar.countDown();
+        esperarHasta(() -> atascado.completado);
+        assertThat(atascado.enviados).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Se admiten como mucho max-subscribers suscriptores, contando los descartados con un envío atascado")
+    void suscribir_LimiteAlcanzado_Rechaza() throws InterruptedException {
+        broadcaster.cerrar();
+        broadcaster = new CertificacionEstadoBroadcaster(8, 2, Duration.ofMillis(200));
+        CountDownLatch liberar = new CountDownLatch(1);
+        EmisorDePrueba atascado = new EmisorDePrueba(liberar);
+        EmisorDePrueba rapido = new EmisorDePrueba();
+        broadcaster.suscribir(atascado, null);
+        broadcaster.suscribir(rapido, 1L);
+
+        assertThatThrownBy(() -> broadcaster.suscribir(new EmisorDePrueba(), null))
+                .isInstanceOf(SubscriberLimitExceededException.class);
+
+        broadcaster.onCertificacionEvent(cambioDeEstado(2L));
+        Thread.sleep(250);
+        broadcaster.barrer();
+        assertThat(broadcaster.totalSuscriptores()).isEqualTo(1);
+
+        // El descartado sigue ocupando un hilo escritor mientras su envío no termine
+        assertThatThrownBy(() -> broadcaster.suscribir(new EmisorDePrueba(), null))
+                .isInstanceOf(SubscriberLimitExceededException.class);
+
+        liberar.countDown();
+        esperarHasta(() -> atascado.completado);
+        esperarHasta(() -> {
+            try {
+                broadcaster.suscribir(new EmisorDePrueba(), null);
+                return true;
+            } catch (SubscriberLimitExceededException ex) {
+                return false;
+            }
+        });
+        assertThat(broadcaster.totalSuscriptores()).isEqualTo(2);
+
+        // Un suscriptor que cierra la conexión libera su plaza
+        rapido.cerrarConexion();
+        broadcaster.suscribir(new EmisorDePrueba(), 1L);
+        assertThat(broadcaster.totalSuscriptores()).isEqualTo(2);
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando la entrega").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private CertificacionEvent cambioDeEstado(Long usuarioId) {
+        Certificacion certificacion = certificacion(usuarioId);
+        certificacion.setStatus(Certificacion.Status.APPROVED);
+        return CertificacionEvent.estadoActualizado(certificacion, Certificacion.Status.PENDING);
+    }
+
+    private Certificacion certificacion(Long usuarioId) {
+        Usuario usuario = new Usuario();
+        usuario.setId(usuarioId);
+        Certificacion certificacion = new Certificacion();
+        certificacion.setId(10L);
+        certificacion.setTipo("Profesional");
+        certificacion.setUsuario(usuario);
+        return certificacion;
+    }
+
+    /**
+     * Records what would be written to the client; optionally blocks on send to simulate a slow consumer.
+     */
+    private static class EmisorDePrueba extends SseEmitter {
+
+        private final List<Set<ResponseBodyEmitter.DataWithMediaType>> enviados = new CopyOnWriteArrayList<>();
+        private final CountDownLatch bloqueo;
+        private volatile boolean completado;
+
+        EmisorDePrueba() {
+            this(null);
+        }
+
+        EmisorDePrueba(CountDownLatch bloqueo) {
+            this.bloqueo = bloqueo;
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            if (bloqueo != null) {
+                try {
+                    bloqueo.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            enviados.add(items);
+        }
+
+        private volatile Runnable alCompletar;
+
+        @Override
+        public void complete() {
+            completado = true;
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            alCompletar = callback;
+        }
+
+        /**
+         * Simulates the container completing the request, as when the client disconnects.
+         */
+        void cerrarConexion() {
+            alCompletar.run();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.certificationapp.certification_system.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatsTest {
+
+    private final QueryStatsHibernateListener listener = new QueryStatsHibernateListener();
+
+    @AfterEach
+    void cleanup() {
+        QueryStats.end();
+    }
+
+    @Test
+    @DisplayName("Las sentencias que solo difieren en literales o listas IN comparten huella")
+    void fingerprint_LiteralesYListas_SeNormalizan() {
+        assertThat(QueryStats.fingerprint("select * from documentos d\n  where d.certificacion_id = 42"))
+                .isEqualTo("select * from documentos d where d.certificacion_id = ?");
+        assertThat(QueryStats.fingerprint("select c1_0.id from certificaciones c1_0 where c1_0.status='PENDING'"))
+                .isEqualTo("select c1_0.id from certificaciones c1_0 where c1_0.status=?");
+        assertThat(QueryStats.fingerprint("select * from documentos where certificacion_id in (?, ?, ?)"))
+                .isEqualTo(QueryStats.fingerprint("select * from documentos where certificacion_id in (?,?)"));
+    }
+
+    @Test
+    @DisplayName("Un N+1 aparece como una huella repetida")
+    void inspect_ConsultasRepetidas_AgrupaPorHuella() {
+        QueryStats stats = QueryStats.start();
+
+        listener.inspect("select * from certificaciones where usuario_id=?");
+        for (int i = 0; i < 5; i++) {
+            listener.inspect("select * from documentos where certificacion_id=?");
+        }
+
+        assertThat(stats.getStatements()).isEqualTo(6);
+        assertThat(stats.getFingerprints())
+                .containsEntry("select * from certificaciones where usuario_id=?", 1)
+                .containsEntry("select * from documentos where certificacion_id=?", 5);
+    }
+
+    @Test
+    @DisplayName("Pasado el límite de huellas distintas el resto se acumula aparte")
+    void inspect_DemasiadasHuellas_AgrupaElResto() {
+        QueryStats stats = QueryStats.start();
+
+        for (int i = 0; i < QueryStats.MAX_FINGERPRINTS + 10; i++) {
+            listener.inspect("select * from tabla_" + (char) ('a' + i % 26) + i / 26 + "x");
+        }
+
+        assertThat(stats.getFingerprints()).hasSize(QueryStats.MAX_FINGERPRINTS + 1)
+                .containsEntry(QueryStats.OTHER_FINGERPRINTS, 10);
+    }
+
+    @Test
+    @DisplayName("Fuera de una petición no se cuenta nada")
+    void inspect_SinPeticion_NoFalla() {
+        assertThat(listener.inspect("select 1")).isEqualTo("select 1");
+        assertThat(QueryStats.current()).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.certificationapp.certification_system.rules;
+
+import com.certificationapp.certification_system.config.ReglasProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MotorReglasTest {
+
+    private ReglasProperties properties;
+    private MotorReglas motorReglas;
+
+    @BeforeEach
+    void setUp() {
+        ReglasProperties.ConjuntoReglas profesional = new ReglasProperties.ConjuntoReglas();
+        profesional.setRequiredTypes(Map.of("application/pdf", 1));
+        profesional.setAllowedTypes(Set.of("application/pdf", "image/png"));
+        profesional.setMaxDocuments(3);
+        profesional.setMaxFileSize(DataSize.ofKilobytes(1));
+        profesional.setMaxTotalSize(DataSize.ofKilobytes(2));
+
+        properties = new ReglasProperties();
+        properties.setSets(Map.of("PROFESIONAL", profesional));
+        motorReglas = new MotorReglas(properties);
+    }
+
+    @Test
+    @DisplayName("Una certificación con los documentos requeridos cumple las reglas")
+    void evaluar_DocumentosValidos_SinIncumplimientos() {
+        List<MotorReglas.Incumplimiento> incumplimientos = motorReglas.evaluar("PROFESIONAL", List.of(
+                new MotorReglas.DocumentoRegla("application/pdf", 800L),
+                new MotorReglas.DocumentoRegla("image/png", 500L)));
+
+        assertThat(incumplimientos).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Se informan el tipo requerido que falta, los tipos no admitidos y los tamaños excedidos")
+    void evaluar_DocumentosInvalidos_DevuelveIncumplimientos() {
+        List<MotorReglas.Incumplimiento> incumplimientos = motorReglas.evaluar("profesional", List.of(
+                new MotorReglas.DocumentoRegla("image/png", 2048L),
+                new MotorReglas.DocumentoRegla("application/msword", 100L)));
+
+        assertThat(incumplimientos).extracting(MotorReglas.Incumplimiento::regla).containsExactlyInAnyOrder(
+                MotorReglas.Regla.MISSING_REQUIRED_TYPE,
+                MotorReglas.Regla.TYPE_NOT_ALLOWED,
+                MotorReglas.Regla.FILE_TOO_LARGE,
+                MotorReglas.Regla.TOTAL_TOO_LARGE);
+    }
+
+    @Test
+    @DisplayName("Los tipos sin reglas configuradas no se filtran")
+    void evaluar_TipoSinReglas_SinIncumplimientos() {
+        assertThat(motorReglas.evaluar("IDIOMAS", List.of())).isEmpty();
+        assertThat(motorReglas.accionPara("IDIOMAS")).isEqualTo(ReglasProperties.Accion.FLAG);
+    }
+}
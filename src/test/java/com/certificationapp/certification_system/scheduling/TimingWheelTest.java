@@ -0,0 +1,72 @@
+package com.certificationapp.certification_system.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Los elementos vencen en orden y nunca antes de su momento")
+    void programar_VariosElementos_VencenEnOrden() throws InterruptedException {
+        List<String> vencidos = new CopyOnWriteArrayList<>();
+        List<Instant> momentos = new CopyOnWriteArrayList<>();
+        // Rueda de 4 ranuras: el elemento más lejano necesita varias vueltas
+        try (TimingWheel<String> rueda = new TimingWheel<>(Duration.ofMillis(20), 4, lote -> {
+            vencidos.addAll(lote);
+            lote.forEach(item -> momentos.add(Instant.now()));
+        }, "test-wheel")) {
+            Instant ahora = Instant.now();
+            Instant lejano = ahora.plusMillis(300);
+            rueda.programar("lejano", lejano);
+            rueda.programar("cercano", ahora.plusMillis(60));
+            rueda.programar("vencido", ahora.minusSeconds(1));
+
+            esperarHasta(() -> vencidos.size() == 3);
+
+            assertThat(vencidos).containsExactly("vencido", "cercano", "lejano");
+            assertThat(momentos.get(2)).isAfterOrEqualTo(lejano);
+            assertThat(rueda.pendientes()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Programar un elemento ya pendiente no lo duplica")
+    void programar_ElementoPendiente_SeIgnora() throws InterruptedException {
+        List<String> vencidos = new CopyOnWriteArrayList<>();
+        try (TimingWheel<String> rueda = new TimingWheel<>(Duration.ofMillis(10), 8, vencidos::addAll, "test-wheel")) {
+            Instant momento = Instant.now().plusMillis(500);
+            assertThat(rueda.programar("uno", momento)).isTrue();
+            assertThat(rueda.programar("uno", momento)).isFalse();
+
+            esperarHasta(() -> rueda.pendientes() == 0);
+            Thread.sleep(50);
+
+            assertThat(vencidos).containsExactly("uno");
+            assertThat(rueda.programar("uno", Instant.now())).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("El tamaño de la rueda debe ser potencia de dos")
+    void crear_TamanoInvalido_LanzaExcepcion() {
+        assertThatThrownBy(() -> new TimingWheel<String>(Duration.ofMillis(10), 6, lote -> { }, "test-wheel"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando el vencimiento").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.certificationapp.certification_system.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Todo valor añadido se encuentra siempre")
+    void mightContain_ValoresAnadidos_SinFalsosNegativos() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).parallel().forEach(i -> filtro.put("usuario" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filtro.mightContain("usuario" + i))).isTrue();
+        assertThat(filtro.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("La tasa de falsos positivos se mantiene cerca de la configurada")
+    void mightContain_ValoresAusentes_TasaDeFalsosPositivosAcotada() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.put("usuario" + i));
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.mightContain("otro" + i))
+                .count();
+
+        assertThat(falsosPositivos).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("Un filtro vacío no contiene nada")
+    void mightContain_FiltroVacio_RetornaFalse() {
+        BloomFilter filtro = new BloomFilter(100, 0.01);
+
+        assertThat(filtro.mightContain("ana")).isFalse();
+        assertThat(filtro.mightContain("")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Crear un filtro con parámetros inválidos lanza excepción")
+    void constructor_ParametrosInvalidos_LanzaExcepcion() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
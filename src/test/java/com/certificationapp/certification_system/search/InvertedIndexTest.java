@@ -0,0 +1,100 @@
+package com.certificationapp.certification_system.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex<Long, String> indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new InvertedIndex<>();
+        indice.put(1L, "certificacion", "Certificación Profesional");
+        indice.put(2L, "documento", "titulo-profesional.pdf");
+        indice.put(3L, "usuario", "maria", "maria.lopez@example.com");
+    }
+
+    @Test
+    @DisplayName("Buscar por prefijo ignora mayúsculas y acentos")
+    void search_Prefijo_EncuentraTerminos() {
+        assertThat(valores(buscar("profes", false))).containsExactly("certificacion", "documento");
+        assertThat(valores(buscar("CERTIFICACION", false))).containsExactly("certificacion");
+        assertThat(valores(buscar("lopez@exam", false))).containsExactly("usuario");
+    }
+
+    @Test
+    @DisplayName("Buscar exige que coincidan todos los términos")
+    void search_VariosTerminos_InterseccionDeResultados() {
+        assertThat(valores(buscar("titulo profesional", false))).containsExactly("documento");
+        assertThat(buscar("titulo maria", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Buscar en modo difuso tolera errores tipográficos")
+    void search_Difuso_ToleraErrores() {
+        assertThat(buscar("profesinal", false)).isEmpty();
+        assertThat(valores(buscar("profesinal", true))).containsExactly("certificacion", "documento");
+        assertThat(valores(buscar("mraia", true))).containsExactly("usuario");
+        assertThat(buscar("zaria", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reindexar y eliminar actualiza las entradas")
+    void putYRemove_ActualizanTerminos() {
+        indice.put(1L, "certificacion", "Certificación Técnica");
+        assertThat(valores(buscar("profesional", false))).containsExactly("documento");
+        assertThat(valores(buscar("tecnica", false))).containsExactly("certificacion");
+
+        indice.remove(2L);
+        indice.removeIf("usuario"::equals);
+        assertThat(buscar("profesional", false)).isEmpty();
+        assertThat(indice.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Las coincidencias exactas puntúan más que los prefijos")
+    void search_ExactoAntesQuePrefijo() {
+        indice.put(4L, "exacto", "profes");
+
+        List<InvertedIndex.Hit<String>> hits = buscar("profes", false);
+
+        assertThat(valores(hits)).containsExactly("exacto", "certificacion", "documento");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+    }
+
+    @Test
+    @DisplayName("Eliminar un grupo retira solo sus entradas")
+    void removeGroup_EliminaMiembrosDelGrupo() {
+        InvertedIndex<Long, String> agrupado = new InvertedIndex<>(v -> v.startsWith("doc") ? v.substring(0, 4) : null);
+        agrupado.put(1L, "doc1-a", "informe anual");
+        agrupado.put(2L, "doc1-b", "informe mensual");
+        agrupado.put(3L, "doc2-a", "informe semanal");
+        agrupado.put(4L, "otro", "informe libre");
+        agrupado.put(2L, "doc2-b", "informe mensual");
+
+        agrupado.removeGroup("doc1");
+
+        assertThat(agrupado.search("informe", false, v -> true, Comparator.naturalOrder()))
+                .extracting(InvertedIndex.Hit::getValue)
+                .containsExactly("doc2-a", "doc2-b", "otro");
+
+        agrupado.remove(3L);
+        agrupado.removeGroup("doc2");
+        assertThat(agrupado.size()).isEqualTo(1);
+    }
+
+    private List<InvertedIndex.Hit<String>> buscar(String consulta, boolean difuso) {
+        return indice.search(consulta, difuso, v -> true, Comparator.naturalOrder());
+    }
+
+    private List<String> valores(List<InvertedIndex.Hit<String>> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getValue).toList();
+    }
+}
@@ -0,0 +1,188 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.BusquedaResponseDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchivoServiceIntegrationTest {
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private CertificacionArchivadaRepository certificacionArchivadaRepository;
+
+    @Autowired
+    private DocumentoArchivadoRepository documentoArchivadoRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    private Usuario usuario;
+    private Certificacion cerrada;
+    private Certificacion pendiente;
+    private Documento documento;
+
+    @BeforeEach
+    void setup() {
+        usuario = new Usuario();
+        usuario.setUsername("archivo");
+        usuario.setEmail("archivo@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuario = usuarioRepository.save(usuario);
+
+        cerrada = crearCertificacion("PROFESIONAL");
+        pendiente = crearCertificacion("TECNICA");
+
+        documento = new Documento();
+        documento.setCertificacion(cerrada);
+        documento.setNombre("titulo.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("titulo.pdf");
+        documento = documentoService.guardarDocumento(documento);
+        certificacionService.actualizarEstadoCertificacion(cerrada.getId(), Certificacion.Status.REJECTED);
+
+        // Todo lo que ya está cerrado es archivable
+        ReflectionTestUtils.setField(servicioSinProxy(), "antiguedadMinima", Duration.ZERO);
+    }
+
+    @AfterEach
+    void cleanup() {
+        ReflectionTestUtils.setField(servicioSinProxy(), "antiguedadMinima", Duration.ofDays(180));
+        certificadoRepository.deleteAll();
+        documentoArchivadoRepository.deleteAll();
+        certificacionArchivadaRepository.deleteAll();
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Las certificaciones cerradas pasan al archivo y se siguen leyendo por id")
+    void archivar_CertificacionCerrada_SeMueveYSigueLegible() {
+        assertThat(archivoService.archivar()).isEqualTo(1);
+
+        assertThat(certificacionRepository.findById(cerrada.getId())).isEmpty();
+        assertThat(documentoRepository.findById(documento.getId())).isEmpty();
+        assertThat(certificacionRepository.findById(pendiente.getId())).isPresent();
+
+        Certificacion archivada = certificacionService.obtenerCertificacionPorId(cerrada.getId());
+        assertThat(archivada.isArchivada()).isTrue();
+        assertThat(archivada.getStatus()).isEqualTo(Certificacion.Status.REJECTED);
+        assertThat(archivada.getDocumentos()).extracting(Documento::getId).containsExactly(documento.getId());
+        assertThat(documentoService.obtenerDocumentoPorId(documento.getId()).getNombre()).isEqualTo("titulo.pdf");
+
+        assertThat(archivoService.archivar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Modificar una certificación archivada la devuelve a la tabla activa")
+    void actualizarEstado_CertificacionArchivada_SeRestaura() {
+        archivoService.archivar();
+
+        Certificacion actualizada = certificacionService.actualizarEstadoCertificacion(
+                cerrada.getId(), Certificacion.Status.IN_REVIEW);
+
+        assertThat(actualizada.isArchivada()).isFalse();
+        assertThat(actualizada.getStatus()).isEqualTo(Certificacion.Status.IN_REVIEW);
+        assertThat(certificacionArchivadaRepository.count()).isZero();
+        assertThat(documentoArchivadoRepository.count()).isZero();
+        assertThat(documentoRepository.findById(documento.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Las certificaciones archivadas salen de la búsqueda y vuelven al restaurarse")
+    void archivar_CertificacionCerrada_SaleDeLaBusqueda() {
+        // El índice es del contexto compartido: se comprueban solo los ids de esta prueba
+        assertThat(buscar("titulo")).contains(documento.getId());
+        assertThat(buscar("profesional")).contains(cerrada.getId());
+
+        archivoService.archivar();
+
+        assertThat(buscar("titulo")).doesNotContain(documento.getId());
+        assertThat(buscar("profesional")).doesNotContain(cerrada.getId());
+        assertThat(buscar("tecnica")).contains(pendiente.getId());
+
+        certificacionService.actualizarEstadoCertificacion(cerrada.getId(), Certificacion.Status.IN_REVIEW);
+
+        assertThat(buscar("titulo")).contains(documento.getId());
+        assertThat(buscar("profesional")).contains(cerrada.getId());
+    }
+
+    @Test
+    @DisplayName("Eliminar al usuario elimina también sus certificaciones archivadas")
+    void eliminarUsuario_ConCertificacionesArchivadas_LasElimina() {
+        archivoService.archivar();
+        certificacionService.eliminarCertificacion(pendiente.getId());
+
+        usuarioService.eliminarUsuario(usuario.getId());
+
+        assertThat(certificacionArchivadaRepository.count()).isZero();
+        assertThat(documentoArchivadoRepository.count()).isZero();
+    }
+
+    private List<Long> buscar(String consulta) {
+        return busquedaService.buscar(consulta, BusquedaService.ModoBusqueda.PREFIJO,
+                        Set.of(BusquedaService.TipoResultado.CERTIFICACION, BusquedaService.TipoResultado.DOCUMENTO), 0, 1000)
+                .getResultados().stream()
+                .map(BusquedaResponseDTO.ResultadoDTO::getId)
+                .toList();
+    }
+
+    private Object servicioSinProxy() {
+        return AopTestUtils.getTargetObject(archivoService);
+    }
+
+    private Certificacion crearCertificacion(String tipo) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(tipo);
+        return certificacionService.crearCertificacion(certificacion);
+    }
+}
@@ -0,0 +1,91 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CambioEstadoDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CambioEstadoCertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuditoriaServiceIntegrationTest {
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    @Autowired
+    private CambioEstadoCertificacionRepository cambioRepository;
+
+    @AfterEach
+    void cleanup() {
+        cambioRepository.deleteAll();
+        certificadoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(username = "revisor")
+    @DisplayName("Cada cambio de estado queda en el historial con su autor")
+    void obtenerHistorial_TrasCambiosDeEstado_DevuelveTransiciones() throws InterruptedException {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("auditado");
+        usuario.setEmail("auditado@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo("PROFESIONAL");
+        Long id = certificacionService.crearCertificacion(certificacion).getId();
+        certificacionService.actualizarEstadoCertificacion(id, Certificacion.Status.IN_REVIEW);
+        certificacionService.actualizarEstadoCertificacion(id, Certificacion.Status.APPROVED);
+
+        List<CambioEstadoDTO> historial = esperarHistorial(id, 3);
+
+        assertThat(historial)
+                .extracting(CambioEstadoDTO::getActor, CambioEstadoDTO::getEstadoAnterior, CambioEstadoDTO::getEstadoNuevo)
+                .containsExactly(
+                        tuple("revisor", null, "PENDING"),
+                        tuple("revisor", "PENDING", "IN_REVIEW"),
+                        tuple("revisor", "IN_REVIEW", "APPROVED"));
+    }
+
+    private List<CambioEstadoDTO> esperarHistorial(Long id, int esperados) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        List<CambioEstadoDTO> historial;
+        while ((historial = auditoriaService.obtenerHistorial(id)).size() < esperados) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando el indexado").isLessThan(limite);
+            Thread.sleep(20);
+            auditoriaService.indexarPendientes();
+        }
+        return historial;
+    }
+}
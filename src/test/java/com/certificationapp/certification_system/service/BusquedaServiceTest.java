@@ -0,0 +1,167 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.BusquedaResponseDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.impl.BusquedaServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BusquedaServiceTest {
+
+    @Mock
+    private CertificacionRepository certificacionRepository;
+
+    @Mock
+    private DocumentoRepository documentoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @InjectMocks
+    private BusquedaServiceImpl busquedaService;
+
+    private Certificacion certificacionTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(busquedaService, "tamanoPaginaReconstruccion", 100);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+
+        certificacionTest = new Certificacion();
+        certificacionTest.setId(7L);
+        certificacionTest.setUsuario(usuario);
+        certificacionTest.setTipo("Profesional");
+
+        when(documentoRepository.findIndexablesDespuesDe(anyLong(), any())).thenReturn(List.of());
+        when(usuarioRepository.findIndexablesDespuesDe(anyLong(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Una eliminación confirmada mientras se lee la página no reaparece tras la reconstrucción")
+    void reconstruirIndice_EliminacionDuranteCarga_NoReapareceEntrada() {
+        CertificacionRepository.CertificacionIndexable leida = indexable(7L, "Profesional", 1L);
+        when(certificacionRepository.findIndexablesDespuesDe(anyLong(), any())).thenAnswer(invocation -> {
+            // La página ya se leyó cuando se confirma la eliminación
+            busquedaService.onCertificacionEvent(CertificacionEvent.eliminada(certificacionTest));
+            return List.of(leida);
+        });
+
+        int total = busquedaService.reconstruirIndice();
+
+        assertThat(total).isZero();
+        BusquedaResponseDTO respuesta = busquedaService.buscar("profesional",
+                BusquedaService.ModoBusqueda.PREFIJO, Set.of(), 0, 10);
+        assertThat(respuesta.getResultados()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Una alta confirmada durante la reconstrucción queda en el índice nuevo")
+    void reconstruirIndice_AltaDuranteCarga_QuedaIndexada() {
+        when(certificacionRepository.findIndexablesDespuesDe(anyLong(), any())).thenAnswer(invocation -> {
+            busquedaService.onCertificacionEvent(CertificacionEvent.creada(certificacionTest));
+            return List.of();
+        });
+
+        int total = busquedaService.reconstruirIndice();
+
+        assertThat(total).isEqualTo(1);
+        BusquedaResponseDTO respuesta = busquedaService.buscar("profesional",
+                BusquedaService.ModoBusqueda.PREFIJO, Set.of(), 0, 10);
+        assertThat(respuesta.getResultados()).singleElement()
+                .satisfies(resultado -> assertThat(resultado.getId()).isEqualTo(7L));
+    }
+
+    @Test
+    @DisplayName("Las escrituras que coinciden con el reemplazo del índice no se pierden")
+    void reconstruirIndice_EscriturasConcurrentes_IndiceCoincideConBaseDeDatos() throws InterruptedException {
+        ConcurrentSkipListMap<Long, CertificacionRepository.CertificacionIndexable> confirmadas = new ConcurrentSkipListMap<>();
+        when(certificacionRepository.findIndexablesDespuesDe(anyLong(), any())).thenAnswer(invocation -> {
+            long despuesDe = invocation.getArgument(0);
+            return confirmadas.tailMap(despuesDe, false).values().stream().limit(100).toList();
+        });
+
+        int hilos = 4;
+        int porHilo = 2_000;
+        CountDownLatch terminados = new CountDownLatch(hilos);
+        for (int h = 0; h < hilos; h++) {
+            long primero = (long) h * porHilo + 1;
+            Thread escritor = new Thread(() -> {
+                for (long id = primero; id < primero + porHilo; id++) {
+                    Certificacion certificacion = certificacion(id);
+                    // Primero se confirma en la base de datos y después llega el evento
+                    confirmadas.put(id, indexable(id, "Profesional", 1L));
+                    busquedaService.onCertificacionEvent(CertificacionEvent.creada(certificacion));
+                    if (id % 2 == 0) {
+                        confirmadas.remove(id);
+                        busquedaService.onCertificacionEvent(CertificacionEvent.eliminada(certificacion));
+                    }
+                }
+                terminados.countDown();
+            }, "escritor-" + h);
+            escritor.start();
+        }
+
+        while (terminados.getCount() > 0) {
+            busquedaService.reconstruirIndice();
+        }
+        assertThat(terminados.await(5, TimeUnit.SECONDS)).isTrue();
+
+        BusquedaResponseDTO respuesta = busquedaService.buscar("profesional",
+                BusquedaService.ModoBusqueda.PREFIJO, Set.of(), 0, hilos * porHilo);
+        assertThat(respuesta.getResultados())
+                .extracting(BusquedaResponseDTO.ResultadoDTO::getId)
+                .containsExactlyInAnyOrderElementsOf(confirmadas.keySet());
+    }
+
+    private Certificacion certificacion(Long id) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setId(id);
+        certificacion.setUsuario(certificacionTest.getUsuario());
+        certificacion.setTipo("Profesional");
+        return certificacion;
+    }
+
+    private CertificacionRepository.CertificacionIndexable indexable(Long id, String tipo, Long usuarioId) {
+        return new CertificacionRepository.CertificacionIndexable() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTipo() {
+                return tipo;
+            }
+
+            @Override
+            public Long getUsuarioId() {
+                return usuarioId;
+            }
+        };
+    }
+}
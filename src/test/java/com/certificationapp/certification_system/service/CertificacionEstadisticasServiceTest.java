@@ -0,0 +1,173 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CertificacionEstadisticasDTO;
+import com.certificationapp.certification_system.event.CertificacionEvent;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.service.impl.CertificacionEstadisticasServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificacionEstadisticasServiceTest {
+
+    @Mock
+    private CertificacionRepository certificacionRepository;
+
+    @Mock
+    private CertificacionArchivadaRepository certificacionArchivadaRepository;
+
+    @InjectMocks
+    private CertificacionEstadisticasServiceImpl estadisticasService;
+
+    private Certificacion certificacionTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(estadisticasService, "ventanaDias", 30);
+
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+
+        certificacionTest = new Certificacion();
+        certificacionTest.setId(1L);
+        certificacionTest.setUsuario(usuario);
+        certificacionTest.setTipo("PROFESIONAL");
+        certificacionTest.setStatus(Certificacion.Status.PENDING);
+        certificacionTest.setFechaCreacion(LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Los eventos actualizan los contadores incrementalmente")
+    void onCertificacionEvent_CicloDeVida_ActualizaContadores() {
+        estadisticasService.onCertificacionEvent(CertificacionEvent.creada(certificacionTest));
+
+        certificacionTest.setStatus(Certificacion.Status.APPROVED);
+        estadisticasService.onCertificacionEvent(
+                CertificacionEvent.estadoActualizado(certificacionTest, Certificacion.Status.PENDING));
+
+        CertificacionEstadisticasDTO resultado = estadisticasService.obtenerEstadisticas();
+
+        assertThat(resultado.getTotal()).isEqualTo(1);
+        assertThat(resultado.getPorEstado()).containsEntry("PENDING", 0L).containsEntry("APPROVED", 1L);
+        assertThat(resultado.getPorTipo()).containsEntry("PROFESIONAL", 1L);
+        assertThat(resultado.getIngresosDiarios()).containsEntry(LocalDate.now(), 1L);
+
+        estadisticasService.onCertificacionEvent(CertificacionEvent.eliminada(certificacionTest));
+
+        resultado = estadisticasService.obtenerEstadisticas();
+        assertThat(resultado.getTotal()).isZero();
+        assertThat(resultado.getPorTipo()).isEmpty();
+        assertThat(resultado.getIngresosDiarios()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La reconciliación reemplaza los contadores con los valores de la base de datos")
+    void reconciliar_ContadoresDesviados_CorrigeDesdeBaseDeDatos() {
+        estadisticasService.onCertificacionEvent(CertificacionEvent.creada(certificacionTest));
+        estadisticasService.onCertificacionEvent(CertificacionEvent.creada(certificacionTest));
+
+        when(certificacionRepository.contarPorEstado()).thenReturn(List.of(conteoEstado(Certificacion.Status.PENDING, 5L)));
+        when(certificacionRepository.contarPorTipo()).thenReturn(List.of(conteoTipo("TECNICA", 5L)));
+        when(certificacionRepository.contarPorDiaDesde(any(LocalDateTime.class)))
+                .thenReturn(List.of(conteoDia(LocalDate.now(), 5L)));
+
+        estadisticasService.reconciliar();
+
+        CertificacionEstadisticasDTO resultado = estadisticasService.obtenerEstadisticas();
+        assertThat(resultado.getTotal()).isEqualTo(5);
+        assertThat(resultado.getPorTipo()).containsOnlyKeys("TECNICA");
+        assertThat(resultado.getIngresosDiarios()).containsEntry(LocalDate.now(), 5L);
+        assertThat(resultado.getUltimaReconciliacion()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Un alta confirmada durante la reconciliación se cuenta una sola vez en cada dimensión")
+    void reconciliar_CommitDuranteConsultas_CuentaUnaVez() throws InterruptedException {
+        AtomicLong filas = new AtomicLong(5);
+        Thread escritor = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                estadisticasService.onCertificacionEvent(CertificacionEvent.creada(certificacionTest));
+                filas.incrementAndGet();
+                List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+                TransactionSynchronizationUtils.invokeAfterCommit(sincronizaciones);
+                TransactionSynchronizationUtils.invokeAfterCompletion(sincronizaciones, TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }, "escritor");
+
+        when(certificacionRepository.contarPorEstado()).thenAnswer(invocation -> {
+            // La consulta lee las filas confirmadas al empezar; el alta se confirma mientras se ejecuta
+            long leidas = filas.get();
+            escritor.start();
+            esperarHasta(() -> escritor.getState() == Thread.State.WAITING
+                    || escritor.getState() == Thread.State.TERMINATED);
+            return List.of(conteoEstado(Certificacion.Status.PENDING, leidas));
+        });
+        when(certificacionRepository.contarPorTipo())
+                .thenAnswer(invocation -> List.of(conteoTipo("PROFESIONAL", filas.get())));
+        when(certificacionRepository.contarPorDiaDesde(any(LocalDateTime.class)))
+                .thenAnswer(invocation -> List.of(conteoDia(LocalDate.now(), filas.get())));
+
+        estadisticasService.reconciliar();
+        escritor.join(5_000);
+
+        CertificacionEstadisticasDTO resultado = estadisticasService.obtenerEstadisticas();
+        assertThat(filas.get()).isEqualTo(6);
+        assertThat(resultado.getPorEstado()).containsEntry("PENDING", 6L);
+        assertThat(resultado.getPorTipo()).containsEntry("PROFESIONAL", 6L);
+        assertThat(resultado.getIngresosDiarios()).containsEntry(LocalDate.now(), 6L);
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando al escritor").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    private CertificacionRepository.ConteoPorEstado conteoEstado(Certificacion.Status estado, Long total) {
+        return new CertificacionRepository.ConteoPorEstado() {
+            public Certificacion.Status getEstado() { return estado; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    private CertificacionRepository.ConteoPorTipo conteoTipo(String tipo, Long total) {
+        return new CertificacionRepository.ConteoPorTipo() {
+            public String getTipo() { return tipo; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    private CertificacionRepository.ConteoPorDia conteoDia(LocalDate dia, Long total) {
+        return new CertificacionRepository.ConteoPorDia() {
+            public LocalDate getDia() { return dia; }
+            public Long getTotal() { return total; }
+        };
+    }
+}
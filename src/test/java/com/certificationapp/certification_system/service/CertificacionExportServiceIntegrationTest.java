@@ -0,0 +1,116 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CertificacionExportServiceIntegrationTest {
+
+    @Autowired
+    private CertificacionExportService exportService;
+
+    @Autowired
+    private CatalogoTipos catalogoTipos;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("exportuser");
+        usuario.setEmail("export@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+
+        Certificacion conDocumentos = new Certificacion();
+        conDocumentos.setUsuario(usuario);
+        conDocumentos.setTipo(catalogoTipos.resolver("PROFESIONAL, NIVEL 1"));
+        certificacionRepository.save(conDocumentos);
+
+        Certificacion sinDocumentos = new Certificacion();
+        sinDocumentos.setUsuario(usuario);
+        sinDocumentos.setTipo(catalogoTipos.resolver("TECNICA"));
+        certificacionRepository.save(sinDocumentos);
+
+        for (String nombre : new String[]{"titulo.pdf", "foto.png"}) {
+            Documento documento = new Documento();
+            documento.setCertificacion(conDocumentos);
+            documento.setNombre(nombre);
+            documento.setTipo("application/pdf");
+            documento.setUrl(nombre);
+            documentoRepository.save(documento);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Exportar CSV genera una fila por documento y escapa los campos")
+    void exportar_Csv_UnaFilaPorDocumento() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportService.exportar(CertificacionExportService.FormatoExportacion.CSV, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lineas).hasSize(4);
+        assertThat(lineas[0]).startsWith("certificacion_id,tipo,status");
+        assertThat(lineas[1]).contains("\"PROFESIONAL, NIVEL 1\"", "exportuser", "titulo.pdf");
+        assertThat(lineas[2]).contains("foto.png");
+        assertThat(lineas[3]).contains("TECNICA").endsWith(",,,,,");
+    }
+
+    @Test
+    @DisplayName("Exportar NDJSON agrupa los documentos en su certificación")
+    void exportar_Ndjson_AgrupaDocumentos() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportService.exportar(CertificacionExportService.FormatoExportacion.NDJSON, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lineas).hasSize(2);
+
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertThat(primera.get("usuario").get("username").asText()).isEqualTo("exportuser");
+        assertThat(primera.get("documentos")).hasSize(2);
+
+        JsonNode segunda = objectMapper.readTree(lineas[1]);
+        assertThat(segunda.get("tipo").asText()).isEqualTo("TECNICA");
+        assertThat(segunda.get("documentos")).isEmpty();
+    }
+}
@@ -1,5 +1,7 @@
 package com.certificationapp.certification_system.service;
 
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.event.CertificacionEvent;
 import com.certificationapp.certification_system.exception.ResourceNotFoundException;
 import com.certificationapp.certification_system.model.Certificacion;
 import com.certificationapp.certification_system.model.Usuario;
@@ -11,8 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -32,6 +40,19 @@ class CertificacionServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArchivoService archivoService;
+
+    @Mock
+    private CatalogoTipos catalogoTipos;
+
+    // Ejecuta cada operación sin transacción real
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private CertificacionServiceImpl certificacionService;
 
@@ -58,6 +79,7 @@ class CertificacionServiceTest {
     @DisplayName("Crear certificación exitosamente")
     void crearCertificacion_DatosValidos_RetornaCertificacion() {
         when(usuarioService.obtenerUsuarioPorId(1L)).thenReturn(usuarioTest);
+        when(catalogoTipos.resolver("PROFESIONAL")).thenReturn("PROFESIONAL");
         when(certificacionRepository.save(any(Certificacion.class))).thenReturn(certificacionTest);
 
         Certificacion resultado = certificacionService.crearCertificacion(certificacionTest);
@@ -67,6 +89,7 @@ class CertificacionServiceTest {
         assertThat(resultado.getStatus()).isEqualTo(Certificacion.Status.PENDING);
         assertThat(resultado.getUsuario().getId()).isEqualTo(1L);
         verify(certificacionRepository).save(any(Certificacion.class));
+        verify(eventPublisher).publishEvent(any(CertificacionEvent.class));
     }
 
     @Test
@@ -136,23 +159,38 @@ class CertificacionServiceTest {
         assertThat(resultado).isNotNull();
         assertThat(resultado.getStatus()).isEqualTo(Certificacion.Status.IN_REVIEW);
         verify(certificacionRepository).save(any(Certificacion.class));
+        verify(eventPublisher).publishEvent(any(CertificacionEvent.class));
+    }
+
+    @Test
+    @DisplayName("Aprobar una certificación inicia un nuevo periodo de validez")
+    void actualizarEstadoCertificacion_Aprobada_FijaVencimiento() {
+        ReflectionTestUtils.setField(certificacionService, "validezPorDefecto", Duration.ofDays(365));
+        certificacionTest.setRecordatorioEnviado(true);
+        when(certificacionRepository.findById(1L)).thenReturn(Optional.of(certificacionTest));
+        when(certificacionRepository.save(any(Certificacion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Certificacion resultado = certificacionService.actualizarEstadoCertificacion(1L, Certificacion.Status.APPROVED);
+
+        assertThat(resultado.getFechaVencimiento()).isAfter(LocalDateTime.now().plusDays(364));
+        assertThat(resultado.isRecordatorioEnviado()).isFalse();
     }
 
     @Test
     @DisplayName("Eliminar certificación exitosamente")
     void eliminarCertificacion_IdExistente_EliminaCertificacion() {
-        when(certificacionRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(certificacionRepository).deleteById(1L);
+        when(certificacionRepository.findById(1L)).thenReturn(Optional.of(certificacionTest));
 
         certificacionService.eliminarCertificacion(1L);
 
-        verify(certificacionRepository).deleteById(1L);
+        verify(certificacionRepository).delete(certificacionTest);
+        verify(eventPublisher).publishEvent(any(CertificacionEvent.class));
     }
 
     @Test
     @DisplayName("Eliminar certificación inexistente lanza excepción")
     void eliminarCertificacion_IdInexistente_LanzaExcepcion() {
-        when(certificacionRepository.existsById(99L)).thenReturn(false);
+        when(certificacionRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> certificacionService.eliminarCertificacion(99L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -1,5 +1,6 @@
 package com.certificationapp.certification_system.service;
 
+import com.certificationapp.certification_system.event.DocumentoEvent;
 import com.certificationapp.certification_system.exception.ResourceNotFoundException;
 import com.certificationapp.certification_system.model.Certificacion;
 import com.certificationapp.certification_system.model.Documento;
@@ -12,7 +13,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -33,6 +38,16 @@ class DocumentoServiceTest {
     @Mock
     private CertificacionService certificacionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArchivoService archivoService;
+
+    // Ejecuta cada operación sin transacción real
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private DocumentoServiceImpl documentoService;
 
@@ -73,6 +88,7 @@ class DocumentoServiceTest {
         assertThat(resultado.getTipo()).isEqualTo("application/pdf");
         assertThat(resultado.getCertificacion().getId()).isEqualTo(1L);
         verify(documentoRepository).save(any(Documento.class));
+        verify(eventPublisher).publishEvent(any(DocumentoEvent.class));
     }
 
     @Test
@@ -119,18 +135,18 @@ class DocumentoServiceTest {
     @Test
     @DisplayName("Eliminar documento exitosamente")
     void eliminarDocumento_IdExistente_EliminaDocumento() {
-        when(documentoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(documentoRepository).deleteById(1L);
+        when(documentoRepository.findById(1L)).thenReturn(Optional.of(documentoTest));
 
         documentoService.eliminarDocumento(1L);
 
-        verify(documentoRepository).deleteById(1L);
+        verify(documentoRepository).delete(documentoTest);
+        verify(eventPublisher).publishEvent(any(DocumentoEvent.class));
     }
 
     @Test
     @DisplayName("Eliminar documento inexistente lanza excepción")
     void eliminarDocumento_IdInexistente_LanzaExcepcion() {
-        when(documentoRepository.existsById(99L)).thenReturn(false);
+        when(documentoRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> documentoService.eliminarDocumento(99L))
                 .isInstanceOf(ResourceNotFoundException.class)
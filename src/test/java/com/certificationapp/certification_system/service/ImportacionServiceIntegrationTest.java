@@ -0,0 +1,178 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.dto.ResultadoImportacionDTO;
+import com.certificationapp.certification_system.dto.ResultadoProvisionDTO;
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.ImportacionService.EntidadImportacion;
+import com.certificationapp.certification_system.service.ImportacionService.FormatoImportacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionServiceIntegrationTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private CatalogoTipos catalogoTipos;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void cleanup() {
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Provisionar usuarios devuelve el id o el error de cada fila en orden")
+    void provisionarUsuarios_FilasMixtas_ReportaCadaFila() {
+        Usuario existente = new Usuario();
+        existente.setUsername("Existente");
+        existente.setEmail("existente@example.com");
+        existente.setPassword("hash");
+        existente.setRole(Usuario.Role.USER);
+        usuarioRepository.save(existente);
+
+        ResultadoProvisionDTO resultado = importacionService.provisionarUsuarios(List.of(
+                usuario("ana", "ana@example.com"),
+                usuario("luis", "correo-invalido"),
+                usuario("otra", "ANA@example.com"),
+                usuario("existente", "nuevo@example.com"),
+                usuario("marta", "marta@example.com")));
+
+        assertThat(resultado.getUsuariosCreados()).isEqualTo(2);
+        assertThat(resultado.getUsuariosFallidos()).isEqualTo(3);
+        assertThat(resultado.getFilas()).extracting(ResultadoProvisionDTO.FilaProvisionDTO::getFila)
+                .containsExactly(1, 2, 3, 4, 5);
+        assertThat(resultado.getFilas()).extracting(ResultadoProvisionDTO.FilaProvisionDTO::getError)
+                .containsExactly(null, "email: Invalid email format", "Email already registered",
+                        "Username already taken", null);
+
+        Long idAna = resultado.getFilas().get(0).getId();
+        Usuario ana = usuarioRepository.findById(idAna).orElseThrow();
+        assertThat(ana.getUsername()).isEqualTo("ana");
+        assertThat(passwordEncoder.matches("secreto1", ana.getPassword())).isTrue();
+        assertThat(resultado.getFilas().get(4).getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Importar usuarios CSV reporta errores por fila sin abortar")
+    void importar_UsuariosCsv_ReportaErroresPorFila() throws Exception {
+        String csv = """
+                username,email,password
+                ana,ana@example.com,secreto1
+                luis,correo-invalido,secreto2
+                ana,otra@example.com,secreto3
+                "marta, jr",marta@example.com,secreto4
+                """;
+
+        ResultadoImportacionDTO resultado = importar(EntidadImportacion.USUARIOS, FormatoImportacion.CSV, csv);
+
+        assertThat(resultado.getFilasProcesadas()).isEqualTo(4);
+        assertThat(resultado.getFilasImportadas()).isEqualTo(2);
+        assertThat(resultado.getFilasFallidas()).isEqualTo(2);
+        assertThat(resultado.getErrores())
+                .extracting(ResultadoImportacionDTO.ErrorFilaDTO::getFila)
+                .containsExactly(3L, 4L);
+        assertThat(usuarioRepository.findByUsername("marta, jr")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Importar certificaciones NDJSON rechaza usuarios inexistentes")
+    void importar_CertificacionesNdjson_RechazaReferenciasInexistentes() throws Exception {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("importuser");
+        usuario.setEmail("import@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+
+        String ndjson = "{\"usuarioId\":" + usuario.getId() + ",\"tipo\":\"PROFESIONAL\"}\n" +
+                "{\"usuarioId\":999999,\"tipo\":\"PROFESIONAL\"}\n" +
+                "{\"usuarioId\":" + usuario.getId() + "}\n" +
+                "{no es json}\n" +
+                "{\"usuarioId\":" + usuario.getId() + ",\"tipo\":\"TECNICA\"}\n";
+
+        ResultadoImportacionDTO resultado = importar(EntidadImportacion.CERTIFICACIONES, FormatoImportacion.NDJSON, ndjson);
+
+        assertThat(resultado.getFilasImportadas()).isEqualTo(2);
+        assertThat(resultado.getErrores())
+                .extracting(ResultadoImportacionDTO.ErrorFilaDTO::getFila)
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(certificacionRepository.findByUsuario(usuario)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Importar documentos rechaza rutas fuera del directorio de subida")
+    void importar_DocumentosConRutaExterna_RechazaLaFila() throws Exception {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("docsuser");
+        usuario.setEmail("docs@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuarioRepository.save(usuario);
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(catalogoTipos.resolver("PROFESIONAL"));
+        certificacionRepository.save(certificacion);
+
+        String csv = "certificacionId,nombre,tipo,url,tamano\n" +
+                certificacion.getId() + ",bueno.pdf,application/pdf,bueno.pdf,10\n" +
+                certificacion.getId() + ",malo.pdf,application/pdf,../../etc/passwd,10\n" +
+                certificacion.getId() + ",absoluto.pdf,application/pdf,/etc/passwd,10\n";
+
+        ResultadoImportacionDTO resultado = importar(EntidadImportacion.DOCUMENTOS, FormatoImportacion.CSV, csv);
+
+        assertThat(resultado.getFilasImportadas()).isEqualTo(1);
+        assertThat(resultado.getErrores())
+                .extracting(ResultadoImportacionDTO.ErrorFilaDTO::getFila)
+                .containsExactly(3L, 4L);
+        assertThat(documentoRepository.findAll()).extracting(Documento::getUrl).containsExactly("bueno.pdf");
+    }
+
+    private ResultadoImportacionDTO importar(EntidadImportacion entidad, FormatoImportacion formato, String contenido)
+            throws Exception {
+        return importacionService.importar(entidad, formato,
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static UsuarioCreateDTO usuario(String username, String email) {
+        UsuarioCreateDTO dto = new UsuarioCreateDTO();
+        dto.setUsername(username);
+        dto.setEmail(email);
+        dto.setPassword("secreto1");
+        return dto;
+    }
+}
@@ -0,0 +1,99 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MigracionTiposServiceIntegrationTest {
+
+    @Autowired
+    private MigracionTiposService migracionTiposService;
+
+    @Autowired
+    private CatalogoTipos catalogoTipos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setup() {
+        usuario = new Usuario();
+        usuario.setUsername("legado");
+        usuario.setEmail("legado@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("ALTER TABLE certificaciones DROP COLUMN IF EXISTS tipo");
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Las filas con la columna de texto antigua pasan a la clave del catálogo")
+    void migrar_ColumnaDeTextoAntigua_ConvierteYLaElimina() {
+        jdbcTemplate.execute("ALTER TABLE certificaciones ADD COLUMN tipo VARCHAR(255)");
+        insertarLegada(900001L, " LEGADA ");
+        insertarLegada(900002L, "LEGADA");
+
+        assertThat(migracionTiposService.migrar()).isEqualTo(2);
+
+        Certificacion primera = certificacionRepository.findById(900001L).orElseThrow();
+        Certificacion segunda = certificacionRepository.findById(900002L).orElseThrow();
+        assertThat(primera.getTipo()).isEqualTo("LEGADA");
+        assertThat(segunda.getTipo()).isSameAs(primera.getTipo());
+        assertThat(catalogoTipos.nombres()).contains("LEGADA");
+        assertThat(migracionTiposService.migrar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Los nombres de tipo se normalizan y un nombre vacío se rechaza")
+    void resolver_Nombres_NormalizaYValida() {
+        assertThat(catalogoTipos.resolver("  NUEVO ")).isEqualTo("NUEVO").isSameAs(catalogoTipos.resolver("NUEVO"));
+        assertThatThrownBy(() -> catalogoTipos.resolver(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Guardar un tipo que no pasó por el catálogo falla sin registrarlo")
+    void idDe_NombreSinResolver_NoRegistra() {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo("SIN_RESOLVER");
+
+        assertThatThrownBy(() -> certificacionRepository.save(certificacion)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> catalogoTipos.idDe("SIN_RESOLVER")).isInstanceOf(IllegalStateException.class);
+        assertThat(catalogoTipos.nombres()).doesNotContain("SIN_RESOLVER");
+    }
+
+    private void insertarLegada(Long id, String tipo) {
+        jdbcTemplate.update("INSERT INTO certificaciones (id, usuario_id, tipo, status, fecha_actualizacion, " +
+                "recordatorio_enviado) VALUES (?, ?, ?, 'PENDING', CURRENT_TIMESTAMP, FALSE)", id, usuario.getId(), tipo);
+    }
+}
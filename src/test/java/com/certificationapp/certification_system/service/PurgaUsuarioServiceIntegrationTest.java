@@ -0,0 +1,222 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.PurgaUsuarioDTO;
+import com.certificationapp.certification_system.exception.ResourceNotFoundException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionArchivadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionEliminadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoArchivadoRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.PurgaUsuarioRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PurgaUsuarioServiceIntegrationTest {
+
+    @Autowired
+    private PurgaUsuarioService purgaUsuarioService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private CertificacionArchivadaRepository certificacionArchivadaRepository;
+
+    @Autowired
+    private DocumentoArchivadoRepository documentoArchivadoRepository;
+
+    @Autowired
+    private CertificacionEliminadaRepository certificacionEliminadaRepository;
+
+    @Autowired
+    private PurgaUsuarioRepository purgaUsuarioRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    @Autowired
+    private CertificadoService certificadoService;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    private Usuario usuario;
+    private final List<Path> archivos = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        usuario = new Usuario();
+        usuario.setUsername("purga");
+        usuario.setEmail("purga@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        ReflectionTestUtils.setField(archivoSinProxy(), "antiguedadMinima", Duration.ofDays(180));
+        certificadoRepository.deleteAll();
+        documentoArchivadoRepository.deleteAll();
+        certificacionArchivadaRepository.deleteAll();
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        certificacionEliminadaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        purgaUsuarioRepository.deleteAll();
+        for (Path archivo : archivos) {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    @DisplayName("Eliminar un usuario borra por lotes sus certificaciones, documentos y ficheros")
+    void solicitarPurga_UsuarioConDatos_LoEliminaTodo() throws Exception {
+        Certificacion archivada = crearCertificacion();
+        crearDocumento(archivada);
+        certificacionService.actualizarEstadoCertificacion(archivada.getId(), Certificacion.Status.REJECTED);
+        ReflectionTestUtils.setField(archivoSinProxy(), "antiguedadMinima", Duration.ZERO);
+        archivoService.archivar();
+        for (int i = 0; i < 3; i++) {
+            crearDocumento(crearCertificacion());
+        }
+
+        PurgaUsuarioDTO solicitada = purgaUsuarioService.solicitarPurga(usuario.getId());
+        assertThat(solicitada.getEstado()).isIn("PENDIENTE", "EN_CURSO", "COMPLETADA");
+
+        PurgaUsuarioDTO purga = esperarFin(usuario.getId());
+        assertThat(purga.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(purga.getCertificacionesEliminadas()).isEqualTo(4);
+        assertThat(purga.getDocumentosEliminados()).isEqualTo(4);
+        assertThat(purga.getArchivosEliminados()).isEqualTo(4);
+        assertThat(purga.getArchivosFallidos()).isZero();
+
+        assertThat(usuarioRepository.existsById(usuario.getId())).isFalse();
+        assertThat(certificacionRepository.count()).isZero();
+        assertThat(documentoRepository.count()).isZero();
+        assertThat(certificacionArchivadaRepository.count()).isZero();
+        assertThat(documentoArchivadoRepository.count()).isZero();
+        assertThat(certificacionEliminadaRepository.count()).isEqualTo(3);
+        assertThat(archivos).noneMatch(Files::exists);
+    }
+
+    @Test
+    @DisplayName("Eliminar un usuario revoca los certificados de sus certificaciones archivadas y las retira de la búsqueda")
+    void solicitarPurga_ArchivadaAprobada_RevocaCertificadoYLimpiaBusqueda() throws Exception {
+        Certificacion aprobada = crearCertificacion();
+        crearDocumento(aprobada);
+        certificacionService.actualizarEstadoCertificacion(aprobada.getId(), Certificacion.Status.APPROVED);
+        String codigo = certificadoRepository.findByCertificacionIdAndRevocadoFalse(aprobada.getId()).get(0).getCodigo();
+        // Solo se archivan las aprobadas sin vencimiento
+        Certificacion sinVencimiento = certificacionRepository.findById(aprobada.getId()).orElseThrow();
+        sinVencimiento.setFechaVencimiento(null);
+        certificacionRepository.save(sinVencimiento);
+        ReflectionTestUtils.setField(archivoSinProxy(), "antiguedadMinima", Duration.ZERO);
+        assertThat(archivoService.archivar()).isEqualTo(1);
+        assertThat(certificadoService.verificar(codigo).isValido()).isTrue();
+        // El archivado ya la retira de la búsqueda
+        assertThat(idsEncontrados("purga-" + aprobada.getId())).doesNotContain(aprobada.getId());
+
+        purgaUsuarioService.solicitarPurga(usuario.getId());
+        assertThat(esperarFin(usuario.getId()).getEstado()).isEqualTo("COMPLETADA");
+
+        assertThat(certificadoRepository.findByCertificacionIdAndRevocadoFalse(aprobada.getId())).isEmpty();
+        assertThat(certificadoService.verificar(codigo).isValido()).isFalse();
+        assertThat(idsEncontrados("PROFESIONAL")).doesNotContain(aprobada.getId());
+        assertThat(idsEncontrados("purga-" + aprobada.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Eliminar un usuario inexistente lanza excepción")
+    void solicitarPurga_UsuarioInexistente_LanzaExcepcion() {
+        assertThatThrownBy(() -> purgaUsuarioService.solicitarPurga(999999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private PurgaUsuarioDTO esperarFin(Long usuarioId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        PurgaUsuarioDTO purga = purgaUsuarioService.obtenerPurga(usuarioId);
+        while (purga.getEstado().equals("PENDIENTE") || purga.getEstado().equals("EN_CURSO")) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando la purga").isLessThan(limite);
+            Thread.sleep(20);
+            purga = purgaUsuarioService.obtenerPurga(usuarioId);
+        }
+        return purga;
+    }
+
+    private List<Long> idsEncontrados(String consulta) {
+        return busquedaService.buscar(consulta, BusquedaService.ModoBusqueda.PREFIJO,
+                        Set.of(BusquedaService.TipoResultado.CERTIFICACION, BusquedaService.TipoResultado.DOCUMENTO), 0, 1000)
+                .getResultados().stream()
+                .map(resultado -> resultado.getTipo().equals("DOCUMENTO") ? resultado.getReferenciaId() : resultado.getId())
+                .toList();
+    }
+
+    private Object archivoSinProxy() {
+        return AopTestUtils.getTargetObject(archivoService);
+    }
+
+    private Certificacion crearCertificacion() {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo("PROFESIONAL");
+        return certificacionService.crearCertificacion(certificacion);
+    }
+
+    private void crearDocumento(Certificacion certificacion) throws IOException {
+        String nombre = "purga-" + certificacion.getId() + ".pdf";
+        Path archivo = fileStorageService.getFileStorageLocation().resolve(nombre);
+        Files.writeString(archivo, "contenido");
+        archivos.add(archivo);
+
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacion);
+        documento.setNombre(nombre);
+        documento.setTipo("application/pdf");
+        documento.setUrl(nombre);
+        documentoService.guardarDocumento(documento);
+    }
+}
@@ -0,0 +1,148 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.config.ReglasProperties;
+import com.certificationapp.certification_system.dto.ComprobacionReglasDTO;
+import com.certificationapp.certification_system.dto.ResultadoReglasDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReglasServiceIntegrationTest {
+
+    @Autowired
+    private ReglasService reglasService;
+
+    @Autowired
+    private ReglasProperties reglasProperties;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setup() {
+        usuario = new Usuario();
+        usuario.setUsername("reglas");
+        usuario.setEmail("reglas@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @AfterEach
+    void cleanup() {
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Una certificación incompleta se marca y se vuelve a evaluar al añadir el documento")
+    void evaluarPendientes_FaltaDocumento_MarcaYReevalua() {
+        Certificacion certificacion = crearCertificacion("REGLADA");
+
+        assertThat(reglasService.evaluarPendientes()).isEqualTo(1);
+        Certificacion marcada = recargar(certificacion);
+        assertThat(marcada.getStatus()).isEqualTo(Certificacion.Status.PENDING);
+        assertThat(marcada.getIncumplimientosReglas()).contains("MISSING_REQUIRED_TYPE");
+        assertThat(reglasService.evaluarPendientes()).isZero();
+
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacionService.obtenerCertificacionPorId(certificacion.getId()));
+        documento.setNombre("titulo.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("titulo.pdf");
+        documento.setTamano(512L);
+        documentoService.guardarDocumento(documento);
+
+        assertThat(reglasService.evaluarPendientes()).isEqualTo(1);
+        assertThat(recargar(certificacion).getIncumplimientosReglas()).isNull();
+    }
+
+    @Test
+    @DisplayName("Los tipos configurados para rechazar se rechazan automáticamente")
+    void evaluarPendientes_AccionRechazar_RechazaCertificacion() {
+        Certificacion certificacion = crearCertificacion("ESTRICTA");
+        Certificacion sinReglas = crearCertificacion("LIBRE");
+
+        reglasService.evaluarPendientes();
+
+        assertThat(recargar(certificacion).getStatus()).isEqualTo(Certificacion.Status.REJECTED);
+        assertThat(recargar(certificacion).getIncumplimientosReglas()).contains("TOO_FEW_DOCUMENTS");
+        assertThat(recargar(sinReglas).getStatus()).isEqualTo(Certificacion.Status.PENDING);
+        assertThat(recargar(sinReglas).getIncumplimientosReglas()).isNull();
+    }
+
+    @Test
+    @DisplayName("Una certificación recién creada no se evalúa hasta que pasa el periodo de gracia")
+    void evaluarPendientes_DentroDelPeriodoDeGracia_NoRechaza() {
+        Duration original = reglasProperties.getGracePeriod();
+        reglasProperties.setGracePeriod(Duration.ofHours(1));
+        try {
+            Certificacion certificacion = crearCertificacion("ESTRICTA");
+
+            assertThat(reglasService.evaluarPendientes()).isZero();
+            assertThat(recargar(certificacion).getStatus()).isEqualTo(Certificacion.Status.PENDING);
+            assertThat(recargar(certificacion).getFechaEvaluacion()).isNull();
+        } finally {
+            reglasProperties.setGracePeriod(original);
+        }
+    }
+
+    @Test
+    @DisplayName("La comprobación previa informa de los incumplimientos sin guardar nada")
+    void comprobar_DocumentoDemasiadoGrande_NoCumple() {
+        ComprobacionReglasDTO.DocumentoPropuestoDTO documento = new ComprobacionReglasDTO.DocumentoPropuestoDTO();
+        documento.setTipo("application/pdf");
+        documento.setTamano(4096L);
+        ComprobacionReglasDTO comprobacion = new ComprobacionReglasDTO();
+        comprobacion.setTipo("REGLADA");
+        comprobacion.getDocumentos().add(documento);
+
+        ResultadoReglasDTO resultado = reglasService.comprobar(comprobacion);
+
+        assertThat(resultado.isCumple()).isFalse();
+        assertThat(resultado.getIncumplimientos()).extracting(ResultadoReglasDTO.IncumplimientoDTO::getRegla)
+                .containsExactly("FILE_TOO_LARGE");
+    }
+
+    private Certificacion crearCertificacion(String tipo) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(tipo);
+        return certificacionService.crearCertificacion(certificacion);
+    }
+
+    private Certificacion recargar(Certificacion certificacion) {
+        return certificacionRepository.findById(certificacion.getId()).orElseThrow();
+    }
+}
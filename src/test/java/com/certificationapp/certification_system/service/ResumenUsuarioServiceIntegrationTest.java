@@ -0,0 +1,132 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.ResumenUsuarioDTO;
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.exception.ResourceNotFoundException;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.ResumenUsuarioRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumenUsuarioServiceIntegrationTest {
+
+    @Autowired
+    private ResumenUsuarioService resumenUsuarioService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private ResumenUsuarioRepository resumenUsuarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setup() {
+        UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+        createDTO.setUsername("resumen");
+        createDTO.setEmail("resumen@example.com");
+        createDTO.setPassword("password123");
+        usuario = usuarioService.crearUsuario(createDTO);
+    }
+
+    @AfterEach
+    void cleanup() {
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        resumenUsuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("El resumen sigue a cada alta, cambio de estado y eliminación")
+    void obtenerResumen_TrasEscrituras_ReflejaLosCambios() {
+        Certificacion primera = crearCertificacion("PROFESIONAL");
+        Certificacion segunda = crearCertificacion("TECNICA");
+        crearDocumento(primera, 100L);
+        crearDocumento(segunda, 250L);
+        certificacionService.actualizarEstadoCertificacion(primera.getId(), Certificacion.Status.APPROVED);
+
+        ResumenUsuarioDTO resumen = resumenUsuarioService.obtenerResumen(usuario.getId());
+        assertThat(resumen.getTotal()).isEqualTo(2);
+        assertThat(resumen.getPorEstado()).containsEntry("PENDING", 1L).containsEntry("APPROVED", 1L);
+        assertThat(resumen.getUltimaCertificacion().getId()).isEqualTo(segunda.getId());
+        assertThat(resumen.getBytesDocumentos()).isEqualTo(350);
+
+        certificacionService.eliminarCertificacion(segunda.getId());
+
+        resumen = resumenUsuarioService.obtenerResumen(usuario.getId());
+        assertThat(resumen.getTotal()).isEqualTo(1);
+        assertThat(resumen.getPorEstado()).containsEntry("PENDING", 0L).containsEntry("APPROVED", 1L);
+        assertThat(resumen.getUltimaCertificacion().getId()).isEqualTo(primera.getId());
+        assertThat(resumen.getUltimaCertificacion().getStatus()).isEqualTo("APPROVED");
+        assertThat(resumen.getBytesDocumentos()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Un usuario sin resumen lo obtiene calculado de las tablas")
+    void crearResumenesFaltantes_UsuarioSinResumen_LoCalcula() {
+        Certificacion certificacion = crearCertificacion("PROFESIONAL");
+        crearDocumento(certificacion, 42L);
+        resumenUsuarioRepository.deleteAll();
+
+        assertThat(resumenUsuarioService.obtenerResumen(usuario.getId()).getBytesDocumentos()).isEqualTo(42);
+        assertThat(resumenUsuarioService.crearResumenesFaltantes()).isEqualTo(1);
+        assertThat(resumenUsuarioRepository.findById(usuario.getId()))
+                .hasValueSatisfying(resumen -> assertThat(resumen.getPendientes()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("El resumen de un usuario inexistente devuelve no encontrado")
+    void obtenerResumen_UsuarioInexistente_LanzaExcepcion() {
+        assertThatThrownBy(() -> resumenUsuarioService.obtenerResumen(999999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Certificacion crearCertificacion(String tipo) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(tipo);
+        return certificacionService.crearCertificacion(certificacion);
+    }
+
+    private void crearDocumento(Certificacion certificacion, Long tamano) {
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacion);
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(tamano);
+        documentoService.guardarDocumento(documento);
+    }
+}
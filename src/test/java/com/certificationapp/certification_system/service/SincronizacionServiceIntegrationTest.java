@@ -0,0 +1,124 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.dto.CambiosCertificacionesDTO;
+import com.certificationapp.certification_system.dto.CertificacionResponseDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionEliminadaRepository;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SincronizacionServiceIntegrationTest {
+
+    @Autowired
+    private SincronizacionService sincronizacionService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private CertificacionEliminadaRepository eliminadaRepository;
+
+    private Usuario usuario;
+    private Usuario otroUsuario;
+
+    @BeforeEach
+    void setup() {
+        usuario = crearUsuario("syncuser");
+        otroUsuario = crearUsuario("otrosync");
+    }
+
+    @AfterEach
+    void cleanup() {
+        eliminadaRepository.deleteAll();
+        documentoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("La sincronización inicial se pagina y después solo devuelve los cambios")
+    void obtenerCambios_TrasSincronizacionInicial_DevuelveSoloCambios() {
+        Certificacion actualizada = crearCertificacion(usuario, "PROFESIONAL");
+        Certificacion conDocumento = crearCertificacion(usuario, "TECNICA");
+        Certificacion eliminada = crearCertificacion(usuario, "IDIOMAS");
+        crearCertificacion(otroUsuario, "AJENA");
+
+        CambiosCertificacionesDTO primera = sincronizacionService.obtenerCambios(usuario.getId(), null, 2);
+        assertThat(primera.getModificadas()).hasSize(2);
+        assertThat(primera.isHayMas()).isTrue();
+
+        CambiosCertificacionesDTO segunda = sincronizacionService.obtenerCambios(usuario.getId(), primera.getCursor(), 2);
+        assertThat(segunda.getModificadas()).hasSize(1);
+        assertThat(segunda.isHayMas()).isFalse();
+
+        String cursor = segunda.getCursor();
+        assertThat(sincronizacionService.obtenerCambios(usuario.getId(), cursor, 2).getModificadas()).isEmpty();
+
+        certificacionService.actualizarEstadoCertificacion(actualizada.getId(), Certificacion.Status.APPROVED);
+        Documento documento = new Documento();
+        documento.setCertificacion(conDocumento);
+        documento.setNombre("titulo.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("titulo.pdf");
+        documentoService.guardarDocumento(documento);
+        certificacionService.eliminarCertificacion(eliminada.getId());
+
+        CambiosCertificacionesDTO cambios = sincronizacionService.obtenerCambios(usuario.getId(), cursor, 10);
+
+        assertThat(cambios.getModificadas()).extracting(CertificacionResponseDTO::getId)
+                .containsExactlyInAnyOrder(actualizada.getId(), conDocumento.getId());
+        assertThat(cambios.getEliminadas()).extracting(CambiosCertificacionesDTO.EliminadaDTO::getCertificacionId)
+                .containsExactly(eliminada.getId());
+        assertThat(cambios.isHayMas()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un cursor mal formado se rechaza")
+    void obtenerCambios_CursorInvalido_LanzaExcepcion() {
+        assertThatThrownBy(() -> sincronizacionService.obtenerCambios(usuario.getId(), "no-es-un-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Usuario crearUsuario(String username) {
+        Usuario nuevo = new Usuario();
+        nuevo.setUsername(username);
+        nuevo.setEmail(username + "@example.com");
+        nuevo.setPassword("hashedpassword");
+        nuevo.setRole(Usuario.Role.USER);
+        return usuarioRepository.save(nuevo);
+    }
+
+    private Certificacion crearCertificacion(Usuario propietario, String tipo) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(propietario);
+        certificacion.setTipo(tipo);
+        return certificacionService.crearCertificacion(certificacion);
+    }
+}
@@ -5,6 +5,7 @@ import com.certificationapp.certification_system.exception.ResourceNotFoundExcep
 import com.certificationapp.certification_system.model.Usuario;
 import com.certificationapp.certification_system.repository.UsuarioRepository;
 import com.certificationapp.certification_system.service.impl.UsuarioServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,8 +13,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +37,12 @@ class UsuarioServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DisponibilidadService disponibilidadService;
+
     @InjectMocks
     private UsuarioServiceImpl usuarioService;
 
@@ -57,10 +67,8 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Crear usuario exitosamente cuando los datos son válidos")
     void crearUsuario_ConDatosValidos_RetornaUsuarioCreado() {
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
-        when(usuarioRepository.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
-        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioTest);
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenReturn(usuarioTest);
 
         Usuario resultado = usuarioService.crearUsuario(createDTO);
 
@@ -74,7 +82,8 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Crear usuario falla cuando el email ya existe")
     void crearUsuario_EmailExistente_LanzaExcepcion() {
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenThrow(violacion(Usuario.UK_EMAIL));
 
         assertThatThrownBy(() -> usuarioService.crearUsuario(createDTO))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -84,8 +93,8 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Crear usuario falla cuando username ya existe")
     void crearUsuario_UsernameExistente_LanzaExcepcion() {
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
-        when(usuarioRepository.existsByUsername(anyString())).thenReturn(true);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenThrow(violacion(Usuario.UK_USERNAME));
 
         assertThatThrownBy(() -> usuarioService.crearUsuario(createDTO))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -101,9 +110,7 @@ class UsuarioServiceTest {
         usuarioActualizado.setEmail("updated@example.com");
 
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioTest));
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
-        when(usuarioRepository.existsByUsername(anyString())).thenReturn(false);
-        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioActualizado);
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenReturn(usuarioActualizado);
 
         Usuario resultado = usuarioService.actualizarUsuario(1L, usuarioActualizado);
 
@@ -112,6 +119,21 @@ class UsuarioServiceTest {
         assertThat(resultado.getEmail()).isEqualTo("updated@example.com");
     }
 
+    @Test
+    @DisplayName("Actualizar usuario falla cuando el email pertenece a otro usuario")
+    void actualizarUsuario_EmailDeOtroUsuario_LanzaExcepcion() {
+        Usuario usuarioActualizado = new Usuario();
+        usuarioActualizado.setUsername("testuser");
+        usuarioActualizado.setEmail("Otro@Example.com");
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioTest));
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenThrow(violacion(Usuario.UK_EMAIL));
+
+        assertThatThrownBy(() -> usuarioService.actualizarUsuario(1L, usuarioActualizado))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("El email ya está registrado");
+    }
+
     @Test
     @DisplayName("Eliminar usuario exitosamente")
     void eliminarUsuario_IdExistente_EliminaUsuario() {
@@ -146,13 +168,11 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Crear usuario con rol específico")
     void crearUsuario_ConRolEspecifico_AsignaRolCorrecto() {
-        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
-        when(usuarioRepository.existsByUsername(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
 
         Usuario usuarioAdmin = new Usuario();
         usuarioAdmin.setRole(Usuario.Role.ADMIN);
-        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuarioAdmin);
+        when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenReturn(usuarioAdmin);
 
         Usuario resultado = usuarioService.crearUsuario(createDTO);
 
@@ -187,7 +207,7 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Verificar existencia de username")
     void existeUsername_UsernameExistente_RetornaTrue() {
-        when(usuarioRepository.existsByUsername("testuser")).thenReturn(true);
+        when(disponibilidadService.usernameOcupado("testuser")).thenReturn(true);
 
         boolean resultado = usuarioService.existeUsername("testuser");
 
@@ -197,10 +217,15 @@ class UsuarioServiceTest {
     @Test
     @DisplayName("Verificar existencia de email")
     void existeEmail_EmailExistente_RetornaTrue() {
-        when(usuarioRepository.existsByEmail("test@example.com")).thenReturn(true);
+        when(disponibilidadService.emailOcupado("test@example.com")).thenReturn(true);
 
         boolean resultado = usuarioService.existeEmail("test@example.com");
 
         assertThat(resultado).isTrue();
     }
-}
\ No newline at end of file
+
+    private static DataIntegrityViolationException violacion(String restriccion) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), restriccion));
+    }
+}
@@ -0,0 +1,129 @@
+package com.certificationapp.certification_system.service;
+
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.CertificadoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VencimientoServiceIntegrationTest {
+
+    @Autowired
+    private VencimientoService vencimientoService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private CertificadoRepository certificadoRepository;
+
+    private Certificacion certificacion;
+
+    @BeforeEach
+    void setup() {
+        Usuario usuario = new Usuario();
+        usuario.setUsername("vencimiento");
+        usuario.setEmail("vencimiento@example.com");
+        usuario.setPassword("hashedpassword");
+        usuario.setRole(Usuario.Role.USER);
+        usuario = usuarioRepository.save(usuario);
+
+        certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo("PROFESIONAL");
+        certificacion = certificacionService.crearCertificacion(certificacion);
+        certificacion = certificacionService.actualizarEstadoCertificacion(
+                certificacion.getId(), Certificacion.Status.APPROVED);
+    }
+
+    @AfterEach
+    void cleanup() {
+        certificadoRepository.deleteAll();
+        certificacionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Aprobar fija la validez por defecto")
+    void actualizarEstado_Aprobada_TieneVencimiento() {
+        assertThat(certificacion.getFechaVencimiento()).isAfter(LocalDateTime.now().plusDays(364));
+        assertThat(vencimientoService.programarProximos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Una certificación cuya validez termina pasa a EXPIRED y se revoca su certificado")
+    void programarProximos_ValidezTerminada_Vence() throws InterruptedException {
+        cambiarVencimiento(LocalDateTime.now().plusSeconds(1));
+
+        assertThat(vencimientoService.programarProximos()).isEqualTo(2);
+
+        esperarHasta(() -> estado() == Certificacion.Status.EXPIRED);
+        Certificacion vencida = certificacionRepository.findById(certificacion.getId()).orElseThrow();
+        assertThat(vencida.isRecordatorioEnviado()).isTrue();
+        assertThat(certificadoRepository.findAll()).allMatch(certificado -> certificado.isRevocado());
+    }
+
+    @Test
+    @DisplayName("Dentro del plazo de aviso se marca la renovación pendiente sin vencer")
+    void programarProximos_DentroDelAviso_EnviaRecordatorio() throws InterruptedException {
+        cambiarVencimiento(LocalDateTime.now().plusDays(10));
+
+        assertThat(vencimientoService.programarProximos()).isEqualTo(1);
+
+        esperarHasta(() -> certificacionRepository.findById(certificacion.getId()).orElseThrow().isRecordatorioEnviado());
+        assertThat(estado()).isEqualTo(Certificacion.Status.APPROVED);
+        assertThat(vencimientoService.programarProximos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Volver a aprobar una certificación vencida renueva su validez")
+    void actualizarEstado_VencidaReaprobada_Renueva() throws InterruptedException {
+        cambiarVencimiento(LocalDateTime.now().minusMinutes(1));
+        vencimientoService.programarProximos();
+        esperarHasta(() -> estado() == Certificacion.Status.EXPIRED);
+
+        Certificacion renovada = certificacionService.actualizarEstadoCertificacion(
+                certificacion.getId(), Certificacion.Status.APPROVED);
+
+        assertThat(renovada.getFechaVencimiento()).isAfter(LocalDateTime.now().plusDays(364));
+        assertThat(renovada.isRecordatorioEnviado()).isFalse();
+    }
+
+    private void cambiarVencimiento(LocalDateTime fecha) {
+        Certificacion actual = certificacionRepository.findById(certificacion.getId()).orElseThrow();
+        actual.setFechaVencimiento(fecha);
+        certificacionRepository.save(actual);
+    }
+
+    private Certificacion.Status estado() {
+        return certificacionRepository.findById(certificacion.getId()).orElseThrow().getStatus();
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando el vencimiento").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+}
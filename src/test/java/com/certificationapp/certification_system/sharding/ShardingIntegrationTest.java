@@ -0,0 +1,547 @@
+package com.certificationapp.certification_system.sharding;
+
+import com.certificationapp.certification_system.catalog.CatalogoTipos;
+import com.certificationapp.certification_system.dto.CambiosCertificacionesDTO;
+import com.certificationapp.certification_system.dto.CertificacionResponseDTO;
+import com.certificationapp.certification_system.dto.DocumentoResponseDTO;
+import com.certificationapp.certification_system.dto.PurgaUsuarioDTO;
+import com.certificationapp.certification_system.dto.ResultadoImportacionDTO;
+import com.certificationapp.certification_system.dto.UsuarioCreateDTO;
+import com.certificationapp.certification_system.model.Certificacion;
+import com.certificationapp.certification_system.model.Documento;
+import com.certificationapp.certification_system.model.Usuario;
+import com.certificationapp.certification_system.repository.CertificacionRepository;
+import com.certificationapp.certification_system.repository.DocumentoRepository;
+import com.certificationapp.certification_system.repository.UsuarioRepository;
+import com.certificationapp.certification_system.service.ArchivoService;
+import com.certificationapp.certification_system.service.CertificacionExportService;
+import com.certificationapp.certification_system.service.CertificacionService;
+import com.certificationapp.certification_system.service.DocumentoService;
+import com.certificationapp.certification_system.service.ImportacionService;
+import com.certificationapp.certification_system.service.PurgaUsuarioService;
+import com.certificationapp.certification_system.service.ResumenUsuarioService;
+import com.certificationapp.certification_system.service.SincronizacionService;
+import com.certificationapp.certification_system.service.UsuarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Three embedded databases: the regular test database as shard 0 and two more in PostgreSQL
+ * mode, whose schema comes from the migrations.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.enabled=true",
+        "app.sharding.outbox-interval=PT1H",
+        "app.sharding.shards[0].name=shard-1",
+        "app.sharding.shards[0].url=" + ShardingIntegrationTest.SHARD_1,
+        "app.sharding.shards[1].name=shard-2",
+        "app.sharding.shards[1].url=" + ShardingIntegrationTest.SHARD_2
+})
+class ShardingIntegrationTest {
+
+    static final String SHARD_1 = "jdbc:h2:mem:shard1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard2;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CertificacionService certificacionService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private ResumenUsuarioService resumenUsuarioService;
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private CertificacionExportService exportService;
+
+    @Autowired
+    private SincronizacionService sincronizacionService;
+
+    @Autowired
+    private PurgaUsuarioService purgaUsuarioService;
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private CatalogoTipos catalogoTipos;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CertificacionRepository certificacionRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardTransactions shardTransactions;
+
+    @Autowired
+    private ShardOutbox shardOutbox;
+
+    // Un usuario por shard
+    private final Map<Integer, Usuario> usuarios = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; usuarios.size() < shards.shardCount() && i < 10; i++) {
+            UsuarioCreateDTO createDTO = new UsuarioCreateDTO();
+            createDTO.setUsername("shard" + i);
+            createDTO.setEmail("shard" + i + "@example.com");
+            createDTO.setPassword("password123");
+            Usuario usuario = usuarioService.crearUsuario(createDTO);
+            usuarios.putIfAbsent(ShardKeys.shardOf(usuario.getId()), usuario);
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.shard(shard));
+            jdbcTemplate.update("DELETE FROM documentos_archivo");
+            jdbcTemplate.update("DELETE FROM certificaciones_archivo");
+            jdbcTemplate.update("DELETE FROM documentos");
+            jdbcTemplate.update("DELETE FROM certificaciones");
+            jdbcTemplate.update("DELETE FROM tareas_pendientes");
+            if (shard > 0) {
+                jdbcTemplate.update("DELETE FROM usuarios");
+            }
+        }
+        new JdbcTemplate(shards.shard(0)).update("DELETE FROM certificaciones_eliminadas");
+        new JdbcTemplate(shards.shard(0)).update("DELETE FROM purgas_usuario");
+        new JdbcTemplate(shards.shard(0)).update("DELETE FROM certificados");
+        usuarioRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cada certificación se guarda en el shard de su usuario y su id lo indica")
+    void save_UsuariosDeVariosShards_GuardaEnElShardDelUsuario() {
+        assertThat(usuarios).containsOnlyKeys(0, 1, 2);
+
+        for (Map.Entry<Integer, Usuario> entry : usuarios.entrySet()) {
+            int shard = entry.getKey();
+            Certificacion certificacion = certificacionRepository.save(nueva(entry.getValue()));
+
+            assertThat(ShardKeys.shardOf(certificacion.getId())).isEqualTo(shard);
+            assertThat(filas(shard, "certificaciones", certificacion.getId())).isEqualTo(1);
+            assertThat(certificacionRepository.findById(certificacion.getId())).isPresent();
+            assertThat(certificacionRepository.findByUsuario(entry.getValue()))
+                    .extracting(Certificacion::getId).containsExactly(certificacion.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Los documentos van al shard de su certificación")
+    void save_Documento_GuardaEnElShardDeSuCertificacion() {
+        Certificacion certificacion = certificacionRepository.save(nueva(usuarios.get(2)));
+
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacion);
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(10L);
+        documento = documentoRepository.save(documento);
+
+        assertThat(ShardKeys.shardOf(documento.getId())).isEqualTo(2);
+        assertThat(filas(2, "documentos", documento.getId())).isEqualTo(1);
+        assertThat(documentoRepository.findByCertificacion(certificacion)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Las consultas por estado reúnen todos los shards en orden de id y paginan por clave")
+    void findByStatus_VariosShards_UneResultadosOrdenados() {
+        List<Long> creadas = new ArrayList<>();
+        for (Usuario usuario : usuarios.values()) {
+            creadas.add(certificacionRepository.save(nueva(usuario)).getId());
+            creadas.add(certificacionRepository.save(nueva(usuario)).getId());
+        }
+        creadas.sort(null);
+
+        assertThat(certificacionRepository.findByStatus(Certificacion.Status.PENDING))
+                .extracting(Certificacion::getId).containsExactlyElementsOf(creadas);
+        assertThat(certificacionRepository.count()).isEqualTo(6);
+
+        List<Certificacion> primera = certificacionRepository.findByStatusAndIdGreaterThanOrderById(
+                Certificacion.Status.PENDING, 0L, PageRequest.ofSize(4));
+        List<Certificacion> segunda = certificacionRepository.findByStatusAndIdGreaterThanOrderById(
+                Certificacion.Status.PENDING, primera.get(3).getId(), PageRequest.ofSize(4));
+        assertThat(primera).extracting(Certificacion::getId).containsExactlyElementsOf(creadas.subList(0, 4));
+        assertThat(segunda).extracting(Certificacion::getId).containsExactlyElementsOf(creadas.subList(4, 6));
+    }
+
+    @Test
+    @DisplayName("Una transacción no puede pasar de un shard a otro")
+    void transaccion_DatosDeOtroShard_LanzaExcepcion() {
+        Usuario primero = usuarios.get(1);
+        Usuario segundo = usuarios.get(2);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            certificacionRepository.contarPorEstadoDeUsuario(primero.getId());
+            certificacionRepository.findByUsuario_IdOrderById(segundo.getId(), PageRequest.ofSize(10));
+        })).isInstanceOf(IllegalStateException.class).hasMessageContaining("shard 1");
+    }
+
+    @Test
+    @DisplayName("Crear una certificación desde el servicio la guarda en el shard del usuario y el resumen en el shard 0")
+    void crearCertificacion_UsuarioDeOtroShard_GuardaEnSuShard() {
+        Usuario usuario = usuarios.get(2);
+
+        Certificacion creada = certificacionService.crearCertificacion(solicitud(usuario));
+
+        assertThat(ShardKeys.shardOf(creada.getId())).isEqualTo(2);
+        assertThat(filas(2, "certificaciones", creada.getId())).isEqualTo(1);
+        assertThat(resumenUsuarioService.obtenerResumen(usuario.getId()).getPorEstado())
+                .containsEntry(Certificacion.Status.PENDING.name(), 1L);
+        assertThat(new JdbcTemplate(shards.shard(2)).queryForObject(
+                "SELECT COUNT(*) FROM resumenes_usuario", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Las certificaciones de un usuario se leen de su shard aunque el usuario esté en caché")
+    void obtenerCertificacionesPorUsuario_UsuarioDeOtroShard_DevuelveLasSuyas() {
+        Usuario usuario = usuarios.get(1);
+        Long primera = certificacionService.crearCertificacion(solicitud(usuario)).getId();
+        Long segunda = certificacionService.crearCertificacion(solicitud(usuario)).getId();
+        usuarioService.obtenerUsuarioPorId(usuario.getId());
+
+        List<Certificacion> certificaciones = certificacionService.obtenerCertificacionesPorUsuario(usuario.getId());
+
+        assertThat(certificaciones).extracting(Certificacion::getId).containsExactlyInAnyOrder(primera, segunda);
+        assertThat(certificaciones).allSatisfy(certificacion -> assertThat(certificacion.getDocumentos()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Subir un documento desde el servicio lo guarda en el shard de la certificación")
+    void guardarDocumento_CertificacionDeOtroShard_GuardaEnSuShard() {
+        Usuario usuario = usuarios.get(2);
+        Long certificacionId = certificacionService.crearCertificacion(solicitud(usuario)).getId();
+
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacionService.obtenerCertificacionPorId(certificacionId));
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(10L);
+        Documento guardado = documentoService.guardarDocumento(documento);
+
+        assertThat(ShardKeys.shardOf(guardado.getId())).isEqualTo(2);
+        assertThat(filas(2, "documentos", guardado.getId())).isEqualTo(1);
+        assertThat(documentoService.obtenerDocumentosPorCertificacion(certificacionId))
+                .extracting(Documento::getId).containsExactly(guardado.getId());
+        assertThat(resumenUsuarioService.obtenerResumen(usuario.getId()).getBytesDocumentos()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("La importación masiva guarda cada fila en el shard de su propietario")
+    void importar_FilasDeVariosShards_GuardaCadaUnaEnSuShard() throws IOException {
+        Usuario enShard0 = usuarios.get(0);
+        Usuario enShard1 = usuarios.get(1);
+        String certificaciones = "{\"usuarioId\":" + enShard1.getId() + ",\"tipo\":\"PROFESIONAL\"}\n"
+                + "{\"usuarioId\":" + enShard0.getId() + ",\"tipo\":\"PROFESIONAL\"}\n"
+                + "{\"usuarioId\":" + enShard1.getId() + ",\"tipo\":\"PROFESIONAL\"}\n";
+
+        ResultadoImportacionDTO resultado = importacionService.importar(ImportacionService.EntidadImportacion.CERTIFICACIONES,
+                ImportacionService.FormatoImportacion.NDJSON, entrada(certificaciones));
+
+        assertThat(resultado.getErrores()).isEmpty();
+        assertThat(resultado.getFilasImportadas()).isEqualTo(3);
+        List<Certificacion> importadas = certificacionService.obtenerCertificacionesPorUsuario(enShard1.getId());
+        assertThat(importadas).hasSize(2)
+                .allSatisfy(certificacion -> assertThat(ShardKeys.shardOf(certificacion.getId())).isEqualTo(1));
+        assertThat(certificacionRepository.findByUsuario(enShard0)).hasSize(1);
+        assertThat(resumenUsuarioService.obtenerResumen(enShard1.getId()).getPorEstado())
+                .containsEntry(Certificacion.Status.PENDING.name(), 2L);
+
+        String documento = "{\"certificacionId\":" + importadas.get(0).getId() + ",\"nombre\":\"documento.pdf\","
+                + "\"tipo\":\"application/pdf\",\"url\":\"documento.pdf\",\"tamano\":10}\n";
+        resultado = importacionService.importar(ImportacionService.EntidadImportacion.DOCUMENTOS,
+                ImportacionService.FormatoImportacion.NDJSON, entrada(documento));
+
+        assertThat(resultado.getErrores()).isEmpty();
+        assertThat(documentoService.obtenerDocumentosPorCertificacion(importadas.get(0).getId()))
+                .singleElement().satisfies(guardado -> assertThat(ShardKeys.shardOf(guardado.getId())).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("La sincronización de administración reúne los cambios de todos los shards en orden de cursor")
+    void obtenerCambios_VariosShards_DevuelveLosCambiosDeTodos() {
+        List<Long> creadas = new ArrayList<>();
+        for (int shard = 2; shard >= 0; shard--) {
+            creadas.add(certificacionService.crearCertificacion(solicitud(usuarios.get(shard))).getId());
+        }
+        Long conDocumento = creadas.get(0);
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacionService.obtenerCertificacionPorId(conDocumento));
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(10L);
+        documentoService.guardarDocumento(documento);
+
+        CambiosCertificacionesDTO primera = sincronizacionService.obtenerCambios(null, null, 2);
+        CambiosCertificacionesDTO segunda = sincronizacionService.obtenerCambios(null, primera.getCursor(), 2);
+
+        assertThat(primera.isHayMas()).isTrue();
+        assertThat(segunda.isHayMas()).isFalse();
+        List<CertificacionResponseDTO> modificadas = new ArrayList<>(primera.getModificadas());
+        modificadas.addAll(segunda.getModificadas());
+        // La subida del documento actualiza su certificación, que pasa a ser la última modificada
+        assertThat(modificadas).extracting(CertificacionResponseDTO::getId)
+                .containsExactly(creadas.get(1), creadas.get(2), conDocumento);
+        assertThat(modificadas.get(2).getDocumentos()).extracting(DocumentoResponseDTO::getNombre)
+                .containsExactly("documento.pdf");
+
+        String cursor = segunda.getCursor();
+        Usuario usuario = usuarios.get(1);
+        certificacionService.eliminarCertificacion(creadas.get(1));
+
+        CambiosCertificacionesDTO cambios = sincronizacionService.obtenerCambios(usuario.getId(), cursor, 10);
+
+        assertThat(cambios.getModificadas()).isEmpty();
+        assertThat(cambios.getEliminadas()).extracting(CambiosCertificacionesDTO.EliminadaDTO::getCertificacionId)
+                .containsExactly(creadas.get(1));
+    }
+
+    @Test
+    @DisplayName("La purga de un usuario de otro shard borra sus certificaciones y registra el progreso en el shard 0")
+    void solicitarPurga_UsuarioDeOtroShard_RegistraElProgreso() throws InterruptedException {
+        Usuario usuario = usuarios.get(1);
+        certificacionService.crearCertificacion(solicitud(usuario));
+        certificacionService.crearCertificacion(solicitud(usuario));
+
+        purgaUsuarioService.solicitarPurga(usuario.getId());
+        long limite = System.currentTimeMillis() + 10_000;
+        PurgaUsuarioDTO purga = purgaUsuarioService.obtenerPurga(usuario.getId());
+        while (purga.getEstado().equals("PENDIENTE") || purga.getEstado().equals("EN_CURSO")) {
+            assertThat(System.currentTimeMillis()).as("timeout esperando la purga").isLessThan(limite);
+            Thread.sleep(20);
+            purga = purgaUsuarioService.obtenerPurga(usuario.getId());
+        }
+
+        assertThat(purga.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(purga.getCertificacionesEliminadas()).isEqualTo(2);
+        assertThat(new JdbcTemplate(shards.shard(1)).queryForObject(
+                "SELECT COUNT(*) FROM certificaciones", Integer.class)).isZero();
+        assertThat(usuarioRepository.existsById(usuario.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("El archivado mueve las certificaciones cerradas al archivo de su propio shard")
+    void archivar_CertificacionDeOtroShard_ArchivaEnSuShard() {
+        Long cerrada = certificacionService.crearCertificacion(solicitud(usuarios.get(1))).getId();
+        Long pendiente = certificacionService.crearCertificacion(solicitud(usuarios.get(2))).getId();
+        Documento documento = new Documento();
+        documento.setCertificacion(certificacionService.obtenerCertificacionPorId(cerrada));
+        documento.setNombre("documento.pdf");
+        documento.setTipo("application/pdf");
+        documento.setUrl("documento.pdf");
+        documento.setTamano(10L);
+        documentoService.guardarDocumento(documento);
+        certificacionService.actualizarEstadoCertificacion(cerrada, Certificacion.Status.REJECTED);
+
+        Object archivo = AopTestUtils.getTargetObject(archivoService);
+        ReflectionTestUtils.setField(archivo, "antiguedadMinima", Duration.ZERO);
+        try {
+            assertThat(archivoService.archivar()).isEqualTo(1);
+        } finally {
+            ReflectionTestUtils.setField(archivo, "antiguedadMinima", Duration.ofDays(180));
+        }
+
+        assertThat(filas(1, "certificaciones", cerrada)).isZero();
+        assertThat(filas(1, "certificaciones_archivo", cerrada)).isEqualTo(1);
+        assertThat(filas(2, "certificaciones", pendiente)).isEqualTo(1);
+        Certificacion archivada = certificacionService.obtenerCertificacionPorId(cerrada);
+        assertThat(archivada.isArchivada()).isTrue();
+        assertThat(archivada.getDocumentos()).extracting(Documento::getNombre).containsExactly("documento.pdf");
+
+        // Una escritura la devuelve a la tabla activa de su shard
+        certificacionService.actualizarEstadoCertificacion(cerrada, Certificacion.Status.PENDING);
+
+        assertThat(filas(1, "certificaciones", cerrada)).isEqualTo(1);
+        assertThat(filas(1, "certificaciones_archivo", cerrada)).isZero();
+    }
+
+    @Test
+    @DisplayName("Aprobar una certificación de otro shard emite su certificado en el shard 0 tras el commit")
+    void actualizarEstado_AprobadaEnOtroShard_EmiteCertificadoEnShard0() {
+        Long aprobada = certificacionService.crearCertificacion(solicitud(usuarios.get(1))).getId();
+
+        certificacionService.actualizarEstadoCertificacion(aprobada, Certificacion.Status.APPROVED);
+
+        assertThat(new JdbcTemplate(shards.shard(0)).queryForObject(
+                "SELECT COUNT(*) FROM certificados WHERE certificacion_id = ? AND revocado = FALSE",
+                Integer.class, aprobada)).isEqualTo(1);
+        assertThat(pendientes(1)).isZero();
+        assertThat(resumenUsuarioService.obtenerResumen(usuarios.get(1).getId()).getPorEstado())
+                .containsEntry(Certificacion.Status.APPROVED.name(), 1L);
+
+        certificacionService.actualizarEstadoCertificacion(aprobada, Certificacion.Status.REJECTED);
+
+        assertThat(new JdbcTemplate(shards.shard(0)).queryForObject(
+                "SELECT COUNT(*) FROM certificados WHERE certificacion_id = ? AND revocado = FALSE",
+                Integer.class, aprobada)).isZero();
+    }
+
+    @Test
+    @DisplayName("Una escritura en el shard 0 que falla sigue en la cola del shard de origen hasta entregarse")
+    void runOnPrimary_EntregaFallida_SeReintentaHastaEntregarse() {
+        AtomicInteger fallos = new AtomicInteger(1);
+        List<Long> entregadas = new CopyOnWriteArrayList<>();
+        String tarea = "prueba.reintento";
+        shardTransactions.register(tarea, Long.class, valor -> {
+            if (fallos.getAndDecrement() > 0) {
+                throw new IllegalStateException("fallo simulado");
+            }
+            entregadas.add(valor);
+        });
+
+        ShardContext.callInShard(1, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            shardTransactions.runOnPrimary(tarea, 7L);
+            return null;
+        }));
+
+        // La entrega tras el commit falló: la tarea queda en el shard 1 con el intento anotado
+        assertThat(entregadas).isEmpty();
+        assertThat(pendientes(1)).isEqualTo(1);
+        assertThat(new JdbcTemplate(shards.shard(1)).queryForObject(
+                "SELECT intentos FROM tareas_pendientes", Integer.class)).isEqualTo(1);
+
+        assertThat(shardOutbox.drain(1)).isEqualTo(1);
+
+        assertThat(entregadas).containsExactly(7L);
+        assertThat(pendientes(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Una escritura encolada en una transacción que se revierte no se entrega")
+    void runOnPrimary_TransaccionRevertida_DescartaLaTarea() {
+        List<Long> entregadas = new CopyOnWriteArrayList<>();
+        String tarea = "prueba.revertida";
+        shardTransactions.register(tarea, Long.class, entregadas::add);
+
+        ShardContext.callInShard(2, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            shardTransactions.runOnPrimary(tarea, 7L);
+            status.setRollbackOnly();
+            return null;
+        }));
+
+        assertThat(pendientes(2)).isZero();
+        assertThat(shardOutbox.drain(2)).isZero();
+        assertThat(entregadas).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La exportación recorre todos los shards en orden de id")
+    void exportar_VariosShards_ExportaTodasEnOrdenDeId() throws IOException {
+        List<Long> creadas = new ArrayList<>();
+        for (int shard = 2; shard >= 0; shard--) {
+            creadas.add(certificacionRepository.save(nueva(usuarios.get(shard))).getId());
+        }
+        creadas.sort(null);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportService.exportar(CertificacionExportService.FormatoExportacion.NDJSON, salida);
+
+        List<Long> exportadas = salida.toString(StandardCharsets.UTF_8).lines()
+                .map(linea -> Long.valueOf(linea.replaceFirst("^\\{\"id\":(\\d+),.*$", "$1")))
+                .toList();
+        assertThat(exportadas).containsExactlyElementsOf(creadas);
+    }
+
+    @Test
+    @DisplayName("Los vencimientos de todos los shards se reúnen en orden de fecha de vencimiento")
+    void findVencimientosHasta_VariosShards_UneEnOrdenDeVencimiento() {
+        LocalDateTime ahora = LocalDateTime.now().withNano(0);
+        List<Long> porVencimiento = new ArrayList<>();
+        // Vencen en orden inverso al de los shards, y por tanto al de los ids
+        for (int shard = 2; shard >= 0; shard--) {
+            Certificacion certificacion = nueva(usuarios.get(shard));
+            certificacion.setStatus(Certificacion.Status.APPROVED);
+            certificacion.setFechaVencimiento(ahora.plusMinutes(2 - shard));
+            porVencimiento.add(certificacionRepository.save(certificacion).getId());
+        }
+
+        List<CertificacionRepository.Vencimiento> primera = certificacionRepository.findVencimientosHasta(
+                Certificacion.Status.APPROVED, ahora.plusHours(1), LocalDateTime.of(1970, 1, 1, 0, 0), 0L,
+                PageRequest.ofSize(2));
+
+        assertThat(primera).extracting(CertificacionRepository.Vencimiento::getId)
+                .containsExactlyElementsOf(porVencimiento.subList(0, 2));
+    }
+
+    private Certificacion solicitud(Usuario usuario) {
+        Usuario propietario = new Usuario();
+        propietario.setId(usuario.getId());
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(propietario);
+        certificacion.setTipo("PROFESIONAL");
+        return certificacion;
+    }
+
+    private Certificacion nueva(Usuario usuario) {
+        Certificacion certificacion = new Certificacion();
+        certificacion.setUsuario(usuario);
+        certificacion.setTipo(catalogoTipos.resolver("PROFESIONAL"));
+        return certificacion;
+    }
+
+    private static ByteArrayInputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int filas(int shard, String tabla, Long id) {
+        return new JdbcTemplate(shards.shard(shard)).queryForObject(
+                "SELECT COUNT(*) FROM " + tabla + " WHERE id = ?", Integer.class, id);
+    }
+
+    private int pendientes(int shard) {
+        return new JdbcTemplate(shards.shard(shard)).queryForObject("SELECT COUNT(*) FROM tareas_pendientes", Integer.class);
+    }
+}